@@ -0,0 +1,110 @@
+package com.github.svegon.utils.collections;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reference queue whose references can be taken off by a background cleaner as soon as they're
+ * enqueued and buffered until they're polled.
+ *
+ * Polling a plain reference queue contends with the reference handler enqueuing the references
+ * cleared by a collection and there is no way to tell how many references are waiting in it.
+ * A cleaner moves them to a lock-free buffer instead, so {@link #poll()} never waits and
+ * {@link #getPendingCount()} counts the buffered references.
+ */
+public final class StaleReferenceQueue<T> extends ReferenceQueue<T> {
+    /**
+     * How long the cleaner waits for a reference before checking whether it should still run.
+     */
+    private static final long CLEANER_TIMEOUT = 1000;
+
+    private final Queue<Reference<? extends T>> transferred = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile Thread cleaner;
+
+    /**
+     * Takes a buffered reference or polls the queue itself if there is none.
+     */
+    @Override
+    public Reference<? extends T> poll() {
+        Reference<? extends T> ref = transferred.poll();
+
+        if (ref != null) {
+            pending.decrementAndGet();
+            return ref;
+        }
+
+        return super.poll();
+    }
+
+    /**
+     * @return the number of references taken off the queue by the cleaner and not polled yet,
+     * always 0 without a cleaner
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public boolean isCleaning() {
+        return cleaner != null;
+    }
+
+    /**
+     * Starts a cleaner thread, which stops once the owner of this queue is collected or when
+     * {@link #stopCleaner()} is called.
+     *
+     * @param owner the object polling this queue, only weakly referenced by the cleaner
+     * @throws IllegalStateException if a cleaner is already running
+     */
+    public synchronized void startCleaner(Object owner, ThreadFactory threadFactory) {
+        if (cleaner != null) {
+            throw new IllegalStateException("the cleaner is already running");
+        }
+
+        WeakReference<Object> ownerReference = new WeakReference<>(owner);
+        Thread thread = threadFactory.newThread(() -> transferLoop(ownerReference));
+
+        cleaner = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the cleaner if it's running, the references it has already buffered stay polled first.
+     */
+    public synchronized void stopCleaner() {
+        Thread thread = cleaner;
+
+        if (thread != null) {
+            cleaner = null;
+            thread.interrupt();
+        }
+    }
+
+    private void transferLoop(WeakReference<Object> owner) {
+        Thread self = Thread.currentThread();
+
+        try {
+            while (cleaner == self && !owner.refersTo(null)) {
+                Reference<? extends T> ref = remove(CLEANER_TIMEOUT);
+
+                if (ref != null) {
+                    pending.incrementAndGet();
+                    transferred.offer(ref);
+                }
+            }
+        } catch (InterruptedException stopped) {
+            // stopCleaner has been called
+        } finally {
+            synchronized (this) {
+                if (cleaner == self) {
+                    cleaner = null;
+                }
+            }
+        }
+    }
+}
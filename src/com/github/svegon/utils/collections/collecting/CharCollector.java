@@ -70,7 +70,8 @@ public interface CharCollector<A, R> {
                                          Collection<Collector.Characteristics> characteristics) {
         return new CharCollectorImpl<>(Preconditions.checkNotNull(supplier), Preconditions.checkNotNull(accumulator),
                 Preconditions.checkNotNull(combiner), Preconditions.checkNotNull(finisher),
-                ImmutableEnumSet.of(characteristics));
+                characteristics.isEmpty() ? ImmutableEnumSet.of(Collector.Characteristics.class)
+                        : ImmutableEnumSet.of(characteristics));
     }
 
     static <A, R> CharCollector<A, R> of(Supplier<A> supplier, ObjectCharConsumer<A> accumulator,
@@ -78,7 +79,8 @@ public interface CharCollector<A, R> {
                                          Collector.Characteristics... characteristics) {
         return new CharCollectorImpl<>(Preconditions.checkNotNull(supplier), Preconditions.checkNotNull(accumulator),
                 Preconditions.checkNotNull(combiner), Preconditions.checkNotNull(finisher),
-                ImmutableEnumSet.of(characteristics));
+                characteristics.length == 0 ? ImmutableEnumSet.of(Collector.Characteristics.class)
+                        : ImmutableEnumSet.of(characteristics));
     }
 
     final class CharCollectorImpl<A, R> implements CharCollector<A, R> {
@@ -11,6 +11,12 @@ import it.unimi.dsi.fastutil.chars.CharLists;
 import com.github.svegon.utils.fast.util.booleans.BooleanSummaryStatistics;
 import com.github.svegon.utils.fast.util.bytes.ByteSummaryStatistics;
 import com.github.svegon.utils.fast.util.chars.ImmutableCharList;
+import com.github.svegon.utils.fast.util.chars.SketchingCharSummaryStatistics;
+import com.github.svegon.utils.fast.util.bytes.SketchingByteSummaryStatistics;
+import com.github.svegon.utils.fast.util.floats.SketchingFloatSummaryStatistics;
+import com.github.svegon.utils.fast.util.shorts.SketchingShortSummaryStatistics;
+import com.github.svegon.utils.interfaces.function.Object2CharFunction;
+import com.github.svegon.utils.math.QuantileSketch;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -103,6 +109,86 @@ public final class CollectingUtil {
                 (l, r) -> { l.combine(r); return l; }, CH_ID.toArray(Collector.Characteristics[]::new));
     }
 
+    /**
+     * Returns a {@code Collector} which applies an {@code byte}-producing
+     * mapping function to each input element, and returns summary statistics
+     * for the resulting values, including a quantile sketch of them. The
+     * sketches of the parts of a parallel stream are merged, the values
+     * themselves aren't collected.
+     *
+     * @param <T> the type of the input elements
+     * @param <S> the type of the sketch
+     * @param mapper the mapping function to apply to each element
+     * @param sketchFactory the supplier of the empty sketches, e.g. {@code TDigest::new}
+     * @return a {@code Collector} implementing the summary-statistics reduction
+     */
+    public static <T, S extends QuantileSketch<S>> Collector<T, ?, SketchingByteSummaryStatistics<S>> summarizingByte(
+            final Object2ByteFunction<T> mapper, final Supplier<S> sketchFactory) {
+        return Collector.of(() -> new SketchingByteSummaryStatistics<>(sketchFactory.get()),
+                (r, t) -> r.accept(mapper.applyToByte(t)), (l, r) -> { l.combine(r); return l; },
+                CH_ID.toArray(Collector.Characteristics[]::new));
+    }
+
+    /**
+     * Returns a {@code Collector} which applies an {@code short}-producing
+     * mapping function to each input element, and returns summary statistics
+     * for the resulting values, including a quantile sketch of them. The
+     * sketches of the parts of a parallel stream are merged, the values
+     * themselves aren't collected.
+     *
+     * @param <T> the type of the input elements
+     * @param <S> the type of the sketch
+     * @param mapper the mapping function to apply to each element
+     * @param sketchFactory the supplier of the empty sketches, e.g. {@code TDigest::new}
+     * @return a {@code Collector} implementing the summary-statistics reduction
+     */
+    public static <T, S extends QuantileSketch<S>> Collector<T, ?, SketchingShortSummaryStatistics<S>> summarizingShort(
+            final Object2ShortFunction<T> mapper, final Supplier<S> sketchFactory) {
+        return Collector.of(() -> new SketchingShortSummaryStatistics<>(sketchFactory.get()),
+                (r, t) -> r.accept(mapper.applyToShort(t)), (l, r) -> { l.combine(r); return l; },
+                CH_ID.toArray(Collector.Characteristics[]::new));
+    }
+
+    /**
+     * Returns a {@code Collector} which applies an {@code char}-producing
+     * mapping function to each input element, and returns summary statistics
+     * for the resulting values, including a quantile sketch of them. The
+     * sketches of the parts of a parallel stream are merged, the values
+     * themselves aren't collected.
+     *
+     * @param <T> the type of the input elements
+     * @param <S> the type of the sketch
+     * @param mapper the mapping function to apply to each element
+     * @param sketchFactory the supplier of the empty sketches, e.g. {@code TDigest::new}
+     * @return a {@code Collector} implementing the summary-statistics reduction
+     */
+    public static <T, S extends QuantileSketch<S>> Collector<T, ?, SketchingCharSummaryStatistics<S>> summarizingChar(
+            final Object2CharFunction<T> mapper, final Supplier<S> sketchFactory) {
+        return Collector.of(() -> new SketchingCharSummaryStatistics<>(sketchFactory.get()),
+                (r, t) -> r.accept(mapper.applyToChar(t)), (l, r) -> { l.combine(r); return l; },
+                CH_ID.toArray(Collector.Characteristics[]::new));
+    }
+
+    /**
+     * Returns a {@code Collector} which applies an {@code float}-producing
+     * mapping function to each input element, and returns summary statistics
+     * for the resulting values, including a quantile sketch of them. The
+     * sketches of the parts of a parallel stream are merged, the values
+     * themselves aren't collected.
+     *
+     * @param <T> the type of the input elements
+     * @param <S> the type of the sketch
+     * @param mapper the mapping function to apply to each element
+     * @param sketchFactory the supplier of the empty sketches, e.g. {@code TDigest::new}
+     * @return a {@code Collector} implementing the summary-statistics reduction
+     */
+    public static <T, S extends QuantileSketch<S>> Collector<T, ?, SketchingFloatSummaryStatistics<S>> summarizingFloat(
+            final Object2FloatFunction<T> mapper, final Supplier<S> sketchFactory) {
+        return Collector.of(() -> new SketchingFloatSummaryStatistics<>(sketchFactory.get()),
+                (r, t) -> r.accept(mapper.applyToFloat(t)), (l, r) -> { l.combine(r); return l; },
+                CH_ID.toArray(Collector.Characteristics[]::new));
+    }
+
     @SuppressWarnings("unchecked")
     public static <E, C extends Collection<E>> BinaryOperator<C> collectionCombiner() {
         return (BinaryOperator<C>) COLLECTION_COMBINER;
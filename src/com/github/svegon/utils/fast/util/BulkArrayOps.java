@@ -0,0 +1,47 @@
+package com.github.svegon.utils.fast.util;
+
+/**
+ * The implementations of {@link BulkArrayUtil}, which checks the arguments. The Vector API one lives in the
+ * {@code vector} source root, compiled with {@code --add-modules jdk.incubator.vector}.
+ */
+interface BulkArrayOps {
+    long sum(int[] a, int from, int to);
+
+    int min(int[] a, int from, int to);
+
+    int max(int[] a, int from, int to);
+
+    int indexOf(int[] a, int from, int to, int k);
+
+    int lastIndexOf(int[] a, int from, int to, int k);
+
+    long sum(long[] a, int from, int to);
+
+    long min(long[] a, int from, int to);
+
+    long max(long[] a, int from, int to);
+
+    int indexOf(long[] a, int from, int to, long k);
+
+    int lastIndexOf(long[] a, int from, int to, long k);
+
+    double sum(float[] a, int from, int to);
+
+    float min(float[] a, int from, int to);
+
+    float max(float[] a, int from, int to);
+
+    int indexOf(float[] a, int from, int to, float k);
+
+    int lastIndexOf(float[] a, int from, int to, float k);
+
+    double sum(double[] a, int from, int to);
+
+    double min(double[] a, int from, int to);
+
+    double max(double[] a, int from, int to);
+
+    int indexOf(double[] a, int from, int to, double k);
+
+    int lastIndexOf(double[] a, int from, int to, double k);
+}
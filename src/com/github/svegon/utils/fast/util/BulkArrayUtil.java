@@ -0,0 +1,273 @@
+package com.github.svegon.utils.fast.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Reductions and searches over ranges of primitive arrays. When the {@code jdk.incubator.vector} module is
+ * present, added by {@code --add-modules jdk.incubator.vector}, and the {@code VectorArrayOps} of the vector
+ * source root is on the class path, they run on the widest vectors of the processor, otherwise they fall back to
+ * loops unrolled into four independent chains.
+ */
+public final class BulkArrayUtil {
+    private BulkArrayUtil() {
+        throw new AssertionError();
+    }
+
+    private static final String VECTOR_OPS = "com.github.svegon.utils.fast.util.VectorArrayOps";
+
+    private static final BulkArrayOps OPS = loadOps();
+
+    /**
+     * The Vector API implementation is only referenced by name, so this class and the lists using it neither
+     * need the incubator module to compile nor load its classes when it's missing.
+     */
+    private static BulkArrayOps loadOps() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return Class.forName(VECTOR_OPS).asSubclass(BulkArrayOps.class).getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError ignored) {
+                // not on the class path
+            }
+        }
+
+        return new ScalarArrayOps();
+    }
+
+    /**
+     * @return whether the methods of this class run on the Vector API
+     */
+    public static boolean isVectorized() {
+        return !(OPS instanceof ScalarArrayOps);
+    }
+
+    /**
+     * @return the sum of the elements of the array between the given indices
+     */
+    public static long sum(int[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.sum(a, from, to);
+    }
+
+    /**
+     * @return the least element of the array between the given indices
+     * @throws NoSuchElementException if the indices are equal
+     */
+    public static int min(int[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+
+        return OPS.min(a, from, to);
+    }
+
+    /**
+     * @return the greatest element of the array between the given indices
+     * @throws NoSuchElementException if the indices are equal
+     */
+    public static int max(int[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+
+        return OPS.max(a, from, to);
+    }
+
+    /**
+     * @return the index of the first element of the array between the given indices equal to the given value
+     * or -1 if there is none
+     */
+    public static int indexOf(int[] a, int from, int to, int k) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.indexOf(a, from, to, k);
+    }
+
+    /**
+     * @return the index of the last element of the array between the given indices equal to the given value
+     * or -1 if there is none
+     */
+    public static int lastIndexOf(int[] a, int from, int to, int k) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.lastIndexOf(a, from, to, k);
+    }
+
+    /**
+     * @return the sum of the elements of the array between the given indices
+     */
+    public static long sum(long[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.sum(a, from, to);
+    }
+
+    /**
+     * @return the least element of the array between the given indices
+     * @throws NoSuchElementException if the indices are equal
+     */
+    public static long min(long[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+
+        return OPS.min(a, from, to);
+    }
+
+    /**
+     * @return the greatest element of the array between the given indices
+     * @throws NoSuchElementException if the indices are equal
+     */
+    public static long max(long[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+
+        return OPS.max(a, from, to);
+    }
+
+    /**
+     * @return the index of the first element of the array between the given indices equal to the given value
+     * or -1 if there is none
+     */
+    public static int indexOf(long[] a, int from, int to, long k) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.indexOf(a, from, to, k);
+    }
+
+    /**
+     * @return the index of the last element of the array between the given indices equal to the given value
+     * or -1 if there is none
+     */
+    public static int lastIndexOf(long[] a, int from, int to, long k) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.lastIndexOf(a, from, to, k);
+    }
+
+    /**
+     * @return the sum of the elements of the array between the given indices, added in an unspecified order
+     */
+    public static double sum(float[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.sum(a, from, to);
+    }
+
+    /**
+     * @return the least element of the array between the given indices, as {@link Math#min} orders them
+     * @throws NoSuchElementException if the indices are equal
+     */
+    public static float min(float[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+
+        return OPS.min(a, from, to);
+    }
+
+    /**
+     * @return the greatest element of the array between the given indices, as {@link Math#max} orders them
+     * @throws NoSuchElementException if the indices are equal
+     */
+    public static float max(float[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+
+        return OPS.max(a, from, to);
+    }
+
+    /**
+     * @return the index of the first element of the array between the given indices equal to the given value
+     * or -1 if there is none
+     */
+    public static int indexOf(float[] a, int from, int to, float k) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.indexOf(a, from, to, k);
+    }
+
+    /**
+     * @return the index of the last element of the array between the given indices equal to the given value
+     * or -1 if there is none
+     */
+    public static int lastIndexOf(float[] a, int from, int to, float k) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.lastIndexOf(a, from, to, k);
+    }
+
+    /**
+     * @return the sum of the elements of the array between the given indices, added in an unspecified order
+     */
+    public static double sum(double[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.sum(a, from, to);
+    }
+
+    /**
+     * @return the least element of the array between the given indices, as {@link Math#min} orders them
+     * @throws NoSuchElementException if the indices are equal
+     */
+    public static double min(double[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+
+        return OPS.min(a, from, to);
+    }
+
+    /**
+     * @return the greatest element of the array between the given indices, as {@link Math#max} orders them
+     * @throws NoSuchElementException if the indices are equal
+     */
+    public static double max(double[] a, int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        if (from == to) {
+            throw new NoSuchElementException();
+        }
+
+        return OPS.max(a, from, to);
+    }
+
+    /**
+     * @return the index of the first element of the array between the given indices equal to the given value
+     * or -1 if there is none
+     */
+    public static int indexOf(double[] a, int from, int to, double k) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.indexOf(a, from, to, k);
+    }
+
+    /**
+     * @return the index of the last element of the array between the given indices equal to the given value
+     * or -1 if there is none
+     */
+    public static int lastIndexOf(double[] a, int from, int to, double k) {
+        Preconditions.checkPositionIndexes(from, to, a.length);
+
+        return OPS.lastIndexOf(a, from, to, k);
+    }
+}
@@ -0,0 +1,423 @@
+package com.github.svegon.utils.fast.util;
+
+/**
+ * The loops of {@link BulkArrayUtil} without the Vector API, unrolled into four independent chains so that
+ * consecutive iterations don't wait on each other.
+ */
+final class ScalarArrayOps implements BulkArrayOps {
+    @Override
+    public long sum(int[] a, int from, int to) {
+        long s0 = 0;
+        long s1 = 0;
+        long s2 = 0;
+        long s3 = 0;
+        int i = from;
+
+        for (; i <= to - 4; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+
+        for (; i < to; i++) {
+            s0 += a[i];
+        }
+
+        return s0 + s1 + s2 + s3;
+    }
+
+    @Override
+    public int min(int[] a, int from, int to) {
+        int m0 = a[from];
+        int m1 = m0;
+        int m2 = m0;
+        int m3 = m0;
+        int i = from + 1;
+
+        for (; i <= to - 4; i += 4) {
+            m0 = Math.min(m0, a[i]);
+            m1 = Math.min(m1, a[i + 1]);
+            m2 = Math.min(m2, a[i + 2]);
+            m3 = Math.min(m3, a[i + 3]);
+        }
+
+        for (; i < to; i++) {
+            m0 = Math.min(m0, a[i]);
+        }
+
+        return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    @Override
+    public int max(int[] a, int from, int to) {
+        int m0 = a[from];
+        int m1 = m0;
+        int m2 = m0;
+        int m3 = m0;
+        int i = from + 1;
+
+        for (; i <= to - 4; i += 4) {
+            m0 = Math.max(m0, a[i]);
+            m1 = Math.max(m1, a[i + 1]);
+            m2 = Math.max(m2, a[i + 2]);
+            m3 = Math.max(m3, a[i + 3]);
+        }
+
+        for (; i < to; i++) {
+            m0 = Math.max(m0, a[i]);
+        }
+
+        return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    @Override
+    public int indexOf(int[] a, int from, int to, int k) {
+        int i = from;
+
+        for (; i <= to - 4; i += 4) {
+            if (a[i] == k | a[i + 1] == k | a[i + 2] == k | a[i + 3] == k) {
+                break;
+            }
+        }
+
+        for (; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(int[] a, int from, int to, int k) {
+        int i = to;
+
+        for (; i >= from + 4; i -= 4) {
+            if (a[i - 1] == k | a[i - 2] == k | a[i - 3] == k | a[i - 4] == k) {
+                break;
+            }
+        }
+
+        while (i-- != from) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long sum(long[] a, int from, int to) {
+        long s0 = 0;
+        long s1 = 0;
+        long s2 = 0;
+        long s3 = 0;
+        int i = from;
+
+        for (; i <= to - 4; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+
+        for (; i < to; i++) {
+            s0 += a[i];
+        }
+
+        return s0 + s1 + s2 + s3;
+    }
+
+    @Override
+    public long min(long[] a, int from, int to) {
+        long m0 = a[from];
+        long m1 = m0;
+        long m2 = m0;
+        long m3 = m0;
+        int i = from + 1;
+
+        for (; i <= to - 4; i += 4) {
+            m0 = Math.min(m0, a[i]);
+            m1 = Math.min(m1, a[i + 1]);
+            m2 = Math.min(m2, a[i + 2]);
+            m3 = Math.min(m3, a[i + 3]);
+        }
+
+        for (; i < to; i++) {
+            m0 = Math.min(m0, a[i]);
+        }
+
+        return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    @Override
+    public long max(long[] a, int from, int to) {
+        long m0 = a[from];
+        long m1 = m0;
+        long m2 = m0;
+        long m3 = m0;
+        int i = from + 1;
+
+        for (; i <= to - 4; i += 4) {
+            m0 = Math.max(m0, a[i]);
+            m1 = Math.max(m1, a[i + 1]);
+            m2 = Math.max(m2, a[i + 2]);
+            m3 = Math.max(m3, a[i + 3]);
+        }
+
+        for (; i < to; i++) {
+            m0 = Math.max(m0, a[i]);
+        }
+
+        return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    @Override
+    public int indexOf(long[] a, int from, int to, long k) {
+        int i = from;
+
+        for (; i <= to - 4; i += 4) {
+            if (a[i] == k | a[i + 1] == k | a[i + 2] == k | a[i + 3] == k) {
+                break;
+            }
+        }
+
+        for (; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(long[] a, int from, int to, long k) {
+        int i = to;
+
+        for (; i >= from + 4; i -= 4) {
+            if (a[i - 1] == k | a[i - 2] == k | a[i - 3] == k | a[i - 4] == k) {
+                break;
+            }
+        }
+
+        while (i-- != from) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public double sum(float[] a, int from, int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = from;
+
+        for (; i <= to - 4; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+
+        for (; i < to; i++) {
+            s0 += a[i];
+        }
+
+        return s0 + s1 + s2 + s3;
+    }
+
+    @Override
+    public float min(float[] a, int from, int to) {
+        float m0 = a[from];
+        float m1 = m0;
+        float m2 = m0;
+        float m3 = m0;
+        int i = from + 1;
+
+        for (; i <= to - 4; i += 4) {
+            m0 = Math.min(m0, a[i]);
+            m1 = Math.min(m1, a[i + 1]);
+            m2 = Math.min(m2, a[i + 2]);
+            m3 = Math.min(m3, a[i + 3]);
+        }
+
+        for (; i < to; i++) {
+            m0 = Math.min(m0, a[i]);
+        }
+
+        return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    @Override
+    public float max(float[] a, int from, int to) {
+        float m0 = a[from];
+        float m1 = m0;
+        float m2 = m0;
+        float m3 = m0;
+        int i = from + 1;
+
+        for (; i <= to - 4; i += 4) {
+            m0 = Math.max(m0, a[i]);
+            m1 = Math.max(m1, a[i + 1]);
+            m2 = Math.max(m2, a[i + 2]);
+            m3 = Math.max(m3, a[i + 3]);
+        }
+
+        for (; i < to; i++) {
+            m0 = Math.max(m0, a[i]);
+        }
+
+        return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    @Override
+    public int indexOf(float[] a, int from, int to, float k) {
+        int i = from;
+
+        for (; i <= to - 4; i += 4) {
+            if (a[i] == k | a[i + 1] == k | a[i + 2] == k | a[i + 3] == k) {
+                break;
+            }
+        }
+
+        for (; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(float[] a, int from, int to, float k) {
+        int i = to;
+
+        for (; i >= from + 4; i -= 4) {
+            if (a[i - 1] == k | a[i - 2] == k | a[i - 3] == k | a[i - 4] == k) {
+                break;
+            }
+        }
+
+        while (i-- != from) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public double sum(double[] a, int from, int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = from;
+
+        for (; i <= to - 4; i += 4) {
+            s0 += a[i];
+            s1 += a[i + 1];
+            s2 += a[i + 2];
+            s3 += a[i + 3];
+        }
+
+        for (; i < to; i++) {
+            s0 += a[i];
+        }
+
+        return s0 + s1 + s2 + s3;
+    }
+
+    @Override
+    public double min(double[] a, int from, int to) {
+        double m0 = a[from];
+        double m1 = m0;
+        double m2 = m0;
+        double m3 = m0;
+        int i = from + 1;
+
+        for (; i <= to - 4; i += 4) {
+            m0 = Math.min(m0, a[i]);
+            m1 = Math.min(m1, a[i + 1]);
+            m2 = Math.min(m2, a[i + 2]);
+            m3 = Math.min(m3, a[i + 3]);
+        }
+
+        for (; i < to; i++) {
+            m0 = Math.min(m0, a[i]);
+        }
+
+        return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    @Override
+    public double max(double[] a, int from, int to) {
+        double m0 = a[from];
+        double m1 = m0;
+        double m2 = m0;
+        double m3 = m0;
+        int i = from + 1;
+
+        for (; i <= to - 4; i += 4) {
+            m0 = Math.max(m0, a[i]);
+            m1 = Math.max(m1, a[i + 1]);
+            m2 = Math.max(m2, a[i + 2]);
+            m3 = Math.max(m3, a[i + 3]);
+        }
+
+        for (; i < to; i++) {
+            m0 = Math.max(m0, a[i]);
+        }
+
+        return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    @Override
+    public int indexOf(double[] a, int from, int to, double k) {
+        int i = from;
+
+        for (; i <= to - 4; i += 4) {
+            if (a[i] == k | a[i + 1] == k | a[i + 2] == k | a[i + 3] == k) {
+                break;
+            }
+        }
+
+        for (; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(double[] a, int from, int to, double k) {
+        int i = to;
+
+        for (; i >= from + 4; i -= 4) {
+            if (a[i - 1] == k | a[i - 2] == k | a[i - 3] == k | a[i - 4] == k) {
+                break;
+            }
+        }
+
+        while (i-- != from) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -42,8 +42,8 @@ public class BooleanSummaryStatistics implements BooleanConsumer {
     private long sum;
     private long sumCompensation; // Low order bits of sum
     private long simpleSum; // Used to compute right sum for non-finite inputs
-    private boolean min = false;
-    private boolean max = true;
+    private boolean min = true;
+    private boolean max = false;
 
     /**
      * Constructs an empty instance with zero count, zero sum,
@@ -0,0 +1,106 @@
+package com.github.svegon.utils.fast.util.booleans;
+
+import it.unimi.dsi.fastutil.booleans.BooleanConsumer;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe counterpart of {@link BooleanSummaryStatistics} for recording from many threads at once, such as
+ * a metrics sink shared by a worker pool. The count and the number of {@code true} values are held in striped
+ * cells of a {@link LongAdder}, so concurrent updates rarely contend and never block, the minimum and maximum
+ * follow from them.
+ *
+ * The getters read their cells separately, {@link #snapshot()} returns statistics which are consistent with
+ * each other even under concurrent updates.
+ */
+@ThreadSafe
+public class ConcurrentBooleanSummaryStatistics implements BooleanConsumer {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    public ConcurrentBooleanSummaryStatistics() { }
+
+    /**
+     * Records another value into the summary information.
+     *
+     * @param value the input value
+     */
+    @Override
+    public void accept(boolean value) {
+        if (value) {
+            sum.increment();
+        }
+
+        count.increment();
+    }
+
+    /**
+     * Combines the state of a {@code BooleanSummaryStatistics} into this one, such as one collected by a single
+     * thread.
+     *
+     * @param other a {@code BooleanSummaryStatistics}
+     * @throws NullPointerException if {@code other} is null
+     */
+    public void combine(BooleanSummaryStatistics other) {
+        sum.add(other.getSum());
+        count.add(other.getCount());
+    }
+
+    /**
+     * Returns the statistics of the values recorded so far. Values recorded concurrently may be missing from
+     * them or reflected in the sum only.
+     *
+     * @return a new {@code BooleanSummaryStatistics} holding the current state
+     */
+    public BooleanSummaryStatistics snapshot() {
+        long count = this.count.sum();
+        long sum = Math.min(count, this.sum.sum());
+        return new BooleanSummaryStatistics(count, sum == count, sum > 0, sum);
+    }
+
+    /**
+     * Resets the statistics to their initial state. Values recorded concurrently may be partially reset, so
+     * this should only be called while nothing is being recorded.
+     */
+    public void reset() {
+        count.reset();
+        sum.reset();
+    }
+
+    public final long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the number of recorded {@code true} values
+     */
+    public final long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return whether all the recorded values are {@code true}, {@code true} if no values were recorded
+     */
+    public final boolean getMin() {
+        return snapshot().getMin();
+    }
+
+    /**
+     * @return whether any recorded value is {@code true}, {@code false} if no values were recorded
+     */
+    public final boolean getMax() {
+        return snapshot().getMax();
+    }
+
+    public final double getAverage() {
+        return snapshot().getAverage();
+    }
+
+    @Override
+    public String toString() {
+        BooleanSummaryStatistics snapshot = snapshot();
+        return String.format("%s{count=%d, sum=%d, min=%s, average=%f, max=%s}", getClass().getSimpleName(),
+                snapshot.getCount(), snapshot.getSum(), snapshot.getMin(), snapshot.getAverage(), snapshot.getMax());
+    }
+}
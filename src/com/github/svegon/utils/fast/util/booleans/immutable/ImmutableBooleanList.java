@@ -230,17 +230,58 @@ public abstract class ImmutableBooleanList extends ImmutableBooleanCollection im
     }
 
     public static ImmutableBooleanList of(BooleanIterator it) {
-        return copyOf(new BooleanArrayList(it));
+        return builder().addAll(it).build();
     }
 
+    /**
+     * @return the given iterable if it's already an immutable list, otherwise an immutable list of its elements
+     */
     public static ImmutableBooleanList copyOf(BooleanIterable iterable) {
-        if (iterable.getClass() == BooleanArrayList.class) {
-            boolean[] array = ((BooleanArrayList) iterable).toBooleanArray();
+        if (iterable instanceof ImmutableBooleanList list) {
+            return list;
+        }
+
+        if (iterable instanceof BooleanCollection collection) {
+            // the array is a fresh copy, so it's handed over as is
+            boolean[] array = collection.toBooleanArray();
             return array.length == 0 ? RegularImmutableBooleanList.EMPTY : new RegularImmutableBooleanList(array);
         }
 
-        return iterable instanceof BooleanCollection ? of(((BooleanCollection) iterable).toBooleanArray())
-                : of(iterable.iterator());
+        return of(iterable.iterator());
+    }
+
+    /**
+     * @return a builder handing its array over to the list it builds
+     */
+    public static Builder builder() {
+        return new Builder(BooleanArrays.EMPTY_ARRAY);
+    }
+
+    public static Builder builder(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "Illegal expected size: " + expectedSize);
+        return new Builder(expectedSize == 0 ? BooleanArrays.EMPTY_ARRAY : new boolean[expectedSize]);
+    }
+
+    /**
+     * @return a list packing the given values into the bits of long words
+     */
+    public static PackedImmutableBooleanList packed(boolean... values) {
+        return PackedImmutableBooleanList.pack(values, 0, values.length);
+    }
+
+    public static PackedImmutableBooleanList packed(boolean[] values, int offset, int length) {
+        return PackedImmutableBooleanList.pack(values, offset, length);
+    }
+
+    /**
+     * @return a packed list whose first {@code size} elements are the bits of the given set
+     */
+    public static PackedImmutableBooleanList packed(BitSet bits, int size) {
+        return PackedImmutableBooleanList.pack(bits, size);
+    }
+
+    public static PackedImmutableBooleanList packedCopyOf(BooleanIterable iterable) {
+        return PackedImmutableBooleanList.pack(iterable);
     }
 
     protected static class RandomAccessImmutableListIterator implements BooleanListIterator,
@@ -353,6 +394,75 @@ public abstract class ImmutableBooleanList extends ImmutableBooleanCollection im
         }
     }
 
+    /**
+     * A growable array of elements which {@link #build()} hands over to the built list instead of copying it.
+     * The builder starts over empty afterwards, so the built list is never modified, though it keeps the
+     * unused capacity of the array.
+     */
+    public static final class Builder {
+        private boolean[] values;
+        private int size;
+
+        private Builder(boolean[] values) {
+            this.values = values;
+        }
+
+        public Builder add(boolean k) {
+            if (size == values.length) {
+                values = BooleanArrays.grow(values, size + 1);
+            }
+
+            values[size++] = k;
+            return this;
+        }
+
+        public Builder add(boolean... values) {
+            return addAll(values, 0, values.length);
+        }
+
+        public Builder addAll(boolean[] a, int offset, int length) {
+            BooleanArrays.ensureOffsetLength(a, offset, length);
+            values = BooleanArrays.grow(values, size + length);
+            System.arraycopy(a, offset, values, size, length);
+            size += length;
+            return this;
+        }
+
+        public Builder addAll(BooleanIterator it) {
+            while (it.hasNext()) {
+                add(it.nextBoolean());
+            }
+
+            return this;
+        }
+
+        public Builder addAll(BooleanIterable iterable) {
+            if (iterable instanceof BooleanList list) {
+                int length = list.size();
+
+                values = BooleanArrays.grow(values, size + length);
+                list.getElements(0, values, size, length);
+                size += length;
+                return this;
+            }
+
+            return addAll(iterable.iterator());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ImmutableBooleanList build() {
+            ImmutableBooleanList list = size == 0 ? RegularImmutableBooleanList.EMPTY
+                    : new RegularImmutableBooleanList(values, 0, size);
+
+            values = BooleanArrays.EMPTY_ARRAY;
+            size = 0;
+            return list;
+        }
+    }
+
     protected static class SubList extends ImmutableBooleanList {
         protected final ImmutableBooleanList list;
         protected final int from;
@@ -0,0 +1,329 @@
+package com.github.svegon.utils.fast.util.booleans.immutable;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.booleans.BooleanArrays;
+import it.unimi.dsi.fastutil.booleans.BooleanIterable;
+import it.unimi.dsi.fastutil.booleans.BooleanIterator;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import net.jcip.annotations.Immutable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable boolean list packing its elements into the bits of long words, an eighth of the size
+ * of a {@link RegularImmutableBooleanList}. The element at index {@code i} is the bit {@code i % 64}
+ * of the word {@code i / 64} and the bits past the last element are always clear, so counting,
+ * searching, comparing and combining lists runs a word at a time.
+ */
+@Immutable
+public final class PackedImmutableBooleanList extends ImmutableBooleanList implements RandomAccess {
+    public static final PackedImmutableBooleanList EMPTY = new PackedImmutableBooleanList(LongArrays.EMPTY_ARRAY, 0);
+
+    /**
+     * 31 to the power of 8, the factor of the list hash per byte of elements.
+     */
+    private static final int POW31_8 = 31 * 31 * 31 * 31 * 31 * 31 * 31 * 31;
+    /**
+     * The list hash contribution of each combination of 8 elements, the first one in the lowest bit.
+     */
+    private static final int[] BYTE_HASHES = new int[1 << Byte.SIZE];
+
+    static {
+        for (int b = 0; b < BYTE_HASHES.length; b++) {
+            int h = 0;
+
+            for (int bit = 0; bit < Byte.SIZE; bit++) {
+                h = 31 * h + Boolean.hashCode((b >>> bit & 1) != 0);
+            }
+
+            BYTE_HASHES[b] = h;
+        }
+    }
+
+    final long[] words;
+    private final int size;
+    /**
+     * Computed lazily, 0 until then.
+     */
+    private int hashCode;
+    /**
+     * Built lazily, its fields are final, so it may be safely published by a race.
+     */
+    private RankSelectIndex rankSelectIndex;
+
+    PackedImmutableBooleanList(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return (words[index >>> 6] >>> index & 1) != 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void getElements(int from, boolean[] a, int offset, int length) {
+        Preconditions.checkPositionIndexes(from, from + length, size);
+        BooleanArrays.ensureOffsetLength(a, offset, length);
+
+        int end = from + length;
+
+        while (from < end) {
+            long word = words[from >>> 6] >>> from;
+            int n = Math.min(end - from, Long.SIZE - (from & 63));
+
+            for (int i = 0; i < n; i++) {
+                a[offset++] = (word & 1) != 0;
+                word >>>= 1;
+            }
+
+            from += n;
+        }
+    }
+
+    /**
+     * @return the number of elements equal to the given value
+     */
+    public int count(boolean k) {
+        int count = 0;
+
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+
+        return k ? count : size - count;
+    }
+
+    @Override
+    public int indexOf(boolean k) {
+        for (int i = 0; i < words.length; i++) {
+            long word = k ? words[i] : ~words[i];
+
+            if (word != 0) {
+                int index = i << 6 | Long.numberOfTrailingZeros(word);
+                return index < size ? index : -1;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(boolean k) {
+        for (int i = words.length - 1; i >= 0; i--) {
+            long word = k ? words[i] : ~words[i] & validBits(i);
+
+            if (word != 0) {
+                return i << 6 | Long.SIZE - 1 - Long.numberOfLeadingZeros(word);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return the list of the element-wise conjunctions of this list and the given one
+     * @throws IllegalArgumentException if the lists differ in size
+     */
+    public PackedImmutableBooleanList and(PackedImmutableBooleanList other) {
+        checkSameSize(other);
+
+        long[] result = new long[words.length];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+
+        return new PackedImmutableBooleanList(result, size);
+    }
+
+    /**
+     * @return the list of the element-wise disjunctions of this list and the given one
+     * @throws IllegalArgumentException if the lists differ in size
+     */
+    public PackedImmutableBooleanList or(PackedImmutableBooleanList other) {
+        checkSameSize(other);
+
+        long[] result = new long[words.length];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] | other.words[i];
+        }
+
+        return new PackedImmutableBooleanList(result, size);
+    }
+
+    /**
+     * @return the list of the element-wise exclusive disjunctions of this list and the given one
+     * @throws IllegalArgumentException if the lists differ in size
+     */
+    public PackedImmutableBooleanList xor(PackedImmutableBooleanList other) {
+        checkSameSize(other);
+
+        long[] result = new long[words.length];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] ^ other.words[i];
+        }
+
+        return new PackedImmutableBooleanList(result, size);
+    }
+
+    /**
+     * @return the list of the negated elements of this list
+     */
+    public PackedImmutableBooleanList not() {
+        long[] result = new long[words.length];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ~words[i] & validBits(i);
+        }
+
+        return new PackedImmutableBooleanList(result, size);
+    }
+
+    /**
+     * @return the rank and select index of this list, built on the first call
+     */
+    public RankSelectIndex rankSelectIndex() {
+        RankSelectIndex index = rankSelectIndex;
+
+        if (index == null) {
+            rankSelectIndex = index = new RankSelectIndex(this);
+        }
+
+        return index;
+    }
+
+    /**
+     * @return a bit set with the bits of the elements which are {@code true}
+     */
+    public BitSet toBitSet() {
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * @return a copy of the words of this list
+     */
+    public long[] toWords() {
+        return words.clone();
+    }
+
+    @Override
+    public int compareTo(@NotNull List<? extends Boolean> o) {
+        if (!(o instanceof PackedImmutableBooleanList other)) {
+            return super.compareTo(o);
+        }
+
+        if (size != other.size) {
+            return size - other.size;
+        }
+
+        for (int i = 0; i < words.length; i++) {
+            long difference = words[i] ^ other.words[i];
+
+            if (difference != 0) {
+                return (words[i] & Long.lowestOneBit(difference)) != 0 ? 1 : -1;
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hashCode;
+
+        if (h == 0) {
+            h = 1;
+
+            int fullBytes = size >>> 3;
+
+            for (int i = 0; i < fullBytes; i++) {
+                h = POW31_8 * h + BYTE_HASHES[(int) (words[i >>> 3] >>> (i << 3)) & 0xFF];
+            }
+
+            for (int i = fullBytes << 3; i < size; i++) {
+                h = 31 * h + Boolean.hashCode((words[i >>> 6] >>> i & 1) != 0);
+            }
+
+            hashCode = h;
+        }
+
+        return h;
+    }
+
+    static PackedImmutableBooleanList pack(boolean[] values, int offset, int length) {
+        BooleanArrays.ensureOffsetLength(values, offset, length);
+
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        long[] words = new long[wordCount(length)];
+
+        for (int i = 0; i < length; i++) {
+            words[i >>> 6] |= (values[offset + i] ? 1L : 0L) << i;
+        }
+
+        return new PackedImmutableBooleanList(words, length);
+    }
+
+    static PackedImmutableBooleanList pack(BitSet bits, int size) {
+        Preconditions.checkArgument(size >= 0);
+
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        long[] words = Arrays.copyOf(bits.toLongArray(), wordCount(size));
+
+        if ((size & 63) != 0) {
+            words[words.length - 1] &= (1L << size) - 1;
+        }
+
+        return new PackedImmutableBooleanList(words, size);
+    }
+
+    static PackedImmutableBooleanList pack(BooleanIterable iterable) {
+        if (iterable instanceof PackedImmutableBooleanList list) {
+            return list;
+        }
+
+        long[] words = LongArrays.EMPTY_ARRAY;
+        int size = 0;
+
+        for (BooleanIterator it = iterable.iterator(); it.hasNext(); size++) {
+            if ((size & 63) == 0) {
+                words = LongArrays.grow(words, (size >>> 6) + 1);
+            }
+
+            words[size >>> 6] |= (it.nextBoolean() ? 1L : 0L) << size;
+        }
+
+        return size == 0 ? EMPTY : new PackedImmutableBooleanList(LongArrays.trim(words, wordCount(size)), size);
+    }
+
+    private long validBits(int word) {
+        return word == words.length - 1 && (size & 63) != 0 ? (1L << size) - 1 : -1L;
+    }
+
+    private void checkSameSize(PackedImmutableBooleanList other) {
+        Preconditions.checkArgument(size == other.size, "the lists differ in size: %s and %s", size,
+                other.size);
+    }
+
+    private static int wordCount(int size) {
+        return (size + Long.SIZE - 1) >>> 6;
+    }
+}
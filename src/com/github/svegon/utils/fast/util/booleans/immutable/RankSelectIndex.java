@@ -0,0 +1,216 @@
+package com.github.svegon.utils.fast.util.booleans.immutable;
+
+import com.google.common.base.Preconditions;
+import net.jcip.annotations.Immutable;
+
+/**
+ * A succinct rank and select index over a {@link PackedImmutableBooleanList}, mapping positions
+ * of a mask to the positions among its {@code true} or {@code false} elements and back.
+ *
+ * The list is split into blocks of 512 elements, a cache line of words, and the index stores
+ * the number of {@code true} elements before each block, which costs 6.25% of the list. A rank
+ * counts the bits of at most 8 words of its block. Each 4096th {@code true} and {@code false}
+ * element is sampled too, so a select only binary searches the blocks between two samples before
+ * scanning a single block, which is constant time unless the sought elements are very sparse.
+ */
+@Immutable
+public final class RankSelectIndex {
+    private static final int BLOCK_SHIFT = 9;
+    private static final int BLOCK_WORDS = 1 << BLOCK_SHIFT - 6;
+    private static final int SAMPLE_SHIFT = 12;
+
+    private final PackedImmutableBooleanList list;
+    /**
+     * The number of {@code true} elements before each block and after the last one.
+     */
+    private final int[] blockRanks;
+    /**
+     * The block of each {@code 1 << SAMPLE_SHIFT}-th {@code true} element.
+     */
+    private final int[] ones;
+    /**
+     * The block of each {@code 1 << SAMPLE_SHIFT}-th {@code false} element.
+     */
+    private final int[] zeros;
+
+    RankSelectIndex(PackedImmutableBooleanList list) {
+        long[] words = list.words;
+        int blocks = (words.length + BLOCK_WORDS - 1) / BLOCK_WORDS;
+        int[] blockRanks = new int[blocks + 1];
+
+        for (int block = 0; block < blocks; block++) {
+            int rank = blockRanks[block];
+            int end = Math.min(words.length, (block + 1) * BLOCK_WORDS);
+
+            for (int i = block * BLOCK_WORDS; i < end; i++) {
+                rank += Long.bitCount(words[i]);
+            }
+
+            blockRanks[block + 1] = rank;
+        }
+
+        int oneCount = blockRanks[blocks];
+        int[] ones = new int[(oneCount + (1 << SAMPLE_SHIFT) - 1) >>> SAMPLE_SHIFT];
+        int[] zeros = new int[(list.size() - oneCount + (1 << SAMPLE_SHIFT) - 1) >>> SAMPLE_SHIFT];
+
+        for (int block = 0, one = 0, zero = 0; block < blocks; block++) {
+            for (; one < ones.length && one << SAMPLE_SHIFT < blockRanks[block + 1]; one++) {
+                ones[one] = block;
+            }
+
+            for (; zero < zeros.length && zero << SAMPLE_SHIFT < zerosBefore(blockRanks, block + 1, list.size());
+                 zero++) {
+                zeros[zero] = block;
+            }
+        }
+
+        this.list = list;
+        this.blockRanks = blockRanks;
+        this.ones = ones;
+        this.zeros = zeros;
+    }
+
+    public PackedImmutableBooleanList getList() {
+        return list;
+    }
+
+    /**
+     * @return the number of {@code true} elements
+     */
+    public int count1() {
+        return blockRanks[blockRanks.length - 1];
+    }
+
+    /**
+     * @return the number of {@code false} elements
+     */
+    public int count0() {
+        return list.size() - count1();
+    }
+
+    /**
+     * @return the number of {@code true} elements before the given index
+     * @throws IndexOutOfBoundsException if the index is negative or greater than the size of the list
+     */
+    public int rank1(int index) {
+        Preconditions.checkPositionIndex(index, list.size());
+
+        long[] words = list.words;
+        int word = index >>> 6;
+        int rank = blockRanks[index >>> BLOCK_SHIFT];
+
+        for (int i = word & -BLOCK_WORDS; i < word; i++) {
+            rank += Long.bitCount(words[i]);
+        }
+
+        if ((index & 63) != 0) {
+            rank += Long.bitCount(words[word] & (1L << index) - 1);
+        }
+
+        return rank;
+    }
+
+    /**
+     * @return the number of {@code false} elements before the given index
+     * @throws IndexOutOfBoundsException if the index is negative or greater than the size of the list
+     */
+    public int rank0(int index) {
+        return index - rank1(index);
+    }
+
+    /**
+     * @param rank the number of {@code true} elements preceding the sought one
+     * @return the index of the {@code true} element preceded by the given number of them
+     * @throws IndexOutOfBoundsException if the rank is negative or not less than {@link #count1()}
+     */
+    public int select1(int rank) {
+        Preconditions.checkElementIndex(rank, count1());
+
+        int sample = rank >>> SAMPLE_SHIFT;
+        int low = ones[sample];
+        int high = sample + 1 < ones.length ? ones[sample + 1] : blockRanks.length - 2;
+
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+
+            if (blockRanks[mid] <= rank) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        long[] words = list.words;
+        int remaining = rank - blockRanks[low];
+
+        for (int i = low * BLOCK_WORDS; ; i++) {
+            int count = Long.bitCount(words[i]);
+
+            if (remaining < count) {
+                return i << 6 | selectInWord(words[i], remaining);
+            }
+
+            remaining -= count;
+        }
+    }
+
+    /**
+     * @param rank the number of {@code false} elements preceding the sought one
+     * @return the index of the {@code false} element preceded by the given number of them
+     * @throws IndexOutOfBoundsException if the rank is negative or not less than {@link #count0()}
+     */
+    public int select0(int rank) {
+        Preconditions.checkElementIndex(rank, count0());
+
+        int size = list.size();
+        int sample = rank >>> SAMPLE_SHIFT;
+        int low = zeros[sample];
+        int high = sample + 1 < zeros.length ? zeros[sample + 1] : blockRanks.length - 2;
+
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+
+            if (zerosBefore(blockRanks, mid, size) <= rank) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        long[] words = list.words;
+        int remaining = rank - zerosBefore(blockRanks, low, size);
+
+        // the clear bits past the end of the list are never reached, the rank is less than count0()
+        for (int i = low * BLOCK_WORDS; ; i++) {
+            int count = Long.bitCount(~words[i]);
+
+            if (remaining < count) {
+                return i << 6 | selectInWord(~words[i], remaining);
+            }
+
+            remaining -= count;
+        }
+    }
+
+    private static int zerosBefore(int[] blockRanks, int block, int size) {
+        return Math.min(block << BLOCK_SHIFT, size) - blockRanks[block];
+    }
+
+    /**
+     * @return the index of the set bit of the word preceded by the given number of set bits
+     */
+    private static int selectInWord(long word, int rank) {
+        int shift = 0;
+
+        for (int count; rank >= (count = Long.bitCount(word & 0xFF)); shift += Byte.SIZE) {
+            rank -= count;
+            word >>>= Byte.SIZE;
+        }
+
+        while (rank-- != 0) {
+            word &= word - 1;
+        }
+
+        return shift + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -1,40 +1,79 @@
 package com.github.svegon.utils.fast.util.booleans.immutable;
 
+import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.booleans.BooleanArrays;
 import net.jcip.annotations.Immutable;
 
-import java.util.Arrays;
 import java.util.RandomAccess;
 
+/**
+ * An immutable list of the elements of an array between two indices. The array may be shared with other
+ * lists, which is how {@link #subList(int, int)} takes constant time and a builder hands its array over.
+ */
 @Immutable
 public final class RegularImmutableBooleanList extends ImmutableBooleanList implements RandomAccess {
     public static final ImmutableBooleanList EMPTY = new RegularImmutableBooleanList(BooleanArrays.EMPTY_ARRAY);
 
     final boolean[] values;
-    private final int hashCode;
+    final int from;
+    final int to;
+    /**
+     * Computed lazily, 0 until then.
+     */
+    private int hashCode;
 
     RegularImmutableBooleanList(boolean[] values) {
+        this(values, 0, values.length);
+    }
+
+    RegularImmutableBooleanList(boolean[] values, int from, int to) {
         this.values = values;
-        this.hashCode = Arrays.hashCode(values);
+        this.from = from;
+        this.to = to;
     }
 
     @Override
     public int hashCode() {
-        return hashCode;
+        int h = hashCode;
+
+        if (h == 0) {
+            h = 1;
+
+            for (int i = from; i < to; i++) {
+                h = 31 * h + Boolean.hashCode(values[i]);
+            }
+
+            hashCode = h;
+        }
+
+        return h;
     }
 
     @Override
     public boolean getBoolean(int index) {
-        return values[index];
+        Preconditions.checkElementIndex(index, to - from);
+        return values[from + index];
     }
 
     @Override
     public int size() {
-        return values.length;
+        return to - from;
     }
 
     @Override
     public void getElements(int from, boolean[] a, int offset, int length) {
-        System.arraycopy(values, from, a, offset, length);
+        Preconditions.checkPositionIndexes(from, from + length, size());
+        System.arraycopy(values, this.from + from, a, offset, length);
+    }
+
+    @Override
+    public ImmutableBooleanList subList(int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, size());
+
+        if (from == 0 && to == size()) {
+            return this;
+        }
+
+        return from == to ? EMPTY : new RegularImmutableBooleanList(values, this.from + from, this.from + to);
     }
 }
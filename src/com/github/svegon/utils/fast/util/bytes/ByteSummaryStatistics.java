@@ -43,8 +43,8 @@ public class ByteSummaryStatistics implements ByteConsumer {
     private long sum;
     private long sumCompensation; // Low order bits of sum
     private long simpleSum; // Used to compute right sum for non-finite inputs
-    private byte min = Byte.MIN_VALUE;
-    private byte max = Byte.MAX_VALUE;
+    private byte min = Byte.MAX_VALUE;
+    private byte max = Byte.MIN_VALUE;
 
     /**
      * Constructs an empty instance with zero count, zero sum,
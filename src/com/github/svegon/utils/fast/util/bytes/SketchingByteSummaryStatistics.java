@@ -0,0 +1,57 @@
+package com.github.svegon.utils.fast.util.bytes;
+
+import com.github.svegon.utils.math.QuantileSketch;
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link ByteSummaryStatistics} which also record the values into a mergeable quantile sketch, such as a
+ * {@link com.github.svegon.utils.math.LogBucketHistogram} or a {@link com.github.svegon.utils.math.TDigest},
+ * so percentiles of the values are estimated without keeping them. Combining two instances merges their
+ * sketches.
+ *
+ * @param <S> the type of the sketch
+ */
+public class SketchingByteSummaryStatistics<S extends QuantileSketch<S>> extends ByteSummaryStatistics {
+    private final S sketch;
+
+    public SketchingByteSummaryStatistics(S sketch) {
+        this.sketch = Preconditions.checkNotNull(sketch);
+    }
+
+    @Override
+    public void accept(byte value) {
+        super.accept(value);
+        sketch.accept(value);
+    }
+
+    /**
+     * Combines the state of another {@code SketchingByteSummaryStatistics} into this one, merging the sketches.
+     *
+     * @param other another {@code SketchingByteSummaryStatistics}
+     * @throws NullPointerException if {@code other} is null
+     * @throws IllegalArgumentException if the sketches aren't compatible
+     */
+    public void combine(SketchingByteSummaryStatistics<S> other) {
+        sketch.merge(other.sketch);
+        super.combine(other);
+    }
+
+    public final S getSketch() {
+        return sketch;
+    }
+
+    /**
+     * @return an estimate of the given quantile of the recorded values or {@link Double#NaN} if there are none
+     * @throws IllegalArgumentException if the quantile isn't between 0 and 1
+     */
+    public final double getQuantile(double quantile) {
+        return sketch.getQuantile(quantile);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, sum=%s, min=%s, average=%f, max=%s, p50=%f, p99=%f, p999=%f}",
+                getClass().getSimpleName(), getCount(), getSum(), getMin(), getAverage(), getMax(),
+                getQuantile(0.5), getQuantile(0.99), getQuantile(0.999));
+    }
+}
@@ -227,17 +227,36 @@ public abstract class ImmutableByteList extends ImmutableByteCollection implemen
     }
 
     public static ImmutableByteList of(ByteIterator it) {
-        return copyOf(new ByteArrayList(it));
+        return builder().addAll(it).build();
     }
 
+    /**
+     * @return the given iterable if it's already an immutable list, otherwise an immutable list of its elements
+     */
     public static ImmutableByteList copyOf(ByteIterable iterable) {
-        if (iterable.getClass() == ByteArrayList.class) {
-            byte[] array = ((ByteArrayList) iterable).toByteArray();
+        if (iterable instanceof ImmutableByteList list) {
+            return list;
+        }
+
+        if (iterable instanceof ByteCollection collection) {
+            // the array is a fresh copy, so it's handed over as is
+            byte[] array = collection.toByteArray();
             return array.length == 0 ? RegularImmutableByteList.EMPTY : new RegularImmutableByteList(array);
         }
 
-        return iterable instanceof ByteCollection ? of(((ByteCollection) iterable).toByteArray())
-                : of(iterable.iterator());
+        return of(iterable.iterator());
+    }
+
+    /**
+     * @return a builder handing its array over to the list it builds
+     */
+    public static Builder builder() {
+        return new Builder(ByteArrays.EMPTY_ARRAY);
+    }
+
+    public static Builder builder(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "Illegal expected size: " + expectedSize);
+        return new Builder(expectedSize == 0 ? ByteArrays.EMPTY_ARRAY : new byte[expectedSize]);
     }
 
     protected class RandomAccessImmutableListIterator implements ByteListIterator {
@@ -333,6 +352,75 @@ public abstract class ImmutableByteList extends ImmutableByteCollection implemen
         }
     }
 
+    /**
+     * A growable array of elements which {@link #build()} hands over to the built list instead of copying it.
+     * The builder starts over empty afterwards, so the built list is never modified, though it keeps the
+     * unused capacity of the array.
+     */
+    public static final class Builder {
+        private byte[] values;
+        private int size;
+
+        private Builder(byte[] values) {
+            this.values = values;
+        }
+
+        public Builder add(byte k) {
+            if (size == values.length) {
+                values = ByteArrays.grow(values, size + 1);
+            }
+
+            values[size++] = k;
+            return this;
+        }
+
+        public Builder add(byte... values) {
+            return addAll(values, 0, values.length);
+        }
+
+        public Builder addAll(byte[] a, int offset, int length) {
+            ByteArrays.ensureOffsetLength(a, offset, length);
+            values = ByteArrays.grow(values, size + length);
+            System.arraycopy(a, offset, values, size, length);
+            size += length;
+            return this;
+        }
+
+        public Builder addAll(ByteIterator it) {
+            while (it.hasNext()) {
+                add(it.nextByte());
+            }
+
+            return this;
+        }
+
+        public Builder addAll(ByteIterable iterable) {
+            if (iterable instanceof ByteList list) {
+                int length = list.size();
+
+                values = ByteArrays.grow(values, size + length);
+                list.getElements(0, values, size, length);
+                size += length;
+                return this;
+            }
+
+            return addAll(iterable.iterator());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ImmutableByteList build() {
+            ImmutableByteList list = size == 0 ? RegularImmutableByteList.EMPTY
+                    : new RegularImmutableByteList(values, 0, size);
+
+            values = ByteArrays.EMPTY_ARRAY;
+            size = 0;
+            return list;
+        }
+    }
+
     protected static class SubList extends ImmutableByteList {
         private final int hashCode;
         protected final ImmutableByteList list;
@@ -43,8 +43,8 @@ public class CharSummaryStatistics implements CharConsumer {
     private long sum;
     private long sumCompensation; // Low order bits of sum
     private long simpleSum; // Used to compute right sum for non-finite inputs
-    private char min = Character.MIN_VALUE;
-    private char max = Character.MAX_VALUE;
+    private char min = Character.MAX_VALUE;
+    private char max = Character.MIN_VALUE;
 
     /**
      * Constructs an empty instance with zero count, zero sum,
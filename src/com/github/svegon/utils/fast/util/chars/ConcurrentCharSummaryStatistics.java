@@ -0,0 +1,113 @@
+package com.github.svegon.utils.fast.util.chars;
+
+import it.unimi.dsi.fastutil.chars.CharConsumer;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe counterpart of {@link CharSummaryStatistics} for recording from many threads at once, such as
+ * a metrics sink shared by a worker pool. The count, sum, minimum and maximum are each held in striped cells
+ * of a {@link LongAdder} or a {@link LongAccumulator}, so concurrent updates rarely contend and never block.
+ *
+ * The getters read their cells separately, {@link #snapshot()} returns statistics which are consistent with
+ * each other even under concurrent updates.
+ */
+@ThreadSafe
+public class ConcurrentCharSummaryStatistics implements CharConsumer {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Character.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Character.MIN_VALUE);
+
+    public ConcurrentCharSummaryStatistics() { }
+
+    /**
+     * Records another value into the summary information.
+     *
+     * @param value the input value
+     */
+    @Override
+    public void accept(char value) {
+        // the count goes last, so whoever sees it also sees the minimum and maximum of the counted values
+        min.accumulate(value);
+        max.accumulate(value);
+        sum.add(value);
+        count.increment();
+    }
+
+    /**
+     * Combines the state of a {@code CharSummaryStatistics} into this one, such as one collected by a single
+     * thread.
+     *
+     * @param other a {@code CharSummaryStatistics}
+     * @throws NullPointerException if {@code other} is null
+     */
+    public void combine(CharSummaryStatistics other) {
+        if (other.getCount() == 0) {
+            return;
+        }
+
+        min.accumulate(other.getMin());
+        max.accumulate(other.getMax());
+        sum.add(other.getSum());
+        count.add(other.getCount());
+    }
+
+    /**
+     * Returns the statistics of the values recorded so far. Values recorded concurrently may be missing from
+     * them or reflected in the sum only, but the minimum and maximum are always those of at least the counted
+     * values.
+     *
+     * @return a new {@code CharSummaryStatistics} holding the current state
+     */
+    public CharSummaryStatistics snapshot() {
+        long count = this.count.sum();
+        return new CharSummaryStatistics(count, (char) min.get(), (char) max.get(), sum.sum());
+    }
+
+    /**
+     * Resets the statistics to their initial state. Values recorded concurrently may be partially reset, so
+     * this should only be called while nothing is being recorded.
+     */
+    public void reset() {
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    public final long getCount() {
+        return count.sum();
+    }
+
+    public final long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the minimum recorded value, {@code Character.MAX_VALUE} if no values were recorded
+     */
+    public final char getMin() {
+        return (char) min.get();
+    }
+
+    /**
+     * @return the maximum recorded value, {@code Character.MIN_VALUE} if no values were recorded
+     */
+    public final char getMax() {
+        return (char) max.get();
+    }
+
+    public final double getAverage() {
+        return snapshot().getAverage();
+    }
+
+    @Override
+    public String toString() {
+        CharSummaryStatistics snapshot = snapshot();
+        return String.format("%s{count=%d, sum=%s, min=%s, average=%f, max=%s}", getClass().getSimpleName(),
+                snapshot.getCount(), snapshot.getSum(), snapshot.getMin(), snapshot.getAverage(), snapshot.getMax());
+    }
+}
@@ -12,7 +12,10 @@ import java.util.Collection;
 
 @Immutable
 public abstract class ImmutableCharCollection implements ImprovedCharCollection {
-    private final int hashCode = initHashCode();
+    /**
+     * Computed lazily, the fields of the subclasses aren't initialized yet in this constructor.
+     */
+    private int hashCode;
 
     ImmutableCharCollection() {
 
@@ -20,7 +23,13 @@ public abstract class ImmutableCharCollection implements ImprovedCharCollection
 
     @Override
     public final int hashCode() {
-        return hashCode;
+        int h = hashCode;
+
+        if (h == 0) {
+            hashCode = h = initHashCode();
+        }
+
+        return h;
     }
 
     @Override
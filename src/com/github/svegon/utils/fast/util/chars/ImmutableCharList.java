@@ -107,8 +107,8 @@ public abstract class ImmutableCharList extends ImmutableCharCollection implemen
 
         CharListIterator it = listIterator(from);
 
-        while (it.hasNext()) {
-            a[it.nextIndex()] = it.nextChar();
+        for (int i = 0; i < length; i++) {
+            a[offset + i] = it.nextChar();
         }
     }
 
@@ -165,7 +165,7 @@ public abstract class ImmutableCharList extends ImmutableCharCollection implemen
 
     @Override
     public int lastIndexOf(char k) {
-        CharListIterator it = listIterator(size() - 1);
+        CharListIterator it = listIterator(size());
 
         while (it.hasPrevious()) {
             if (it.previousChar() == k) {
@@ -239,17 +239,36 @@ public abstract class ImmutableCharList extends ImmutableCharCollection implemen
     }
 
     public static ImmutableCharList of(CharIterator it) {
-        return copyOf(new CharArrayList(it));
+        return builder().addAll(it).build();
     }
 
+    /**
+     * @return the given iterable if it's already an immutable list, otherwise an immutable list of its elements
+     */
     public static ImmutableCharList copyOf(CharIterable iterable) {
-        if (iterable.getClass() == CharArrayList.class) {
-            char[] array = ((CharArrayList) iterable).toCharArray();
+        if (iterable instanceof ImmutableCharList list) {
+            return list;
+        }
+
+        if (iterable instanceof CharCollection collection) {
+            // the array is a fresh copy, so it's handed over as is
+            char[] array = collection.toCharArray();
             return array.length == 0 ? RegularImmutableCharList.EMPTY : new RegularImmutableCharList(array);
         }
 
-        return iterable instanceof CharCollection ? of(((CharCollection) iterable).toCharArray())
-                : of(iterable.iterator());
+        return of(iterable.iterator());
+    }
+
+    /**
+     * @return a builder handing its array over to the list it builds
+     */
+    public static Builder builder() {
+        return new Builder(CharArrays.EMPTY_ARRAY);
+    }
+
+    public static Builder builder(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "Illegal expected size: " + expectedSize);
+        return new Builder(expectedSize == 0 ? CharArrays.EMPTY_ARRAY : new char[expectedSize]);
     }
 
     protected class RandomAccessImmutableListIterator implements CharListIterator {
@@ -276,7 +295,7 @@ public abstract class ImmutableCharList extends ImmutableCharCollection implemen
 
         @Override
         public boolean hasPrevious() {
-            return index >= 0;
+            return index > 0;
         }
 
         @Override
@@ -345,6 +364,75 @@ public abstract class ImmutableCharList extends ImmutableCharCollection implemen
         }
     }
 
+    /**
+     * A growable array of elements which {@link #build()} hands over to the built list instead of copying it.
+     * The builder starts over empty afterwards, so the built list is never modified, though it keeps the
+     * unused capacity of the array.
+     */
+    public static final class Builder {
+        private char[] values;
+        private int size;
+
+        private Builder(char[] values) {
+            this.values = values;
+        }
+
+        public Builder add(char k) {
+            if (size == values.length) {
+                values = CharArrays.grow(values, size + 1);
+            }
+
+            values[size++] = k;
+            return this;
+        }
+
+        public Builder add(char... values) {
+            return addAll(values, 0, values.length);
+        }
+
+        public Builder addAll(char[] a, int offset, int length) {
+            CharArrays.ensureOffsetLength(a, offset, length);
+            values = CharArrays.grow(values, size + length);
+            System.arraycopy(a, offset, values, size, length);
+            size += length;
+            return this;
+        }
+
+        public Builder addAll(CharIterator it) {
+            while (it.hasNext()) {
+                add(it.nextChar());
+            }
+
+            return this;
+        }
+
+        public Builder addAll(CharIterable iterable) {
+            if (iterable instanceof CharList list) {
+                int length = list.size();
+
+                values = CharArrays.grow(values, size + length);
+                list.getElements(0, values, size, length);
+                size += length;
+                return this;
+            }
+
+            return addAll(iterable.iterator());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ImmutableCharList build() {
+            ImmutableCharList list = size == 0 ? RegularImmutableCharList.EMPTY
+                    : new RegularImmutableCharList(values, 0, size);
+
+            values = CharArrays.EMPTY_ARRAY;
+            size = 0;
+            return list;
+        }
+    }
+
     protected static class SubList extends ImmutableCharList {
         protected final ImmutableCharList list;
         protected final int from;
@@ -358,7 +446,8 @@ public abstract class ImmutableCharList extends ImmutableCharCollection implemen
 
         @Override
         public char getChar(int index) {
-            return list.getChar(index);
+            Preconditions.checkElementIndex(index, size);
+            return list.getChar(from + index);
         }
 
         @Override
@@ -366,15 +455,10 @@ public abstract class ImmutableCharList extends ImmutableCharCollection implemen
             return size;
         }
 
-        @Override
-        public CharListIterator listIterator(int index) {
-            return list.listIterator(from + index);
-        }
-
         @Override
         public ImmutableCharList subList(int from, int to) {
             Preconditions.checkPositionIndexes(from, to, size());
-            return new SubList(list, this.from + from, this.from + to);
+            return list.subList(this.from + from, this.from + to);
         }
     }
 
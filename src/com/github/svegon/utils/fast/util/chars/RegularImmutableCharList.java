@@ -1,32 +1,58 @@
 package com.github.svegon.utils.fast.util.chars;
 
+import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.chars.CharArrays;
 import net.jcip.annotations.Immutable;
 
 import java.util.RandomAccess;
 
+/**
+ * An immutable list of the elements of an array between two indices. The array may be shared with other
+ * lists, which is how {@link #subList(int, int)} takes constant time and a builder hands its array over.
+ */
 @Immutable
 final class RegularImmutableCharList extends ImmutableCharList implements RandomAccess {
     public static final ImmutableCharList EMPTY = new RegularImmutableCharList(CharArrays.EMPTY_ARRAY);
 
     final char[] values;
+    final int from;
+    final int to;
 
     RegularImmutableCharList(char[] values) {
+        this(values, 0, values.length);
+    }
+
+    RegularImmutableCharList(char[] values, int from, int to) {
         this.values = values;
+        this.from = from;
+        this.to = to;
     }
 
     @Override
     public char getChar(int index) {
-        return values[index];
+        Preconditions.checkElementIndex(index, to - from);
+        return values[from + index];
     }
 
     @Override
     public int size() {
-        return values.length;
+        return to - from;
     }
 
     @Override
     public void getElements(int from, char[] a, int offset, int length) {
-        System.arraycopy(values, from, a, offset, length);
+        Preconditions.checkPositionIndexes(from, from + length, size());
+        System.arraycopy(values, this.from + from, a, offset, length);
+    }
+
+    @Override
+    public ImmutableCharList subList(int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, size());
+
+        if (from == 0 && to == size()) {
+            return this;
+        }
+
+        return from == to ? EMPTY : new RegularImmutableCharList(values, this.from + from, this.from + to);
     }
 }
@@ -5,6 +5,8 @@ import it.unimi.dsi.fastutil.doubles.*;
 import net.jcip.annotations.Immutable;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 import static it.unimi.dsi.fastutil.Size64.sizeOf;
@@ -107,8 +109,8 @@ public abstract class ImmutableDoubleList extends ImmutableDoubleCollection impl
 
         DoubleListIterator it = listIterator(from);
 
-        while (it.hasNext()) {
-            a[it.nextIndex()] = it.nextDouble();
+        for (int i = 0; i < length; i++) {
+            a[offset + i] = it.nextDouble();
         }
     }
 
@@ -165,7 +167,7 @@ public abstract class ImmutableDoubleList extends ImmutableDoubleCollection impl
 
     @Override
     public int lastIndexOf(double k) {
-        DoubleListIterator it = listIterator(size() - 1);
+        DoubleListIterator it = listIterator(size());
 
         while (it.hasPrevious()) {
             if (it.previousDouble() == k) {
@@ -176,6 +178,58 @@ public abstract class ImmutableDoubleList extends ImmutableDoubleCollection impl
         return -1;
     }
 
+    /**
+     * @return the sum of the elements of this list
+     */
+    public double sum() {
+        double sum = 0;
+        DoubleIterator it = iterator();
+
+        while (it.hasNext()) {
+            sum += it.nextDouble();
+        }
+
+        return sum;
+    }
+
+    /**
+     * @return the least element of this list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public double min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        DoubleIterator it = iterator();
+        double min = it.nextDouble();
+
+        while (it.hasNext()) {
+            min = Math.min(min, it.nextDouble());
+        }
+
+        return min;
+    }
+
+    /**
+     * @return the greatest element of this list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public double max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        DoubleIterator it = iterator();
+        double max = it.nextDouble();
+
+        while (it.hasNext()) {
+            max = Math.max(max, it.nextDouble());
+        }
+
+        return max;
+    }
+
     @Override
     public final double removeDouble(int index) {
         Preconditions.checkElementIndex(index, size());
@@ -239,17 +293,45 @@ public abstract class ImmutableDoubleList extends ImmutableDoubleCollection impl
     }
 
     public static ImmutableDoubleList of(DoubleIterator it) {
-        return copyOf(new DoubleArrayList(it));
+        return builder().addAll(it).build();
     }
 
+    /**
+     * @return the given iterable if it's already an immutable list, otherwise an immutable list of its elements
+     */
     public static ImmutableDoubleList copyOf(DoubleIterable iterable) {
-        if (iterable.getClass() == DoubleArrayList.class) {
-            double[] array = ((DoubleArrayList) iterable).toDoubleArray();
+        if (iterable instanceof ImmutableDoubleList list) {
+            return list;
+        }
+
+        if (iterable instanceof DoubleCollection collection) {
+            // the array is a fresh copy, so it's handed over as is
+            double[] array = collection.toDoubleArray();
             return array.length == 0 ? RegularImmutableDoubleList.EMPTY : new RegularImmutableDoubleList(array);
         }
 
-        return iterable instanceof DoubleCollection ? of(((DoubleCollection) iterable).toDoubleArray())
-                : of(iterable.iterator());
+        return of(iterable.iterator());
+    }
+
+    /**
+     * @return a builder handing its array over to the list it builds
+     */
+    public static Builder builder() {
+        return new Builder(DoubleArrays.EMPTY_ARRAY);
+    }
+
+    public static Builder builder(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "Illegal expected size: " + expectedSize);
+        return new Builder(expectedSize == 0 ? DoubleArrays.EMPTY_ARRAY : new double[expectedSize]);
+    }
+
+    /**
+     * @return a list reading the elements from the given file, written by
+     * {@link MappedImmutableDoubleList#write(ImmutableDoubleList, Path)}, mapped into memory
+     * @throws IOException if the file can't be read or doesn't contain such a list
+     */
+    public static MappedImmutableDoubleList mapped(Path path) throws IOException {
+        return MappedImmutableDoubleList.map(path);
     }
 
     protected class RandomAccessImmutableListIterator implements DoubleListIterator {
@@ -276,7 +358,7 @@ public abstract class ImmutableDoubleList extends ImmutableDoubleCollection impl
 
         @Override
         public boolean hasPrevious() {
-            return index >= 0;
+            return index > 0;
         }
 
         @Override
@@ -345,6 +427,75 @@ public abstract class ImmutableDoubleList extends ImmutableDoubleCollection impl
         }
     }
 
+    /**
+     * A growable array of elements which {@link #build()} hands over to the built list instead of copying it.
+     * The builder starts over empty afterwards, so the built list is never modified, though it keeps the
+     * unused capacity of the array.
+     */
+    public static final class Builder {
+        private double[] values;
+        private int size;
+
+        private Builder(double[] values) {
+            this.values = values;
+        }
+
+        public Builder add(double k) {
+            if (size == values.length) {
+                values = DoubleArrays.grow(values, size + 1);
+            }
+
+            values[size++] = k;
+            return this;
+        }
+
+        public Builder add(double... values) {
+            return addAll(values, 0, values.length);
+        }
+
+        public Builder addAll(double[] a, int offset, int length) {
+            DoubleArrays.ensureOffsetLength(a, offset, length);
+            values = DoubleArrays.grow(values, size + length);
+            System.arraycopy(a, offset, values, size, length);
+            size += length;
+            return this;
+        }
+
+        public Builder addAll(DoubleIterator it) {
+            while (it.hasNext()) {
+                add(it.nextDouble());
+            }
+
+            return this;
+        }
+
+        public Builder addAll(DoubleIterable iterable) {
+            if (iterable instanceof DoubleList list) {
+                int length = list.size();
+
+                values = DoubleArrays.grow(values, size + length);
+                list.getElements(0, values, size, length);
+                size += length;
+                return this;
+            }
+
+            return addAll(iterable.iterator());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ImmutableDoubleList build() {
+            ImmutableDoubleList list = size == 0 ? RegularImmutableDoubleList.EMPTY
+                    : new RegularImmutableDoubleList(values, 0, size);
+
+            values = DoubleArrays.EMPTY_ARRAY;
+            size = 0;
+            return list;
+        }
+    }
+
     protected static class SubList extends ImmutableDoubleList {
         protected final ImmutableDoubleList list;
         protected final int from;
@@ -358,7 +509,8 @@ public abstract class ImmutableDoubleList extends ImmutableDoubleCollection impl
 
         @Override
         public double getDouble(int index) {
-            return list.getDouble(index);
+            Preconditions.checkElementIndex(index, size);
+            return list.getDouble(from + index);
         }
 
         @Override
@@ -366,15 +518,10 @@ public abstract class ImmutableDoubleList extends ImmutableDoubleCollection impl
             return size;
         }
 
-        @Override
-        public DoubleListIterator listIterator(int index) {
-            return list.listIterator(from + index);
-        }
-
         @Override
         public ImmutableDoubleList subList(int from, int to) {
             Preconditions.checkPositionIndexes(from, to, size());
-            return new ImmutableDoubleList.SubList(list, this.from + from, this.from + to);
+            return list.subList(this.from + from, this.from + to);
         }
     }
 
@@ -0,0 +1,140 @@
+package com.github.svegon.utils.fast.util.doubles;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.doubles.DoubleArrays;
+import net.jcip.annotations.Immutable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list reading its elements from a memory mapped file instead of the heap, so opening
+ * it costs a mapping rather than a parse and the elements aren't copied or scanned by the garbage
+ * collector. The file starts with a 16-byte header, the magic {@code "EJUL"}, the format version,
+ * the element type {@code 'D'}, two reserved bytes and the element count as a long, followed by the
+ * elements, all little endian. {@link #write(ImmutableDoubleList, Path)} writes any list in this layout.
+ *
+ * A file of more than a gigabyte is mapped in several regions, which are unmapped once the list is
+ * garbage collected. The file must not be modified while it's mapped.
+ */
+@Immutable
+public final class MappedImmutableDoubleList extends ImmutableDoubleList implements RandomAccess {
+    static final int MAGIC = 'E' | 'J' << 8 | 'U' << 16 | 'L' << 24;
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static final byte TYPE = 'D';
+    private static final int REGION_SHIFT = 27;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    private final DoubleBuffer[] regions;
+    private final int size;
+
+    private MappedImmutableDoubleList(DoubleBuffer[] regions, int size) {
+        this.regions = regions;
+        this.size = size;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return regions[index >>> REGION_SHIFT].get(index & REGION_MASK);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void getElements(int from, double[] a, int offset, int length) {
+        Preconditions.checkPositionIndexes(from, from + length, size);
+        DoubleArrays.ensureOffsetLength(a, offset, length);
+
+        while (length != 0) {
+            int n = Math.min(length, (1 << REGION_SHIFT) - (from & REGION_MASK));
+
+            regions[from >>> REGION_SHIFT].get(from & REGION_MASK, a, offset, n);
+            from += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Maps the list written to the given file by {@link #write(ImmutableDoubleList, Path)}.
+     *
+     * @throws IOException if the file can't be read or doesn't contain a double list
+     */
+    static MappedImmutableDoubleList map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Illegal header of " + path);
+                }
+            }
+
+            long size = header.getLong(8);
+
+            if (header.getInt(0) != MAGIC || header.get(4) != VERSION || header.get(5) != TYPE
+                    || size < 0 || size > Integer.MAX_VALUE
+                    || channel.size() < HEADER_SIZE + size * Double.BYTES) {
+                throw new IOException("Illegal header of " + path);
+            }
+
+            DoubleBuffer[] regions = new DoubleBuffer[(int) ((size + REGION_MASK) >>> REGION_SHIFT)];
+
+            for (int i = 0; i < regions.length; i++) {
+                long from = (long) i << REGION_SHIFT;
+                long length = Math.min(size - from, 1 << REGION_SHIFT);
+
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + from * Double.BYTES,
+                        length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            }
+
+            return new MappedImmutableDoubleList(regions, (int) size);
+        }
+    }
+
+    /**
+     * Writes the given list to the given file in the layout of the mapped lists, replacing the file
+     * if it exists.
+     *
+     * @throws IOException if the file can't be written
+     */
+    public static void write(ImmutableDoubleList list, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            double[] elements = new double[buffer.capacity() / Double.BYTES];
+            int size = list.size();
+
+            buffer.putInt(MAGIC).put(VERSION).put(TYPE).putShort((short) 0).putLong(size).flip();
+            writeFully(channel, buffer);
+
+            for (int from = 0; from < size; from += elements.length) {
+                int n = Math.min(elements.length, size - from);
+
+                list.getElements(from, elements, 0, n);
+                buffer.clear();
+                buffer.asDoubleBuffer().put(elements, 0, n);
+                buffer.limit(n * Double.BYTES);
+                writeFully(channel, buffer);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
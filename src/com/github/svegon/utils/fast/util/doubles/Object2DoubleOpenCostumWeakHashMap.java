@@ -0,0 +1,860 @@
+package com.github.svegon.utils.fast.util.doubles;
+
+import com.github.svegon.utils.collections.StaleReferenceQueue;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.doubles.AbstractDoubleCollection;
+import it.unimi.dsi.fastutil.doubles.DoubleCollection;
+import it.unimi.dsi.fastutil.doubles.DoubleIterator;
+import it.unimi.dsi.fastutil.objects.*;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A hash map with weakly referenced keys compared by a strategy.
+ *
+ * The map is open-addressed: the keys live in an array of weak references probed linearly and the
+ * values in a parallel array, so a mapping costs a single weak reference which also caches the
+ * hash of its key. Slots of removed mappings are marked by a tombstone until a rehash or until
+ * they end a probe sequence. The mappings whose keys have been collected are expunged before each
+ * access, like in {@link WeakHashMap}, and dropped by any rehash that finds them first. The number
+ * of them expunged by a single access can be bounded by {@link #setExpungeBudget(int)} and an optional
+ * cleaner thread can take them off the reference queue in the background, see {@link #startCleaner()}.
+ *
+ * The null key is strongly held in an extra slot past the end of the table.
+ *
+ * This class isn't thread-safe.
+ */
+public class Object2DoubleOpenCostumWeakHashMap<K> extends AbstractObject2DoubleMap<K> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The default initial capacity -- MUST be a power of two.
+     */
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified
+     * by either of the constructors with arguments.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Marks a slot whose mapping has been removed but which may still be a part of a probe sequence.
+     */
+    private static final WeakKey TOMBSTONE = new WeakKey(null, null, 0);
+
+    /**
+     * The keys, the null key is never stored here.
+     */
+    private transient WeakKey[] key;
+    /**
+     * The values, the value of the null key is stored at index {@link #n}.
+     */
+    private transient double[] value;
+    private transient int n;
+    private transient int mask;
+    private transient int maxFill;
+    private final transient int minN;
+    private transient boolean containsNullKey;
+    /**
+     * The number of mappings including the ones whose keys have been collected but not yet expunged.
+     */
+    private int size;
+    /**
+     * The number of slots which aren't {@code null}, including the tombstones.
+     */
+    private int occupied;
+    private final float f;
+    private final Hash.Strategy<? super K> strategy;
+
+    /**
+     * Reference queue for the keys which have been collected.
+     */
+    private final StaleReferenceQueue<Object> queue = new StaleReferenceQueue<>();
+    private int expungeBudget = Integer.MAX_VALUE;
+    private long expungedCount;
+
+    /**
+     * Incremented whenever the slots are reallocated or cleared, which invalidates
+     * the positions held by the iterators.
+     *
+     * @see ConcurrentModificationException
+     */
+    private int modCount;
+
+    /**
+     * Constructs a new, empty {@code Object2DoubleOpenCostumWeakHashMap} with the given initial
+     * capacity and the given load factor.
+     *
+     * @param  initialCapacity The initial capacity of the {@code Object2DoubleOpenCostumWeakHashMap}
+     * @param  loadFactor      The load factor of the {@code Object2DoubleOpenCostumWeakHashMap}
+     * @throws IllegalArgumentException if the initial capacity is negative,
+     *         or if the load factor isn't in (0, 1).
+     */
+    public Object2DoubleOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy, int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Initial Capacity: " + initialCapacity);
+        }
+
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal Load factor: " + loadFactor);
+        }
+
+        this.strategy = strategy;
+        this.f = loadFactor;
+        this.minN = this.n = HashCommon.arraySize(Math.min(initialCapacity, MAXIMUM_CAPACITY), loadFactor);
+        this.mask = n - 1;
+        this.maxFill = HashCommon.maxFill(n, loadFactor);
+        this.key = new WeakKey[n];
+        this.value = new double[n + 1];
+    }
+
+    /**
+     * Constructs a new, empty {@code Object2DoubleOpenCostumWeakHashMap} with the given initial
+     * capacity and the default load factor (0.75).
+     *
+     * @param  initialCapacity The initial capacity of the {@code Object2DoubleOpenCostumWeakHashMap}
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public Object2DoubleOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy, int initialCapacity) {
+        this(strategy, initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs a new, empty {@code Object2DoubleOpenCostumWeakHashMap} with the default initial
+     * capacity (16) and load factor (0.75).
+     */
+    public Object2DoubleOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy) {
+        this(strategy, DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs a new {@code Object2DoubleOpenCostumWeakHashMap} with the same mappings as the
+     * specified map.  The {@code Object2DoubleOpenCostumWeakHashMap} is created with the default
+     * load factor (0.75) and an initial capacity sufficient to hold the
+     * mappings in the specified map.
+     *
+     * @param   m the map whose mappings are to be placed in this map
+     * @throws  NullPointerException if the specified map is null
+     */
+    public Object2DoubleOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy, Object2DoubleMap<? extends K> m) {
+        this(strategy, Math.max(m.size(), DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     * This result is a snapshot, and may not reflect unprocessed
+     * entries that will be removed before next attempted access
+     * because they are no longer referenced, nor the ones left
+     * for later operations by the expunge budget.
+     */
+    @Override
+    public int size() {
+        if (size == 0) {
+            return 0;
+        }
+
+        expungeStaleEntries();
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public double getDouble(Object k) {
+        if (k == null) {
+            return containsNullKey ? value[n] : defRetValue;
+        }
+
+        int pos = find(k);
+        return pos >= 0 ? value[pos] : defRetValue;
+    }
+
+    @Override
+    public boolean containsKey(Object k) {
+        return k == null ? containsNullKey : find(k) >= 0;
+    }
+
+    @Override
+    public double put(K k, double v) {
+        if (k == null) {
+            return putNull(v);
+        }
+
+        expungeStaleEntries();
+
+        int h = hash(k);
+        int pos = h & mask;
+        int tombstone = -1;
+
+        for (WeakKey curr; (curr = key[pos]) != null; pos = (pos + 1) & mask) {
+            if (curr == TOMBSTONE) {
+                if (tombstone < 0) {
+                    tombstone = pos;
+                }
+            } else if (curr.hash == h && matches(curr, k)) {
+                double oldValue = value[pos];
+                value[pos] = v;
+                return oldValue;
+            }
+        }
+
+        insert(tombstone >= 0 ? tombstone : pos, k, h, v);
+        return defRetValue;
+    }
+
+    @Override
+    public double removeDouble(Object k) {
+        if (k == null) {
+            if (!containsNullKey) {
+                return defRetValue;
+            }
+
+            containsNullKey = false;
+            size--;
+            return value[n];
+        }
+
+        int pos = find(k);
+
+        if (pos < 0) {
+            return defRetValue;
+        }
+
+        double oldValue = value[pos];
+        removeAt(pos);
+        return oldValue;
+    }
+
+    @Override
+    public double computeIfAbsent(K k, ToDoubleFunction<? super K> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        if (k == null) {
+            if (!containsNullKey) {
+                putNull(mappingFunction.applyAsDouble(null));
+            }
+
+            return value[n];
+        }
+
+        int pos = find(k);
+
+        if (pos >= 0) {
+            return value[pos];
+        }
+
+        double v = mappingFunction.applyAsDouble(k);
+        put(k, v);
+        return v;
+    }
+
+    @Override
+    public boolean containsValue(double v) {
+        long bits = Double.doubleToLongBits(v);
+
+        if (containsNullKey && Double.doubleToLongBits(value[n]) == bits) {
+            return true;
+        }
+
+        WeakKey[] key = this.key;
+        double[] value = this.value;
+
+        for (int i = n; i-- != 0; ) {
+            if (Double.doubleToLongBits(value[i]) == bits && key[i] != null && key[i] != TOMBSTONE && !key[i].refersTo(null)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+
+        size = 0;
+        occupied = 0;
+        containsNullKey = false;
+        modCount++;
+        Arrays.fill(key, null);
+
+        while (queue.poll() != null) {
+            // the table is getting cleared
+        }
+    }
+
+    public Hash.Strategy<? super K> getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Sets the maximal number of stale entries expunged by a single operation, the rest is left
+     * for the following ones. A low budget bounds the pause of the first operations after a large
+     * collection, while the collected keys linger in the table a bit longer. {@link #trim()}
+     * ignores the budget. Unlimited by default.
+     *
+     * @throws IllegalArgumentException if the budget isn't positive
+     */
+    public void setExpungeBudget(int expungeBudget) {
+        if (expungeBudget <= 0) {
+            throw new IllegalArgumentException("Illegal Expunge budget: " + expungeBudget);
+        }
+
+        this.expungeBudget = expungeBudget;
+    }
+
+    public int getExpungeBudget() {
+        return expungeBudget;
+    }
+
+    /**
+     * @return the number of entries whose keys have been collected and which have been taken off
+     * the reference queue by the cleaner but not expunged yet, always 0 without a cleaner
+     */
+    public int getPendingCount() {
+        return queue.getPendingCount();
+    }
+
+    /**
+     * @return the total number of entries removed because their keys have been collected
+     */
+    public long getExpungedCount() {
+        return expungedCount;
+    }
+
+    /**
+     * Starts a daemon thread taking the references of the collected keys off the reference queue
+     * as soon as they're enqueued. The map stays confined to its own threads, the cleaner only spares
+     * its operations from contending with the garbage collector for the queue and makes the pending
+     * entries countable. It stops once the map is collected.
+     *
+     * @throws IllegalStateException if a cleaner is already running
+     */
+    public void startCleaner() {
+        startCleaner(r -> {
+            Thread thread = new Thread(r, "Object2DoubleOpenCostumWeakHashMap-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @throws IllegalStateException if a cleaner is already running
+     * @see #startCleaner()
+     */
+    public void startCleaner(ThreadFactory threadFactory) {
+        queue.startCleaner(this, threadFactory);
+    }
+
+    public void stopCleaner() {
+        queue.stopCleaner();
+    }
+
+    /**
+     * Drops the collected mappings and the tombstones and shrinks the table to the smallest
+     * capacity holding the remaining mappings.
+     */
+    public void trim() {
+        expungeStaleEntries(Integer.MAX_VALUE);
+        rehash(Math.max(minN, HashCommon.arraySize(size, f)));
+    }
+
+    @Override
+    public ObjectSet<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public DoubleCollection values() {
+        return new Values();
+    }
+
+    @Override
+    public ObjectSet<Object2DoubleMap.Entry<K>> object2DoubleEntrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Retrieve object hash code and mixes it, so that hashCodes that do not differ in lower bits
+     * don't collide.
+     */
+    private int hash(K k) {
+        return HashCommon.mix(strategy.hashCode(k));
+    }
+
+    /**
+     * Checks whether the given slot refers to the given key without keeping a strong reference
+     * to its referent.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean matches(WeakKey slot, K k) {
+        if (slot.refersTo(k)) {
+            return true;
+        }
+
+        Object referent = slot.get();
+        return referent != null && strategy.equals(k, (K) referent);
+    }
+
+    /**
+     * @return the position of the given non-null key or -1 if it isn't mapped
+     */
+    @SuppressWarnings("unchecked")
+    private int find(Object o) {
+        expungeStaleEntries();
+
+        K k;
+        int h;
+
+        try {
+            k = (K) o;
+            h = hash(k);
+        } catch (ClassCastException notKeyClass) {
+            return -1;
+        }
+
+        for (int pos = h & mask; ; pos = (pos + 1) & mask) {
+            WeakKey curr = key[pos];
+
+            if (curr == null) {
+                return -1;
+            }
+
+            if (curr != TOMBSTONE && curr.hash == h && matches(curr, k)) {
+                return pos;
+            }
+        }
+    }
+
+    private double putNull(double v) {
+        double oldValue = containsNullKey ? value[n] : defRetValue;
+
+        if (!containsNullKey) {
+            containsNullKey = true;
+            size++;
+        }
+
+        value[n] = v;
+        return oldValue;
+    }
+
+    private void insert(int pos, K k, int h, double v) {
+        if (key[pos] == null) {
+            occupied++;
+        }
+
+        key[pos] = new WeakKey(k, queue, h);
+        value[pos] = v;
+        size++;
+
+        if (occupied >= maxFill) {
+            rehash(Math.max(minN, HashCommon.arraySize(size + 1, f)));
+        }
+    }
+
+    private void removeAt(int pos) {
+        key[pos].clear();
+        bury(pos);
+        size--;
+    }
+
+    /**
+     * Frees the given slot. A slot followed by an empty one can't be a part of any probe sequence,
+     * so it's emptied along with the tombstones preceding it instead of becoming one.
+     */
+    private void bury(int pos) {
+        if (key[(pos + 1) & mask] != null) {
+            key[pos] = TOMBSTONE;
+            return;
+        }
+
+        do {
+            key[pos] = null;
+            occupied--;
+            pos = (pos - 1) & mask;
+        } while (key[pos] == TOMBSTONE);
+    }
+
+    /**
+     * Expunges stale entries from the table within the expunge budget.
+     */
+    private void expungeStaleEntries() {
+        expungeStaleEntries(expungeBudget);
+    }
+
+    private void expungeStaleEntries(int budget) {
+        for (Reference<?> x; budget-- != 0 && (x = queue.poll()) != null; ) {
+            WeakKey stale = (WeakKey) x;
+
+            // a stale key which isn't found has been dropped by a rehash already
+            for (int pos = stale.hash & mask; key[pos] != null; pos = (pos + 1) & mask) {
+                if (key[pos] == stale) {
+                    bury(pos);
+                    size--;
+                    expungedCount++;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the live mappings to a table of the given capacity, dropping the tombstones and
+     * the mappings whose keys have been collected.
+     */
+    private void rehash(int newN) {
+        WeakKey[] key = this.key;
+        double[] value = this.value;
+        int newMask = newN - 1;
+        WeakKey[] newKey = new WeakKey[newN];
+        double[] newValue = new double[newN + 1];
+        int live = 0;
+
+        for (int i = n; i-- != 0; ) {
+            WeakKey curr = key[i];
+
+            if (curr == null || curr == TOMBSTONE || curr.refersTo(null)) {
+                continue;
+            }
+
+            int pos = curr.hash & newMask;
+
+            while (newKey[pos] != null) {
+                pos = (pos + 1) & newMask;
+            }
+
+            newKey[pos] = curr;
+            newValue[pos] = value[i];
+            live++;
+        }
+
+        newValue[newN] = value[n];
+        n = newN;
+        mask = newMask;
+        maxFill = HashCommon.maxFill(n, f);
+        this.key = newKey;
+        this.value = newValue;
+        expungedCount += size - live - (containsNullKey ? 1 : 0);
+        size = live + (containsNullKey ? 1 : 0);
+        occupied = live;
+        modCount++;
+    }
+
+    /**
+     * A weak reference to a key caching its hash, which fits in the alignment padding of
+     * {@link WeakReference} on common layouts.
+     */
+    private static final class WeakKey extends WeakReference<Object> {
+        final int hash;
+
+        WeakKey(Object referent, ReferenceQueue<Object> queue, int hash) {
+            super(referent, queue);
+            this.hash = hash;
+        }
+    }
+
+    private final class MapEntry implements Object2DoubleMap.Entry<K>, Map.Entry<K, Double> {
+        /**
+         * Strong reference keeping the key alive while the entry is in use.
+         */
+        private final K k;
+        private final int index;
+        private final int expectedModCount;
+
+        private MapEntry(K k, int index) {
+            this.k = k;
+            this.index = index;
+            this.expectedModCount = modCount;
+        }
+
+        @Override
+        public K getKey() {
+            return k;
+        }
+
+        @Override
+        public double getDoubleValue() {
+            checkModCount();
+            return value[index];
+        }
+
+        @Override
+        public double setValue(double v) {
+            checkModCount();
+
+            double oldValue = value[index];
+            value[index] = v;
+            return oldValue;
+        }
+
+        @Override
+        @Deprecated
+        public Double getValue() {
+            return getDoubleValue();
+        }
+
+        @Override
+        @Deprecated
+        public Double setValue(Double v) {
+            return setValue(v.doubleValue());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || !(e.getValue() instanceof Double v)) {
+                return false;
+            }
+
+            try {
+                return (k == null ? e.getKey() == null : e.getKey() != null && strategy.equals(k, (K) e.getKey()))
+                        && Double.doubleToLongBits(getDoubleValue()) == Double.doubleToLongBits(v);
+            } catch (ClassCastException notKeyClass) {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return (k == null ? 0 : strategy.hashCode(k)) ^ HashCommon.double2int(getDoubleValue());
+        }
+
+        @Override
+        public String toString() {
+            return k + "=" + getDoubleValue();
+        }
+
+        private void checkModCount() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Iterates over the slots holding a strong reference to the next key, so that it can't
+     * disappear between hasNext and next. Iterators fail fast if the table is reallocated.
+     */
+    private abstract class MapIterator {
+        private int pos;
+        private int nextPos = -1;
+        private Object nextKey;
+        /**
+         * The position of the last returned mapping, -1 if there is none or it has been removed.
+         */
+        int last = -1;
+        K lastKey;
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            if (nextPos >= 0) {
+                return true;
+            }
+
+            WeakKey[] key = Object2DoubleOpenCostumWeakHashMap.this.key;
+
+            for (; pos < n; pos++) {
+                WeakKey curr = key[pos];
+
+                if (curr != null && curr != TOMBSTONE && (nextKey = curr.get()) != null) {
+                    nextPos = pos++;
+                    return true;
+                }
+            }
+
+            if (pos++ == n && containsNullKey) {
+                nextPos = n;
+                nextKey = null;
+                return true;
+            }
+
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        int nextPos() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            last = nextPos;
+            lastKey = (K) nextKey;
+            nextPos = -1;
+            nextKey = null;
+            return last;
+        }
+
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (last == n) {
+                containsNullKey = false;
+                size--;
+            } else if (key[last] != null && key[last] != TOMBSTONE) {
+                removeAt(last);
+            }
+
+            last = -1;
+            lastKey = null;
+        }
+    }
+
+    private final class KeyIterator extends MapIterator implements ObjectIterator<K> {
+        @Override
+        public K next() {
+            nextPos();
+            return lastKey;
+        }
+    }
+
+    private final class ValueIterator extends MapIterator implements DoubleIterator {
+        @Override
+        public double nextDouble() {
+            return value[nextPos()];
+        }
+    }
+
+    private final class EntryIterator extends MapIterator implements ObjectIterator<Object2DoubleMap.Entry<K>> {
+        @Override
+        public Object2DoubleMap.Entry<K> next() {
+            int pos = nextPos();
+            return new MapEntry(lastKey, pos);
+        }
+    }
+
+    private final class KeySet extends AbstractObjectSet<K> {
+        @Override
+        public ObjectIterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public int size() {
+            return Object2DoubleOpenCostumWeakHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (o == null) {
+                if (!containsNullKey) {
+                    return false;
+                }
+
+                removeDouble(null);
+                return true;
+            }
+
+            // the lookup may expunge stale keys, so whether o was removed can't be told by the size
+            int pos = find(o);
+
+            if (pos < 0) {
+                return false;
+            }
+
+            removeAt(pos);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            Object2DoubleOpenCostumWeakHashMap.this.clear();
+        }
+    }
+
+    private final class Values extends AbstractDoubleCollection {
+        @Override
+        public DoubleIterator iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return Object2DoubleOpenCostumWeakHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(double v) {
+            return containsValue(v);
+        }
+
+        @Override
+        public void clear() {
+            Object2DoubleOpenCostumWeakHashMap.this.clear();
+        }
+    }
+
+    private final class EntrySet extends AbstractObjectSet<Object2DoubleMap.Entry<K>> {
+        @Override
+        public ObjectIterator<Object2DoubleMap.Entry<K>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || !(e.getValue() instanceof Double v)) {
+                return false;
+            }
+
+            Object k = e.getKey();
+
+            if (k == null) {
+                return containsNullKey && Double.doubleToLongBits(value[n]) == Double.doubleToLongBits(v);
+            }
+
+            int pos = find(k);
+            return pos >= 0 && Double.doubleToLongBits(value[pos]) == Double.doubleToLongBits(v);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || !(e.getValue() instanceof Double v)) {
+                return false;
+            }
+
+            return Object2DoubleOpenCostumWeakHashMap.this.remove(e.getKey(), (double) v);
+        }
+
+        @Override
+        public int size() {
+            return Object2DoubleOpenCostumWeakHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            Object2DoubleOpenCostumWeakHashMap.this.clear();
+        }
+    }
+}
@@ -1,32 +1,86 @@
 package com.github.svegon.utils.fast.util.doubles;
 
+import com.github.svegon.utils.fast.util.BulkArrayUtil;
+import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.doubles.DoubleArrays;
 import net.jcip.annotations.Immutable;
 
 import java.util.RandomAccess;
 
+/**
+ * An immutable list of the elements of an array between two indices. The array may be shared with other
+ * lists, which is how {@link #subList(int, int)} takes constant time and a builder hands its array over.
+ */
 @Immutable
 final class RegularImmutableDoubleList extends ImmutableDoubleList implements RandomAccess {
     public static final ImmutableDoubleList EMPTY = new RegularImmutableDoubleList(DoubleArrays.EMPTY_ARRAY);
 
     final double[] values;
+    final int from;
+    final int to;
 
     RegularImmutableDoubleList(double[] values) {
+        this(values, 0, values.length);
+    }
+
+    RegularImmutableDoubleList(double[] values, int from, int to) {
         this.values = values;
+        this.from = from;
+        this.to = to;
     }
 
     @Override
     public double getDouble(int index) {
-        return values[index];
+        Preconditions.checkElementIndex(index, to - from);
+        return values[from + index];
     }
 
     @Override
     public int size() {
-        return values.length;
+        return to - from;
     }
 
     @Override
     public void getElements(int from, double[] a, int offset, int length) {
-        System.arraycopy(values, from, a, offset, length);
+        Preconditions.checkPositionIndexes(from, from + length, size());
+        System.arraycopy(values, this.from + from, a, offset, length);
+    }
+
+    @Override
+    public int indexOf(double k) {
+        int index = BulkArrayUtil.indexOf(values, from, to, k);
+        return index < 0 ? -1 : index - from;
+    }
+
+    @Override
+    public int lastIndexOf(double k) {
+        int index = BulkArrayUtil.lastIndexOf(values, from, to, k);
+        return index < 0 ? -1 : index - from;
+    }
+
+    @Override
+    public double sum() {
+        return BulkArrayUtil.sum(values, from, to);
+    }
+
+    @Override
+    public double min() {
+        return BulkArrayUtil.min(values, from, to);
+    }
+
+    @Override
+    public double max() {
+        return BulkArrayUtil.max(values, from, to);
+    }
+
+    @Override
+    public ImmutableDoubleList subList(int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, size());
+
+        if (from == 0 && to == size()) {
+            return this;
+        }
+
+        return from == to ? EMPTY : new RegularImmutableDoubleList(values, this.from + from, this.from + to);
     }
 }
@@ -0,0 +1,129 @@
+package com.github.svegon.utils.fast.util.floats;
+
+import it.unimi.dsi.fastutil.floats.FloatConsumer;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe counterpart of {@link FloatSummaryStatistics} for recording from many threads at once, such as
+ * a metrics sink shared by a worker pool. The count, sum, minimum and maximum are each held in striped cells
+ * of a {@link LongAdder}, a {@link DoubleAdder} or a {@link DoubleAccumulator}, so concurrent updates rarely
+ * contend and never block. Unlike in {@link FloatSummaryStatistics}, the sum isn't compensated, the values are
+ * summed in double precision.
+ *
+ * The getters read their cells separately, {@link #snapshot()} returns statistics which are consistent with
+ * each other even under concurrent updates.
+ */
+@ThreadSafe
+public class ConcurrentFloatSummaryStatistics implements FloatConsumer {
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAccumulator min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+    public ConcurrentFloatSummaryStatistics() { }
+
+    /**
+     * Records another value into the summary information.
+     *
+     * @param value the input value
+     */
+    @Override
+    public void accept(float value) {
+        // the count goes last, so whoever sees it also sees the minimum and maximum of the counted values
+        min.accumulate(value);
+        max.accumulate(value);
+        sum.add(value);
+        count.increment();
+    }
+
+    /**
+     * Combines the state of a {@code FloatSummaryStatistics} into this one, such as one collected by a single
+     * thread.
+     *
+     * @param other a {@code FloatSummaryStatistics}
+     * @throws NullPointerException if {@code other} is null
+     */
+    public void combine(FloatSummaryStatistics other) {
+        if (other.getCount() == 0) {
+            return;
+        }
+
+        min.accumulate(other.getMin());
+        max.accumulate(other.getMax());
+        sum.add(other.getSum());
+        count.add(other.getCount());
+    }
+
+    /**
+     * Returns the statistics of the values recorded so far. Values recorded concurrently may be missing from
+     * them or reflected in some of them only, but the minimum and maximum are always those of at least the
+     * counted values. Once any of the minimum, maximum or sum is {@link Float#NaN}, all of them are.
+     *
+     * @return a new {@code FloatSummaryStatistics} holding the current state
+     */
+    public FloatSummaryStatistics snapshot() {
+        long count = this.count.sum();
+        double sum = this.sum.sum();
+        float min = (float) this.min.get();
+        float max = (float) this.max.get();
+
+        if (Double.isNaN(sum) || Float.isNaN(min) || Float.isNaN(max)) {
+            // a NaN may not have reached all the cells yet, opposite infinities make just the sum NaN
+            sum = Double.NaN;
+            min = Float.NaN;
+            max = Float.NaN;
+        }
+
+        return new FloatSummaryStatistics(count, min, max, sum);
+    }
+
+    /**
+     * Resets the statistics to their initial state. Values recorded concurrently may be partially reset, so
+     * this should only be called while nothing is being recorded.
+     */
+    public void reset() {
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    public final long getCount() {
+        return count.sum();
+    }
+
+    public final double getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the minimum recorded value, {@code Float.NaN} if any recorded value was NaN or
+     * {@code Float.POSITIVE_INFINITY} if no values were recorded
+     */
+    public final float getMin() {
+        return (float) min.get();
+    }
+
+    /**
+     * @return the maximum recorded value, {@code Float.NaN} if any recorded value was NaN or
+     * {@code Float.NEGATIVE_INFINITY} if no values were recorded
+     */
+    public final float getMax() {
+        return (float) max.get();
+    }
+
+    public final double getAverage() {
+        return snapshot().getAverage();
+    }
+
+    @Override
+    public String toString() {
+        FloatSummaryStatistics snapshot = snapshot();
+        return String.format("%s{count=%d, sum=%s, min=%s, average=%f, max=%s}", getClass().getSimpleName(),
+                snapshot.getCount(), snapshot.getSum(), snapshot.getMin(), snapshot.getAverage(), snapshot.getMax());
+    }
+}
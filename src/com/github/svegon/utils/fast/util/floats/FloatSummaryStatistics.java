@@ -1,5 +1,6 @@
 package com.github.svegon.utils.fast.util.floats;
 
+import com.github.svegon.utils.math.NeumaierAccumulator;
 import it.unimi.dsi.fastutil.floats.FloatConsumer;
 
 import java.util.stream.Collector;
@@ -40,9 +41,7 @@ import java.util.stream.DoubleStream;
  */
 public class FloatSummaryStatistics implements FloatConsumer {
     private long count;
-    private double sum;
-    private double sumCompensation; // Low order bits of sum
-    private double simpleSum; // Used to compute right sum for non-finite inputs
+    private final NeumaierAccumulator sum = new NeumaierAccumulator();
     private float min = Float.POSITIVE_INFINITY;
     private float max = Float.NEGATIVE_INFINITY;
 
@@ -97,9 +96,7 @@ public class FloatSummaryStatistics implements FloatConsumer {
                 throw new IllegalArgumentException("Some, not all, of the minimum, maximum, or sum is NaN");
 
             this.count = count;
-            this.sum = sum;
-            this.simpleSum = sum;
-            this.sumCompensation = 0.0F;
+            this.sum.add(sum);
             this.min = min;
             this.max = max;
         }
@@ -114,8 +111,7 @@ public class FloatSummaryStatistics implements FloatConsumer {
     @Override
     public void accept(float value) {
         ++count;
-        simpleSum += value;
-        sumWithCompensation(value);
+        sum.add(value);
         min = Math.min(min, value);
         max = Math.max(max, value);
     }
@@ -129,24 +125,11 @@ public class FloatSummaryStatistics implements FloatConsumer {
      */
     public void combine(FloatSummaryStatistics other) {
         count += other.count;
-        simpleSum += other.simpleSum;
-        sumWithCompensation(other.sum);
-        sumWithCompensation(other.sumCompensation);
+        sum.combine(other.sum);
         min = Math.min(min, other.min);
         max = Math.max(max, other.max);
     }
 
-    /**
-     * Incorporate a new double value using Kahan summation /
-     * compensated summation.
-     */
-    private void sumWithCompensation(double value) {
-        double tmp = value - sumCompensation;
-        double velvel = sum + tmp; // Little wolf of rounding error
-        sumCompensation = (velvel - sum) - tmp;
-        sum = velvel;
-    }
-
     /**
      * Return the count of values recorded.
      *
@@ -215,18 +198,7 @@ public class FloatSummaryStatistics implements FloatConsumer {
      * @return the sum of values, or zero if none
      */
     public final double getSum() {
-        // Better error bounds to add both terms as the final sum
-        double tmp =  sum + sumCompensation;
-
-        if (Double.isNaN(tmp) && Double.isInfinite(simpleSum)) {
-            // If the compensated sum is spuriously NaN from
-            // accumulating one or more same-signed infinite values,
-            // return the correctly-signed infinity stored in
-            // simpleSum.
-            return simpleSum;
-        } else {
-            return tmp;
-        }
+        return sum.result();
     }
 
     /**
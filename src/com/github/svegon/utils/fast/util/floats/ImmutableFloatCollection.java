@@ -12,7 +12,10 @@ import java.util.Collection;
 
 @Immutable
 public abstract class ImmutableFloatCollection implements ImprovedFloatCollection {
-    private final int hashCode = initHashCode();
+    /**
+     * Computed lazily, the fields of the subclasses aren't initialized yet in this constructor.
+     */
+    private int hashCode;
 
     ImmutableFloatCollection() {
 
@@ -20,7 +23,13 @@ public abstract class ImmutableFloatCollection implements ImprovedFloatCollectio
 
     @Override
     public final int hashCode() {
-        return hashCode;
+        int h = hashCode;
+
+        if (h == 0) {
+            hashCode = h = initHashCode();
+        }
+
+        return h;
     }
 
     @Override
@@ -107,8 +107,8 @@ public abstract class ImmutableFloatList extends ImmutableFloatCollection implem
 
         FloatListIterator it = listIterator(from);
 
-        while (it.hasNext()) {
-            a[it.nextIndex()] = it.nextFloat();
+        for (int i = 0; i < length; i++) {
+            a[offset + i] = it.nextFloat();
         }
     }
 
@@ -165,7 +165,7 @@ public abstract class ImmutableFloatList extends ImmutableFloatCollection implem
 
     @Override
     public int lastIndexOf(float k) {
-        FloatListIterator it = listIterator(size() - 1);
+        FloatListIterator it = listIterator(size());
 
         while (it.hasPrevious()) {
             if (it.previousFloat() == k) {
@@ -176,6 +176,58 @@ public abstract class ImmutableFloatList extends ImmutableFloatCollection implem
         return -1;
     }
 
+    /**
+     * @return the sum of the elements of this list
+     */
+    public double sum() {
+        double sum = 0;
+        FloatIterator it = iterator();
+
+        while (it.hasNext()) {
+            sum += it.nextFloat();
+        }
+
+        return sum;
+    }
+
+    /**
+     * @return the least element of this list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public float min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        FloatIterator it = iterator();
+        float min = it.nextFloat();
+
+        while (it.hasNext()) {
+            min = Math.min(min, it.nextFloat());
+        }
+
+        return min;
+    }
+
+    /**
+     * @return the greatest element of this list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public float max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        FloatIterator it = iterator();
+        float max = it.nextFloat();
+
+        while (it.hasNext()) {
+            max = Math.max(max, it.nextFloat());
+        }
+
+        return max;
+    }
+
     @Override
     public final float removeFloat(int index) {
         Preconditions.checkElementIndex(index, size());
@@ -239,17 +291,36 @@ public abstract class ImmutableFloatList extends ImmutableFloatCollection implem
     }
 
     public static ImmutableFloatList of(FloatIterator it) {
-        return copyOf(new FloatArrayList(it));
+        return builder().addAll(it).build();
     }
 
+    /**
+     * @return the given iterable if it's already an immutable list, otherwise an immutable list of its elements
+     */
     public static ImmutableFloatList copyOf(FloatIterable iterable) {
-        if (iterable.getClass() == FloatArrayList.class) {
-            float[] array = ((FloatArrayList) iterable).toFloatArray();
+        if (iterable instanceof ImmutableFloatList list) {
+            return list;
+        }
+
+        if (iterable instanceof FloatCollection collection) {
+            // the array is a fresh copy, so it's handed over as is
+            float[] array = collection.toFloatArray();
             return array.length == 0 ? RegularImmutableFloatList.EMPTY : new RegularImmutableFloatList(array);
         }
 
-        return iterable instanceof FloatCollection ? of(((FloatCollection) iterable).toFloatArray())
-                : of(iterable.iterator());
+        return of(iterable.iterator());
+    }
+
+    /**
+     * @return a builder handing its array over to the list it builds
+     */
+    public static Builder builder() {
+        return new Builder(FloatArrays.EMPTY_ARRAY);
+    }
+
+    public static Builder builder(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "Illegal expected size: " + expectedSize);
+        return new Builder(expectedSize == 0 ? FloatArrays.EMPTY_ARRAY : new float[expectedSize]);
     }
 
     protected class RandomAccessImmutableListIterator implements FloatListIterator {
@@ -276,7 +347,7 @@ public abstract class ImmutableFloatList extends ImmutableFloatCollection implem
 
         @Override
         public boolean hasPrevious() {
-            return index >= 0;
+            return index > 0;
         }
 
         @Override
@@ -345,6 +416,75 @@ public abstract class ImmutableFloatList extends ImmutableFloatCollection implem
         }
     }
 
+    /**
+     * A growable array of elements which {@link #build()} hands over to the built list instead of copying it.
+     * The builder starts over empty afterwards, so the built list is never modified, though it keeps the
+     * unused capacity of the array.
+     */
+    public static final class Builder {
+        private float[] values;
+        private int size;
+
+        private Builder(float[] values) {
+            this.values = values;
+        }
+
+        public Builder add(float k) {
+            if (size == values.length) {
+                values = FloatArrays.grow(values, size + 1);
+            }
+
+            values[size++] = k;
+            return this;
+        }
+
+        public Builder add(float... values) {
+            return addAll(values, 0, values.length);
+        }
+
+        public Builder addAll(float[] a, int offset, int length) {
+            FloatArrays.ensureOffsetLength(a, offset, length);
+            values = FloatArrays.grow(values, size + length);
+            System.arraycopy(a, offset, values, size, length);
+            size += length;
+            return this;
+        }
+
+        public Builder addAll(FloatIterator it) {
+            while (it.hasNext()) {
+                add(it.nextFloat());
+            }
+
+            return this;
+        }
+
+        public Builder addAll(FloatIterable iterable) {
+            if (iterable instanceof FloatList list) {
+                int length = list.size();
+
+                values = FloatArrays.grow(values, size + length);
+                list.getElements(0, values, size, length);
+                size += length;
+                return this;
+            }
+
+            return addAll(iterable.iterator());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ImmutableFloatList build() {
+            ImmutableFloatList list = size == 0 ? RegularImmutableFloatList.EMPTY
+                    : new RegularImmutableFloatList(values, 0, size);
+
+            values = FloatArrays.EMPTY_ARRAY;
+            size = 0;
+            return list;
+        }
+    }
+
     protected static class SubList extends ImmutableFloatList {
         protected final ImmutableFloatList list;
         protected final int from;
@@ -358,7 +498,8 @@ public abstract class ImmutableFloatList extends ImmutableFloatCollection implem
 
         @Override
         public float getFloat(int index) {
-            return list.getFloat(index);
+            Preconditions.checkElementIndex(index, size);
+            return list.getFloat(from + index);
         }
 
         @Override
@@ -366,15 +507,10 @@ public abstract class ImmutableFloatList extends ImmutableFloatCollection implem
             return size;
         }
 
-        @Override
-        public FloatListIterator listIterator(int index) {
-            return list.listIterator(from + index);
-        }
-
         @Override
         public ImmutableFloatList subList(int from, int to) {
             Preconditions.checkPositionIndexes(from, to, size());
-            return new SubList(list, this.from + from, this.from + to);
+            return list.subList(this.from + from, this.from + to);
         }
     }
 
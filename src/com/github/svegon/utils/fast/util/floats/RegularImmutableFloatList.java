@@ -1,32 +1,86 @@
 package com.github.svegon.utils.fast.util.floats;
 
+import com.github.svegon.utils.fast.util.BulkArrayUtil;
+import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.floats.FloatArrays;
 import net.jcip.annotations.Immutable;
 
 import java.util.RandomAccess;
 
+/**
+ * An immutable list of the elements of an array between two indices. The array may be shared with other
+ * lists, which is how {@link #subList(int, int)} takes constant time and a builder hands its array over.
+ */
 @Immutable
 final class RegularImmutableFloatList extends ImmutableFloatList implements RandomAccess {
     public static final ImmutableFloatList EMPTY = new RegularImmutableFloatList(FloatArrays.EMPTY_ARRAY);
 
     final float[] values;
+    final int from;
+    final int to;
 
     RegularImmutableFloatList(float[] values) {
+        this(values, 0, values.length);
+    }
+
+    RegularImmutableFloatList(float[] values, int from, int to) {
         this.values = values;
+        this.from = from;
+        this.to = to;
     }
 
     @Override
     public float getFloat(int index) {
-        return values[index];
+        Preconditions.checkElementIndex(index, to - from);
+        return values[from + index];
     }
 
     @Override
     public int size() {
-        return values.length;
+        return to - from;
     }
 
     @Override
     public void getElements(int from, float[] a, int offset, int length) {
-        System.arraycopy(values, from, a, offset, length);
+        Preconditions.checkPositionIndexes(from, from + length, size());
+        System.arraycopy(values, this.from + from, a, offset, length);
+    }
+
+    @Override
+    public int indexOf(float k) {
+        int index = BulkArrayUtil.indexOf(values, from, to, k);
+        return index < 0 ? -1 : index - from;
+    }
+
+    @Override
+    public int lastIndexOf(float k) {
+        int index = BulkArrayUtil.lastIndexOf(values, from, to, k);
+        return index < 0 ? -1 : index - from;
+    }
+
+    @Override
+    public double sum() {
+        return BulkArrayUtil.sum(values, from, to);
+    }
+
+    @Override
+    public float min() {
+        return BulkArrayUtil.min(values, from, to);
+    }
+
+    @Override
+    public float max() {
+        return BulkArrayUtil.max(values, from, to);
+    }
+
+    @Override
+    public ImmutableFloatList subList(int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, size());
+
+        if (from == 0 && to == size()) {
+            return this;
+        }
+
+        return from == to ? EMPTY : new RegularImmutableFloatList(values, this.from + from, this.from + to);
     }
 }
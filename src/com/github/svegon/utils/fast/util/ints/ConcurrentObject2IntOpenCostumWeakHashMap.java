@@ -0,0 +1,841 @@
+package com.github.svegon.utils.fast.util.ints;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.AbstractObject2IntMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.Object2IntFunction;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * A thread-safe {@link Object2IntOpenCostumWeakHashMap}.
+ *
+ * The map is split into segments selected by the upper bits of the hashes, each with its own lock,
+ * table and reference queue. Retrievals don't lock at all and modifications only lock the segment
+ * of their key. The entries of a segment whose keys have been collected are expunged under the lock
+ * of that segment, so a retrieval only ever waits for the segment it reads and only when it finds
+ * a stale entry in the queue of the segment.
+ *
+ * {@link #putIfAbsent(Object, int)}, {@link #computeIfAbsent(Object, ToIntFunction)}, {@link #computeInt},
+ * {@link #mergeInt(Object, int, IntBinaryOperator)} and the conditional removals and replacements are
+ * atomic. The functions passed to them are called under the lock of the segment, so they should be
+ * short and must not modify the map. The iterators are weakly consistent, they never throw
+ * {@link java.util.ConcurrentModificationException} and setting the value of an entry they return
+ * writes it through to the map.
+ *
+ * The number of stale entries a single operation expunges can be bounded by
+ * {@link #setExpungeBudget(int)}, so the first accesses to a segment after a large collection don't
+ * hold its lock for long.
+ */
+public class ConcurrentObject2IntOpenCostumWeakHashMap<K> extends AbstractObject2IntMap<K> {
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int MAXIMUM_SEGMENTS = 1 << 16;
+    private static final int MINIMUM_SEGMENT_CAPACITY = 2;
+    /**
+     * Value representing null keys inside tables.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private final Hash.Strategy<? super K> strategy;
+    private final Segment<K>[] segments;
+    private final int segmentShift;
+    private final int segmentMask;
+    private final ObjectSet<Object2IntMap.Entry<K>> entrySet = new EntrySet();
+    private volatile int expungeBudget = Integer.MAX_VALUE;
+
+    /**
+     * @param concurrencyLevel the estimated number of threads modifying the map at once, rounded up
+     *                         to a power of two to get the number of segments
+     * @throws IllegalArgumentException if the initial capacity is negative or the load factor
+     *                                  or the concurrency level are nonpositive
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentObject2IntOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy, int initialCapacity,
+                                                     float loadFactor, int concurrencyLevel) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Initial Capacity: " + initialCapacity);
+        }
+
+        if (loadFactor <= 0 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal Load factor: " + loadFactor);
+        }
+
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Illegal Concurrency level: " + concurrencyLevel);
+        }
+
+        int segmentCount = Math.min(HashCommon.nextPowerOfTwo(concurrencyLevel), MAXIMUM_SEGMENTS);
+        int segmentCapacity = Math.max(HashCommon.nextPowerOfTwo(
+                Math.min(initialCapacity, MAXIMUM_CAPACITY) / segmentCount), MINIMUM_SEGMENT_CAPACITY);
+
+        this.strategy = strategy;
+        this.segments = (Segment<K>[]) new Segment<?>[segmentCount];
+        this.segmentShift = Integer.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+        this.segmentMask = segmentCount - 1;
+
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(this, segmentCapacity, loadFactor);
+        }
+    }
+
+    public ConcurrentObject2IntOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy, int initialCapacity) {
+        this(strategy, initialCapacity, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentObject2IntOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy) {
+        this(strategy, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public ConcurrentObject2IntOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy,
+                                                     Object2IntMap<? extends K> m) {
+        this(strategy, Math.max((int) (m.size() / DEFAULT_LOAD_FACTOR) + 1, DEFAULT_INITIAL_CAPACITY));
+        putAll(m);
+    }
+
+    @Override
+    public int getInt(Object key) {
+        Object k = maskNull(key);
+        int h;
+
+        try {
+            h = hash(k);
+        } catch (ClassCastException notKeyClass) {
+            return defRetValue;
+        }
+
+        Entry<K> e = segmentFor(h).getEntry(k, h);
+        return e != null ? e.value : defRetValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Object k = maskNull(key);
+        int h;
+
+        try {
+            h = hash(k);
+        } catch (ClassCastException notKeyClass) {
+            return false;
+        }
+
+        return segmentFor(h).getEntry(k, h) != null;
+    }
+
+    @Override
+    public boolean containsValue(int v) {
+        for (Segment<K> segment : segments) {
+            if (segment.containsValue(v)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public int put(K key, int value) {
+        Object k = maskNull(key);
+        int h = hash(k);
+        return segmentFor(h).put(k, h, value, false);
+    }
+
+    @Override
+    public int putIfAbsent(K key, int value) {
+        Object k = maskNull(key);
+        int h = hash(k);
+        return segmentFor(h).put(k, h, value, true);
+    }
+
+    @Override
+    public int removeInt(Object key) {
+        Object k = maskNull(key);
+        int h;
+
+        try {
+            h = hash(k);
+        } catch (ClassCastException notKeyClass) {
+            return defRetValue;
+        }
+
+        Entry<K> e = segmentFor(h).remove(k, h, false, 0);
+        return e != null ? e.value : defRetValue;
+    }
+
+    @Override
+    public boolean remove(Object key, int value) {
+        Object k = maskNull(key);
+        int h;
+
+        try {
+            h = hash(k);
+        } catch (ClassCastException notKeyClass) {
+            return false;
+        }
+
+        return segmentFor(h).remove(k, h, true, value) != null;
+    }
+
+    @Override
+    public int replace(K key, int value) {
+        Object k = maskNull(key);
+        int h = hash(k);
+        Segment<K> segment = segmentFor(h);
+
+        segment.lock();
+
+        try {
+            segment.expungeStaleEntries();
+            Entry<K> e = segment.findEntry(k, h);
+
+            if (e == null) {
+                return defRetValue;
+            }
+
+            int oldValue = e.value;
+            e.value = value;
+            return oldValue;
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    @Override
+    public boolean replace(K key, int oldValue, int newValue) {
+        Object k = maskNull(key);
+        int h = hash(k);
+        Segment<K> segment = segmentFor(h);
+
+        segment.lock();
+
+        try {
+            segment.expungeStaleEntries();
+            Entry<K> e = segment.findEntry(k, h);
+
+            if (e == null || e.value != oldValue) {
+                return false;
+            }
+
+            e.value = newValue;
+            return true;
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    @Override
+    public int computeIfAbsent(K key, ToIntFunction<? super K> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        Object k = maskNull(key);
+        int h = hash(k);
+        Segment<K> segment = segmentFor(h);
+        Entry<K> e = segment.getEntry(k, h);
+
+        if (e != null) {
+            return e.value;
+        }
+
+        segment.lock();
+
+        try {
+            segment.expungeStaleEntries();
+
+            if ((e = segment.findEntry(k, h)) != null) {
+                return e.value;
+            }
+
+            int value = mappingFunction.applyAsInt(key);
+            segment.insert(k, h, value);
+            return value;
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    @Override
+    public int computeIfAbsent(K key, Object2IntFunction<? super K> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        if (!containsKey(key) && !mappingFunction.containsKey(key)) {
+            return defRetValue;
+        }
+
+        return computeIfAbsent(key, (ToIntFunction<? super K>) mappingFunction::getInt);
+    }
+
+    @Override
+    public int computeInt(K key, BiFunction<? super K, ? super Integer, ? extends Integer> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        Object k = maskNull(key);
+        int h = hash(k);
+        Segment<K> segment = segmentFor(h);
+
+        segment.lock();
+
+        try {
+            segment.expungeStaleEntries();
+            Entry<K> e = segment.findEntry(k, h);
+            Integer newValue = remappingFunction.apply(key, e != null ? e.value : null);
+
+            if (newValue == null) {
+                if (e != null) {
+                    segment.unlink(e);
+                }
+
+                return defRetValue;
+            }
+
+            if (e != null) {
+                e.value = newValue;
+            } else {
+                segment.insert(k, h, newValue);
+            }
+
+            return newValue;
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    @Override
+    public int mergeInt(K key, int value, IntBinaryOperator remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+
+        Object k = maskNull(key);
+        int h = hash(k);
+        Segment<K> segment = segmentFor(h);
+
+        segment.lock();
+
+        try {
+            segment.expungeStaleEntries();
+            Entry<K> e = segment.findEntry(k, h);
+
+            if (e == null) {
+                segment.insert(k, h, value);
+                return value;
+            }
+
+            return e.value = remappingFunction.applyAsInt(e.value, value);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map. The result is a snapshot, and may not
+     * reflect unprocessed entries that will be removed before next attempted access because they
+     * are no longer referenced.
+     */
+    @Override
+    public int size() {
+        long size = 0;
+
+        for (Segment<K> segment : segments) {
+            segment.expungeIfStale();
+            size += segment.count;
+        }
+
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public ObjectSet<Object2IntMap.Entry<K>> object2IntEntrySet() {
+        return entrySet;
+    }
+
+    public Hash.Strategy<? super K> getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Sets the maximal number of stale entries expunged from a segment by a single operation,
+     * the rest is left for the following ones. Unlimited by default.
+     *
+     * @throws IllegalArgumentException if the budget isn't positive
+     */
+    public void setExpungeBudget(int expungeBudget) {
+        if (expungeBudget <= 0) {
+            throw new IllegalArgumentException("Illegal Expunge budget: " + expungeBudget);
+        }
+
+        this.expungeBudget = expungeBudget;
+    }
+
+    public int getExpungeBudget() {
+        return expungeBudget;
+    }
+
+    /**
+     * @return the total number of entries removed because their keys have been collected
+     */
+    public long getExpungedCount() {
+        long expunged = 0;
+
+        for (Segment<K> segment : segments) {
+            expunged += segment.expunged;
+        }
+
+        return expunged;
+    }
+
+    /**
+     * Use NULL_KEY for key if it is null.
+     */
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    /**
+     * Returns internal representation of null key back to caller as null.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> K unmaskNull(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    /**
+     * Mixes the hash of the strategy so both the upper bits selecting the segment and the lower
+     * bits selecting the bucket depend on all of its bits.
+     */
+    @SuppressWarnings("unchecked")
+    private int hash(Object key) {
+        return HashCommon.mix(strategy.hashCode((K) key));
+    }
+
+    private Segment<K> segmentFor(int hash) {
+        return segments[(hash >>> segmentShift) & segmentMask];
+    }
+
+    /**
+     * Checks whether the given entry refers to the given key without keeping a strong reference
+     * to the referent of the entry.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean matchesKey(Entry<K> e, Object key) {
+        if (e.refersTo(key)) {
+            return true;
+        }
+
+        Object k = e.get();
+        return k != null && strategy.equals((K) key, (K) k);
+    }
+
+    /**
+     * A part of the map guarded by its own lock. The table and the links of the entries are only
+     * written under the lock and read through volatile reads, so readers always see a consistent chain.
+     * Unlinked entries keep their links for the readers which are still traversing them and tables
+     * are grown by copying the live entries, so an entry is never moved between chains.
+     */
+    private static final class Segment<K> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        private final ConcurrentObject2IntOpenCostumWeakHashMap<K> map;
+        private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        private final float loadFactor;
+        private volatile AtomicReferenceArray<Entry<K>> table;
+        private volatile int count;
+        /**
+         * Only written under the lock.
+         */
+        private volatile long expunged;
+        private int threshold;
+
+        private Segment(ConcurrentObject2IntOpenCostumWeakHashMap<K> map, int capacity, float loadFactor) {
+            this.map = map;
+            this.loadFactor = loadFactor;
+            this.table = new AtomicReferenceArray<>(capacity);
+            this.threshold = (int) (capacity * loadFactor);
+        }
+
+        /**
+         * Expunges the stale entries first, {@link #findEntry(Object, int)} is to be used by the operations
+         * which already expunged them under the lock.
+         */
+        private Entry<K> getEntry(Object key, int hash) {
+            expungeIfStale();
+            return findEntry(key, hash);
+        }
+
+        private Entry<K> findEntry(Object key, int hash) {
+            AtomicReferenceArray<Entry<K>> tab = table;
+
+            for (Entry<K> e = tab.get(hash & (tab.length() - 1)); e != null; e = e.next) {
+                if (e.hash == hash && map.matchesKey(e, key)) {
+                    return e;
+                }
+            }
+
+            return null;
+        }
+
+        private boolean containsValue(int value) {
+            AtomicReferenceArray<Entry<K>> tab = table;
+
+            for (int i = 0; i < tab.length(); i++) {
+                for (Entry<K> e = tab.get(i); e != null; e = e.next) {
+                    if (e.value == value && !e.refersTo(null)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private int put(Object key, int hash, int value, boolean onlyIfAbsent) {
+            lock();
+
+            try {
+                expungeStaleEntries();
+                Entry<K> e = findEntry(key, hash);
+
+                if (e != null) {
+                    int oldValue = e.value;
+
+                    if (!onlyIfAbsent) {
+                        e.value = value;
+                    }
+
+                    return oldValue;
+                }
+
+                insert(key, hash, value);
+                return map.defRetValue;
+            } finally {
+                unlock();
+            }
+        }
+
+        private Entry<K> remove(Object key, int hash, boolean matchValue, int value) {
+            lock();
+
+            try {
+                expungeStaleEntries();
+                Entry<K> e = findEntry(key, hash);
+
+                if (e == null || matchValue && e.value != value) {
+                    return null;
+                }
+
+                unlink(e);
+                return e;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Has to be called under the lock for a key which isn't mapped yet.
+         */
+        private void insert(Object key, int hash, int value) {
+            if (count >= threshold) {
+                grow();
+            }
+
+            AtomicReferenceArray<Entry<K>> tab = table;
+            int i = hash & (tab.length() - 1);
+
+            tab.set(i, new Entry<>(key, value, queue, hash, tab.get(i)));
+            count++;
+        }
+
+        /**
+         * Has to be called under the lock.
+         *
+         * @return whether the entry has been found in the table
+         */
+        private boolean unlink(Entry<K> entry) {
+            AtomicReferenceArray<Entry<K>> tab = table;
+            int i = entry.hash & (tab.length() - 1);
+            Entry<K> prev = null;
+
+            for (Entry<K> e = tab.get(i); e != null; prev = e, e = e.next) {
+                if (e == entry) {
+                    if (prev == null) {
+                        tab.set(i, e.next);
+                    } else {
+                        prev.next = e.next;
+                    }
+
+                    count--;
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Copies the live entries into a table of twice the capacity, or of the same capacity if dropping
+         * the stale entries, which {@link #count} still includes until they're expunged, leaves the table
+         * at most half as full as the threshold.
+         */
+        private void grow() {
+            AtomicReferenceArray<Entry<K>> oldTable = table;
+            int oldCapacity = oldTable.length();
+            int live = 0;
+
+            for (int i = 0; i < oldCapacity; i++) {
+                for (Entry<K> e = oldTable.get(i); e != null; e = e.next) {
+                    if (e.get() != null) {
+                        live++;
+                    }
+                }
+            }
+
+            int newCapacity = oldCapacity;
+
+            if (live >= threshold >> 1) {
+                if (oldCapacity >= MAXIMUM_CAPACITY) {
+                    threshold = Integer.MAX_VALUE;
+                    return;
+                }
+
+                newCapacity = oldCapacity << 1;
+            }
+
+            AtomicReferenceArray<Entry<K>> newTable = new AtomicReferenceArray<>(newCapacity);
+            int mask = newTable.length() - 1;
+            int copied = 0;
+
+            for (int i = 0; i < oldCapacity; i++) {
+                for (Entry<K> e = oldTable.get(i); e != null; e = e.next) {
+                    Object key = e.get();
+
+                    if (key != null) {
+                        int j = e.hash & mask;
+                        newTable.set(j, new Entry<>(key, e.value, queue, e.hash, newTable.get(j)));
+                        copied++;
+                    }
+                }
+            }
+
+            expunged += count - copied;
+            count = copied;
+            table = newTable;
+            threshold = (int) (newTable.length() * loadFactor);
+        }
+
+        /**
+         * Expunges the stale entries if there are any without locking otherwise.
+         */
+        private void expungeIfStale() {
+            Reference<?> stale = queue.poll();
+
+            if (stale != null) {
+                lock();
+
+                try {
+                    unlinkStale(stale);
+                    expungeStaleEntries(map.expungeBudget - 1);
+                } finally {
+                    unlock();
+                }
+            }
+        }
+
+        /**
+         * Has to be called under the lock.
+         */
+        private void expungeStaleEntries() {
+            expungeStaleEntries(map.expungeBudget);
+        }
+
+        private void expungeStaleEntries(int budget) {
+            for (Reference<?> stale; budget-- > 0 && (stale = queue.poll()) != null; ) {
+                unlinkStale(stale);
+            }
+        }
+
+        /**
+         * Entries replaced by growing the table are no longer linked, so nothing happens for them.
+         */
+        @SuppressWarnings("unchecked")
+        private void unlinkStale(Reference<?> stale) {
+            if (unlink((Entry<K>) stale)) {
+                expunged++;
+            }
+        }
+
+        private void clear() {
+            lock();
+
+            try {
+                table = new AtomicReferenceArray<>(table.length());
+                count = 0;
+
+                while (queue.poll() != null) {
+                    // the table is getting cleared
+                }
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    /**
+     * The entries in this hash table extend WeakReference, using its main ref field as the key.
+     */
+    private static final class Entry<K> extends WeakReference<Object> {
+        final int hash;
+        volatile int value;
+        volatile Entry<K> next;
+
+        Entry(Object key, int value, ReferenceQueue<Object> queue, int hash, Entry<K> next) {
+            super(key, queue);
+            this.value = value;
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private final class WriteThroughEntry extends AbstractObject2IntMap.BasicEntry<K> {
+        private WriteThroughEntry(K key, int value) {
+            super(key, value);
+        }
+
+        @Override
+        public int setValue(int value) {
+            int oldValue = this.value;
+            this.value = value;
+            put(key, value);
+            return oldValue;
+        }
+    }
+
+    private final class EntryIterator implements ObjectIterator<Object2IntMap.Entry<K>> {
+        private int segmentIndex = segments.length;
+        private AtomicReferenceArray<Entry<K>> table;
+        private int index;
+        private Entry<K> entry;
+        /**
+         * Strong reference needed to avoid disappearance of key between hasNext and next
+         */
+        private Object nextKey;
+        private Object currentKey;
+
+        @Override
+        public boolean hasNext() {
+            while (nextKey == null) {
+                while (entry == null) {
+                    if (table != null && index > 0) {
+                        entry = table.get(--index);
+                    } else if (segmentIndex > 0) {
+                        table = segments[--segmentIndex].table;
+                        index = table.length();
+                    } else {
+                        return false;
+                    }
+                }
+
+                nextKey = entry.get();
+
+                if (nextKey == null) {
+                    entry = entry.next;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public Object2IntMap.Entry<K> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Entry<K> e = entry;
+            entry = e.next;
+            currentKey = nextKey;
+            nextKey = null;
+            return new WriteThroughEntry(unmaskNull(currentKey), e.value);
+        }
+
+        @Override
+        public void remove() {
+            if (currentKey == null) {
+                throw new IllegalStateException();
+            }
+
+            removeInt(unmaskNull(currentKey));
+            currentKey = null;
+        }
+    }
+
+    private final class EntrySet extends AbstractObjectSet<Object2IntMap.Entry<K>> {
+        @Override
+        public ObjectIterator<Object2IntMap.Entry<K>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || !(e.getValue() instanceof Integer value)) {
+                return false;
+            }
+
+            Object k = maskNull(e.getKey());
+            int h;
+
+            try {
+                h = hash(k);
+            } catch (ClassCastException notKeyClass) {
+                return false;
+            }
+
+            Entry<K> candidate = segmentFor(h).getEntry(k, h);
+            return candidate != null && candidate.value == value;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || !(e.getValue() instanceof Integer value)) {
+                return false;
+            }
+
+            return ConcurrentObject2IntOpenCostumWeakHashMap.this.remove(e.getKey(), (int) value);
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentObject2IntOpenCostumWeakHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentObject2IntOpenCostumWeakHashMap.this.clear();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.github.svegon.utils.fast.util.ints;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.bytes.ByteArrays;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntListIterator;
+import net.jcip.annotations.Immutable;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable list of sorted elements storing the differences between consecutive elements as
+ * variable length integers, 7 bits per byte. Every block of 128 elements starts with its first
+ * element stored as is, the skip index holds those and the positions of the blocks, so an element
+ * is found by decoding less than a block and a search binary searches the blocks first.
+ *
+ * Random access decodes a part of a block, so the list isn't marked as {@link java.util.RandomAccess},
+ * its iterators decode the elements sequentially instead.
+ */
+@Immutable
+final class DeltaImmutableIntList extends ImmutableIntList {
+    private static final int BLOCK_SHIFT = 7;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final int size;
+    private final int[] firsts;
+    /**
+     * The position of the difference following the first element of each block.
+     */
+    private final int[] positions;
+    private final byte[] data;
+
+    /**
+     * @throws IllegalArgumentException if the values aren't sorted
+     */
+    DeltaImmutableIntList(int[] values, int offset, int length) {
+        IntArrays.ensureOffsetLength(values, offset, length);
+
+        int blocks = (length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        int[] firsts = new int[blocks];
+        int[] positions = new int[blocks];
+        byte[] data = new byte[Math.min(length, 1 << 16)];
+        int position = 0;
+
+        for (int i = 0; i < length; i++) {
+            int value = values[offset + i];
+
+            if ((i & BLOCK_SIZE - 1) == 0) {
+                firsts[i >>> BLOCK_SHIFT] = value;
+                positions[i >>> BLOCK_SHIFT] = position;
+                continue;
+            }
+
+            int previous = values[offset + i - 1];
+            Preconditions.checkArgument(previous <= value, "the values aren't sorted at index %s", i);
+
+            data = ByteArrays.grow(data, position + 5);
+
+            for (int delta = value - previous; ; delta >>>= 7) {
+                if ((delta & ~0x7F) == 0) {
+                    data[position++] = (byte) delta;
+                    break;
+                }
+
+                data[position++] = (byte) (delta | 0x80);
+            }
+        }
+
+        this.size = length;
+        this.firsts = firsts;
+        this.positions = positions;
+        this.data = ByteArrays.trim(data, position);
+    }
+
+    @Override
+    public int getInt(int index) {
+        Preconditions.checkElementIndex(index, size);
+
+        int block = index >>> BLOCK_SHIFT;
+        int value = firsts[block];
+        int position = positions[block];
+
+        for (int i = index & BLOCK_SIZE - 1; i != 0; i--) {
+            int delta = 0;
+
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                delta |= (b & 0x7F) << shift;
+
+                if (b >= 0) {
+                    break;
+                }
+            }
+
+            value += delta;
+        }
+
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public IntListIterator listIterator(int index) {
+        return new DecodingIterator(Preconditions.checkPositionIndex(index, size));
+    }
+
+    @Override
+    public void getElements(int from, int[] a, int offset, int length) {
+        Preconditions.checkPositionIndexes(from, from + length, size);
+        IntArrays.ensureOffsetLength(a, offset, length);
+
+        DecodingIterator it = new DecodingIterator(from);
+
+        for (int i = 0; i < length; i++) {
+            a[offset + i] = it.nextInt();
+        }
+    }
+
+    /**
+     * @return the number of bytes taken by the arrays of this list
+     */
+    long compressedSize() {
+        return firsts.length * (long) Integer.BYTES + positions.length * (long) Integer.BYTES + data.length;
+    }
+
+    @Override
+    public int indexOf(int k) {
+        int block = lastBlockStartingBelow(k, false);
+        DecodingIterator it = new DecodingIterator(Math.max(block, 0) << BLOCK_SHIFT);
+
+        while (it.hasNext()) {
+            int value = it.nextInt();
+
+            if (value >= k) {
+                return value == k ? it.previousIndex() : -1;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(int k) {
+        // the following blocks start above the value, so its last occurrence can't be past this block
+        int block = lastBlockStartingBelow(k, true);
+
+        if (block < 0) {
+            return -1;
+        }
+
+        DecodingIterator it = new DecodingIterator(block << BLOCK_SHIFT);
+        int end = Math.min(size, (block + 1) << BLOCK_SHIFT);
+        int last = -1;
+
+        while (it.nextIndex() < end) {
+            int value = it.nextInt();
+
+            if (value > k) {
+                break;
+            }
+
+            if (value == k) {
+                last = it.previousIndex();
+            }
+        }
+
+        return last;
+    }
+
+    /**
+     * @return the last block whose first element is less than, or equal to if inclusive, the given value
+     * or -1 if there is none
+     */
+    private int lastBlockStartingBelow(int k, boolean inclusive) {
+        int low = 0;
+        int high = firsts.length - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+
+            if (firsts[mid] < k || inclusive && firsts[mid] == k) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return high;
+    }
+
+    private final class DecodingIterator implements IntListIterator {
+        private int index;
+        private int position;
+        private int value;
+
+        private DecodingIterator(int index) {
+            this.index = index;
+
+            if (index < size) {
+                int block = index >>> BLOCK_SHIFT;
+                this.position = positions[block];
+                this.value = firsts[block];
+
+                for (int i = index & BLOCK_SIZE - 1; i != 0; i--) {
+                    value += readDelta();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int result = value;
+
+            if ((++index & BLOCK_SIZE - 1) == 0) {
+                if (index < size) {
+                    position = positions[index >>> BLOCK_SHIFT];
+                    value = firsts[index >>> BLOCK_SHIFT];
+                }
+            } else if (index < size) {
+                value += readDelta();
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return index > 0;
+        }
+
+        @Override
+        public int previousInt() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+
+            DecodingIterator restarted = new DecodingIterator(index - 1);
+
+            index = restarted.index;
+            position = restarted.position;
+            value = restarted.value;
+            return value;
+        }
+
+        @Override
+        public int nextIndex() {
+            return index;
+        }
+
+        @Override
+        public int previousIndex() {
+            return index - 1;
+        }
+
+        private int readDelta() {
+            int delta = 0;
+
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                delta |= (b & 0x7F) << shift;
+
+                if (b >= 0) {
+                    return delta;
+                }
+            }
+        }
+    }
+}
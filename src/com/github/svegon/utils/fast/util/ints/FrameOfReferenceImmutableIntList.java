@@ -0,0 +1,218 @@
+package com.github.svegon.utils.fast.util.ints;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import net.jcip.annotations.Immutable;
+
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list packing its elements block by block. Each block of 128 elements stores only
+ * their differences from its minimum, the frame of reference, in as many bits as the largest
+ * difference needs. The minimum, the bit width and the position of every block form the skip index,
+ * so an element is read from at most two words and a search skips the blocks whose range can't
+ * contain the sought value.
+ */
+@Immutable
+final class FrameOfReferenceImmutableIntList extends ImmutableIntList implements RandomAccess {
+    private static final int BLOCK_SHIFT = 7;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final int size;
+    private final int[] references;
+    private final byte[] widths;
+    /**
+     * The index of the first bit of each block.
+     */
+    private final long[] positions;
+    private final long[] data;
+
+    FrameOfReferenceImmutableIntList(int[] values, int offset, int length) {
+        IntArrays.ensureOffsetLength(values, offset, length);
+
+        int blocks = (length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        int[] references = new int[blocks];
+        byte[] widths = new byte[blocks];
+        long[] positions = new long[blocks];
+        long bits = 0;
+
+        for (int block = 0; block < blocks; block++) {
+            int from = offset + (block << BLOCK_SHIFT);
+            int to = Math.min(from + BLOCK_SIZE, offset + length);
+            int min = values[from];
+            int max = min;
+
+            for (int i = from + 1; i < to; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+
+            references[block] = min;
+            widths[block] = (byte) (Long.SIZE - Long.numberOfLeadingZeros((long) max - min));
+            positions[block] = bits;
+            bits += (long) widths[block] * (to - from);
+        }
+
+        Preconditions.checkArgument(bits >>> 6 < Integer.MAX_VALUE - 8, "too many elements");
+
+        long[] data = new long[(int) ((bits + Long.SIZE - 1) >>> 6)];
+
+        for (int block = 0; block < blocks; block++) {
+            int from = offset + (block << BLOCK_SHIFT);
+            int to = Math.min(from + BLOCK_SIZE, offset + length);
+            int width = widths[block];
+            long position = positions[block];
+
+            if (width == 0) {
+                continue;
+            }
+
+            for (int i = from; i < to; i++, position += width) {
+                long difference = (long) values[i] - references[block];
+                int word = (int) (position >>> 6);
+                int shift = (int) position & 63;
+
+                data[word] |= difference << shift;
+
+                if (shift + width > Long.SIZE) {
+                    data[word + 1] |= difference >>> Long.SIZE - shift;
+                }
+            }
+        }
+
+        this.size = length;
+        this.references = references;
+        this.widths = widths;
+        this.positions = positions;
+        this.data = data;
+    }
+
+    @Override
+    public int getInt(int index) {
+        Preconditions.checkElementIndex(index, size);
+
+        int block = index >>> BLOCK_SHIFT;
+        int width = widths[block];
+
+        if (width == 0) {
+            return references[block];
+        }
+
+        return references[block] + (int) read(positions[block] + (long) (index & BLOCK_SIZE - 1) * width, width);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void getElements(int from, int[] a, int offset, int length) {
+        Preconditions.checkPositionIndexes(from, from + length, size);
+        IntArrays.ensureOffsetLength(a, offset, length);
+
+        int end = from + length;
+
+        while (from < end) {
+            int block = from >>> BLOCK_SHIFT;
+            int to = Math.min(end, (block + 1) << BLOCK_SHIFT);
+
+            decode(block, from, to, a, offset);
+            offset += to - from;
+            from = to;
+        }
+    }
+
+    /**
+     * @return the number of bytes taken by the arrays of this list
+     */
+    long compressedSize() {
+        return references.length * (long) Integer.BYTES + widths.length + positions.length * (long) Long.BYTES
+                + data.length * (long) Long.BYTES;
+    }
+
+    @Override
+    public int indexOf(int k) {
+        int[] buffer = new int[BLOCK_SIZE];
+
+        for (int block = 0; block < references.length; block++) {
+            if (!mayContain(block, k)) {
+                continue;
+            }
+
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(size, from + BLOCK_SIZE);
+
+            decode(block, from, to, buffer, 0);
+
+            for (int i = 0; i < to - from; i++) {
+                if (buffer[i] == k) {
+                    return from + i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(int k) {
+        int[] buffer = new int[BLOCK_SIZE];
+
+        for (int block = references.length - 1; block >= 0; block--) {
+            if (!mayContain(block, k)) {
+                continue;
+            }
+
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(size, from + BLOCK_SIZE);
+
+            decode(block, from, to, buffer, 0);
+
+            for (int i = to - from - 1; i >= 0; i--) {
+                if (buffer[i] == k) {
+                    return from + i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean mayContain(int block, int k) {
+        long difference = (long) k - references[block];
+        return difference >= 0 && difference >>> widths[block] == 0;
+    }
+
+    /**
+     * Decodes the elements of the given block between the given list indices.
+     */
+    private void decode(int block, int from, int to, int[] a, int offset) {
+        int reference = references[block];
+        int width = widths[block];
+
+        if (width == 0) {
+            Arrays.fill(a, offset, offset + to - from, reference);
+            return;
+        }
+
+        long position = positions[block] + (long) (from & BLOCK_SIZE - 1) * width;
+
+        for (int i = from; i < to; i++, position += width) {
+            a[offset++] = reference + (int) read(position, width);
+        }
+    }
+
+    private long read(long position, int width) {
+        int word = (int) (position >>> 6);
+        int shift = (int) position & 63;
+        long bits = data[word] >>> shift;
+
+        if (shift + width > Long.SIZE) {
+            bits |= data[word + 1] << Long.SIZE - shift;
+        }
+
+        return bits & (1L << width) - 1;
+    }
+}
@@ -12,14 +12,23 @@ import java.util.Collection;
 
 @Immutable
 public abstract class ImmutableIntCollection implements IntCollection {
-    private final int hashCode = initHashCode();
+    /**
+     * Computed lazily, the fields of the subclasses aren't initialized yet in this constructor.
+     */
+    private int hashCode;
 
     ImmutableIntCollection() {
     }
 
     @Override
     public final int hashCode() {
-        return hashCode;
+        int h = hashCode;
+
+        if (h == 0) {
+            hashCode = h = initHashCode();
+        }
+
+        return h;
     }
 
     @Override
@@ -5,6 +5,8 @@ import it.unimi.dsi.fastutil.ints.*;
 import net.jcip.annotations.Immutable;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 import static it.unimi.dsi.fastutil.Size64.sizeOf;
@@ -107,8 +109,8 @@ public abstract class ImmutableIntList extends ImmutableIntCollection implements
 
         IntListIterator it = listIterator(from);
 
-        while (it.hasNext()) {
-            a[it.nextIndex()] = it.nextInt();
+        for (int i = 0; i < length; i++) {
+            a[offset + i] = it.nextInt();
         }
     }
 
@@ -165,7 +167,7 @@ public abstract class ImmutableIntList extends ImmutableIntCollection implements
 
     @Override
     public int lastIndexOf(int k) {
-        IntListIterator it = listIterator(size() - 1);
+        IntListIterator it = listIterator(size());
 
         while (it.hasPrevious()) {
             if (it.previousInt() == k) {
@@ -176,6 +178,58 @@ public abstract class ImmutableIntList extends ImmutableIntCollection implements
         return -1;
     }
 
+    /**
+     * @return the sum of the elements of this list
+     */
+    public long sum() {
+        long sum = 0;
+        IntIterator it = iterator();
+
+        while (it.hasNext()) {
+            sum += it.nextInt();
+        }
+
+        return sum;
+    }
+
+    /**
+     * @return the least element of this list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public int min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        IntIterator it = iterator();
+        int min = it.nextInt();
+
+        while (it.hasNext()) {
+            min = Math.min(min, it.nextInt());
+        }
+
+        return min;
+    }
+
+    /**
+     * @return the greatest element of this list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public int max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        IntIterator it = iterator();
+        int max = it.nextInt();
+
+        while (it.hasNext()) {
+            max = Math.max(max, it.nextInt());
+        }
+
+        return max;
+    }
+
     @Override
     public final int removeInt(int index) {
         Preconditions.checkElementIndex(index, size());
@@ -239,17 +293,107 @@ public abstract class ImmutableIntList extends ImmutableIntCollection implements
     }
 
     public static ImmutableIntList of(IntIterator it) {
-        return copyOf(new IntArrayList(it));
+        return builder().addAll(it).build();
     }
 
+    /**
+     * @return the given iterable if it's already an immutable list, otherwise an immutable list of its elements
+     */
     public static ImmutableIntList copyOf(IntIterable iterable) {
-        if (iterable.getClass() == IntArrayList.class) {
-            int[] array = ((IntArrayList) iterable).toIntArray();
+        if (iterable instanceof ImmutableIntList list) {
+            return list;
+        }
+
+        if (iterable instanceof IntCollection collection) {
+            // the array is a fresh copy, so it's handed over as is
+            int[] array = collection.toIntArray();
             return array.length == 0 ? RegularImmutableIntList.EMPTY : new RegularImmutableIntList(array);
         }
 
-        return iterable instanceof IntCollection ? of(((IntCollection) iterable).toIntArray())
-                : of(iterable.iterator());
+        return of(iterable.iterator());
+    }
+
+    /**
+     * @return a builder handing its array over to the list it builds
+     */
+    public static Builder builder() {
+        return new Builder(IntArrays.EMPTY_ARRAY);
+    }
+
+    public static Builder builder(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "Illegal expected size: " + expectedSize);
+        return new Builder(expectedSize == 0 ? IntArrays.EMPTY_ARRAY : new int[expectedSize]);
+    }
+
+    /**
+     * @return a list packing each block of the given values into the bits their differences from the minimum
+     * of the block need, with constant time random access
+     */
+    public static ImmutableIntList frameOfReference(int... values) {
+        return frameOfReference(values, 0, values.length);
+    }
+
+    public static ImmutableIntList frameOfReference(int[] values, int offset, int length) {
+        return length == 0 ? RegularImmutableIntList.EMPTY : new FrameOfReferenceImmutableIntList(values, offset, length);
+    }
+
+    /**
+     * @return a list storing the differences between the consecutive given values as variable length integers
+     * @throws IllegalArgumentException if the values aren't sorted
+     */
+    public static ImmutableIntList deltaEncoded(int... values) {
+        return deltaEncoded(values, 0, values.length);
+    }
+
+    public static ImmutableIntList deltaEncoded(int[] values, int offset, int length) {
+        return length == 0 ? RegularImmutableIntList.EMPTY : new DeltaImmutableIntList(values, offset, length);
+    }
+
+    /**
+     * @return the smaller of the frame of reference and, if the values are sorted, the delta encoded list of them
+     */
+    public static ImmutableIntList compressed(int... values) {
+        return compressed(values, 0, values.length);
+    }
+
+    public static ImmutableIntList compressed(int[] values, int offset, int length) {
+        if (length == 0) {
+            return RegularImmutableIntList.EMPTY;
+        }
+
+        FrameOfReferenceImmutableIntList frameOfReference = new FrameOfReferenceImmutableIntList(values, offset,
+                length);
+
+        if (!isSorted(values, offset, length)) {
+            return frameOfReference;
+        }
+
+        DeltaImmutableIntList delta = new DeltaImmutableIntList(values, offset, length);
+        return delta.compressedSize() < frameOfReference.compressedSize() ? delta : frameOfReference;
+    }
+
+    public static ImmutableIntList compressedCopyOf(IntIterable iterable) {
+        int[] values = copyOf(iterable).toIntArray();
+        return compressed(values, 0, values.length);
+    }
+
+    private static boolean isSorted(int[] values, int offset, int length) {
+        for (int i = offset + 1; i < offset + length; i++) {
+            if (values[i - 1] > values[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return a list reading the elements from the given file, written by
+     * {@link MappedImmutableIntList#write(ImmutableIntList, Path)}, mapped into memory
+     * @throws IOException if the file can't be read or doesn't contain such a list
+     */
+    public static MappedImmutableIntList mapped(Path path) throws IOException {
+        return MappedImmutableIntList.map(path);
     }
 
     protected class RandomAccessImmutableListIterator implements IntListIterator {
@@ -276,7 +420,7 @@ public abstract class ImmutableIntList extends ImmutableIntCollection implements
 
         @Override
         public boolean hasPrevious() {
-            return index >= 0;
+            return index > 0;
         }
 
         @Override
@@ -345,6 +489,75 @@ public abstract class ImmutableIntList extends ImmutableIntCollection implements
         }
     }
 
+    /**
+     * A growable array of elements which {@link #build()} hands over to the built list instead of copying it.
+     * The builder starts over empty afterwards, so the built list is never modified, though it keeps the
+     * unused capacity of the array.
+     */
+    public static final class Builder {
+        private int[] values;
+        private int size;
+
+        private Builder(int[] values) {
+            this.values = values;
+        }
+
+        public Builder add(int k) {
+            if (size == values.length) {
+                values = IntArrays.grow(values, size + 1);
+            }
+
+            values[size++] = k;
+            return this;
+        }
+
+        public Builder add(int... values) {
+            return addAll(values, 0, values.length);
+        }
+
+        public Builder addAll(int[] a, int offset, int length) {
+            IntArrays.ensureOffsetLength(a, offset, length);
+            values = IntArrays.grow(values, size + length);
+            System.arraycopy(a, offset, values, size, length);
+            size += length;
+            return this;
+        }
+
+        public Builder addAll(IntIterator it) {
+            while (it.hasNext()) {
+                add(it.nextInt());
+            }
+
+            return this;
+        }
+
+        public Builder addAll(IntIterable iterable) {
+            if (iterable instanceof IntList list) {
+                int length = list.size();
+
+                values = IntArrays.grow(values, size + length);
+                list.getElements(0, values, size, length);
+                size += length;
+                return this;
+            }
+
+            return addAll(iterable.iterator());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ImmutableIntList build() {
+            ImmutableIntList list = size == 0 ? RegularImmutableIntList.EMPTY
+                    : new RegularImmutableIntList(values, 0, size);
+
+            values = IntArrays.EMPTY_ARRAY;
+            size = 0;
+            return list;
+        }
+    }
+
     protected static class SubList extends ImmutableIntList {
         protected final ImmutableIntList list;
         protected final int from;
@@ -358,7 +571,8 @@ public abstract class ImmutableIntList extends ImmutableIntCollection implements
 
         @Override
         public int getInt(int index) {
-            return list.getInt(index);
+            Preconditions.checkElementIndex(index, size);
+            return list.getInt(from + index);
         }
 
         @Override
@@ -366,15 +580,10 @@ public abstract class ImmutableIntList extends ImmutableIntCollection implements
             return size;
         }
 
-        @Override
-        public IntListIterator listIterator(int index) {
-            return list.listIterator(from + index);
-        }
-
         @Override
         public ImmutableIntList subList(int from, int to) {
             Preconditions.checkPositionIndexes(from, to, size());
-            return new ImmutableIntList.SubList(list, this.from + from, this.from + to);
+            return list.subList(this.from + from, this.from + to);
         }
     }
 
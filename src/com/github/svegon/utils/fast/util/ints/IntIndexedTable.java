@@ -0,0 +1,92 @@
+package com.github.svegon.utils.fast.util.ints;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.objects.ObjectArrays;
+
+import java.util.Arrays;
+
+/**
+ * Values indexed by the ids of a {@link WeakIdInterner}, created by {@link WeakIdInterner#newTable()}.
+ *
+ * The value of an id is removed when the id is released and the storage shrinks once the highest
+ * assigned ids are released, so the table never holds more than a constant factor above
+ * {@link WeakIdInterner#getIdBound()} slots.
+ *
+ * This class isn't thread-safe.
+ */
+public final class IntIndexedTable<V> {
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private final WeakIdInterner<?> interner;
+    private Object[] values = ObjectArrays.EMPTY_ARRAY;
+
+    IntIndexedTable(WeakIdInterner<?> interner) {
+        this.interner = interner;
+    }
+
+    /**
+     * @return the value of the given id or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        return id >= 0 && id < values.length ? (V) values[id] : null;
+    }
+
+    public V getOrDefault(int id, V defaultValue) {
+        V value = get(id);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @return the previous value of the given id or {@code null} if there was none
+     * @throws IllegalArgumentException if the id isn't assigned by the interner
+     */
+    @SuppressWarnings("unchecked")
+    public V set(int id, V value) {
+        Preconditions.checkArgument(interner.isAssigned(id), "id %s isn't assigned", id);
+
+        if (id >= values.length) {
+            values = Arrays.copyOf(values, Math.max(MINIMUM_CAPACITY,
+                    (int) Math.min((long) interner.getIdBound() << 1, Integer.MAX_VALUE - 8)));
+        }
+
+        V oldValue = (V) values[id];
+        values[id] = value;
+        return oldValue;
+    }
+
+    /**
+     * @return the removed value or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int id) {
+        if (id < 0 || id >= values.length) {
+            return null;
+        }
+
+        V oldValue = (V) values[id];
+        values[id] = null;
+        return oldValue;
+    }
+
+    /**
+     * @return the number of slots currently allocated
+     */
+    public int capacity() {
+        return values.length;
+    }
+
+    void release(int id, int idBound) {
+        if (id < values.length) {
+            values[id] = null;
+        }
+
+        if (values.length > MINIMUM_CAPACITY && idBound <= values.length >>> 2) {
+            values = Arrays.copyOf(values, Math.max(MINIMUM_CAPACITY, idBound << 1));
+        }
+    }
+
+    void clear() {
+        values = ObjectArrays.EMPTY_ARRAY;
+    }
+}
@@ -1,21 +1,37 @@
 package com.github.svegon.utils.fast.util.ints;
 
+import com.github.svegon.utils.collections.StaleReferenceQueue;
 import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.ints.AbstractIntCollection;
 import it.unimi.dsi.fastutil.ints.IntCollection;
 import it.unimi.dsi.fastutil.ints.IntIterator;
-import it.unimi.dsi.fastutil.ints.IntSpliterator;
 import it.unimi.dsi.fastutil.objects.*;
 
+import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.*;
-import java.util.function.BiConsumer;
-import java.util.function.BiFunction;
-import java.util.function.Consumer;
-import java.util.function.IntConsumer;
-
+import java.util.concurrent.ThreadFactory;
+import java.util.function.ToIntFunction;
+
+/**
+ * A hash map with weakly referenced keys compared by a strategy.
+ *
+ * The map is open-addressed: the keys live in an array of weak references probed linearly and the
+ * values in a parallel array, so a mapping costs a single weak reference which also caches the
+ * hash of its key. Slots of removed mappings are marked by a tombstone until a rehash or until
+ * they end a probe sequence. The mappings whose keys have been collected are expunged before each
+ * access, like in {@link WeakHashMap}, and dropped by any rehash that finds them first. The number
+ * of them expunged by a single access can be bounded by {@link #setExpungeBudget(int)} and an optional
+ * cleaner thread can take them off the reference queue in the background, see {@link #startCleaner()}.
+ *
+ * The null key is strongly held in an extra slot past the end of the table.
+ *
+ * This class isn't thread-safe, see {@link ConcurrentObject2IntOpenCostumWeakHashMap}.
+ */
 public class Object2IntOpenCostumWeakHashMap<K> extends AbstractObject2IntMap<K> {
+    private static final long serialVersionUID = 1L;
 
     /**
      * The default initial capacity -- MUST be a power of two.
@@ -25,7 +41,6 @@ public class Object2IntOpenCostumWeakHashMap<K> extends AbstractObject2IntMap<K>
     /**
      * The maximum capacity, used if a higher value is implicitly specified
      * by either of the constructors with arguments.
-     * MUST be a power of two <= 1<<30.
      */
     private static final int MAXIMUM_CAPACITY = 1 << 30;
 
@@ -35,47 +50,48 @@ public class Object2IntOpenCostumWeakHashMap<K> extends AbstractObject2IntMap<K>
     private static final float DEFAULT_LOAD_FACTOR = 0.75f;
 
     /**
-     * The table, resized as necessary. Length MUST Always be a power of two.
+     * Marks a slot whose mapping has been removed but which may still be a part of a probe sequence.
      */
-    Entry<K>[] table;
+    private static final WeakKey TOMBSTONE = new WeakKey(null, null, 0);
 
     /**
-     * The number of key-value mappings contained in this weak hash map.
+     * The keys, the null key is never stored here.
      */
-    private int size;
-
+    private transient WeakKey[] key;
     /**
-     * The next size value at which to resize (capacity * load factor).
+     * The values, the value of the null key is stored at index {@link #n}.
      */
-    private int threshold;
-
+    private transient int[] value;
+    private transient int n;
+    private transient int mask;
+    private transient int maxFill;
+    private final transient int minN;
+    private transient boolean containsNullKey;
     /**
-     * The load factor for the hash table.
+     * The number of mappings including the ones whose keys have been collected but not yet expunged.
      */
-    private final float loadFactor;
-
+    private int size;
+    /**
+     * The number of slots which aren't {@code null}, including the tombstones.
+     */
+    private int occupied;
+    private final float f;
     private final Hash.Strategy<? super K> strategy;
 
     /**
-     * Reference queue for cleared WeakEntries
+     * Reference queue for the keys which have been collected.
      */
-    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final StaleReferenceQueue<Object> queue = new StaleReferenceQueue<>();
+    private int expungeBudget = Integer.MAX_VALUE;
+    private long expungedCount;
 
     /**
-     * The number of times this Object2IntOpenCostumWeakHashMap has been structurally modified.
-     * Structural modifications are those that change the number of
-     * mappings in the map or otherwise modify its internal structure
-     * (e.g., rehash).  This field is used to make iterators on
-     * Collection-views of the map fail-fast.
+     * Incremented whenever the slots are reallocated or cleared, which invalidates
+     * the positions held by the iterators.
      *
      * @see ConcurrentModificationException
      */
-    int modCount;
-
-    @SuppressWarnings("unchecked")
-    private Entry<K>[] newTable(int n) {
-        return new Entry[n];
-    }
+    private int modCount;
 
     /**
      * Constructs a new, empty {@code Object2IntOpenCostumWeakHashMap} with the given initial
@@ -84,25 +100,24 @@ public class Object2IntOpenCostumWeakHashMap<K> extends AbstractObject2IntMap<K>
      * @param  initialCapacity The initial capacity of the {@code Object2IntOpenCostumWeakHashMap}
      * @param  loadFactor      The load factor of the {@code Object2IntOpenCostumWeakHashMap}
      * @throws IllegalArgumentException if the initial capacity is negative,
-     *         or if the load factor is nonpositive.
+     *         or if the load factor isn't in (0, 1).
      */
     public Object2IntOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy, int initialCapacity, float loadFactor) {
-        if (initialCapacity < 0)
-            throw new IllegalArgumentException("Illegal Initial Capacity: "+
-                    initialCapacity);
-        if (initialCapacity > MAXIMUM_CAPACITY)
-            initialCapacity = MAXIMUM_CAPACITY;
-
-        if (loadFactor <= 0 || Float.isNaN(loadFactor))
-            throw new IllegalArgumentException("Illegal Load factor: "+
-                    loadFactor);
-        int capacity = 1;
-        while (capacity < initialCapacity)
-            capacity <<= 1;
-        table = newTable(capacity);
-        this.loadFactor = loadFactor;
-        threshold = (int)(capacity * loadFactor);
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Initial Capacity: " + initialCapacity);
+        }
+
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal Load factor: " + loadFactor);
+        }
+
         this.strategy = strategy;
+        this.f = loadFactor;
+        this.minN = this.n = HashCommon.arraySize(Math.min(initialCapacity, MAXIMUM_CAPACITY), loadFactor);
+        this.mask = n - 1;
+        this.maxFill = HashCommon.maxFill(n, loadFactor);
+        this.key = new WeakKey[n];
+        this.value = new int[n + 1];
     }
 
     /**
@@ -132,773 +147,669 @@ public class Object2IntOpenCostumWeakHashMap<K> extends AbstractObject2IntMap<K>
      *
      * @param   m the map whose mappings are to be placed in this map
      * @throws  NullPointerException if the specified map is null
-     * @since   1.3
      */
     public Object2IntOpenCostumWeakHashMap(Hash.Strategy<? super K> strategy, Object2IntMap<? extends K> m) {
-        this(strategy, Math.max((int) ((float)m.size() / DEFAULT_LOAD_FACTOR + 1.0F),
-                        DEFAULT_INITIAL_CAPACITY),
-                DEFAULT_LOAD_FACTOR);
+        this(strategy, Math.max(m.size(), DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR);
         putAll(m);
     }
 
-    // internal utilities
-
     /**
-     * Value representing null keys inside tables.
+     * Returns the number of key-value mappings in this map.
+     * This result is a snapshot, and may not reflect unprocessed
+     * entries that will be removed before next attempted access
+     * because they are no longer referenced, nor the ones left
+     * for later operations by the expunge budget.
      */
-    private static final Object NULL_KEY = new Object();
+    @Override
+    public int size() {
+        if (size == 0) {
+            return 0;
+        }
 
-    /**
-     * Use NULL_KEY for key if it is null.
-     */
-    private static Object maskNull(Object key) {
-        return (key == null) ? NULL_KEY : key;
+        expungeStaleEntries();
+        return size;
     }
 
-    /**
-     * Returns internal representation of null key back to caller as null.
-     */
-    static Object unmaskNull(Object key) {
-        return (key == NULL_KEY) ? null : key;
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
     }
 
-    /**
-     * Checks for equality of non-null reference x and possibly-null y.  By
-     * default uses Object.equals.
-     */
-    private boolean matchesKey(Entry<K> e, K key) {
-        // check if the given entry refers to the given key without
-        // keeping a strong reference to the entry's referent
-        if (e.refersTo(key))
+    @Override
+    public int getInt(Object k) {
+        if (k == null) {
+            return containsNullKey ? value[n] : defRetValue;
+        }
+
+        int pos = find(k);
+        return pos >= 0 ? value[pos] : defRetValue;
+    }
+
+    @Override
+    public boolean containsKey(Object k) {
+        return k == null ? containsNullKey : find(k) >= 0;
+    }
+
+    @Override
+    public int put(K k, int v) {
+        if (k == null) {
+            return putNull(v);
+        }
+
+        expungeStaleEntries();
+
+        int h = hash(k);
+        int pos = h & mask;
+        int tombstone = -1;
+
+        for (WeakKey curr; (curr = key[pos]) != null; pos = (pos + 1) & mask) {
+            if (curr == TOMBSTONE) {
+                if (tombstone < 0) {
+                    tombstone = pos;
+                }
+            } else if (curr.hash == h && matches(curr, k)) {
+                int oldValue = value[pos];
+                value[pos] = v;
+                return oldValue;
+            }
+        }
+
+        insert(tombstone >= 0 ? tombstone : pos, k, h, v);
+        return defRetValue;
+    }
+
+    @Override
+    public int removeInt(Object k) {
+        if (k == null) {
+            if (!containsNullKey) {
+                return defRetValue;
+            }
+
+            containsNullKey = false;
+            size--;
+            return value[n];
+        }
+
+        int pos = find(k);
+
+        if (pos < 0) {
+            return defRetValue;
+        }
+
+        int oldValue = value[pos];
+        removeAt(pos);
+        return oldValue;
+    }
+
+    @Override
+    public int computeIfAbsent(K k, ToIntFunction<? super K> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+
+        if (k == null) {
+            if (!containsNullKey) {
+                putNull(mappingFunction.applyAsInt(null));
+            }
+
+            return value[n];
+        }
+
+        int pos = find(k);
+
+        if (pos >= 0) {
+            return value[pos];
+        }
+
+        int v = mappingFunction.applyAsInt(k);
+        put(k, v);
+        return v;
+    }
+
+    @Override
+    public boolean containsValue(int v) {
+        if (containsNullKey && value[n] == v) {
             return true;
+        }
+
+        WeakKey[] key = this.key;
+        int[] value = this.value;
+
+        for (int i = n; i-- != 0; ) {
+            if (value[i] == v && key[i] != null && key[i] != TOMBSTONE && !key[i].refersTo(null)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
 
-        // then check for equality if the referent is not cleared
-        K k = e.get();
-        return k != null && strategy.equals(key, k);
+        size = 0;
+        occupied = 0;
+        containsNullKey = false;
+        modCount++;
+        Arrays.fill(key, null);
+
+        while (queue.poll() != null) {
+            // the table is getting cleared
+        }
+    }
+
+    public Hash.Strategy<? super K> getStrategy() {
+        return strategy;
     }
 
     /**
-     * Retrieve object hash code and applies a supplemental hash function to the
-     * result hash, which defends against poor quality hash functions.  This is
-     * critical because HashMap uses power-of-two length hash tables, that
-     * otherwise encounter collisions for hashCodes that do not differ
-     * in lower bits.
+     * Sets the maximal number of stale entries expunged by a single operation, the rest is left
+     * for the following ones. A low budget bounds the pause of the first operations after a large
+     * collection, while the collected keys linger in the table a bit longer. {@link #trim()}
+     * ignores the budget. Unlimited by default.
+     *
+     * @throws IllegalArgumentException if the budget isn't positive
      */
-    final int hash(K k) {
-        int h = strategy.hashCode(k);
-
-        // This function ensures that hashCodes that differ only by
-        // constant multiples at each bit position have a bounded
-        // number of collisions (approximately 8 at default load factor).
-        h ^= (h >>> 20) ^ (h >>> 12);
-        return h ^ (h >>> 7) ^ (h >>> 4);
+    public void setExpungeBudget(int expungeBudget) {
+        if (expungeBudget <= 0) {
+            throw new IllegalArgumentException("Illegal Expunge budget: " + expungeBudget);
+        }
+
+        this.expungeBudget = expungeBudget;
+    }
+
+    public int getExpungeBudget() {
+        return expungeBudget;
     }
 
     /**
-     * Returns index for hash code h.
+     * @return the number of entries whose keys have been collected and which have been taken off
+     * the reference queue by the cleaner but not expunged yet, always 0 without a cleaner
      */
-    private static int indexFor(int h, int length) {
-        return h & (length-1);
+    public int getPendingCount() {
+        return queue.getPendingCount();
     }
 
     /**
-     * Expunges stale entries from the table.
+     * @return the total number of entries removed because their keys have been collected
      */
-    private void expungeStaleEntries() {
-        for (Object x; (x = queue.poll()) != null; ) {
-            synchronized (queue) {
-                @SuppressWarnings("unchecked")
-                Entry<K> e = (Entry<K>) x;
-                int i = indexFor(e.hash, table.length);
-
-                Entry<K> prev = table[i];
-                Entry<K> p = prev;
-                while (p != null) {
-                    Entry<K> next = p.next;
-                    if (p == e) {
-                        if (prev == e)
-                            table[i] = next;
-                        else
-                            prev.next = next;
-                        // Must not null out e.next;
-                        // stale entries may be in use by a HashIterator
-                        e.value = defaultReturnValue();
-                        size--;
-                        break;
-                    }
-                    prev = p;
-                    p = next;
-                }
-            }
-        }
+    public long getExpungedCount() {
+        return expungedCount;
     }
 
     /**
-     * Returns the table after first expunging stale entries.
+     * Starts a daemon thread taking the references of the collected keys off the reference queue
+     * as soon as they're enqueued. The map stays confined to its own threads, the cleaner only spares
+     * its operations from contending with the garbage collector for the queue and makes the pending
+     * entries countable. It stops once the map is collected.
+     *
+     * @throws IllegalStateException if a cleaner is already running
      */
-    private Entry<K>[] getTable() {
-        expungeStaleEntries();
-        return table;
+    public void startCleaner() {
+        startCleaner(r -> {
+            Thread thread = new Thread(r, "Object2IntOpenCostumWeakHashMap-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
-     * Returns the number of key-value mappings in this map.
-     * This result is a snapshot, and may not reflect unprocessed
-     * entries that will be removed before next attempted access
-     * because they are no longer referenced.
+     * @throws IllegalStateException if a cleaner is already running
+     * @see #startCleaner()
      */
-    public int size() {
-        if (size == 0)
-            return 0;
+    public void startCleaner(ThreadFactory threadFactory) {
+        queue.startCleaner(this, threadFactory);
+    }
 
-        expungeStaleEntries();
-        return size;
+    public void stopCleaner() {
+        queue.stopCleaner();
     }
 
     /**
-     * Returns {@code true} if this map contains no key-value mappings.
-     * This result is a snapshot, and may not reflect unprocessed
-     * entries that will be removed before next attempted access
-     * because they are no longer referenced.
+     * Called whenever the mapping of a collected key is removed, including the ones dropped by
+     * a rehash. It may be called in the middle of any operation, so it must not access the map.
+     * Does nothing by default.
+     *
+     * @param value the value the collected key has been mapped to
      */
-    public boolean isEmpty() {
-        return size() == 0;
+    protected void entryExpunged(int value) {
     }
 
     /**
-     * Returns the value to which the specified key is mapped,
-     * or {@code null} if this map contains no mapping for the key.
-     *
-     * <p>More formally, if this map contains a mapping from a key
-     * {@code k} to a value {@code v} such that
-     * {@code Objects.equals(key, k)},
-     * then this method returns {@code v}; otherwise
-     * it returns {@code null}.  (There can be at most one such mapping.)
-     *
-     * <p>A return value of {@code null} does not <i>necessarily</i>
-     * indicate that the map contains no mapping for the key; it's also
-     * possible that the map explicitly maps the key to {@code null}.
-     * The {@link #containsKey containsKey} operation may be used to
-     * distinguish these two cases.
-     *
-     * @see #put(K, int)
+     * Drops the collected mappings and the tombstones and shrinks the table to the smallest
+     * capacity holding the remaining mappings.
      */
-    @SuppressWarnings("unchecked")
-    public int getInt(Object key) {
-        try {
-            K k = (K) maskNull(key);
-            int h = hash(k);
-            Entry<K>[] tab = getTable();
-            int index = indexFor(h, tab.length);
-            Entry<K> e = tab[index];
-            while (e != null) {
-                if (e.hash == h && matchesKey(e, k))
-                    return e.value;
-                e = e.next;
-            }
-        } catch (ClassCastException ignored) {
-        }
+    public void trim() {
+        expungeStaleEntries(Integer.MAX_VALUE);
+        rehash(Math.max(minN, HashCommon.arraySize(size, f)));
+    }
+
+    @Override
+    public ObjectSet<K> keySet() {
+        return new KeySet();
+    }
 
-        return defaultReturnValue();
+    @Override
+    public IntCollection values() {
+        return new Values();
+    }
+
+    @Override
+    public ObjectSet<Object2IntMap.Entry<K>> object2IntEntrySet() {
+        return new EntrySet();
     }
 
     /**
-     * Returns {@code true} if this map contains a mapping for the
-     * specified key.
-     *
-     * @param  key   The key whose presence in this map is to be tested
-     * @return {@code true} if there is a mapping for {@code key};
-     *         {@code false} otherwise
+     * Retrieve object hash code and mixes it, so that hashCodes that do not differ in lower bits
+     * don't collide.
      */
-    public boolean containsKey(Object key) {
-        return getEntry(key) != null;
+    private int hash(K k) {
+        return HashCommon.mix(strategy.hashCode(k));
     }
 
     /**
-     * Returns the entry associated with the specified key in this map.
-     * Returns null if the map contains no mapping for this key.
+     * Checks whether the given slot refers to the given key without keeping a strong reference
+     * to its referent.
      */
     @SuppressWarnings("unchecked")
-    Entry<K> getEntry(Object key) {
-        try {
-            K k = (K) maskNull(key);
-            int h = hash(k);
-            Entry<K>[] tab = getTable();
-            int index = indexFor(h, tab.length);
-            Entry<K> e = tab[index];
-            while (e != null && !(e.hash == h && matchesKey(e, k)))
-                e = e.next;
-            return e;
-        } catch (ClassCastException e) {
-            return null;
+    private boolean matches(WeakKey slot, K k) {
+        if (slot.refersTo(k)) {
+            return true;
         }
+
+        Object referent = slot.get();
+        return referent != null && strategy.equals(k, (K) referent);
     }
 
     /**
-     * Associates the specified value with the specified key in this map.
-     * If the map previously contained a mapping for this key, the old
-     * value is replaced.
-     *
-     * @param key key with which the specified value is to be associated.
-     * @param value value to be associated with the specified key.
-     * @return the previous value associated with {@code key}, or
-     *         {@code null} if there was no mapping for {@code key}.
-     *         (A {@code null} return can also indicate that the map
-     *         previously associated {@code null} with {@code key}.)
+     * @return the position of the given non-null key or -1 if it isn't mapped
      */
     @SuppressWarnings("unchecked")
-    public int put(K key, int value) {
+    private int find(Object o) {
+        expungeStaleEntries();
+
+        K k;
+        int h;
+
         try {
-            K k = (K) maskNull(key);
-            int h = hash(k);
-            Entry<K>[] tab = getTable();
-            int i = indexFor(h, tab.length);
-
-            for (Entry<K> e = tab[i]; e != null; e = e.next) {
-                if (h == e.hash && matchesKey(e, k)) {
-                    int oldValue = e.value;
-                    if (value != oldValue)
-                        e.value = value;
-                    return oldValue;
-                }
+            k = (K) o;
+            h = hash(k);
+        } catch (ClassCastException notKeyClass) {
+            return -1;
+        }
+
+        for (int pos = h & mask; ; pos = (pos + 1) & mask) {
+            WeakKey curr = key[pos];
+
+            if (curr == null) {
+                return -1;
+            }
+
+            if (curr != TOMBSTONE && curr.hash == h && matches(curr, k)) {
+                return pos;
             }
+        }
+    }
+
+    private int putNull(int v) {
+        int oldValue = containsNullKey ? value[n] : defRetValue;
 
-            modCount++;
-            Entry<K> e = tab[i];
-            tab[i] = new Entry<>(k, value, this, h, e);
-            if (++size >= threshold)
-                resize(tab.length * 2);
-            return defaultReturnValue();
-        } catch (ClassCastException ignored) {
+        if (!containsNullKey) {
+            containsNullKey = true;
+            size++;
         }
 
-        return defaultReturnValue();
+        value[n] = v;
+        return oldValue;
     }
 
-    /**
-     * Rehashes the contents of this map into a new array with a
-     * larger capacity.  This method is called automatically when the
-     * number of keys in this map reaches its threshold.
-     *
-     * If current capacity is MAXIMUM_CAPACITY, this method does not
-     * resize the map, but sets threshold to Integer.MAX_VALUE.
-     * This has the effect of preventing future calls.
-     *
-     * @param newCapacity the new capacity, MUST be a power of two;
-     *        must be greater than current capacity unless current
-     *        capacity is MAXIMUM_CAPACITY (in which case value
-     *        is irrelevant).
-     */
-    void resize(int newCapacity) {
-        Entry<K>[] oldTable = getTable();
-        int oldCapacity = oldTable.length;
-        if (oldCapacity == MAXIMUM_CAPACITY) {
-            threshold = Integer.MAX_VALUE;
-            return;
+    private void insert(int pos, K k, int h, int v) {
+        if (key[pos] == null) {
+            occupied++;
         }
 
-        Entry<K>[] newTable = newTable(newCapacity);
-        transfer(oldTable, newTable);
-        table = newTable;
+        key[pos] = new WeakKey(k, queue, h);
+        value[pos] = v;
+        size++;
 
-        /*
-         * If ignoring null elements and processing ref queue caused massive
-         * shrinkage, then restore old table.  This should be rare, but avoids
-         * unbounded expansion of garbage-filled tables.
-         */
-        if (size >= threshold / 2) {
-            threshold = (int)(newCapacity * loadFactor);
-        } else {
-            expungeStaleEntries();
-            transfer(newTable, oldTable);
-            table = oldTable;
+        if (occupied >= maxFill) {
+            rehash(Math.max(minN, HashCommon.arraySize(size + 1, f)));
         }
     }
 
-    /** Transfers all entries from src to dest tables */
-    private void transfer(Entry<K>[] src, Entry<K>[] dest) {
-        for (int j = 0; j < src.length; ++j) {
-            Entry<K> e = src[j];
-            src[j] = null;
-            while (e != null) {
-                Entry<K> next = e.next;
-                if (e.refersTo(null)) {
-                    e.next = null;  // Help GC
-                    e.value = defaultReturnValue(); //  "   "
-                    size--;
-                } else {
-                    int i = indexFor(e.hash, dest.length);
-                    e.next = dest[i];
-                    dest[i] = e;
-                }
-                e = next;
-            }
-        }
+    private void removeAt(int pos) {
+        key[pos].clear();
+        bury(pos);
+        size--;
     }
 
     /**
-     * Copies all of the mappings from the specified map to this map.
-     * These mappings will replace any mappings that this map had for any
-     * of the keys currently in the specified map.
-     *
-     * @param m mappings to be stored in this map.
-     * @throws  NullPointerException if the specified map is null.
+     * Frees the given slot. A slot followed by an empty one can't be a part of any probe sequence,
+     * so it's emptied along with the tombstones preceding it instead of becoming one.
      */
-    public void putAll(Object2IntMap<? extends K> m) {
-        int numKeysToBeAdded = m.size();
-
-        if (numKeysToBeAdded == 0)
+    private void bury(int pos) {
+        if (key[(pos + 1) & mask] != null) {
+            key[pos] = TOMBSTONE;
             return;
-
-        /*
-         * Expand the map if the map if the number of mappings to be added
-         * is greater than or equal to threshold.  This is conservative; the
-         * obvious condition is (m.size() + size) >= threshold, but this
-         * condition could result in a map with twice the appropriate capacity,
-         * if the keys to be added overlap with the keys already in this map.
-         * By using the conservative calculation, we subject ourself
-         * to at most one extra resize.
-         */
-        if (numKeysToBeAdded > threshold) {
-            int targetCapacity = (int)(numKeysToBeAdded / loadFactor + 1);
-            if (targetCapacity > MAXIMUM_CAPACITY)
-                targetCapacity = MAXIMUM_CAPACITY;
-            int newCapacity = table.length;
-            while (newCapacity < targetCapacity)
-                newCapacity <<= 1;
-            if (newCapacity > table.length)
-                resize(newCapacity);
         }
 
-        for (Object2IntMap.Entry<? extends K> e : m.object2IntEntrySet())
-            put(e.getKey(), e.getIntValue());
+        do {
+            key[pos] = null;
+            occupied--;
+            pos = (pos - 1) & mask;
+        } while (key[pos] == TOMBSTONE);
     }
 
     /**
-     * Removes the mapping for a key from this weak hash map if it is present.
-     * More formally, if this map contains a mapping from key {@code k} to
-     * value {@code v} such that <code>(key==null ?  k==null :
-     * key.equals(k))</code>, that mapping is removed.  (The map can contain
-     * at most one such mapping.)
-     *
-     * <p>Returns the value to which this map previously associated the key,
-     * or {@code null} if the map contained no mapping for the key.  A
-     * return value of {@code null} does not <i>necessarily</i> indicate
-     * that the map contained no mapping for the key; it's also possible
-     * that the map explicitly mapped the key to {@code null}.
-     *
-     * <p>The map will not contain a mapping for the specified key once the
-     * call returns.
-     *
-     * @param key key whose mapping is to be removed from the map
-     * @return the previous value associated with {@code key}, or
-     *         {@code null} if there was no mapping for {@code key}
+     * Expunges stale entries from the table within the expunge budget.
      */
-    @SuppressWarnings("unchecked")
-    public int removeInt(Object key) {
-        try {
-            K k = (K) maskNull(key);
-            int h = hash(k);
-            Entry<K>[] tab = getTable();
-            int i = indexFor(h, tab.length);
-            Entry<K> prev = tab[i];
-            Entry<K> e = prev;
-
-            while (e != null) {
-                Entry<K> next = e.next;
-                if (h == e.hash && matchesKey(e, k)) {
-                    modCount++;
-                    size--;
-                    if (prev == e)
-                        tab[i] = next;
-                    else
-                        prev.next = next;
-                    return e.value;
-                }
-                prev = e;
-                e = next;
-            }
-        } catch (ClassCastException ignored) {
-
-        }
-
-        return defaultReturnValue();
+    private void expungeStaleEntries() {
+        expungeStaleEntries(expungeBudget);
     }
 
-    /** Special version of remove needed by Entry set */
-    @SuppressWarnings("unchecked")
-    boolean removeMapping(Object o) {
-        if (!(o instanceof Map.Entry))
-            return false;
+    private void expungeStaleEntries(int budget) {
+        for (Reference<?> x; budget-- != 0 && (x = queue.poll()) != null; ) {
+            WeakKey stale = (WeakKey) x;
 
-        try {
-            Entry<K>[] tab = getTable();
-            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
-            K k = (K) maskNull(entry.getKey());
-            int h = hash(k);
-            int i = indexFor(h, tab.length);
-            Entry<K> prev = tab[i];
-            Entry<K> e = prev;
-
-            while (e != null) {
-                Entry<K> next = e.next;
-                if (h == e.hash && e.equals(entry)) {
-                    modCount++;
+            // a stale key which isn't found has been dropped by a rehash already
+            for (int pos = stale.hash & mask; key[pos] != null; pos = (pos + 1) & mask) {
+                if (key[pos] == stale) {
+                    bury(pos);
                     size--;
-                    if (prev == e)
-                        tab[i] = next;
-                    else
-                        prev.next = next;
-                    return true;
+                    expungedCount++;
+                    entryExpunged(value[pos]);
+                    break;
                 }
-                prev = e;
-                e = next;
             }
-        } catch (ClassCastException ignored) {
-
         }
-
-        return false;
     }
 
     /**
-     * Removes all of the mappings from this map.
-     * The map will be empty after this call returns.
+     * Moves the live mappings to a table of the given capacity, dropping the tombstones and
+     * the mappings whose keys have been collected.
      */
-    public void clear() {
-        // clear out ref queue. We don't need to expunge entries
-        // since table is getting cleared.
-        while (queue.poll() != null)
-            ;
+    private void rehash(int newN) {
+        WeakKey[] key = this.key;
+        int[] value = this.value;
+        int newMask = newN - 1;
+        WeakKey[] newKey = new WeakKey[newN];
+        int[] newValue = new int[newN + 1];
+        int live = 0;
 
-        modCount++;
-        Arrays.fill(table, null);
-        size = 0;
+        for (int i = n; i-- != 0; ) {
+            WeakKey curr = key[i];
 
-        // Allocation of array may have caused GC, which may have caused
-        // additional entries to go stale.  Removing these entries from the
-        // reference queue will make them eligible for reclamation.
-        while (queue.poll() != null)
-            ;
-    }
+            if (curr == null || curr == TOMBSTONE) {
+                continue;
+            }
 
+            if (curr.refersTo(null)) {
+                entryExpunged(value[i]);
+                continue;
+            }
 
-    /**
-     * Returns {@code true} if this map maps one or more keys to the
-     * specified value.
-     *
-     * @param v value whose presence in this map is to be tested
-     * @return {@code true} if this map maps one or more keys to the
-     *         specified value
-     */
-    @Override
-    public boolean containsValue(int v) {
-        Entry<K>[] tab = getTable();
-        for (int i = tab.length; i-- > 0;)
-            for (Entry<K> e = tab[i]; e != null; e = e.next)
-                if (v == e.value)
-                    return true;
-        return false;
+            int pos = curr.hash & newMask;
+
+            while (newKey[pos] != null) {
+                pos = (pos + 1) & newMask;
+            }
+
+            newKey[pos] = curr;
+            newValue[pos] = value[i];
+            live++;
+        }
+
+        newValue[newN] = value[n];
+        n = newN;
+        mask = newMask;
+        maxFill = HashCommon.maxFill(n, f);
+        this.key = newKey;
+        this.value = newValue;
+        expungedCount += size - live - (containsNullKey ? 1 : 0);
+        size = live + (containsNullKey ? 1 : 0);
+        occupied = live;
+        modCount++;
     }
 
     /**
-     * The entries in this hash table extend WeakReference, using its main ref
-     * field as the key.
+     * A weak reference to a key caching its hash, which fits in the alignment padding of
+     * {@link WeakReference} on common layouts.
      */
-    private static class Entry<K> extends WeakReference<K> implements Object2IntMap.Entry<K> {
-        int value;
-        final Object2IntOpenCostumWeakHashMap<K> map;
+    private static final class WeakKey extends WeakReference<Object> {
         final int hash;
-        Entry<K> next;
 
+        WeakKey(Object referent, ReferenceQueue<Object> queue, int hash) {
+            super(referent, queue);
+            this.hash = hash;
+        }
+    }
+
+    private final class MapEntry implements Object2IntMap.Entry<K>, Map.Entry<K, Integer> {
         /**
-         * Creates new entry.
+         * Strong reference keeping the key alive while the entry is in use.
          */
-        Entry(K key, int value, Object2IntOpenCostumWeakHashMap<K> map, int hash, Entry<K> next) {
-            super(key, map.queue);
-            this.value = value;
-            this.map = map;
-            this.hash  = hash;
-            this.next  = next;
+        private final K k;
+        private final int index;
+        private final int expectedModCount;
+
+        private MapEntry(K k, int index) {
+            this.k = k;
+            this.index = index;
+            this.expectedModCount = modCount;
         }
 
-        @SuppressWarnings("unchecked")
+        @Override
         public K getKey() {
-            return (K) Object2IntOpenCostumWeakHashMap.unmaskNull(get());
+            return k;
         }
 
+        @Override
         public int getIntValue() {
-            return value;
+            checkModCount();
+            return value[index];
         }
 
-        public int setValue(int newValue) {
-            int oldValue = value;
-            value = newValue;
+        @Override
+        public int setValue(int v) {
+            checkModCount();
+
+            int oldValue = value[index];
+            value[index] = v;
             return oldValue;
         }
 
+        @Override
+        @Deprecated
+        public Integer getValue() {
+            return getIntValue();
+        }
+
+        @Override
+        @Deprecated
+        public Integer setValue(Integer v) {
+            return setValue(v.intValue());
+        }
+
         @SuppressWarnings("unchecked")
+        @Override
         public boolean equals(Object o) {
-            if (!(o instanceof Map.Entry))
+            if (!(o instanceof Map.Entry<?, ?> e) || !(e.getValue() instanceof Integer v)) {
                 return false;
+            }
 
             try {
-                Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
-                K k1 = getKey();
-                Object k2 = e.getKey();
-                if (map.strategy.equals(k1, (K) k2)) {
-                    int v1 = getIntValue();
-                    Object v2 = e.getValue();
-
-                    return v2 instanceof Integer && v1 == (int) v2;
-                }
-            } catch (ClassCastException ignored) {
-
+                return (k == null ? e.getKey() == null : e.getKey() != null && strategy.equals(k, (K) e.getKey()))
+                        && getIntValue() == v;
+            } catch (ClassCastException notKeyClass) {
+                return false;
             }
-
-            return false;
         }
 
+        @Override
         public int hashCode() {
-            K k = getKey();
-            int v = getIntValue();
-            return map.strategy.hashCode(k) ^ Integer.hashCode(v);
+            return (k == null ? 0 : strategy.hashCode(k)) ^ getIntValue();
         }
 
+        @Override
         public String toString() {
-            return getKey() + "=" + getIntValue();
+            return k + "=" + getIntValue();
         }
-    }
 
-    private abstract class HashIterator<T> implements ObjectIterator<T> {
-        private int index;
-        private Entry<K> entry;
-        private Entry<K> lastReturned;
-        private int expectedModCount = modCount;
+        private void checkModCount() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
 
-        /**
-         * Strong reference needed to avoid disappearance of key
-         * between hasNext and next
-         */
+    /**
+     * Iterates over the slots holding a strong reference to the next key, so that it can't
+     * disappear between hasNext and next. Iterators fail fast if the table is reallocated.
+     */
+    private abstract class MapIterator {
+        private int pos;
+        private int nextPos = -1;
         private Object nextKey;
-
         /**
-         * Strong reference needed to avoid disappearance of key
-         * between nextEntry() and any use of the entry
+         * The position of the last returned mapping, -1 if there is none or it has been removed.
          */
-        private Object currentKey;
-
-        HashIterator() {
-            index = isEmpty() ? 0 : table.length;
-        }
+        int last = -1;
+        K lastKey;
+        private int expectedModCount = modCount;
 
         public boolean hasNext() {
-            Entry<K>[] t = table;
-
-            while (nextKey == null) {
-                Entry<K> e = entry;
-                int i = index;
-                while (e == null && i > 0)
-                    e = t[--i];
-                entry = e;
-                index = i;
-                if (e == null) {
-                    currentKey = null;
-                    return false;
-                }
-                nextKey = e.get(); // hold on to key in strong ref
-                if (nextKey == null)
-                    entry = entry.next;
+            if (nextPos >= 0) {
+                return true;
             }
-            return true;
-        }
 
-        /** The common parts of next() across different types of iterators */
-        protected Entry<K> nextEntry() {
-            if (modCount != expectedModCount)
-                throw new ConcurrentModificationException();
-            if (nextKey == null && !hasNext())
-                throw new NoSuchElementException();
+            WeakKey[] key = Object2IntOpenCostumWeakHashMap.this.key;
 
-            lastReturned = entry;
-            entry = entry.next;
-            currentKey = nextKey;
-            nextKey = null;
-            return lastReturned;
-        }
+            for (; pos < n; pos++) {
+                WeakKey curr = key[pos];
 
-        public void remove() {
-            if (lastReturned == null)
-                throw new IllegalStateException();
-            if (modCount != expectedModCount)
-                throw new ConcurrentModificationException();
-
-            Object2IntOpenCostumWeakHashMap.this.remove(currentKey);
-            expectedModCount = modCount;
-            lastReturned = null;
-            currentKey = null;
-        }
-
-    }
-
-    private class ValueIterator implements IntIterator {
-        private int index;
-        private Entry<K> entry;
-        private Entry<K> lastReturned;
-        private int expectedModCount = modCount;
-
-        /**
-         * Strong reference needed to avoid disappearance of key
-         * between hasNext and next
-         */
-        private Object nextKey;
+                if (curr != null && curr != TOMBSTONE && (nextKey = curr.get()) != null) {
+                    nextPos = pos++;
+                    return true;
+                }
+            }
 
-        /**
-         * Strong reference needed to avoid disappearance of key
-         * between nextEntry() and any use of the entry
-         */
-        private Object currentKey;
+            if (pos++ == n && containsNullKey) {
+                nextPos = n;
+                nextKey = null;
+                return true;
+            }
 
-        ValueIterator() {
-            index = isEmpty() ? 0 : table.length;
+            return false;
         }
 
-        public boolean hasNext() {
-            Entry<K>[] t = table;
-
-            while (nextKey == null) {
-                Entry<K> e = entry;
-                int i = index;
-                while (e == null && i > 0)
-                    e = t[--i];
-                entry = e;
-                index = i;
-                if (e == null) {
-                    currentKey = null;
-                    return false;
-                }
-                nextKey = e.get(); // hold on to key in strong ref
-                if (nextKey == null)
-                    entry = entry.next;
+        @SuppressWarnings("unchecked")
+        int nextPos() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            return true;
-        }
 
-        /** The common parts of next() across different types of iterators */
-        protected Entry<K> nextEntry() {
-            if (modCount != expectedModCount)
+            if (modCount != expectedModCount) {
                 throw new ConcurrentModificationException();
-            if (nextKey == null && !hasNext())
-                throw new NoSuchElementException();
+            }
 
-            lastReturned = entry;
-            entry = entry.next;
-            currentKey = nextKey;
+            last = nextPos;
+            lastKey = (K) nextKey;
+            nextPos = -1;
             nextKey = null;
-            return lastReturned;
+            return last;
         }
 
         public void remove() {
-            if (lastReturned == null)
+            if (last < 0) {
                 throw new IllegalStateException();
-            if (modCount != expectedModCount)
+            }
+
+            if (modCount != expectedModCount) {
                 throw new ConcurrentModificationException();
+            }
 
-            Object2IntOpenCostumWeakHashMap.this.remove(currentKey);
-            expectedModCount = modCount;
-            lastReturned = null;
-            currentKey = null;
-        }
+            if (last == n) {
+                containsNullKey = false;
+                size--;
+            } else if (key[last] != null && key[last] != TOMBSTONE) {
+                removeAt(last);
+            }
 
-        public int nextInt() {
-            return nextEntry().value;
+            last = -1;
+            lastKey = null;
         }
     }
 
-    private class KeyIterator extends HashIterator<K> {
+    private final class KeyIterator extends MapIterator implements ObjectIterator<K> {
+        @Override
         public K next() {
-            return nextEntry().getKey();
+            nextPos();
+            return lastKey;
         }
     }
 
-    private class EntryIterator extends HashIterator<Object2IntMap.Entry<K>> {
-        public Object2IntMap.Entry<K> next() {
-            return nextEntry();
+    private final class ValueIterator extends MapIterator implements IntIterator {
+        @Override
+        public int nextInt() {
+            return value[nextPos()];
         }
     }
 
-    // Views
-
-    private final transient ObjectSet<Object2IntMap.Entry<K>> entrySet = new EntrySet();
-
-    /**
-     * Returns a {@link Set} view of the keys contained in this map.
-     * The set is backed by the map, so changes to the map are
-     * reflected in the set, and vice-versa.  If the map is modified
-     * while an iteration over the set is in progress (except through
-     * the iterator's own {@code remove} operation), the results of
-     * the iteration are undefined.  The set supports element removal,
-     * which removes the corresponding mapping from the map, via the
-     * {@code Iterator.remove}, {@code Set.remove},
-     * {@code removeAll}, {@code retainAll}, and {@code clear}
-     * operations.  It does not support the {@code add} or {@code addAll}
-     * operations.
-     */
-    public ObjectSet<K> keySet() {
-        return new KeySet();
+    private final class EntryIterator extends MapIterator implements ObjectIterator<Object2IntMap.Entry<K>> {
+        @Override
+        public Object2IntMap.Entry<K> next() {
+            int pos = nextPos();
+            return new MapEntry(lastKey, pos);
+        }
     }
 
-    private class KeySet extends AbstractObjectSet<K> {
+    private final class KeySet extends AbstractObjectSet<K> {
+        @Override
         public ObjectIterator<K> iterator() {
             return new KeyIterator();
         }
 
+        @Override
         public int size() {
             return Object2IntOpenCostumWeakHashMap.this.size();
         }
 
+        @Override
         public boolean contains(Object o) {
             return containsKey(o);
         }
 
+        @Override
         public boolean remove(Object o) {
-            if (containsKey(o)) {
-                Object2IntOpenCostumWeakHashMap.this.remove(o);
+            if (o == null) {
+                if (!containsNullKey) {
+                    return false;
+                }
+
+                removeInt(null);
                 return true;
             }
-            else
+
+            // the lookup may expunge stale keys, so whether o was removed can't be told by the size
+            int pos = find(o);
+
+            if (pos < 0) {
                 return false;
+            }
+
+            removeAt(pos);
+            return true;
         }
 
+        @Override
         public void clear() {
             Object2IntOpenCostumWeakHashMap.this.clear();
         }
-
-        public ObjectSpliterator<K> spliterator() {
-            return new Object2IntOpenCostumWeakHashMap.KeySpliterator<>(Object2IntOpenCostumWeakHashMap.this,
-                    0, -1, 0, 0);
-        }
-    }
-
-    /**
-     * Returns a {@link Collection} view of the values contained in this map.
-     * The collection is backed by the map, so changes to the map are
-     * reflected in the collection, and vice-versa.  If the map is
-     * modified while an iteration over the collection is in progress
-     * (except through the iterator's own {@code remove} operation),
-     * the results of the iteration are undefined.  The collection
-     * supports element removal, which removes the corresponding
-     * mapping from the map, via the {@code Iterator.remove},
-     * {@code Collection.remove}, {@code removeAll},
-     * {@code retainAll} and {@code clear} operations.  It does not
-     * support the {@code add} or {@code addAll} operations.
-     */
-    @Override
-    public IntCollection values() {
-        return new Values();
     }
 
-    private class Values extends AbstractIntCollection {
+    private final class Values extends AbstractIntCollection {
+        @Override
         public IntIterator iterator() {
             return new ValueIterator();
         }
@@ -909,410 +820,55 @@ public class Object2IntOpenCostumWeakHashMap<K> extends AbstractObject2IntMap<K>
         }
 
         @Override
-        public boolean contains(int o) {
-            return containsValue(o);
+        public boolean contains(int v) {
+            return containsValue(v);
         }
 
         @Override
         public void clear() {
             Object2IntOpenCostumWeakHashMap.this.clear();
         }
-
-        @Override
-        public IntSpliterator spliterator() {
-            return new ValueSpliterator<>(Object2IntOpenCostumWeakHashMap.this, 0, -1, 0,
-                    0);
-        }
-    }
-
-    /**
-     * Returns a {@link Set} view of the mappings contained in this map.
-     * The set is backed by the map, so changes to the map are
-     * reflected in the set, and vice-versa.  If the map is modified
-     * while an iteration over the set is in progress (except through
-     * the iterator's own {@code remove} operation, or through the
-     * {@code setValue} operation on a map entry returned by the
-     * iterator) the results of the iteration are undefined.  The set
-     * supports element removal, which removes the corresponding
-     * mapping from the map, via the {@code Iterator.remove},
-     * {@code Set.remove}, {@code removeAll}, {@code retainAll} and
-     * {@code clear} operations.  It does not support the
-     * {@code add} or {@code addAll} operations.
-     * @return
-     */
-    @Override
-    public ObjectSet<Object2IntMap.Entry<K>> object2IntEntrySet() {
-        return entrySet;
     }
 
-    private class EntrySet extends AbstractObjectSet<Object2IntMap.Entry<K>> {
+    private final class EntrySet extends AbstractObjectSet<Object2IntMap.Entry<K>> {
+        @Override
         public ObjectIterator<Object2IntMap.Entry<K>> iterator() {
             return new EntryIterator();
         }
 
+        @Override
         public boolean contains(Object o) {
-            if (!(o instanceof Map.Entry))
+            if (!(o instanceof Map.Entry<?, ?> e) || !(e.getValue() instanceof Integer v)) {
                 return false;
-            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
-            Entry<K> candidate = getEntry(e.getKey());
-            return candidate != null && candidate.equals(e);
-        }
-
-        public boolean remove(Object o) {
-            return removeMapping(o);
-        }
-
-        public int size() {
-            return Object2IntOpenCostumWeakHashMap.this.size();
-        }
-
-        public void clear() {
-            Object2IntOpenCostumWeakHashMap.this.clear();
-        }
-
-        private List<Object2IntMap.Entry<K>> deepCopy() {
-            List<Object2IntMap.Entry<K>> list = new ArrayList<>(size());
-            for (Object2IntMap.Entry<K> e : this)
-                list.add(new AbstractObject2IntMap.BasicEntry<>(e.getKey(), e.getIntValue()));
-            return list;
-        }
-
-        public Object[] toArray() {
-            return deepCopy().toArray();
-        }
-
-        public <T> T[] toArray(T[] a) {
-            return deepCopy().toArray(a);
-        }
-
-        public ObjectSpliterator<Object2IntMap.Entry<K>> spliterator() {
-            return new EntrySpliterator<>(Object2IntOpenCostumWeakHashMap.this, 0, -1, 0,
-                    0);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    @Override
-    public void forEach(BiConsumer<? super K, ? super Integer> action) {
-        Objects.requireNonNull(action);
-        int expectedModCount = modCount;
-
-        Entry<K>[] tab = getTable();
-        for (Entry<K> entry : tab) {
-            while (entry != null) {
-                Object key = entry.get();
-                if (key != null) {
-                    action.accept((K)Object2IntOpenCostumWeakHashMap.unmaskNull(key), entry.value);
-                }
-                entry = entry.next;
-
-                if (expectedModCount != modCount) {
-                    throw new ConcurrentModificationException();
-                }
             }
-        }
-    }
 
-    @SuppressWarnings("unchecked")
-    @Override
-    public void replaceAll(BiFunction<? super K, ? super Integer, ? extends Integer> function) {
-        Objects.requireNonNull(function);
-        int expectedModCount = modCount;
-
-        Entry<K>[] tab = getTable();;
-        for (Entry<K> entry : tab) {
-            while (entry != null) {
-                Object key = entry.get();
-                if (key != null) {
-                    entry.value = function.apply((K)Object2IntOpenCostumWeakHashMap.unmaskNull(key), entry.value);
-                }
-                entry = entry.next;
+            Object k = e.getKey();
 
-                if (expectedModCount != modCount) {
-                    throw new ConcurrentModificationException();
-                }
+            if (k == null) {
+                return containsNullKey && value[n] == v;
             }
-        }
-    }
 
-    /**
-     * Similar form as other hash Spliterators, but skips dead
-     * elements.
-     */
-    public static class Object2IntOpenCostumWeakHashMapSpliterator<K> {
-        final Object2IntOpenCostumWeakHashMap<K> map;
-        Entry<K> current; // current node
-        int index;             // current index, modified on advance/split
-        int fence;             // -1 until first use; then one past last index
-        int est;               // size estimate
-        int expectedModCount;  // for comodification checks
-
-        Object2IntOpenCostumWeakHashMapSpliterator(Object2IntOpenCostumWeakHashMap<K> m, int origin,
-                               int fence, int est,
-                               int expectedModCount) {
-            this.map = m;
-            this.index = origin;
-            this.fence = fence;
-            this.est = est;
-            this.expectedModCount = expectedModCount;
-        }
-
-        final int getFence() { // initialize fence and size on first use
-            int hi;
-            if ((hi = fence) < 0) {
-                Object2IntOpenCostumWeakHashMap<K> m = map;
-                est = m.size();
-                expectedModCount = m.modCount;
-                hi = fence = m.table.length;
-            }
-            return hi;
+            int pos = find(k);
+            return pos >= 0 && value[pos] == v;
         }
 
-        public final long estimateSize() {
-            getFence(); // force init
-            return est;
-        }
-    }
-
-    static final class KeySpliterator<K,V>
-            extends Object2IntOpenCostumWeakHashMapSpliterator<K>
-            implements ObjectSpliterator<K> {
-        KeySpliterator(Object2IntOpenCostumWeakHashMap<K> m, int origin, int fence, int est,
-                       int expectedModCount) {
-            super(m, origin, fence, est, expectedModCount);
-        }
-
-        public KeySpliterator<K,V> trySplit() {
-            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
-            return (lo >= mid) ? null :
-                    new KeySpliterator<>(map, lo, index = mid, est >>>= 1,
-                            expectedModCount);
-        }
-
-        public void forEachRemaining(Consumer<? super K> action) {
-            int i, hi, mc;
-            if (action == null)
-                throw new NullPointerException();
-            Object2IntOpenCostumWeakHashMap<K> m = map;
-            Entry<K>[] tab = m.table;
-            if ((hi = fence) < 0) {
-                mc = expectedModCount = m.modCount;
-                hi = fence = tab.length;
-            }
-            else
-                mc = expectedModCount;
-            if (tab.length >= hi && (i = index) >= 0 &&
-                    (i < (index = hi) || current != null)) {
-                Entry<K> p = current;
-                current = null; // exhaust
-                do {
-                    if (p == null)
-                        p = tab[i++];
-                    else {
-                        Object x = p.get();
-                        p = p.next;
-                        if (x != null) {
-                            @SuppressWarnings("unchecked") K k =
-                                    (K) Object2IntOpenCostumWeakHashMap.unmaskNull(x);
-                            action.accept(k);
-                        }
-                    }
-                } while (p != null || i < hi);
-            }
-            if (m.modCount != mc)
-                throw new ConcurrentModificationException();
-        }
-
-        public boolean tryAdvance(Consumer<? super K> action) {
-            int hi;
-            if (action == null)
-                throw new NullPointerException();
-            Entry<K>[] tab = map.table;
-            if (tab.length >= (hi = getFence()) && index >= 0) {
-                while (current != null || index < hi) {
-                    if (current == null)
-                        current = tab[index++];
-                    else {
-                        Object x = current.get();
-                        current = current.next;
-                        if (x != null) {
-                            @SuppressWarnings("unchecked") K k =
-                                    (K) Object2IntOpenCostumWeakHashMap.unmaskNull(x);
-                            action.accept(k);
-                            if (map.modCount != expectedModCount)
-                                throw new ConcurrentModificationException();
-                            return true;
-                        }
-                    }
-                }
-            }
-            return false;
-        }
-
-        public int characteristics() {
-            return Spliterator.DISTINCT;
-        }
-    }
-
-    public static final class ValueSpliterator<K>
-            extends Object2IntOpenCostumWeakHashMapSpliterator<K>
-            implements IntSpliterator {
-        ValueSpliterator(Object2IntOpenCostumWeakHashMap<K> m, int origin, int fence, int est,
-                         int expectedModCount) {
-            super(m, origin, fence, est, expectedModCount);
-        }
-
-        public ValueSpliterator<K> trySplit() {
-            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
-            return (lo >= mid) ? null :
-                    new Object2IntOpenCostumWeakHashMap.ValueSpliterator<>(map, lo, index = mid, est >>>= 1,
-                            expectedModCount);
-        }
-
-        public void forEachRemaining(IntConsumer action) {
-            int i, hi, mc;
-            if (action == null)
-                throw new NullPointerException();
-            Object2IntOpenCostumWeakHashMap<K> m = map;
-            Entry<K>[] tab = m.table;
-            if ((hi = fence) < 0) {
-                mc = expectedModCount = m.modCount;
-                hi = fence = tab.length;
-            }
-            else
-                mc = expectedModCount;
-            if (tab.length >= hi && (i = index) >= 0 &&
-                    (i < (index = hi) || current != null)) {
-                Entry<K> p = current;
-                current = null; // exhaust
-                do {
-                    if (p == null)
-                        p = tab[i++];
-                    else {
-                        Object x = p.get();
-                        int v = p.value;
-                        p = p.next;
-                        if (x != null)
-                            action.accept(v);
-                    }
-                } while (p != null || i < hi);
-            }
-            if (m.modCount != mc)
-                throw new ConcurrentModificationException();
-        }
-
-        public boolean tryAdvance(IntConsumer action) {
-            int hi;
-            if (action == null)
-                throw new NullPointerException();
-            Entry<K>[] tab = map.table;
-            if (tab.length >= (hi = getFence()) && index >= 0) {
-                while (current != null || index < hi) {
-                    if (current == null)
-                        current = tab[index++];
-                    else {
-                        Object x = current.get();
-                        int v = current.value;
-                        current = current.next;
-                        if (x != null) {
-                            action.accept(v);
-                            if (map.modCount != expectedModCount)
-                                throw new ConcurrentModificationException();
-                            return true;
-                        }
-                    }
-                }
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || !(e.getValue() instanceof Integer v)) {
+                return false;
             }
-            return false;
-        }
-
-        public int characteristics() {
-            return 0;
-        }
-    }
 
-    static final class EntrySpliterator<K> extends Object2IntOpenCostumWeakHashMapSpliterator<K>
-            implements ObjectSpliterator<Object2IntMap.Entry<K>> {
-        EntrySpliterator(Object2IntOpenCostumWeakHashMap<K> m, int origin, int fence, int est,
-                         int expectedModCount) {
-            super(m, origin, fence, est, expectedModCount);
+            return Object2IntOpenCostumWeakHashMap.this.remove(e.getKey(), (int) v);
         }
 
-        public EntrySpliterator<K> trySplit() {
-            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
-            return (lo >= mid) ? null :
-                    new Object2IntOpenCostumWeakHashMap.EntrySpliterator<>(map, lo, index = mid, est >>>= 1,
-                            expectedModCount);
-        }
-
-
-        public void forEachRemaining(Consumer<? super Object2IntMap.Entry<K>> action) {
-            int i, hi, mc;
-            if (action == null)
-                throw new NullPointerException();
-            Object2IntOpenCostumWeakHashMap<K> m = map;
-            Entry<K>[] tab = m.table;
-            if ((hi = fence) < 0) {
-                mc = expectedModCount = m.modCount;
-                hi = fence = tab.length;
-            }
-            else
-                mc = expectedModCount;
-            if (tab.length >= hi && (i = index) >= 0 &&
-                    (i < (index = hi) || current != null)) {
-                Entry<K> p = current;
-                current = null; // exhaust
-                do {
-                    if (p == null)
-                        p = tab[i++];
-                    else {
-                        Object x = p.get();
-                        int v = p.value;
-                        p = p.next;
-                        if (x != null) {
-                            @SuppressWarnings("unchecked") K k =
-                                    (K) Object2IntOpenCostumWeakHashMap.unmaskNull(x);
-                            action.accept
-                                    (new AbstractObject2IntMap.BasicEntry<>(k, v));
-                        }
-                    }
-                } while (p != null || i < hi);
-            }
-            if (m.modCount != mc)
-                throw new ConcurrentModificationException();
-        }
-
-        public boolean tryAdvance(Consumer<? super Object2IntMap.Entry<K>> action) {
-            int hi;
-            if (action == null)
-                throw new NullPointerException();
-            Entry<K>[] tab = map.table;
-
-            if (tab.length >= (hi = getFence()) && index >= 0) {
-                while (current != null || index < hi) {
-                    if (current == null)
-                        current = tab[index++];
-                    else {
-                        Object x = current.get();
-                        int v = current.value;
-                        current = current.next;
-                        if (x != null) {
-                            @SuppressWarnings("unchecked") K k =
-                                    (K) Object2IntOpenCostumWeakHashMap.unmaskNull(x);
-                            action.accept
-                                    (new AbstractObject2IntMap.BasicEntry<>(k, v));
-                            if (map.modCount != expectedModCount)
-                                throw new ConcurrentModificationException();
-                            return true;
-                        }
-                    }
-                }
-            }
-            return false;
+        @Override
+        public int size() {
+            return Object2IntOpenCostumWeakHashMap.this.size();
         }
 
-        public int characteristics() {
-            return Spliterator.DISTINCT;
+        @Override
+        public void clear() {
+            Object2IntOpenCostumWeakHashMap.this.clear();
         }
     }
 }
@@ -1,32 +1,86 @@
 package com.github.svegon.utils.fast.util.ints;
 
+import com.github.svegon.utils.fast.util.BulkArrayUtil;
+import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.ints.IntArrays;
 import net.jcip.annotations.Immutable;
 
 import java.util.RandomAccess;
 
+/**
+ * An immutable list of the elements of an array between two indices. The array may be shared with other
+ * lists, which is how {@link #subList(int, int)} takes constant time and a builder hands its array over.
+ */
 @Immutable
 final class RegularImmutableIntList extends ImmutableIntList implements RandomAccess {
     public static final ImmutableIntList EMPTY = new RegularImmutableIntList(IntArrays.EMPTY_ARRAY);
 
     final int[] values;
+    final int from;
+    final int to;
 
     RegularImmutableIntList(int[] values) {
+        this(values, 0, values.length);
+    }
+
+    RegularImmutableIntList(int[] values, int from, int to) {
         this.values = values;
+        this.from = from;
+        this.to = to;
     }
 
     @Override
     public int getInt(int index) {
-        return values[index];
+        Preconditions.checkElementIndex(index, to - from);
+        return values[from + index];
     }
 
     @Override
     public int size() {
-        return values.length;
+        return to - from;
     }
 
     @Override
     public void getElements(int from, int[] a, int offset, int length) {
-        System.arraycopy(values, from, a, offset, length);
+        Preconditions.checkPositionIndexes(from, from + length, size());
+        System.arraycopy(values, this.from + from, a, offset, length);
+    }
+
+    @Override
+    public int indexOf(int k) {
+        int index = BulkArrayUtil.indexOf(values, from, to, k);
+        return index < 0 ? -1 : index - from;
+    }
+
+    @Override
+    public int lastIndexOf(int k) {
+        int index = BulkArrayUtil.lastIndexOf(values, from, to, k);
+        return index < 0 ? -1 : index - from;
+    }
+
+    @Override
+    public long sum() {
+        return BulkArrayUtil.sum(values, from, to);
+    }
+
+    @Override
+    public int min() {
+        return BulkArrayUtil.min(values, from, to);
+    }
+
+    @Override
+    public int max() {
+        return BulkArrayUtil.max(values, from, to);
+    }
+
+    @Override
+    public ImmutableIntList subList(int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, size());
+
+        if (from == 0 && to == size()) {
+            return this;
+        }
+
+        return from == to ? EMPTY : new RegularImmutableIntList(values, this.from + from, this.from + to);
     }
 }
@@ -0,0 +1,187 @@
+package com.github.svegon.utils.fast.util.ints;
+
+import it.unimi.dsi.fastutil.Hash;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Assigns dense integer ids to weakly referenced objects compared by a strategy, so that data
+ * attached to the objects can be stored in arrays indexed by the ids, see {@link IntIndexedTable}.
+ *
+ * The id of an object is released once the object is collected and its mapping expunged, or when
+ * it's {@link #release(Object) released} explicitly. The smallest free id is always assigned first,
+ * which keeps the ids packed below {@link #getIdBound()} and lets the tables shrink their storage
+ * when the highest ids are released.
+ *
+ * This class isn't thread-safe.
+ */
+public class WeakIdInterner<K> {
+    private final IdMap<K> ids;
+    private final BitSet assigned = new BitSet();
+    private final List<WeakReference<IntIndexedTable<?>>> tables = new ArrayList<>();
+    /**
+     * No id below this one is free.
+     */
+    private int lowestFree;
+    private int size;
+
+    public WeakIdInterner(Hash.Strategy<? super K> strategy) {
+        this.ids = new IdMap<>(this, strategy);
+        ids.defaultReturnValue(-1);
+    }
+
+    /**
+     * @return the id of the given object, assigning the smallest free one if it doesn't have any yet
+     */
+    public int intern(K key) {
+        return ids.computeIfAbsent(key, k -> assign());
+    }
+
+    /**
+     * @return the id of the given object or -1 if it doesn't have any
+     */
+    public int getId(Object key) {
+        return ids.getInt(key);
+    }
+
+    public boolean contains(Object key) {
+        return ids.containsKey(key);
+    }
+
+    /**
+     * Releases the id of the given object before it's collected.
+     *
+     * @return the released id or -1 if the object didn't have any
+     */
+    public int release(Object key) {
+        int id = ids.removeInt(key);
+
+        if (id >= 0) {
+            free(id);
+        }
+
+        return id;
+    }
+
+    /**
+     * @return whether the given id is assigned to an object, which may have been collected but not
+     * yet expunged
+     */
+    public boolean isAssigned(int id) {
+        return id >= 0 && assigned.get(id);
+    }
+
+    /**
+     * @return the number of the assigned ids after expunging the collected objects within the
+     * expunge budget
+     */
+    public int size() {
+        ids.size();
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return one more than the highest assigned id, the length an array needs to be indexed
+     * by all of them
+     */
+    public int getIdBound() {
+        return assigned.length();
+    }
+
+    /**
+     * Releases all ids.
+     */
+    public void clear() {
+        ids.clear();
+        assigned.clear();
+        lowestFree = 0;
+        size = 0;
+
+        for (Iterator<WeakReference<IntIndexedTable<?>>> it = tables.iterator(); it.hasNext(); ) {
+            IntIndexedTable<?> table = it.next().get();
+
+            if (table == null) {
+                it.remove();
+            } else {
+                table.clear();
+            }
+        }
+    }
+
+    /**
+     * Creates a table indexed by the ids of this interner. The value stored for an id is removed
+     * as soon as the id is released, so it never leaks to the next object getting the same id.
+     * The interner only holds the tables weakly.
+     */
+    public <V> IntIndexedTable<V> newTable() {
+        IntIndexedTable<V> table = new IntIndexedTable<>(this);
+        tables.add(new WeakReference<>(table));
+        return table;
+    }
+
+    /**
+     * @see Object2IntOpenCostumWeakHashMap#setExpungeBudget(int)
+     */
+    public void setExpungeBudget(int expungeBudget) {
+        ids.setExpungeBudget(expungeBudget);
+    }
+
+    public int getExpungeBudget() {
+        return ids.getExpungeBudget();
+    }
+
+    public Hash.Strategy<? super K> getStrategy() {
+        return ids.getStrategy();
+    }
+
+    private int assign() {
+        int id = assigned.nextClearBit(lowestFree);
+
+        assigned.set(id);
+        lowestFree = id + 1;
+        size++;
+        return id;
+    }
+
+    private void free(int id) {
+        assigned.clear(id);
+        lowestFree = Math.min(lowestFree, id);
+        size--;
+
+        int bound = assigned.length();
+
+        for (Iterator<WeakReference<IntIndexedTable<?>>> it = tables.iterator(); it.hasNext(); ) {
+            IntIndexedTable<?> table = it.next().get();
+
+            if (table == null) {
+                it.remove();
+            } else {
+                table.release(id, bound);
+            }
+        }
+    }
+
+    private static final class IdMap<K> extends Object2IntOpenCostumWeakHashMap<K> {
+        private static final long serialVersionUID = 1L;
+
+        private final WeakIdInterner<K> interner;
+
+        private IdMap(WeakIdInterner<K> interner, Hash.Strategy<? super K> strategy) {
+            super(strategy);
+            this.interner = interner;
+        }
+
+        @Override
+        protected void entryExpunged(int value) {
+            interner.free(value);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.github.svegon.utils.fast.util.longs;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import net.jcip.annotations.Immutable;
+
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list packing its elements block by block. Each block of 128 elements stores only
+ * their differences from its minimum, the frame of reference, in as many bits as the largest
+ * difference needs. The minimum, the bit width and the position of every block form the skip index,
+ * so an element is read from at most two words and a search skips the blocks whose range can't
+ * contain the sought value.
+ */
+@Immutable
+final class FrameOfReferenceImmutableLongList extends ImmutableLongList implements RandomAccess {
+    private static final int BLOCK_SHIFT = 7;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final int size;
+    private final long[] references;
+    private final byte[] widths;
+    /**
+     * The index of the first bit of each block.
+     */
+    private final long[] positions;
+    private final long[] data;
+
+    FrameOfReferenceImmutableLongList(long[] values, int offset, int length) {
+        LongArrays.ensureOffsetLength(values, offset, length);
+
+        int blocks = (length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        long[] references = new long[blocks];
+        byte[] widths = new byte[blocks];
+        long[] positions = new long[blocks];
+        long bits = 0;
+
+        for (int block = 0; block < blocks; block++) {
+            int from = offset + (block << BLOCK_SHIFT);
+            int to = Math.min(from + BLOCK_SIZE, offset + length);
+            long min = values[from];
+            long max = min;
+
+            for (int i = from + 1; i < to; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+
+            references[block] = min;
+            widths[block] = (byte) (Long.SIZE - Long.numberOfLeadingZeros(max - min));
+            positions[block] = bits;
+            bits += (long) widths[block] * (to - from);
+        }
+
+        Preconditions.checkArgument(bits >>> 6 < Integer.MAX_VALUE - 8, "too many elements");
+
+        long[] data = new long[(int) ((bits + Long.SIZE - 1) >>> 6)];
+
+        for (int block = 0; block < blocks; block++) {
+            int from = offset + (block << BLOCK_SHIFT);
+            int to = Math.min(from + BLOCK_SIZE, offset + length);
+            int width = widths[block];
+            long position = positions[block];
+
+            if (width == 0) {
+                continue;
+            }
+
+            for (int i = from; i < to; i++, position += width) {
+                long difference = values[i] - references[block];
+                int word = (int) (position >>> 6);
+                int shift = (int) position & 63;
+
+                data[word] |= difference << shift;
+
+                if (shift + width > Long.SIZE) {
+                    data[word + 1] |= difference >>> Long.SIZE - shift;
+                }
+            }
+        }
+
+        this.size = length;
+        this.references = references;
+        this.widths = widths;
+        this.positions = positions;
+        this.data = data;
+    }
+
+    @Override
+    public long getLong(int index) {
+        Preconditions.checkElementIndex(index, size);
+
+        int block = index >>> BLOCK_SHIFT;
+        int width = widths[block];
+
+        if (width == 0) {
+            return references[block];
+        }
+
+        return references[block] + read(positions[block] + (long) (index & BLOCK_SIZE - 1) * width, width);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void getElements(int from, long[] a, int offset, int length) {
+        Preconditions.checkPositionIndexes(from, from + length, size);
+        LongArrays.ensureOffsetLength(a, offset, length);
+
+        int end = from + length;
+
+        while (from < end) {
+            int block = from >>> BLOCK_SHIFT;
+            int to = Math.min(end, (block + 1) << BLOCK_SHIFT);
+
+            decode(block, from, to, a, offset);
+            offset += to - from;
+            from = to;
+        }
+    }
+
+    /**
+     * @return the number of bytes taken by the arrays of this list
+     */
+    long compressedSize() {
+        return references.length * (long) Long.BYTES + widths.length + positions.length * (long) Long.BYTES
+                + data.length * (long) Long.BYTES;
+    }
+
+    @Override
+    public int indexOf(long k) {
+        long[] buffer = new long[BLOCK_SIZE];
+
+        for (int block = 0; block < references.length; block++) {
+            if (!mayContain(block, k)) {
+                continue;
+            }
+
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(size, from + BLOCK_SIZE);
+
+            decode(block, from, to, buffer, 0);
+
+            for (int i = 0; i < to - from; i++) {
+                if (buffer[i] == k) {
+                    return from + i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(long k) {
+        long[] buffer = new long[BLOCK_SIZE];
+
+        for (int block = references.length - 1; block >= 0; block--) {
+            if (!mayContain(block, k)) {
+                continue;
+            }
+
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(size, from + BLOCK_SIZE);
+
+            decode(block, from, to, buffer, 0);
+
+            for (int i = to - from - 1; i >= 0; i--) {
+                if (buffer[i] == k) {
+                    return from + i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean mayContain(int block, long k) {
+        int width = widths[block];
+
+        if (k < references[block]) {
+            return false;
+        }
+
+        // the differences are unsigned and may take all 64 bits, which a single shift can't clear
+        return width == 0 ? k == references[block] : k - references[block] >>> width - 1 >>> 1 == 0;
+    }
+
+    /**
+     * Decodes the elements of the given block between the given list indices.
+     */
+    private void decode(int block, int from, int to, long[] a, int offset) {
+        long reference = references[block];
+        int width = widths[block];
+
+        if (width == 0) {
+            Arrays.fill(a, offset, offset + to - from, reference);
+            return;
+        }
+
+        long position = positions[block] + (long) (from & BLOCK_SIZE - 1) * width;
+
+        for (int i = from; i < to; i++, position += width) {
+            a[offset++] = reference + read(position, width);
+        }
+    }
+
+    private long read(long position, int width) {
+        int word = (int) (position >>> 6);
+        int shift = (int) position & 63;
+        long bits = data[word] >>> shift;
+
+        if (shift + width > Long.SIZE) {
+            bits |= data[word + 1] << Long.SIZE - shift;
+        }
+
+        return bits & -1L >>> Long.SIZE - width;
+    }
+}
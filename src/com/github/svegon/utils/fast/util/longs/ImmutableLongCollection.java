@@ -12,11 +12,24 @@ import java.util.Collection;
 
 @Immutable
 public abstract class ImmutableLongCollection implements LongCollection {
+    /**
+     * Computed lazily, the fields of the subclasses aren't initialized yet in this constructor.
+     */
+    private int hashCode;
+
     ImmutableLongCollection() {
     }
 
     @Override
-    public abstract int hashCode();
+    public final int hashCode() {
+        int h = hashCode;
+
+        if (h == 0) {
+            hashCode = h = initHashCode();
+        }
+
+        return h;
+    }
 
     @Override
     public ImmutableLongCollection clone() throws CloneNotSupportedException {
@@ -160,4 +173,6 @@ public abstract class ImmutableLongCollection implements LongCollection {
 
         throw new UnsupportedOperationException();
     }
+
+    protected abstract int initHashCode();
 }
@@ -6,6 +6,8 @@ import net.jcip.annotations.Immutable;
 import org.jetbrains.annotations.NotNull;
 
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 import static it.unimi.dsi.fastutil.Size64.sizeOf;
@@ -108,8 +110,8 @@ public abstract class ImmutableLongList extends ImmutableLongCollection implemen
 
         LongListIterator it = listIterator(from);
 
-        while (it.hasNext()) {
-            a[it.nextIndex()] = it.nextLong();
+        for (int i = 0; i < length; i++) {
+            a[offset + i] = it.nextLong();
         }
     }
 
@@ -166,7 +168,7 @@ public abstract class ImmutableLongList extends ImmutableLongCollection implemen
 
     @Override
     public int lastIndexOf(long k) {
-        LongListIterator it = listIterator(size() - 1);
+        LongListIterator it = listIterator(size());
 
         while (it.hasPrevious()) {
             if (it.previousLong() == k) {
@@ -177,6 +179,58 @@ public abstract class ImmutableLongList extends ImmutableLongCollection implemen
         return -1;
     }
 
+    /**
+     * @return the sum of the elements of this list
+     */
+    public long sum() {
+        long sum = 0;
+        LongIterator it = iterator();
+
+        while (it.hasNext()) {
+            sum += it.nextLong();
+        }
+
+        return sum;
+    }
+
+    /**
+     * @return the least element of this list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public long min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        LongIterator it = iterator();
+        long min = it.nextLong();
+
+        while (it.hasNext()) {
+            min = Math.min(min, it.nextLong());
+        }
+
+        return min;
+    }
+
+    /**
+     * @return the greatest element of this list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public long max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        LongIterator it = iterator();
+        long max = it.nextLong();
+
+        while (it.hasNext()) {
+            max = Math.max(max, it.nextLong());
+        }
+
+        return max;
+    }
+
     @Override
     public final long removeLong(int index) {
         Preconditions.checkElementIndex(index, size());
@@ -223,22 +277,124 @@ public abstract class ImmutableLongList extends ImmutableLongCollection implemen
         return oItr.hasNext() ? -1 : 0;
     }
 
+    @Override
+    protected int initHashCode() {
+        int h = 0;
+        LongIterator it = iterator();
+
+        while (it.hasNext()) {
+            h = 31 * h + Long.hashCode(it.nextLong());
+        }
+
+        return h;
+    }
+
     public static ImmutableLongList of(long... values) {
         return values.length == 0 ? RegularImmutableLongList.EMPTY : new RegularImmutableLongList(values.clone());
     }
 
     public static ImmutableLongList copyOf(LongIterator it) {
-        return copyOf(new LongArrayList(it));
+        return builder().addAll(it).build();
     }
 
+    /**
+     * @return the given iterable if it's already an immutable list, otherwise an immutable list of its elements
+     */
     public static ImmutableLongList copyOf(LongIterable iterable) {
-        if (iterable.getClass() == LongArrayList.class) {
-            long[] array = ((LongArrayList) iterable).toLongArray();
+        if (iterable instanceof ImmutableLongList list) {
+            return list;
+        }
+
+        if (iterable instanceof LongCollection collection) {
+            // the array is a fresh copy, so it's handed over as is
+            long[] array = collection.toLongArray();
             return array.length == 0 ? RegularImmutableLongList.EMPTY : new RegularImmutableLongList(array);
         }
 
-        return iterable instanceof LongCollection ? of(((LongCollection) iterable).toLongArray())
-                : copyOf(iterable.iterator());
+        return copyOf(iterable.iterator());
+    }
+
+    /**
+     * @return a builder handing its array over to the list it builds
+     */
+    public static Builder builder() {
+        return new Builder(LongArrays.EMPTY_ARRAY);
+    }
+
+    public static Builder builder(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "Illegal expected size: " + expectedSize);
+        return new Builder(expectedSize == 0 ? LongArrays.EMPTY_ARRAY : new long[expectedSize]);
+    }
+
+    /**
+     * @return a list packing each block of the given values into the bits their differences from the minimum
+     * of the block need, with constant time random access
+     */
+    public static ImmutableLongList frameOfReference(long... values) {
+        return frameOfReference(values, 0, values.length);
+    }
+
+    public static ImmutableLongList frameOfReference(long[] values, int offset, int length) {
+        return length == 0 ? RegularImmutableLongList.EMPTY : new FrameOfReferenceImmutableLongList(values, offset, length);
+    }
+
+    /**
+     * @return a list storing the differences between the consecutive given values as variable length integers
+     * @throws IllegalArgumentException if the values aren't sorted
+     */
+    public static ImmutableLongList deltaEncoded(long... values) {
+        return deltaEncoded(values, 0, values.length);
+    }
+
+    public static ImmutableLongList deltaEncoded(long[] values, int offset, int length) {
+        return length == 0 ? RegularImmutableLongList.EMPTY : new DeltaImmutableLongList(values, offset, length);
+    }
+
+    /**
+     * @return the smaller of the frame of reference and, if the values are sorted, the delta encoded list of them
+     */
+    public static ImmutableLongList compressed(long... values) {
+        return compressed(values, 0, values.length);
+    }
+
+    public static ImmutableLongList compressed(long[] values, int offset, int length) {
+        if (length == 0) {
+            return RegularImmutableLongList.EMPTY;
+        }
+
+        FrameOfReferenceImmutableLongList frameOfReference = new FrameOfReferenceImmutableLongList(values, offset,
+                length);
+
+        if (!isSorted(values, offset, length)) {
+            return frameOfReference;
+        }
+
+        DeltaImmutableLongList delta = new DeltaImmutableLongList(values, offset, length);
+        return delta.compressedSize() < frameOfReference.compressedSize() ? delta : frameOfReference;
+    }
+
+    public static ImmutableLongList compressedCopyOf(LongIterable iterable) {
+        long[] values = copyOf(iterable).toLongArray();
+        return compressed(values, 0, values.length);
+    }
+
+    private static boolean isSorted(long[] values, int offset, int length) {
+        for (int i = offset + 1; i < offset + length; i++) {
+            if (values[i - 1] > values[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return a list reading the elements from the given file, written by
+     * {@link MappedImmutableLongList#write(ImmutableLongList, Path)}, mapped into memory
+     * @throws IOException if the file can't be read or doesn't contain such a list
+     */
+    public static MappedImmutableLongList mapped(Path path) throws IOException {
+        return MappedImmutableLongList.map(path);
     }
 
     protected class RandomAccessImmutableListIterator implements LongListIterator {
@@ -265,7 +421,7 @@ public abstract class ImmutableLongList extends ImmutableLongCollection implemen
 
         @Override
         public boolean hasPrevious() {
-            return index >= 0;
+            return index > 0;
         }
 
         @Override
@@ -334,8 +490,76 @@ public abstract class ImmutableLongList extends ImmutableLongCollection implemen
         }
     }
 
+    /**
+     * A growable array of elements which {@link #build()} hands over to the built list instead of copying it.
+     * The builder starts over empty afterwards, so the built list is never modified, though it keeps the
+     * unused capacity of the array.
+     */
+    public static final class Builder {
+        private long[] values;
+        private int size;
+
+        private Builder(long[] values) {
+            this.values = values;
+        }
+
+        public Builder add(long k) {
+            if (size == values.length) {
+                values = LongArrays.grow(values, size + 1);
+            }
+
+            values[size++] = k;
+            return this;
+        }
+
+        public Builder add(long... values) {
+            return addAll(values, 0, values.length);
+        }
+
+        public Builder addAll(long[] a, int offset, int length) {
+            LongArrays.ensureOffsetLength(a, offset, length);
+            values = LongArrays.grow(values, size + length);
+            System.arraycopy(a, offset, values, size, length);
+            size += length;
+            return this;
+        }
+
+        public Builder addAll(LongIterator it) {
+            while (it.hasNext()) {
+                add(it.nextLong());
+            }
+
+            return this;
+        }
+
+        public Builder addAll(LongIterable iterable) {
+            if (iterable instanceof LongList list) {
+                int length = list.size();
+
+                values = LongArrays.grow(values, size + length);
+                list.getElements(0, values, size, length);
+                size += length;
+                return this;
+            }
+
+            return addAll(iterable.iterator());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ImmutableLongList build() {
+            ImmutableLongList list = size == 0 ? RegularImmutableLongList.EMPTY
+                    : new RegularImmutableLongList(values, 0, size);
+
+            values = LongArrays.EMPTY_ARRAY;
+            size = 0;
+            return list;
+        }
+    }
+
     protected static class SubList extends ImmutableLongList {
-        private final int hashCode;
         protected final ImmutableLongList list;
         protected final int from;
         protected final int size;
@@ -344,25 +568,12 @@ public abstract class ImmutableLongList extends ImmutableLongCollection implemen
             this.list = list;
             this.from = from;
             this.size = to - from;
-
-            int h = 0;
-            LongIterator it = list.listIterator(from);
-
-            while (to-- != from) {
-                h = 31 * h + Long.hashCode(it.nextLong());
-            }
-
-            hashCode = h;
-        }
-
-        @Override
-        public int hashCode() {
-            return hashCode;
         }
 
         @Override
         public long getLong(int index) {
-            return list.getLong(index);
+            Preconditions.checkElementIndex(index, size);
+            return list.getLong(from + index);
         }
 
         @Override
@@ -370,15 +581,10 @@ public abstract class ImmutableLongList extends ImmutableLongCollection implemen
             return size;
         }
 
-        @Override
-        public LongListIterator listIterator(int index) {
-            return list.listIterator(from + index);
-        }
-
         @Override
         public ImmutableLongList subList(int from, int to) {
             Preconditions.checkPositionIndexes(from, to, size());
-            return new ImmutableLongList.SubList(list, this.from + from, this.from + to);
+            return list.subList(this.from + from, this.from + to);
         }
     }
 
@@ -1,32 +1,86 @@
 package com.github.svegon.utils.fast.util.longs;
 
+import com.github.svegon.utils.fast.util.BulkArrayUtil;
+import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.longs.LongArrays;
 import net.jcip.annotations.Immutable;
 
 import java.util.RandomAccess;
 
+/**
+ * An immutable list of the elements of an array between two indices. The array may be shared with other
+ * lists, which is how {@link #subList(int, int)} takes constant time and a builder hands its array over.
+ */
 @Immutable
 final class RegularImmutableLongList extends ImmutableLongList implements RandomAccess {
     public static final ImmutableLongList EMPTY = new RegularImmutableLongList(LongArrays.EMPTY_ARRAY);
 
     final long[] values;
+    final int from;
+    final int to;
 
     RegularImmutableLongList(long[] values) {
+        this(values, 0, values.length);
+    }
+
+    RegularImmutableLongList(long[] values, int from, int to) {
         this.values = values;
+        this.from = from;
+        this.to = to;
     }
 
     @Override
     public long getLong(int index) {
-        return values[index];
+        Preconditions.checkElementIndex(index, to - from);
+        return values[from + index];
     }
 
     @Override
     public int size() {
-        return values.length;
+        return to - from;
     }
 
     @Override
     public void getElements(int from, long[] a, int offset, int length) {
-        System.arraycopy(values, from, a, offset, length);
+        Preconditions.checkPositionIndexes(from, from + length, size());
+        System.arraycopy(values, this.from + from, a, offset, length);
+    }
+
+    @Override
+    public int indexOf(long k) {
+        int index = BulkArrayUtil.indexOf(values, from, to, k);
+        return index < 0 ? -1 : index - from;
+    }
+
+    @Override
+    public int lastIndexOf(long k) {
+        int index = BulkArrayUtil.lastIndexOf(values, from, to, k);
+        return index < 0 ? -1 : index - from;
+    }
+
+    @Override
+    public long sum() {
+        return BulkArrayUtil.sum(values, from, to);
+    }
+
+    @Override
+    public long min() {
+        return BulkArrayUtil.min(values, from, to);
+    }
+
+    @Override
+    public long max() {
+        return BulkArrayUtil.max(values, from, to);
+    }
+
+    @Override
+    public ImmutableLongList subList(int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, size());
+
+        if (from == 0 && to == size()) {
+            return this;
+        }
+
+        return from == to ? EMPTY : new RegularImmutableLongList(values, this.from + from, this.from + to);
     }
 }
@@ -0,0 +1,113 @@
+package com.github.svegon.utils.fast.util.shorts;
+
+import it.unimi.dsi.fastutil.shorts.ShortConsumer;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe counterpart of {@link ShortSummaryStatistics} for recording from many threads at once, such as
+ * a metrics sink shared by a worker pool. The count, sum, minimum and maximum are each held in striped cells
+ * of a {@link LongAdder} or a {@link LongAccumulator}, so concurrent updates rarely contend and never block.
+ *
+ * The getters read their cells separately, {@link #snapshot()} returns statistics which are consistent with
+ * each other even under concurrent updates.
+ */
+@ThreadSafe
+public class ConcurrentShortSummaryStatistics implements ShortConsumer {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Short.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Short.MIN_VALUE);
+
+    public ConcurrentShortSummaryStatistics() { }
+
+    /**
+     * Records another value into the summary information.
+     *
+     * @param value the input value
+     */
+    @Override
+    public void accept(short value) {
+        // the count goes last, so whoever sees it also sees the minimum and maximum of the counted values
+        min.accumulate(value);
+        max.accumulate(value);
+        sum.add(value);
+        count.increment();
+    }
+
+    /**
+     * Combines the state of a {@code ShortSummaryStatistics} into this one, such as one collected by a single
+     * thread.
+     *
+     * @param other a {@code ShortSummaryStatistics}
+     * @throws NullPointerException if {@code other} is null
+     */
+    public void combine(ShortSummaryStatistics other) {
+        if (other.getCount() == 0) {
+            return;
+        }
+
+        min.accumulate(other.getMin());
+        max.accumulate(other.getMax());
+        sum.add(other.getSum());
+        count.add(other.getCount());
+    }
+
+    /**
+     * Returns the statistics of the values recorded so far. Values recorded concurrently may be missing from
+     * them or reflected in the sum only, but the minimum and maximum are always those of at least the counted
+     * values.
+     *
+     * @return a new {@code ShortSummaryStatistics} holding the current state
+     */
+    public ShortSummaryStatistics snapshot() {
+        long count = this.count.sum();
+        return new ShortSummaryStatistics(count, (short) min.get(), (short) max.get(), sum.sum());
+    }
+
+    /**
+     * Resets the statistics to their initial state. Values recorded concurrently may be partially reset, so
+     * this should only be called while nothing is being recorded.
+     */
+    public void reset() {
+        count.reset();
+        sum.reset();
+        min.reset();
+        max.reset();
+    }
+
+    public final long getCount() {
+        return count.sum();
+    }
+
+    public final long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the minimum recorded value, {@code Short.MAX_VALUE} if no values were recorded
+     */
+    public final short getMin() {
+        return (short) min.get();
+    }
+
+    /**
+     * @return the maximum recorded value, {@code Short.MIN_VALUE} if no values were recorded
+     */
+    public final short getMax() {
+        return (short) max.get();
+    }
+
+    public final double getAverage() {
+        return snapshot().getAverage();
+    }
+
+    @Override
+    public String toString() {
+        ShortSummaryStatistics snapshot = snapshot();
+        return String.format("%s{count=%d, sum=%s, min=%s, average=%f, max=%s}", getClass().getSimpleName(),
+                snapshot.getCount(), snapshot.getSum(), snapshot.getMin(), snapshot.getAverage(), snapshot.getMax());
+    }
+}
@@ -12,7 +12,10 @@ import java.util.Collection;
 
 @Immutable
 public abstract class ImmutableShortCollection implements ImprovedShortCollection {
-    private final int hashCode = initHashCode();
+    /**
+     * Computed lazily, the fields of the subclasses aren't initialized yet in this constructor.
+     */
+    private int hashCode;
 
     ImmutableShortCollection() {
 
@@ -20,7 +23,13 @@ public abstract class ImmutableShortCollection implements ImprovedShortCollectio
 
     @Override
     public final int hashCode() {
-        return hashCode;
+        int h = hashCode;
+
+        if (h == 0) {
+            hashCode = h = initHashCode();
+        }
+
+        return h;
     }
 
     @Override
@@ -107,8 +107,8 @@ public abstract class ImmutableShortList extends ImmutableShortCollection implem
 
         ShortListIterator it = listIterator(from);
 
-        while (it.hasNext()) {
-            a[it.nextIndex()] = it.nextShort();
+        for (int i = 0; i < length; i++) {
+            a[offset + i] = it.nextShort();
         }
     }
 
@@ -165,7 +165,7 @@ public abstract class ImmutableShortList extends ImmutableShortCollection implem
 
     @Override
     public int lastIndexOf(short k) {
-        ShortListIterator it = listIterator(size() - 1);
+        ShortListIterator it = listIterator(size());
 
         while (it.hasPrevious()) {
             if (it.previousShort() == k) {
@@ -239,17 +239,36 @@ public abstract class ImmutableShortList extends ImmutableShortCollection implem
     }
 
     public static ImmutableShortList of(ShortIterator it) {
-        return copyOf(new ShortArrayList(it));
+        return builder().addAll(it).build();
     }
 
+    /**
+     * @return the given iterable if it's already an immutable list, otherwise an immutable list of its elements
+     */
     public static ImmutableShortList copyOf(ShortIterable iterable) {
-        if (iterable.getClass() == ShortArrayList.class) {
-            short[] array = ((ShortArrayList) iterable).toShortArray();
+        if (iterable instanceof ImmutableShortList list) {
+            return list;
+        }
+
+        if (iterable instanceof ShortCollection collection) {
+            // the array is a fresh copy, so it's handed over as is
+            short[] array = collection.toShortArray();
             return array.length == 0 ? RegularImmutableShortList.EMPTY : new RegularImmutableShortList(array);
         }
 
-        return iterable instanceof ShortCollection ? of(((ShortCollection) iterable).toShortArray())
-                : of(iterable.iterator());
+        return of(iterable.iterator());
+    }
+
+    /**
+     * @return a builder handing its array over to the list it builds
+     */
+    public static Builder builder() {
+        return new Builder(ShortArrays.EMPTY_ARRAY);
+    }
+
+    public static Builder builder(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "Illegal expected size: " + expectedSize);
+        return new Builder(expectedSize == 0 ? ShortArrays.EMPTY_ARRAY : new short[expectedSize]);
     }
 
     protected class RandomAccessImmutableListIterator implements ShortListIterator {
@@ -276,7 +295,7 @@ public abstract class ImmutableShortList extends ImmutableShortCollection implem
 
         @Override
         public boolean hasPrevious() {
-            return index >= 0;
+            return index > 0;
         }
 
         @Override
@@ -345,6 +364,75 @@ public abstract class ImmutableShortList extends ImmutableShortCollection implem
         }
     }
 
+    /**
+     * A growable array of elements which {@link #build()} hands over to the built list instead of copying it.
+     * The builder starts over empty afterwards, so the built list is never modified, though it keeps the
+     * unused capacity of the array.
+     */
+    public static final class Builder {
+        private short[] values;
+        private int size;
+
+        private Builder(short[] values) {
+            this.values = values;
+        }
+
+        public Builder add(short k) {
+            if (size == values.length) {
+                values = ShortArrays.grow(values, size + 1);
+            }
+
+            values[size++] = k;
+            return this;
+        }
+
+        public Builder add(short... values) {
+            return addAll(values, 0, values.length);
+        }
+
+        public Builder addAll(short[] a, int offset, int length) {
+            ShortArrays.ensureOffsetLength(a, offset, length);
+            values = ShortArrays.grow(values, size + length);
+            System.arraycopy(a, offset, values, size, length);
+            size += length;
+            return this;
+        }
+
+        public Builder addAll(ShortIterator it) {
+            while (it.hasNext()) {
+                add(it.nextShort());
+            }
+
+            return this;
+        }
+
+        public Builder addAll(ShortIterable iterable) {
+            if (iterable instanceof ShortList list) {
+                int length = list.size();
+
+                values = ShortArrays.grow(values, size + length);
+                list.getElements(0, values, size, length);
+                size += length;
+                return this;
+            }
+
+            return addAll(iterable.iterator());
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ImmutableShortList build() {
+            ImmutableShortList list = size == 0 ? RegularImmutableShortList.EMPTY
+                    : new RegularImmutableShortList(values, 0, size);
+
+            values = ShortArrays.EMPTY_ARRAY;
+            size = 0;
+            return list;
+        }
+    }
+
     protected static class SubList extends ImmutableShortList {
         protected final ImmutableShortList list;
         protected final int from;
@@ -358,7 +446,8 @@ public abstract class ImmutableShortList extends ImmutableShortCollection implem
 
         @Override
         public short getShort(int index) {
-            return list.getShort(index);
+            Preconditions.checkElementIndex(index, size);
+            return list.getShort(from + index);
         }
 
         @Override
@@ -366,15 +455,10 @@ public abstract class ImmutableShortList extends ImmutableShortCollection implem
             return size;
         }
 
-        @Override
-        public ShortListIterator listIterator(int index) {
-            return list.listIterator(from + index);
-        }
-
         @Override
         public ImmutableShortList subList(int from, int to) {
             Preconditions.checkPositionIndexes(from, to, size());
-            return new SubList(list, this.from + from, this.from + to);
+            return list.subList(this.from + from, this.from + to);
         }
     }
 
@@ -1,32 +1,58 @@
 package com.github.svegon.utils.fast.util.shorts;
 
+import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.shorts.ShortArrays;
 import net.jcip.annotations.Immutable;
 
 import java.util.RandomAccess;
 
+/**
+ * An immutable list of the elements of an array between two indices. The array may be shared with other
+ * lists, which is how {@link #subList(int, int)} takes constant time and a builder hands its array over.
+ */
 @Immutable
 final class RegularImmutableShortList extends ImmutableShortList implements RandomAccess {
     public static final ImmutableShortList EMPTY = new RegularImmutableShortList(ShortArrays.EMPTY_ARRAY);
 
     final short[] values;
+    final int from;
+    final int to;
 
     RegularImmutableShortList(short[] values) {
+        this(values, 0, values.length);
+    }
+
+    RegularImmutableShortList(short[] values, int from, int to) {
         this.values = values;
+        this.from = from;
+        this.to = to;
     }
 
     @Override
     public short getShort(int index) {
-        return values[index];
+        Preconditions.checkElementIndex(index, to - from);
+        return values[from + index];
     }
 
     @Override
     public int size() {
-        return values.length;
+        return to - from;
     }
 
     @Override
     public void getElements(int from, short[] a, int offset, int length) {
-        System.arraycopy(values, from, a, offset, length);
+        Preconditions.checkPositionIndexes(from, from + length, size());
+        System.arraycopy(values, this.from + from, a, offset, length);
+    }
+
+    @Override
+    public ImmutableShortList subList(int from, int to) {
+        Preconditions.checkPositionIndexes(from, to, size());
+
+        if (from == 0 && to == size()) {
+            return this;
+        }
+
+        return from == to ? EMPTY : new RegularImmutableShortList(values, this.from + from, this.from + to);
     }
 }
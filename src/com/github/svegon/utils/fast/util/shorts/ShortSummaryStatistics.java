@@ -67,8 +67,8 @@ public class ShortSummaryStatistics implements ShortConsumer {
     private long sum;
     private long sumCompensation; // Low order bits of sum
     private long simpleSum; // Used to compute right sum for non-finite inputs
-    private short min = Short.MIN_VALUE;
-    private short max = Short.MAX_VALUE;
+    private short min = Short.MAX_VALUE;
+    private short max = Short.MIN_VALUE;
 
     /**
      * Constructs an empty instance with zero count, zero sum,
@@ -24,7 +24,6 @@
  */
 package com.github.svegon.utils.fuck_modifiers;
 
-import com.github.svegon.utils.math.MathUtil;
 
 import java.util.*;
 import java.util.function.*;
@@ -394,26 +393,7 @@ public abstract class DoublePipeline<E_IN> extends AbstractPipeline<E_IN, Double
 
     @Override
     public final double sum() {
-        /*
-         * In the arrays allocated for the collect operation, index 0
-         * holds the high-order bits of the running sum, index 1 holds
-         * the low-order bits of the sum computed via compensated
-         * summation, and index 2 holds the simple sum used to compute
-         * the proper result if the stream contains infinite values of
-         * the same sign.
-         */
-        double[] summation = collect(() -> new double[3],
-                               (ll, d) -> {
-                                   MathUtil.sumWithCompensation(ll, d);
-                                   ll[2] += d;
-                               },
-                               (ll, rr) -> {
-                                   MathUtil.sumWithCompensation(ll, rr[0]);
-                                   MathUtil.sumWithCompensation(ll, rr[1]);
-                                   ll[2] += rr[2];
-                               });
-
-        return MathUtil.computeFinalSum(summation);
+        return evaluate(ReduceOps.makeDoubleSumming());
     }
 
     @Override
@@ -437,28 +417,7 @@ public abstract class DoublePipeline<E_IN> extends AbstractPipeline<E_IN, Double
      */
     @Override
     public final OptionalDouble average() {
-        /*
-         * In the arrays allocated for the collect operation, index 0
-         * holds the high-order bits of the running sum, index 1 holds
-         * the low-order bits of the sum computed via compensated
-         * summation, index 2 holds the number of values seen, index 3
-         * holds the simple sum.
-         */
-        double[] avg = collect(() -> new double[4],
-                               (ll, d) -> {
-                                   ll[2]++;
-                                   MathUtil.sumWithCompensation(ll, d);
-                                   ll[3] += d;
-                               },
-                               (ll, rr) -> {
-                                   MathUtil.sumWithCompensation(ll, rr[0]);
-                                   MathUtil.sumWithCompensation(ll, rr[1]);
-                                   ll[2] += rr[2];
-                                   ll[3] += rr[3];
-                               });
-        return avg[2] > 0
-            ? OptionalDouble.of(MathUtil.computeFinalSum(avg) / avg[2])
-            : OptionalDouble.empty();
+        return evaluate(ReduceOps.makeDoubleAveraging());
     }
 
     @Override
@@ -26,6 +26,7 @@ package com.github.svegon.utils.fuck_modifiers;
 
 import com.github.svegon.utils.collections.collecting.*;
 import com.github.svegon.utils.interfaces.function.*;
+import com.github.svegon.utils.math.NeumaierAccumulator;
 import com.github.svegon.utils.optional.*;
 import it.unimi.dsi.fastutil.booleans.BooleanBinaryOperator;
 import it.unimi.dsi.fastutil.bytes.ByteBinaryOperator;
@@ -1796,6 +1797,88 @@ public final class ReduceOps {
         };
     }
 
+    /**
+     * Constructs a {@code TerminalOp} that sums {@code float} values using
+     * compensated summation, accumulating into a {@link NeumaierAccumulator}
+     * held by each sink, so the reduction allocates nothing per element.
+     *
+     * @return a {@code TerminalOp} implementing the summation
+     */
+    public static TerminalOp<Float, Double> makeFloatSumming() {
+        class ReducingSink implements AccumulatingSink<Float, Double, ReducingSink>, Sink.OfFloat {
+            private final NeumaierAccumulator sum = new NeumaierAccumulator();
+
+            @Override
+            public void begin(long size) {
+                sum.reset();
+            }
+
+            @Override
+            public void accept(float t) {
+                sum.add(t);
+            }
+
+            @Override
+            public Double get() {
+                return sum.result();
+            }
+
+            @Override
+            public void combine(ReducingSink other) {
+                sum.combine(other.sum);
+            }
+        }
+        return new ReduceOp<Float, Double, ReducingSink>(StreamShape.FLOAT_VALUE) {
+            @Override
+            public ReducingSink makeSink() {
+                return new ReducingSink();
+            }
+        };
+    }
+
+    /**
+     * Constructs a {@code TerminalOp} that averages {@code float} values
+     * using compensated summation, accumulating into a
+     * {@link NeumaierAccumulator} held by each sink.
+     *
+     * @return a {@code TerminalOp} implementing the average
+     */
+    public static TerminalOp<Float, OptionalDouble> makeFloatAveraging() {
+        class ReducingSink implements AccumulatingSink<Float, OptionalDouble, ReducingSink>, Sink.OfFloat {
+            private final NeumaierAccumulator sum = new NeumaierAccumulator();
+            private long count;
+
+            @Override
+            public void begin(long size) {
+                sum.reset();
+                count = 0L;
+            }
+
+            @Override
+            public void accept(float t) {
+                sum.add(t);
+                count++;
+            }
+
+            @Override
+            public OptionalDouble get() {
+                return count > 0 ? OptionalDouble.of(sum.result() / count) : OptionalDouble.empty();
+            }
+
+            @Override
+            public void combine(ReducingSink other) {
+                sum.combine(other.sum);
+                count += other.count;
+            }
+        }
+        return new ReduceOp<Float, OptionalDouble, ReducingSink>(StreamShape.FLOAT_VALUE) {
+            @Override
+            public ReducingSink makeSink() {
+                return new ReducingSink();
+            }
+        };
+    }
+
     /**
      * Constructs a {@code TerminalOp} that implements a functional reduce on
      * {@code double} values.
@@ -2013,6 +2096,88 @@ public final class ReduceOps {
         };
     }
 
+    /**
+     * Constructs a {@code TerminalOp} that sums {@code double} values using
+     * compensated summation, accumulating into a {@link NeumaierAccumulator}
+     * held by each sink, so the reduction allocates nothing per element.
+     *
+     * @return a {@code TerminalOp} implementing the summation
+     */
+    public static TerminalOp<Double, Double> makeDoubleSumming() {
+        class ReducingSink implements AccumulatingSink<Double, Double, ReducingSink>, Sink.OfDouble {
+            private final NeumaierAccumulator sum = new NeumaierAccumulator();
+
+            @Override
+            public void begin(long size) {
+                sum.reset();
+            }
+
+            @Override
+            public void accept(double t) {
+                sum.add(t);
+            }
+
+            @Override
+            public Double get() {
+                return sum.result();
+            }
+
+            @Override
+            public void combine(ReducingSink other) {
+                sum.combine(other.sum);
+            }
+        }
+        return new ReduceOp<Double, Double, ReducingSink>(StreamShape.DOUBLE_VALUE) {
+            @Override
+            public ReducingSink makeSink() {
+                return new ReducingSink();
+            }
+        };
+    }
+
+    /**
+     * Constructs a {@code TerminalOp} that averages {@code double} values
+     * using compensated summation, accumulating into a
+     * {@link NeumaierAccumulator} held by each sink.
+     *
+     * @return a {@code TerminalOp} implementing the average
+     */
+    public static TerminalOp<Double, OptionalDouble> makeDoubleAveraging() {
+        class ReducingSink implements AccumulatingSink<Double, OptionalDouble, ReducingSink>, Sink.OfDouble {
+            private final NeumaierAccumulator sum = new NeumaierAccumulator();
+            private long count;
+
+            @Override
+            public void begin(long size) {
+                sum.reset();
+                count = 0L;
+            }
+
+            @Override
+            public void accept(double t) {
+                sum.add(t);
+                count++;
+            }
+
+            @Override
+            public OptionalDouble get() {
+                return count > 0 ? OptionalDouble.of(sum.result() / count) : OptionalDouble.empty();
+            }
+
+            @Override
+            public void combine(ReducingSink other) {
+                sum.combine(other.sum);
+                count += other.count;
+            }
+        }
+        return new ReduceOp<Double, OptionalDouble, ReducingSink>(StreamShape.DOUBLE_VALUE) {
+            @Override
+            public ReducingSink makeSink() {
+                return new ReducingSink();
+            }
+        };
+    }
+
     /**
      * A sink that counts elements
      */
@@ -1,7 +1,6 @@
 package com.github.svegon.utils.hash;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterators;
 import it.unimi.dsi.fastutil.Size64;
 import it.unimi.dsi.fastutil.objects.*;
 import org.jetbrains.annotations.NotNull;
@@ -9,8 +8,11 @@ import org.jetbrains.annotations.Nullable;
 import com.github.svegon.utils.collections.ArrayUtil;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> extends AbstractMap<K, E>
         implements Size64 {
@@ -23,27 +25,77 @@ public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> e
     public static final int BRANCH_FACTOR_LIMIT = 5;
     public static final int DEFAULT_BRANCH_FACTOR = 3;
     public static final Key2EntryEntry<?, ?, ?>[] EMPTY_ENTRY_ENTRY_ARRAY = new Key2EntryEntry<?, ?, ?>[0];
+    static final int SPLITERATOR_CHARACTERISTICS = Spliterator.DISTINCT | Spliterator.NONNULL;
 
     private final ObjectCollection<E> values = initValues();
     private final ObjectSet<Map.Entry<K, E>> entrySet = initEntrySet();
     private final int branchFactor;
-    protected final Object[] tree;
+    /**
+     * Whether the interior nodes are {@link BitmapNode}s instead of full {@code Object[branching]} arrays.
+     */
+    protected final boolean compressed;
+    /**
+     * Replaced when a compressed table is cleared or writes to a root it shares with a snapshot.
+     */
+    protected Object tree;
     protected final int depth;
     protected final int depthMinusOne;
     protected final int branchCoveredBits;
     protected final int branching;
     protected final int branchIndexMask;
+    /**
+     * The number of nodes at each level of the tree, the last element counts the leaves.
+     */
+    private final long[] nodeCounts;
+    /**
+     * The number of leaves of each length.
+     */
+    private long[] bucketLengths = new long[2];
+    private long size;
+    /**
+     * The token of the nodes and leaves of a compressed table which this table may modify in place.
+     * Nodes of other tokens may be shared with snapshots and are copied before being written to.
+     */
+    private Object owner = new Object();
 
-    AbstractBinaryHashtable(int branchFactor) {
+    AbstractBinaryHashtable(int branchFactor, boolean compressed) {
         Preconditions.checkArgument(0 <= branchFactor && branchFactor < BRANCH_FACTOR_LIMIT);
 
         this.branchFactor = branchFactor;
+        this.compressed = compressed;
         this.branchCoveredBits = 1 << branchFactor;
         this.branching = 1 << branchCoveredBits;
         this.branchIndexMask = branching - 1;
         this.depth = 1 << (BRANCH_FACTOR_LIMIT - branchFactor);
         this.depthMinusOne = depth - 1;
-        this.tree = new Object[branching];
+        this.nodeCounts = new long[depth + 1];
+        this.nodeCounts[0] = 1;
+        this.tree = newNode();
+    }
+
+    AbstractBinaryHashtable(int branchFactor) {
+        this(branchFactor, false);
+    }
+
+    /**
+     * Creates a table sharing the tree of the given compressed table. Neither of the tables modifies
+     * the shared nodes afterwards, so the copy takes O(depth) time.
+     */
+    AbstractBinaryHashtable(AbstractBinaryHashtable<K, V, E> source) {
+        Preconditions.checkArgument(source.compressed);
+
+        this.branchFactor = source.branchFactor;
+        this.compressed = true;
+        this.branchCoveredBits = source.branchCoveredBits;
+        this.branching = source.branching;
+        this.branchIndexMask = source.branchIndexMask;
+        this.depth = source.depth;
+        this.depthMinusOne = source.depthMinusOne;
+        this.nodeCounts = source.nodeCounts.clone();
+        this.bucketLengths = source.bucketLengths.clone();
+        this.size = source.size;
+        this.tree = source.tree;
+        source.owner = new Object();
     }
 
     @Override
@@ -71,13 +123,12 @@ public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> e
      */
     @Override
     public long size64() {
-        Stream<Object> stream = Arrays.stream(tree);
-
-        for (int i = 0; i < depthMinusOne; i++) {
-            stream = stream.flatMap((o) -> o != null ? Arrays.stream((Object[]) o) : null);
-        }
+        return size;
+    }
 
-        return stream.mapToLong((o) -> o != null ? ((List<?>) o).size() : 0).sum();
+    @Override
+    public final boolean isEmpty() {
+        return size == 0;
     }
 
     @Override
@@ -89,7 +140,7 @@ public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> e
     public abstract E get(final @Nullable Object key);
 
     @Override
-    public final E put(@Nullable K key, final @NotNull E value) {
+    public E put(@Nullable K key, final @NotNull E value) {
         return value.getKey() == key ? put(value) : null;
     }
 
@@ -98,7 +149,15 @@ public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> e
 
     @Override
     public final void clear() {
-        ArrayUtil.fill(tree, null);
+        if (compressed) {
+            tree = newNode();
+        } else {
+            ArrayUtil.fill((Object[]) tree, null);
+        }
+
+        Arrays.fill(nodeCounts, 1, nodeCounts.length, 0);
+        bucketLengths = new long[2];
+        size = 0;
     }
 
     @NotNull
@@ -113,19 +172,22 @@ public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> e
     }
 
     @Override
-    public final E getOrDefault(Object key, E defaultValue) {
+    public E getOrDefault(Object key, E defaultValue) {
         E value = get(key);
 
         return value != null ? value : defaultValue;
     }
 
+    @Override
+    public final void forEach(final @NotNull BiConsumer<? super K, ? super E> action) {
+        Preconditions.checkNotNull(action);
+        fastForEach((entry) -> action.accept(entry.getKey(), entry));
+    }
+
     @Override
     public final void replaceAll(final @NotNull BiFunction<? super K, ? super E, ? extends E> function) {
         Preconditions.checkNotNull(function);
-
-        for (E entry : values()) {
-            entry.setValue(function.apply(entry.getKey(), entry).getValue());
-        }
+        fastForEach((entry) -> entry.setValue(function.apply(entry.getKey(), entry).getValue()));
     }
 
     @Nullable
@@ -163,21 +225,17 @@ public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> e
     protected ObjectCollection<E> initValues() {
         return new AbstractObjectCollection<E>() {
             public ObjectIterator<E> iterator() {
-                return new ObjectIterator<>() {
-                    private Iterator<Map.Entry<K, E>> i = entrySet().iterator();
-
-                    public boolean hasNext() {
-                        return i.hasNext();
-                    }
+                return entryIterator();
+            }
 
-                    public E next() {
-                        return i.next().getValue();
-                    }
+            @Override
+            public ObjectSpliterator<E> spliterator() {
+                return entrySpliterator();
+            }
 
-                    public void remove() {
-                        i.remove();
-                    }
-                };
+            @Override
+            public void forEach(Consumer<? super E> action) {
+                fastForEach(action);
             }
 
             public int size() {
@@ -231,17 +289,30 @@ public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> e
             }
 
             @Override
-            @SuppressWarnings("unchecked")
             public ObjectIterator<Map.Entry<K, E>> iterator() {
-                Stream<Object> stream = Arrays.stream(tree);
+                return new ObjectIterator<>() {
+                    private final ObjectIterator<E> i = entryIterator();
 
-                for (int i = 0; i < depthMinusOne; i++) {
-                    stream = stream.flatMap((o) -> o != null ? Arrays.stream((Object[]) o) : null);
-                }
+                    @Override
+                    public boolean hasNext() {
+                        return i.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<K, E> next() {
+                        return newK2EEntry(i.next());
+                    }
+
+                    @Override
+                    public void remove() {
+                        i.remove();
+                    }
+                };
+            }
 
-                return ObjectIterators.asObjectIterator(Iterators.concat(stream.filter(Objects::nonNull)
-                        .map((o) -> Iterators.transform(((List<E>) o).listIterator(),
-                                (e) -> newK2EEntry(e))).iterator()));
+            @Override
+            public ObjectSpliterator<Map.Entry<K, E>> spliterator() {
+                return new MappedSpliterator<>(entrySpliterator(), AbstractBinaryHashtable.this::newK2EEntry);
             }
 
             @Override
@@ -261,18 +332,928 @@ public abstract class AbstractBinaryHashtable<K, V, E extends Map.Entry<K, V>> e
         return branchFactor;
     }
 
-    @SuppressWarnings("unchecked")
+    public final boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Doesn't traverse the table, all the counters are maintained by the modifying operations.
+     *
+     * @return the current shape of the table
+     */
+    public final BinaryHashtableStatistics statistics() {
+        double[] fillRatios = new double[depth];
+
+        for (int i = 0; i < depth; i++) {
+            fillRatios[i] = nodeCounts[i] == 0 ? 0 : nodeCounts[i + 1] / (nodeCounts[i] * (double) branching);
+        }
+
+        return new BinaryHashtableStatistics(size, fillRatios, bucketLengths.clone());
+    }
+
+    /**
+     * Rebuilds the table from its entries in bulk, which also drops the empty leaves and nodes
+     * kept by tables that aren't compressed.
+     */
     public final synchronized void rehash() {
-        Key2EntryEntry<K, V, E>[] entries = (Key2EntryEntry<K, V, E>[]) entrySet().toArray(EMPTY_ENTRY_ENTRY_ARRAY);
+        ObjectArrayList<E> entries = new ObjectArrayList<>(size());
 
+        fastForEach(entries::add);
         clear();
+        putAll(entries, false);
+    }
+
+    public final E put(final @NotNull E entry) {
+        Leaf leaf = (Leaf) leafFor(hash(entry));
+        E replaced = putIn(leaf, entry);
+
+        if (replaced == null) {
+            entryAdded(leaf);
+        }
+
+        return replaced;
+    }
+
+    /**
+     * Stores every entry under its own key, the keys of the given map are ignored.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(@NotNull Map<? extends K, ? extends E> m) {
+        if (m instanceof AbstractBinaryHashtable<?, ?, ?> table) {
+            mergeFrom((AbstractBinaryHashtable<K, V, E>) table);
+        } else {
+            putAll(m.values(), false);
+        }
+    }
+
+    /**
+     * Puts all the given entries as if by {@link #put(Map.Entry)} in their iteration order, so later
+     * entries replace earlier ones of the same key.
+     *
+     * Instead of descending from the root for every entry, the batch is sorted by the slots its hashes
+     * occupy on each level and every subtree is built bottom-up, so each node is allocated exactly once
+     * at its final size. The new subtrees are grafted into the table as they are wherever it has no
+     * entries yet.
+     *
+     * @param parallel whether the batch should be sorted in parallel and the subtrees under the slots
+     *                 of the root built in parallel
+     */
+    @SuppressWarnings("unchecked")
+    public final void putAll(final @NotNull Collection<? extends E> entries, boolean parallel) {
+        Object[] batch = entries.toArray();
+        int n = batch.length;
+
+        if (n == 0) {
+            return;
+        }
+
+        long[] order = new long[n];
+
+        if (parallel) {
+            Arrays.parallelSetAll(order, (i) -> orderOf((E) batch[i], i));
+            Arrays.parallelSort(order);
+        } else {
+            for (int i = 0; i < n; i++) {
+                order[i] = orderOf((E) batch[i], i);
+            }
+
+            Arrays.sort(order);
+        }
+
+        int[] keys = new int[n];
+        Object[] sorted = new Object[n];
+
+        for (int i = 0; i < n; i++) {
+            long o = order[i] ^ Long.MIN_VALUE;
+            keys[i] = (int) (o >>> Integer.SIZE);
+            sorted[i] = batch[(int) o];
+        }
+
+        Builder builder = new Builder(keys, sorted);
+        Object root = parallel ? builder.buildInParallel() : builder.build(0, n, 0);
+
+        graft(root, builder.nodeCounts, builder.bucketLengths, builder.size);
+    }
+
+    /**
+     * Puts all the entries of the given table into this one as if by {@link #putAll(Map)}.
+     *
+     * When both tables are compressed and hash their keys the same way, the subtrees of the given table
+     * under the slots left empty in this one are grafted as they are and shared by both tables from then on,
+     * so only the nodes where the tables overlap are visited. Both tables copy the shared nodes before
+     * modifying them afterwards. Other tables are merged through {@link #putAll(Collection, boolean)}.
+     */
+    public final void mergeFrom(final @NotNull AbstractBinaryHashtable<K, V, E> other) {
+        if (other == this || other.isEmpty()) {
+            return;
+        }
+
+        if (compressed && other.compressed && branchFactor == other.branchFactor && hashesLike(other)) {
+            other.owner = new Object();
+            graft(other.tree, other.nodeCounts, other.bucketLengths, other.size);
+        } else {
+            ObjectArrayList<E> entries = new ObjectArrayList<>(other.size());
+
+            other.fastForEach(entries::add);
+            putAll(entries, false);
+        }
+    }
+
+    /**
+     * Unlike the iterator of {@link #entrySet()}, the returned iterator doesn't wrap the entries.
+     *
+     * @return a depth-first iterator over the entries stored in this table
+     */
+    public final ObjectIterator<E> entryIterator() {
+        return new Cursor();
+    }
+
+    /**
+     * The spliterator hands off halves of the slot range of the root and, once a single slot is left,
+     * of the slots of its child, so parallel streams over the table split on subtree boundaries.
+     *
+     * @return a spliterator over the entries stored in this table, {@link Spliterator#SIZED} until split
+     */
+    public final ObjectSpliterator<E> entrySpliterator() {
+        Object[] slots = children(tree);
+        return new TrieSpliterator(slots, 0, firstSlot(), slots.length, size, true);
+    }
+
+    /**
+     * Visits the entries stored in this table in place without allocating anything per entry.
+     * The table must not be structurally modified by the action.
+     */
+    public final void fastForEach(final @NotNull Consumer<? super E> action) {
+        Preconditions.checkNotNull(action);
+        forEachIn(tree, 0, action);
+    }
+
+    /**
+     * @return the child of the given interior node at the given slot or {@code null} if there's none
+     */
+    protected final Object child(Object node, int index) {
+        return compressed ? ((BitmapNode) node).get(index) : ((Object[]) node)[index];
+    }
+
+    /**
+     * The kind of the nodes is checked once per lookup, each level of the descent is then a plain array
+     * or bitmap access.
+     *
+     * @return the leaf of the given hash or {@code null} if it doesn't exist
+     */
+    protected final Object findLeaf(int hash) {
+        return compressed ? findCompressedLeaf(hash) : findFullLeaf(hash);
+    }
+
+    /**
+     * Descends to the leaf of the given hash creating any missing nodes on the way. The nodes
+     * on the path and the leaf may be modified in place afterwards.
+     *
+     * @return the leaf of the given hash
+     */
+    protected final Object leafFor(int hash) {
+        if (compressed && !isOwned(tree)) {
+            tree = ((BitmapNode) tree).copy(owner);
+        }
+
+        Object e = tree;
+
+        for (int i = 1; i < depth; i++) {
+            e = childFor(e, hash & branchIndexMask, i);
+            hash >>>= branchCoveredBits;
+        }
+
+        return childFor(e, hash & branchIndexMask, depth);
+    }
+
+    /**
+     * @param leaf the leaf of the given hash
+     * @return the leaf of the given hash which may be modified in place
+     */
+    protected final Object editableLeaf(Object leaf, int hash) {
+        return isOwned(leaf) ? leaf : leafFor(hash);
+    }
+
+    /**
+     * Removes the leaf of the given hash along with all the nodes it leaves empty if the leaf is empty.
+     * Only compressed tables are shrunk, full nodes are kept for later insertions.
+     */
+    protected final void pruneLeaf(int hash) {
+        if (compressed) {
+            prune((BitmapNode) tree, hash, 0);
+        }
+    }
+
+    /**
+     * Has to be called after an entry has been added to the given leaf.
+     */
+    final void entryAdded(Leaf leaf) {
+        int length = leaf.size;
+
+        if (length == bucketLengths.length) {
+            bucketLengths = Arrays.copyOf(bucketLengths, length << 1);
+        }
+
+        bucketLengths[length - 1]--;
+        bucketLengths[length]++;
+        size++;
+    }
+
+    /**
+     * Has to be called after an entry has been removed from the given leaf.
+     */
+    final void entryRemoved(Leaf leaf) {
+        int length = leaf.size;
+
+        bucketLengths[length + 1]--;
+        bucketLengths[length]++;
+        size--;
+    }
+
+    /**
+     * @return a new empty {@link Leaf} of the key type of the table
+     */
+    protected abstract Object newLeaf();
+
+    protected abstract int hash(E entry);
+
+    /**
+     * Stores the given entry in the given leaf without updating the counters of the table.
+     *
+     * @return the replaced entry of the same key or {@code null} if the entry has been added
+     */
+    abstract E putIn(Leaf leaf, E entry);
+
+    /**
+     * @return whether the given table hashes every key into the same value as this one
+     */
+    abstract boolean hashesLike(AbstractBinaryHashtable<?, ?, ?> other);
+
+    private Object findFullLeaf(int hash) {
+        Object e = tree;
+
+        for (int i = 0; i < depth && e != null; i++) {
+            e = ((Object[]) e)[hash & branchIndexMask];
+            hash >>>= branchCoveredBits;
+        }
+
+        return e;
+    }
+
+    private Object findCompressedLeaf(int hash) {
+        Object e = tree;
+
+        for (int i = 0; i < depth && e != null; i++) {
+            e = ((BitmapNode) e).get(hash & branchIndexMask);
+            hash >>>= branchCoveredBits;
+        }
+
+        return e;
+    }
+
+    /**
+     * Unlike lookups, writes check the kind of the nodes at every level they descend, create or copy.
+     * The branch always goes the same way for a table, so it is well predicted, and it is small next to
+     * the allocations and copies writes may make.
+     */
+    private Object newNode() {
+        return compressed ? new BitmapNode(branching, owner) : new Object[branching];
+    }
+
+    /**
+     * Nodes and leaves of tables which aren't compressed are never shared.
+     */
+    private boolean isOwned(Object node) {
+        return !compressed || (node instanceof Leaf leaf ? leaf.owner : ((BitmapNode) node).owner) == owner;
+    }
+
+    private Object childFor(Object node, int index, int level) {
+        Object child = child(node, index);
+
+        if (child == null) {
+            if (level == depth) {
+                Leaf leaf = (Leaf) newLeaf();
+                leaf.owner = owner;
+                child = leaf;
+                bucketLengths[0]++;
+            } else {
+                child = newNode();
+            }
+
+            nodeCounts[level]++;
+
+            if (compressed) {
+                ((BitmapNode) node).set(index, child);
+            } else {
+                ((Object[]) node)[index] = child;
+            }
+        } else if (!isOwned(child)) {
+            child = level == depth ? ((Leaf) child).copy(owner) : ((BitmapNode) child).copy(owner);
+            ((BitmapNode) node).set(index, child);
+        }
+
+        return child;
+    }
+
+    private boolean prune(BitmapNode node, int hash, int level) {
+        int index = hash & branchIndexMask;
+        Object child = node.get(index);
+
+        if (child != null && (level == depthMinusOne ? ((Leaf) child).isEmpty()
+                : prune((BitmapNode) child, hash >>> branchCoveredBits, level + 1))) {
+            node.remove(index);
+            nodeCounts[level + 1]--;
+
+            if (level == depthMinusOne) {
+                bucketLengths[0]--;
+            }
+        }
+
+        return node.isEmpty();
+    }
+
+    /**
+     * The sort key of an entry for {@link #putAll(Collection, boolean)}. The slot of the root occupies
+     * the highest bits of the upper half, so the entries of each subtree are contiguous once sorted
+     * and ordered by their slots. The lower half holds the position of the entry in the batch.
+     */
+    private long orderOf(E entry, int index) {
+        int hash = hash(entry);
+        int key = 0;
+
+        for (int i = 0; i < depth; i++) {
+            key = (key << branchCoveredBits) | (hash & branchIndexMask);
+            hash >>>= branchCoveredBits;
+        }
+
+        return ((long) key << Integer.SIZE | index) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Merges the tree of the given root into the tree of this table. The counters of the other tree
+     * are added up front and whatever both trees hold is subtracted again while merging.
+     */
+    private void graft(Object root, long[] nodeCounts, long[] bucketLengths, long size) {
+        for (int i = 1; i < nodeCounts.length; i++) {
+            this.nodeCounts[i] += nodeCounts[i];
+        }
+
+        if (bucketLengths.length > this.bucketLengths.length) {
+            this.bucketLengths = Arrays.copyOf(this.bucketLengths, bucketLengths.length);
+        }
+
+        for (int i = 0; i < bucketLengths.length; i++) {
+            this.bucketLengths[i] += bucketLengths[i];
+        }
+
+        this.size += size;
+        tree = merge(tree, root, 0);
+    }
+
+    /**
+     * Only the nodes of this table are modified in place, nodes of compressed tables are never modified
+     * in place at all. Subtrees of the source are grafted, so they must either be fresh or be shared
+     * by tables which no longer own them.
+     *
+     * @return the merged node, which replaces the target in its parent
+     */
+    private Object merge(Object target, Object source, int level) {
+        if (level == depth) {
+            return mergeLeaves((Leaf) target, (Leaf) source);
+        }
+
+        if (!compressed) {
+            Object[] targetSlots = (Object[]) target;
+            Object[] sourceSlots = (Object[]) source;
+
+            for (int i = 0; i < branching; i++) {
+                if (sourceSlots[i] == null) {
+                    continue;
+                }
+
+                if (targetSlots[i] == null) {
+                    targetSlots[i] = sourceSlots[i];
+                } else {
+                    nodeCounts[level + 1]--;
+                    targetSlots[i] = merge(targetSlots[i], sourceSlots[i], level + 1);
+                }
+            }
+
+            return target;
+        }
+
+        BitmapNode targetNode = (BitmapNode) target;
+        BitmapNode sourceNode = (BitmapNode) source;
+
+        if (sourceNode.isEmpty()) {
+            return target;
+        }
+
+        if (targetNode.isEmpty()) {
+            return source;
+        }
+
+        long[] bitmap = new long[targetNode.bitmap.length];
+        int count = 0;
+
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] = targetNode.bitmap[i] | sourceNode.bitmap[i];
+            count += Long.bitCount(bitmap[i]);
+        }
+
+        Object[] children = new Object[count + 1];
+        int pos = 1;
+        int targetPos = 1;
+        int sourcePos = 1;
+
+        for (int i = 0; i < bitmap.length; i++) {
+            long targetBits = targetNode.bitmap[i];
+
+            for (long bits = bitmap[i]; bits != 0; bits &= bits - 1) {
+                long bit = bits & -bits;
+
+                if ((targetBits & bit) == 0) {
+                    children[pos++] = sourceNode.children[sourcePos++];
+                } else if ((sourceNode.bitmap[i] & bit) == 0) {
+                    children[pos++] = targetNode.children[targetPos++];
+                } else {
+                    nodeCounts[level + 1]--;
+                    children[pos++] = merge(targetNode.children[targetPos++], sourceNode.children[sourcePos++],
+                            level + 1);
+                }
+            }
+        }
+
+        return new BitmapNode(bitmap, children, owner);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Leaf mergeLeaves(Leaf target, Leaf source) {
+        Leaf leaf = isOwned(target) ? target : target.copy(owner);
+        int targetLength = leaf.size;
+
+        for (int i = 0; i < source.size; i++) {
+            putIn(leaf, (E) source.entries[i]);
+        }
+
+        if (leaf.size >= bucketLengths.length) {
+            bucketLengths = Arrays.copyOf(bucketLengths, leaf.size + 1);
+        }
+
+        bucketLengths[targetLength]--;
+        bucketLengths[source.size]--;
+        bucketLengths[leaf.size]++;
+        size -= targetLength + source.size - leaf.size;
+        return leaf;
+    }
+
+    /**
+     * @return the slots of the given interior node, empty slots are {@code null}
+     */
+    private Object[] children(Object node) {
+        return compressed ? ((BitmapNode) node).children : (Object[]) node;
+    }
+
+    /**
+     * @return the position of the first slot which may be occupied in the arrays returned by
+     * {@link #children(Object)}
+     */
+    private int firstSlot() {
+        return compressed ? 1 : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forEachIn(Object node, int level, Consumer<? super E> action) {
+        for (Object child : children(node)) {
+            if (child == null) {
+                continue;
+            }
+
+            if (level == depthMinusOne) {
+                Leaf leaf = (Leaf) child;
+
+                for (int i = 0; i < leaf.size; i++) {
+                    action.accept((E) leaf.entries[i]);
+                }
+            } else {
+                forEachIn(child, level + 1, action);
+            }
+        }
+    }
+
+    /**
+     * Builds a detached tree of a batch sorted by {@link #orderOf(Map.Entry, int)} bottom-up, counting
+     * its nodes and leaves on the way.
+     */
+    private final class Builder {
+        private final int[] keys;
+        private final Object[] entries;
+        private final long[] nodeCounts = new long[depth + 1];
+        private long[] bucketLengths = new long[2];
+        private long size;
+
+        Builder(int[] keys, Object[] entries) {
+            this.keys = keys;
+            this.entries = entries;
+        }
+
+        /**
+         * @return the node of the given level holding the entries in the given range
+         */
+        Object build(int from, int to, int level) {
+            int width = Math.min(branching, to - from);
+            int[] slots = new int[width];
+            int[] bounds = new int[width + 1];
+            int count = split(from, to, level, slots, bounds);
+            Object[] children = new Object[count];
+
+            for (int i = 0; i < count; i++) {
+                children[i] = level == depthMinusOne ? buildLeaf(bounds[i], bounds[i + 1])
+                        : build(bounds[i], bounds[i + 1], level + 1);
+            }
+
+            nodeCounts[level + 1] += count;
+            return assemble(slots, children, count);
+        }
+
+        /**
+         * Builds the subtrees under the slots of the root on the common pool.
+         */
+        @SuppressWarnings("unchecked")
+        Object buildInParallel() {
+            int width = Math.min(branching, keys.length);
+            int[] slots = new int[width];
+            int[] bounds = new int[width + 1];
+            int count = split(0, keys.length, 0, slots, bounds);
+            Object[] children = new Object[count];
+            Builder[] builders = (Builder[]) new AbstractBinaryHashtable<?, ?, ?>.Builder[count];
+
+            IntStream.range(0, count).parallel().forEach((i) -> {
+                Builder builder = new Builder(keys, entries);
+
+                children[i] = builder.build(bounds[i], bounds[i + 1], 1);
+                builders[i] = builder;
+            });
+
+            for (Builder builder : builders) {
+                for (int i = 1; i < nodeCounts.length; i++) {
+                    nodeCounts[i] += builder.nodeCounts[i];
+                }
+
+                for (int i = 0; i < builder.bucketLengths.length; i++) {
+                    countBucket(i, builder.bucketLengths[i]);
+                }
+
+                size += builder.size;
+            }
+
+            nodeCounts[1] += count;
+            return assemble(slots, children, count);
+        }
+
+        /**
+         * Splits the given range into the runs of entries sharing the slot of the given level.
+         *
+         * @return the number of runs
+         */
+        private int split(int from, int to, int level, int[] slots, int[] bounds) {
+            int shift = (depthMinusOne - level) * branchCoveredBits;
+            int count = 0;
+
+            if (keys[from] >>> shift == keys[to - 1] >>> shift) {
+                slots[0] = (keys[from] >>> shift) & branchIndexMask;
+                bounds[0] = from;
+                bounds[1] = to;
+                return 1;
+            }
+
+            for (int i = from; i < to; count++) {
+                int prefix = keys[i] >>> shift;
+
+                slots[count] = prefix & branchIndexMask;
+                bounds[count] = i;
+
+                do {
+                    i++;
+                } while (i < to && keys[i] >>> shift == prefix);
+            }
+
+            bounds[count] = to;
+            return count;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Leaf buildLeaf(int from, int to) {
+            Leaf leaf = (Leaf) newLeaf();
+            leaf.owner = owner;
+
+            for (int i = from; i < to; i++) {
+                putIn(leaf, (E) entries[i]);
+            }
+
+            countBucket(leaf.size, 1);
+            size += leaf.size;
+            return leaf;
+        }
+
+        private void countBucket(int length, long count) {
+            if (length >= bucketLengths.length) {
+                bucketLengths = Arrays.copyOf(bucketLengths, Math.max(length + 1, bucketLengths.length << 1));
+            }
+
+            bucketLengths[length] += count;
+        }
+
+        private Object assemble(int[] slots, Object[] children, int count) {
+            if (!compressed) {
+                Object[] node = new Object[branching];
 
-        for (Key2EntryEntry<K, V, E> entry : entries) {
-            put((E) entry);
+                for (int i = 0; i < count; i++) {
+                    node[slots[i]] = children[i];
+                }
+
+                return node;
+            }
+
+            long[] bitmap = new long[(branching + Long.SIZE - 1) >>> 6];
+            Object[] dense = new Object[count + 1];
+
+            for (int i = 0; i < count; i++) {
+                bitmap[slots[i] >>> 6] |= 1L << slots[i];
+                dense[i + 1] = children[i];
+            }
+
+            return new BitmapNode(bitmap, dense, owner);
         }
     }
 
-    public abstract E put(E entry);
+    /**
+     * Walks the tree depth-first keeping the slot arrays of the current path and the positions in them
+     * on an explicit stack.
+     */
+    private final class Cursor implements ObjectIterator<E> {
+        private final Object[][] path = new Object[depth][];
+        private final int[] positions = new int[depth];
+        private int top;
+        private Leaf leaf;
+        private int index;
+        private Leaf lastLeaf;
+        private E last;
+
+        Cursor() {
+            path[0] = children(tree);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+
+            lastLeaf = leaf;
+            last = (E) leaf.entries[index++];
+
+            if (index >= leaf.size) {
+                advance();
+            }
+
+            return last;
+        }
+
+        /**
+         * Pruning never modifies the slot arrays in place and shared nodes are copied before being
+         * written to, so the stack stays valid. Only the current leaf has to be looked up again if it
+         * was copied by the removal.
+         */
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+
+            boolean shared = !isOwned(lastLeaf);
+
+            AbstractBinaryHashtable.this.remove(last.getKey());
+
+            if (lastLeaf == leaf) {
+                index--;
+
+                if (shared) {
+                    leaf = (Leaf) findLeaf(hash(last));
+                }
+            }
+
+            last = null;
+        }
+
+        private void advance() {
+            leaf = null;
+            index = 0;
+
+            while (top >= 0) {
+                Object[] children = path[top];
+
+                if (positions[top] == children.length) {
+                    top--;
+                    continue;
+                }
+
+                Object child = children[positions[top]++];
+
+                if (child == null) {
+                    continue;
+                }
+
+                if (top == depthMinusOne) {
+                    if (!((Leaf) child).isEmpty()) {
+                        leaf = (Leaf) child;
+                        return;
+                    }
+                } else {
+                    path[++top] = children(child);
+                    positions[top] = 0;
+                }
+            }
+        }
+    }
+
+    private final class TrieSpliterator implements ObjectSpliterator<E> {
+        private final Object[][] path = new Object[depth][];
+        private final int[] positions = new int[depth];
+        /**
+         * The level of the node whose slot range is covered, the range ends at {@link #end}.
+         */
+        private int base;
+        private int end;
+        private int top;
+        private Leaf leaf;
+        private int index;
+        private long estimate;
+        private boolean sized;
+
+        TrieSpliterator(Object[] slots, int base, int from, int end, long estimate, boolean sized) {
+            this.path[base] = slots;
+            this.positions[base] = from;
+            this.base = base;
+            this.end = end;
+            this.top = base;
+            this.estimate = estimate;
+            this.sized = sized;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Preconditions.checkNotNull(action);
+
+            if ((leaf == null || index >= leaf.size) && !advance()) {
+                return false;
+            }
+
+            action.accept((E) leaf.entries[index++]);
+            estimate--;
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            Preconditions.checkNotNull(action);
+
+            while ((leaf != null && index < leaf.size) || advance()) {
+                while (index < leaf.size) {
+                    action.accept((E) leaf.entries[index++]);
+                }
+            }
+
+            estimate = 0;
+        }
+
+        @Override
+        public ObjectSpliterator<E> trySplit() {
+            if (top != base) {
+                return null;
+            }
+
+            while (end - positions[base] == 1 && base < depthMinusOne) {
+                Object child = path[base][positions[base]];
+
+                if (child == null) {
+                    return null;
+                }
+
+                path[++base] = children(child);
+                positions[base] = firstSlot();
+                end = path[base].length;
+                top = base;
+            }
+
+            int from = positions[base];
+            int mid = (from + end) >>> 1;
+
+            if (mid == from) {
+                return null;
+            }
+
+            long prefixEstimate = estimate * (mid - from) / (end - from);
+
+            positions[base] = mid;
+            estimate -= prefixEstimate;
+            sized = false;
+            return new TrieSpliterator(path[base], base, from, mid, prefixEstimate, false);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Math.max(estimate, 0);
+        }
+
+        @Override
+        public int characteristics() {
+            return sized ? SPLITERATOR_CHARACTERISTICS | Spliterator.SIZED : SPLITERATOR_CHARACTERISTICS;
+        }
+
+        private boolean advance() {
+            leaf = null;
+            index = 0;
+
+            while (top >= base) {
+                Object[] slots = path[top];
+
+                if (positions[top] == (top == base ? end : slots.length)) {
+                    top--;
+                    continue;
+                }
+
+                Object child = slots[positions[top]++];
+
+                if (child == null) {
+                    continue;
+                }
+
+                if (top == depthMinusOne) {
+                    if (!((Leaf) child).isEmpty()) {
+                        leaf = (Leaf) child;
+                        return true;
+                    }
+                } else {
+                    path[++top] = children(child);
+                    positions[top] = 0;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Splits like the spliterator it maps.
+     */
+    static final class MappedSpliterator<T, R> implements ObjectSpliterator<R> {
+        private final ObjectSpliterator<T> source;
+        private final Function<? super T, ? extends R> mapper;
+
+        MappedSpliterator(ObjectSpliterator<T> source, Function<? super T, ? extends R> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            Preconditions.checkNotNull(action);
+            return source.tryAdvance((t) -> action.accept(mapper.apply(t)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            Preconditions.checkNotNull(action);
+            source.forEachRemaining((t) -> action.accept(mapper.apply(t)));
+        }
+
+        @Override
+        public ObjectSpliterator<R> trySplit() {
+            ObjectSpliterator<T> prefix = source.trySplit();
+            return prefix != null ? new MappedSpliterator<>(prefix, mapper) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+    }
 
     public static abstract class Key2EntryEntry<K, V, E extends Map.Entry<K, V>>
             implements Object2ObjectMap.Entry<K, E> {
@@ -0,0 +1,1127 @@
+package com.github.svegon.utils.hash;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.Size64;
+import it.unimi.dsi.fastutil.objects.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A lock-free variant of {@link AbstractBinaryHashtable} implemented as a concurrent hash trie (Ctrie).
+ *
+ * Every level of the trie is an indirection node whose content is an immutable bitmap compressed node.
+ * Updates copy the node of the level they modify and swap it in with a generation checked compare-and-set,
+ * which makes taking a consistent snapshot of the whole table an O(1) operation: the root is swapped for
+ * a copy of a new generation and both tables lazily copy the nodes they write to afterwards.
+ *
+ * Snapshots share the entry objects with the table they were taken from, so entries modified in place
+ * through {@link Map.Entry#setValue(Object)} are visible in both tables.
+ *
+ * The size is maintained in a striped counter updated by every successful insertion and removal. A snapshot
+ * counts the entries of the root it was taken from once, the first time its size is needed, and then
+ * maintains its own counter as well.
+ */
+public abstract class AbstractConcurrentBinaryHashtable<K, V, E extends Map.Entry<K, V>> extends AbstractMap<K, E>
+        implements ConcurrentMap<K, E>, Size64 {
+    private static final VarHandle ROOT;
+    private static final Object RESTART = new Object();
+    private static final Object KEY_ABSENT = new Object();
+    private static final Object KEY_PRESENT = new Object();
+
+    private final ObjectCollection<E> values = new Values();
+    private final ObjectSet<Map.Entry<K, E>> entrySet = new EntrySet();
+    private final int branchFactor;
+    private final boolean readOnly;
+    /**
+     * The difference between the size of this table and the size of {@link #frozen}.
+     */
+    private final LongAdder sizeChange = new LongAdder();
+    private final @Nullable FrozenRoot frozen;
+    private volatile Object root;
+    protected final int depth;
+    protected final int branchCoveredBits;
+    protected final int branching;
+    protected final int branchIndexMask;
+    private final int bitmapWords;
+
+    AbstractConcurrentBinaryHashtable(int branchFactor, @Nullable INode root, boolean readOnly,
+                                      @Nullable FrozenRoot frozen) {
+        Preconditions.checkArgument(0 <= branchFactor && branchFactor < AbstractBinaryHashtable.BRANCH_FACTOR_LIMIT);
+
+        this.branchFactor = branchFactor;
+        this.readOnly = readOnly;
+        this.frozen = frozen;
+        this.branchCoveredBits = 1 << branchFactor;
+        this.branching = 1 << branchCoveredBits;
+        this.branchIndexMask = branching - 1;
+        this.depth = 1 << (AbstractBinaryHashtable.BRANCH_FACTOR_LIMIT - branchFactor);
+        this.bitmapWords = (branching + Long.SIZE - 1) >>> 6;
+        this.root = root != null ? root : newRoot();
+    }
+
+    AbstractConcurrentBinaryHashtable(int branchFactor) {
+        this(branchFactor, null, false, null);
+    }
+
+    @Deprecated
+    @Override
+    public final int size() {
+        return Size64.super.size();
+    }
+
+    /**
+     * Constant time except for the first call on a snapshot. Like the sizes of other concurrent maps
+     * the result is only an estimate while the table is being modified.
+     *
+     * @return the size as long
+     */
+    @Override
+    public long size64() {
+        return Math.max(frozenSize() + sizeChange.sum(), 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size64() == 0;
+    }
+
+    @Override
+    public final boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public abstract E get(final @Nullable Object key);
+
+    @Override
+    public E put(@Nullable K key, final @NotNull E value) {
+        return matches(value, key) ? put(value) : null;
+    }
+
+    public final E put(final @NotNull E entry) {
+        checkWritable();
+        return insert(entry, hash(entry), null);
+    }
+
+    @Override
+    public abstract E remove(final @Nullable Object key);
+
+    @Override
+    public final boolean remove(Object key, Object value) {
+        checkWritable();
+
+        if (value == null) {
+            return false;
+        }
+
+        try {
+            return Objects.equals(remove(key, keyHash(key), value), value);
+        } catch (ClassCastException notKeyClass) {
+            return false;
+        }
+    }
+
+    @Nullable
+    @Override
+    public final E putIfAbsent(final @Nullable K key, final @NotNull E value) {
+        checkWritable();
+        return matches(value, key) ? insert(value, hash(value), KEY_ABSENT) : null;
+    }
+
+    @Override
+    public final boolean replace(K key, E oldValue, E newValue) {
+        checkWritable();
+        return oldValue != null && matches(newValue, key)
+                && Objects.equals(insert(newValue, hash(newValue), oldValue), oldValue);
+    }
+
+    @Nullable
+    @Override
+    public final E replace(K key, E value) {
+        checkWritable();
+        return matches(value, key) ? insert(value, hash(value), KEY_PRESENT) : null;
+    }
+
+    /**
+     * Doesn't lock, the mapping function may therefore be called by several threads at once
+     * in which case only the result of the fastest one is inserted.
+     */
+    @Override
+    public final E computeIfAbsent(K key, @NotNull Function<? super K, ? extends E> mappingFunction) {
+        Preconditions.checkNotNull(mappingFunction);
+        E current = get(key);
+
+        if (current != null) {
+            return current;
+        }
+
+        E computed = mappingFunction.apply(key);
+
+        if (computed == null) {
+            return null;
+        }
+
+        E previous = putIfAbsent(key, computed);
+        return previous != null ? previous : computed;
+    }
+
+    @Override
+    public final E computeIfPresent(K key,
+                                    @NotNull BiFunction<? super K, ? super E, ? extends E> remappingFunction) {
+        return ConcurrentMap.super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public final E compute(K key, @NotNull BiFunction<? super K, ? super E, ? extends E> remappingFunction) {
+        return ConcurrentMap.super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public final E merge(K key, @NotNull E value,
+                         @NotNull BiFunction<? super E, ? super E, ? extends E> remappingFunction) {
+        return ConcurrentMap.super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public E getOrDefault(Object key, E defaultValue) {
+        E value = get(key);
+
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Iterates over a read-only snapshot of this table.
+     */
+    @Override
+    public final void forEach(@NotNull BiConsumer<? super K, ? super E> action) {
+        Preconditions.checkNotNull(action);
+
+        for (ObjectIterator<E> it = entryIterator(); it.hasNext(); ) {
+            E entry = it.next();
+            action.accept(entry.getKey(), entry);
+        }
+    }
+
+    @Override
+    public final void replaceAll(final @NotNull BiFunction<? super K, ? super E, ? extends E> function) {
+        Preconditions.checkNotNull(function);
+        checkWritable();
+
+        for (ObjectIterator<E> it = entryIterator(); it.hasNext(); ) {
+            E entry = it.next();
+            entry.setValue(function.apply(entry.getKey(), entry).getValue());
+        }
+    }
+
+    /**
+     * Counts the removed entries to keep the size exact, which makes it proportional to the size.
+     */
+    @Override
+    public final void clear() {
+        checkWritable();
+
+        while (true) {
+            INode r = readRoot(false);
+
+            if (rdcssRoot(r, gcasRead(r), newRoot())) {
+                sizeChange.add(-newInstance(r, true, new FrozenRoot(r)).size64());
+                return;
+            }
+        }
+    }
+
+    @NotNull
+    @Override
+    public ObjectCollection<E> values() {
+        return values;
+    }
+
+    @Override
+    public ObjectSet<Map.Entry<K, E>> entrySet() {
+        return entrySet;
+    }
+
+    public final int branchFactor() {
+        return branchFactor;
+    }
+
+    public final boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Takes a consistent, mutable snapshot of this table in constant time.
+     * Further modifications of either of the tables aren't visible in the other one.
+     */
+    public AbstractConcurrentBinaryHashtable<K, V, E> snapshot() {
+        if (readOnly) {
+            return newInstance(readRoot(false).copyToGen(new Gen(), this), false, frozen);
+        }
+
+        while (true) {
+            INode r = readRoot(false);
+            MainNode expectedMain = gcasRead(r);
+
+            if (rdcssRoot(r, expectedMain, r.copyToGen(new Gen(), this))) {
+                return newInstance(r.copyToGen(new Gen(), this), false, new FrozenRoot(r));
+            }
+        }
+    }
+
+    /**
+     * Takes a consistent, read-only snapshot of this table in constant time.
+     */
+    public AbstractConcurrentBinaryHashtable<K, V, E> readOnlySnapshot() {
+        if (readOnly) {
+            return this;
+        }
+
+        while (true) {
+            INode r = readRoot(false);
+            MainNode expectedMain = gcasRead(r);
+
+            if (rdcssRoot(r, expectedMain, r.copyToGen(new Gen(), this))) {
+                return newInstance(r, true, new FrozenRoot(r));
+            }
+        }
+    }
+
+    /**
+     * @return an iterator over the entries of a read-only snapshot of this table,
+     * removing through it removes from this table
+     */
+    @SuppressWarnings("unchecked")
+    public final ObjectIterator<E> entryIterator() {
+        AbstractConcurrentBinaryHashtable<K, V, E> snapshot = readOnlySnapshot();
+        return snapshot.new SnapshotIterator(this);
+    }
+
+    abstract AbstractConcurrentBinaryHashtable<K, V, E> newInstance(INode root, boolean readOnly,
+                                                                    FrozenRoot frozen);
+
+    protected abstract AbstractBinaryHashtable.Key2EntryEntry<K, V, E> newK2EEntry(E entry);
+
+    protected abstract int hash(E entry);
+
+    /**
+     * @throws ClassCastException if the key can't be hashed by this table
+     */
+    protected abstract int keyHash(Object key);
+
+    protected abstract boolean matches(E entry, Object key);
+
+    protected abstract boolean sameKey(E a, E b);
+
+    /**
+     * Finds what is stored under the given hash without modifying the trie.
+     *
+     * @return {@code null} if nothing's stored under the hash, an {@code Object[]} of entries
+     * if their keys collide on the full hash or the single entry stored in the slot of the hash,
+     * which doesn't necessarily have to be of the same key
+     */
+    protected final Object findBucket(int hash) {
+        INode i = readRoot(false);
+        int level = 0;
+
+        while (true) {
+            MainNode m = gcasRead(i);
+
+            if (m instanceof CNode cn) {
+                int pos = cn.position(index(hash, level));
+
+                if (pos < 0) {
+                    return null;
+                }
+
+                Object sub = cn.array[pos];
+
+                if (!(sub instanceof INode in)) {
+                    return sub;
+                }
+
+                i = in;
+                level++;
+            } else if (m instanceof TNode tn) {
+                return tn.entry;
+            } else {
+                return ((LNode) m).entries;
+            }
+        }
+    }
+
+    /**
+     * @param cond {@code null} to always insert, {@link #KEY_ABSENT}, {@link #KEY_PRESENT}
+     *             or the entry which has to be currently mapped for the insertion to happen
+     * @return the entry mapped before the call regardless of whether the insertion happened
+     */
+    @SuppressWarnings("unchecked")
+    protected final E insert(E entry, int hash, @Nullable Object cond) {
+        while (true) {
+            INode r = readRoot(false);
+            Object result = iinsert(r, entry, hash, cond, 0, null, r.gen);
+
+            if (result != RESTART) {
+                return (E) result;
+            }
+        }
+    }
+
+    /**
+     * @param cond {@code null} to always remove or the entry which has to be currently
+     *             mapped for the removal to happen
+     * @return the entry mapped before the call regardless of whether the removal happened
+     */
+    @SuppressWarnings("unchecked")
+    protected final E remove(Object key, int hash, @Nullable Object cond) {
+        checkWritable();
+
+        while (true) {
+            INode r = readRoot(false);
+            Object result = iremove(r, key, hash, cond, 0, null, r.gen);
+
+            if (result != RESTART) {
+                return (E) result;
+            }
+        }
+    }
+
+    protected final void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("read-only snapshot");
+        }
+    }
+
+    private INode newRoot() {
+        Gen gen = new Gen();
+        return new INode(new CNode(new long[bitmapWords], ObjectArrays.EMPTY_ARRAY, gen), gen);
+    }
+
+    private long frozenSize() {
+        if (frozen == null) {
+            return 0;
+        }
+
+        long size = frozen.size;
+
+        if (size < 0) {
+            AbstractConcurrentBinaryHashtable<K, V, E> view = readOnly ? this : newInstance(frozen.root, true, frozen);
+            size = 0;
+
+            for (ObjectIterator<E> it = view.new SnapshotIterator(this); it.hasNext(); it.next()) {
+                size++;
+            }
+
+            frozen.size = size;
+        }
+
+        return size;
+    }
+
+    private int index(int hash, int level) {
+        return (hash >>> (level * branchCoveredBits)) & branchIndexMask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object iinsert(INode i, E entry, int hash, Object cond, int level, INode parent, Gen startGen) {
+        while (true) {
+            MainNode m = gcasRead(i);
+
+            if (m instanceof CNode cn) {
+                int index = index(hash, level);
+                int pos = cn.position(index);
+
+                if (pos < 0) {
+                    if (cond != null && cond != KEY_ABSENT) {
+                        return null;
+                    }
+
+                    CNode rn = cn.gen == i.gen ? cn : cn.renewed(i.gen, this);
+                    return gcas(i, cn, rn.insertedAt(-pos - 1, index, entry, i.gen)) ? inserted() : RESTART;
+                }
+
+                Object sub = cn.array[pos];
+
+                if (sub instanceof INode in) {
+                    if (startGen == in.gen) {
+                        parent = i;
+                        i = in;
+                        level++;
+                        continue;
+                    }
+
+                    if (gcas(i, cn, cn.renewed(startGen, this))) {
+                        continue;
+                    }
+
+                    return RESTART;
+                }
+
+                E current = (E) sub;
+
+                if (sameKey(current, entry)) {
+                    if (!accepts(cond, current)) {
+                        return current;
+                    }
+
+                    return gcas(i, cn, cn.updatedAt(pos, entry, i.gen)) ? current : RESTART;
+                }
+
+                if (cond != null && cond != KEY_ABSENT) {
+                    return null;
+                }
+
+                CNode rn = cn.gen == i.gen ? cn : cn.renewed(i.gen, this);
+                INode nn = new INode(dual(current, hash(current), entry, hash, level + 1, i.gen), i.gen);
+                return gcas(i, cn, rn.updatedAt(pos, nn, i.gen)) ? inserted() : RESTART;
+            } else if (m instanceof TNode) {
+                clean(parent, level - 1);
+                return RESTART;
+            } else {
+                LNode ln = (LNode) m;
+                Object[] entries = ln.entries;
+
+                for (int j = 0; j < entries.length; j++) {
+                    E current = (E) entries[j];
+
+                    if (sameKey(current, entry)) {
+                        if (!accepts(cond, current)) {
+                            return current;
+                        }
+
+                        Object[] updated = entries.clone();
+                        updated[j] = entry;
+                        return gcas(i, ln, new LNode(updated)) ? current : RESTART;
+                    }
+                }
+
+                if (cond != null && cond != KEY_ABSENT) {
+                    return null;
+                }
+
+                Object[] inserted = Arrays.copyOf(entries, entries.length + 1);
+                inserted[entries.length] = entry;
+                return gcas(i, ln, new LNode(inserted)) ? inserted() : RESTART;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object iremove(INode i, Object key, int hash, Object cond, int level, INode parent, Gen startGen) {
+        MainNode m = gcasRead(i);
+
+        if (m instanceof CNode cn) {
+            int index = index(hash, level);
+            int pos = cn.position(index);
+
+            if (pos < 0) {
+                return null;
+            }
+
+            Object sub = cn.array[pos];
+            Object result;
+
+            if (sub instanceof INode in) {
+                if (startGen == in.gen) {
+                    result = iremove(in, key, hash, cond, level + 1, i, startGen);
+                } else if (gcas(i, cn, cn.renewed(startGen, this))) {
+                    return iremove(i, key, hash, cond, level, parent, startGen);
+                } else {
+                    return RESTART;
+                }
+            } else {
+                E current = (E) sub;
+
+                if (!matches(current, key)) {
+                    return null;
+                }
+
+                if (cond != null && !Objects.equals(current, cond)) {
+                    return current;
+                }
+
+                result = gcas(i, cn, toContracted(cn.removedAt(pos, index, i.gen), level)) ? removed(current)
+                        : RESTART;
+            }
+
+            if (result != null && result != RESTART && parent != null && gcasRead(i) instanceof TNode tn) {
+                cleanParent(parent, i, tn, hash, level - 1, startGen);
+            }
+
+            return result;
+        } else if (m instanceof TNode) {
+            clean(parent, level - 1);
+            return RESTART;
+        } else {
+            LNode ln = (LNode) m;
+            Object[] entries = ln.entries;
+
+            for (int j = 0; j < entries.length; j++) {
+                E current = (E) entries[j];
+
+                if (matches(current, key)) {
+                    if (cond != null && !Objects.equals(current, cond)) {
+                        return current;
+                    }
+
+                    MainNode updated;
+
+                    if (entries.length == 2) {
+                        E remaining = (E) entries[1 - j];
+                        updated = new TNode(remaining, hash(remaining));
+                    } else {
+                        Object[] removed = new Object[entries.length - 1];
+                        System.arraycopy(entries, 0, removed, 0, j);
+                        System.arraycopy(entries, j + 1, removed, j, removed.length - j);
+                        updated = new LNode(removed);
+                    }
+
+                    return gcas(i, ln, updated) ? removed(current) : RESTART;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    private Object inserted() {
+        sizeChange.increment();
+        return null;
+    }
+
+    private Object removed(E entry) {
+        sizeChange.decrement();
+        return entry;
+    }
+
+    private boolean accepts(Object cond, E current) {
+        return cond == null || cond == KEY_PRESENT || (cond != KEY_ABSENT && Objects.equals(current, cond));
+    }
+
+    private MainNode dual(E x, int xHash, E y, int yHash, int level, Gen gen) {
+        if (level >= depth) {
+            return new LNode(new Object[]{x, y});
+        }
+
+        int xIndex = index(xHash, level);
+        int yIndex = index(yHash, level);
+        long[] bitmap = new long[bitmapWords];
+        bitmap[xIndex >>> 6] |= 1L << xIndex;
+        bitmap[yIndex >>> 6] |= 1L << yIndex;
+
+        if (xIndex == yIndex) {
+            return new CNode(bitmap, new Object[]{new INode(dual(x, xHash, y, yHash, level + 1, gen), gen)},
+                    gen);
+        }
+
+        return new CNode(bitmap, xIndex < yIndex ? new Object[]{x, y} : new Object[]{y, x}, gen);
+    }
+
+    @SuppressWarnings("unchecked")
+    private MainNode toContracted(CNode cn, int level) {
+        if (level > 0 && cn.array.length == 1 && !(cn.array[0] instanceof INode)) {
+            E entry = (E) cn.array[0];
+            return new TNode(entry, hash(entry));
+        }
+
+        return cn;
+    }
+
+    private MainNode toCompressed(CNode cn, int level, Gen gen) {
+        Object[] array = cn.array.clone();
+
+        for (int j = 0; j < array.length; j++) {
+            if (array[j] instanceof INode in && gcasRead(in) instanceof TNode tn) {
+                array[j] = tn.entry;
+            }
+        }
+
+        return toContracted(new CNode(cn.bitmap, array, gen), level);
+    }
+
+    private void clean(INode i, int level) {
+        if (gcasRead(i) instanceof CNode cn) {
+            gcas(i, cn, toCompressed(cn, level, i.gen));
+        }
+    }
+
+    private void cleanParent(INode parent, INode i, TNode tn, int hash, int level, Gen startGen) {
+        while (gcasRead(parent) instanceof CNode cn) {
+            int pos = cn.position(index(hash, level));
+
+            if (pos < 0 || cn.array[pos] != i) {
+                return;
+            }
+
+            if (gcas(parent, cn, toContracted(cn.updatedAt(pos, tn.entry, i.gen), level))
+                    || readRoot(false).gen != startGen) {
+                return;
+            }
+        }
+    }
+
+    private INode readRoot(boolean abort) {
+        Object r = root;
+        return r instanceof INode in ? in : rdcssComplete(abort);
+    }
+
+    private INode rdcssComplete(boolean abort) {
+        while (true) {
+            Object r = root;
+
+            if (r instanceof INode in) {
+                return in;
+            }
+
+            RDCSSDescriptor desc = (RDCSSDescriptor) r;
+            INode resolved = desc.decide(!abort && gcasRead(desc.old) == desc.expectedMain) ? desc.update : desc.old;
+
+            if (ROOT.compareAndSet(this, desc, resolved)) {
+                return resolved;
+            }
+        }
+    }
+
+    private boolean rdcssRoot(INode old, MainNode expectedMain, INode update) {
+        RDCSSDescriptor desc = new RDCSSDescriptor(old, expectedMain, update);
+
+        if (ROOT.compareAndSet(this, old, desc)) {
+            rdcssComplete(false);
+            return desc.committed;
+        }
+
+        return false;
+    }
+
+    private MainNode gcasRead(INode i) {
+        MainNode m = i.main;
+        return m.prev == null ? m : gcasCommit(i, m);
+    }
+
+    private MainNode gcasCommit(INode i, MainNode m) {
+        while (true) {
+            if (m == null) {
+                return null;
+            }
+
+            MainNode prev = m.prev;
+            INode ctr = readRoot(true);
+
+            if (prev == null) {
+                return m;
+            }
+
+            if (prev instanceof FailedNode fn) {
+                if (i.cas(m, fn.prev)) {
+                    return fn.prev;
+                }
+
+                m = i.main;
+            } else if (ctr.gen == i.gen && !readOnly) {
+                if (m.casPrev(prev, null)) {
+                    return m;
+                }
+            } else {
+                m.casPrev(prev, new FailedNode(prev));
+                m = i.main;
+            }
+        }
+    }
+
+    private boolean gcas(INode i, MainNode old, MainNode update) {
+        update.prev = old;
+
+        if (i.cas(old, update)) {
+            gcasCommit(i, update);
+            return update.prev == null;
+        }
+
+        return false;
+    }
+
+    static final class Gen {
+    }
+
+    static final class INode {
+        private static final VarHandle MAIN;
+
+        final Gen gen;
+        volatile MainNode main;
+
+        INode(MainNode main, Gen gen) {
+            this.main = main;
+            this.gen = gen;
+        }
+
+        boolean cas(MainNode expected, MainNode update) {
+            return MAIN.compareAndSet(this, expected, update);
+        }
+
+        INode copyToGen(Gen gen, AbstractConcurrentBinaryHashtable<?, ?, ?> table) {
+            return new INode(table.gcasRead(this), gen);
+        }
+
+        static {
+            try {
+                MAIN = MethodHandles.lookup().findVarHandle(INode.class, "main", MainNode.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    abstract static class MainNode {
+        private static final VarHandle PREV;
+
+        volatile MainNode prev;
+
+        final boolean casPrev(MainNode expected, MainNode update) {
+            return PREV.compareAndSet(this, expected, update);
+        }
+
+        static {
+            try {
+                PREV = MethodHandles.lookup().findVarHandle(MainNode.class, "prev", MainNode.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    static final class FailedNode extends MainNode {
+        FailedNode(MainNode prev) {
+            this.prev = prev;
+        }
+    }
+
+    /**
+     * An immutable level of the trie holding entries and indirection nodes of the next level.
+     */
+    static final class CNode extends MainNode {
+        final long[] bitmap;
+        final Object[] array;
+        final Gen gen;
+
+        CNode(long[] bitmap, Object[] array, Gen gen) {
+            this.bitmap = bitmap;
+            this.array = array;
+            this.gen = gen;
+        }
+
+        /**
+         * @return the position of the slot in the array or {@code -insertionPoint - 1} if it's absent
+         */
+        int position(int index) {
+            int word = index >>> 6;
+            long bits = bitmap[word];
+            int pos = Long.bitCount(bits & ((1L << index) - 1));
+
+            for (int i = 0; i < word; i++) {
+                pos += Long.bitCount(bitmap[i]);
+            }
+
+            return (bits & (1L << index)) != 0 ? pos : -pos - 1;
+        }
+
+        CNode updatedAt(int pos, Object node, Gen gen) {
+            Object[] updated = array.clone();
+            updated[pos] = node;
+            return new CNode(bitmap, updated, gen);
+        }
+
+        CNode insertedAt(int pos, int index, Object node, Gen gen) {
+            long[] inserted = bitmap.clone();
+            inserted[index >>> 6] |= 1L << index;
+            Object[] grown = new Object[array.length + 1];
+            System.arraycopy(array, 0, grown, 0, pos);
+            grown[pos] = node;
+            System.arraycopy(array, pos, grown, pos + 1, array.length - pos);
+            return new CNode(inserted, grown, gen);
+        }
+
+        CNode removedAt(int pos, int index, Gen gen) {
+            long[] removed = bitmap.clone();
+            removed[index >>> 6] &= ~(1L << index);
+            Object[] shrunk = new Object[array.length - 1];
+            System.arraycopy(array, 0, shrunk, 0, pos);
+            System.arraycopy(array, pos + 1, shrunk, pos, shrunk.length - pos);
+            return new CNode(removed, shrunk, gen);
+        }
+
+        CNode renewed(Gen gen, AbstractConcurrentBinaryHashtable<?, ?, ?> table) {
+            Object[] renewed = array.clone();
+
+            for (int i = 0; i < renewed.length; i++) {
+                if (renewed[i] instanceof INode in) {
+                    renewed[i] = in.copyToGen(gen, table);
+                }
+            }
+
+            return new CNode(bitmap, renewed, gen);
+        }
+    }
+
+    /**
+     * A tombed single entry waiting to be merged into the level above.
+     */
+    static final class TNode extends MainNode {
+        final Object entry;
+        final int hash;
+
+        TNode(Object entry, int hash) {
+            this.entry = entry;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Entries whose keys collide on the full hash.
+     */
+    static final class LNode extends MainNode {
+        final Object[] entries;
+
+        LNode(Object[] entries) {
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * The root a snapshot was taken from, which can no longer change, and the lazily counted number
+     * of its entries shared by all the snapshots of the root.
+     */
+    static final class FrozenRoot {
+        final INode root;
+        volatile long size = -1;
+
+        FrozenRoot(INode root) {
+            this.root = root;
+        }
+    }
+
+    private static final class RDCSSDescriptor {
+        private static final VarHandle COMMITTED;
+
+        final INode old;
+        final MainNode expectedMain;
+        final INode update;
+        /**
+         * Decided once by the first thread completing the descriptor and followed by all the others,
+         * {@code null} until then.
+         */
+        volatile Boolean committed;
+
+        RDCSSDescriptor(INode old, MainNode expectedMain, INode update) {
+            this.old = old;
+            this.expectedMain = expectedMain;
+            this.update = update;
+        }
+
+        boolean decide(boolean commit) {
+            COMMITTED.compareAndSet(this, (Boolean) null, Boolean.valueOf(commit));
+            return committed;
+        }
+
+        static {
+            try {
+                COMMITTED = MethodHandles.lookup().findVarHandle(RDCSSDescriptor.class, "committed",
+                        Boolean.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+
+    private final class SnapshotIterator implements ObjectIterator<E> {
+        private final AbstractConcurrentBinaryHashtable<K, V, E> owner;
+        private final Object[][] arrays = new Object[depth][];
+        private final int[] positions = new int[depth];
+        private int top;
+        private Object[] collisions;
+        private int collisionPos;
+        private E next;
+        private E last;
+
+        SnapshotIterator(AbstractConcurrentBinaryHashtable<K, V, E> owner) {
+            this.owner = owner;
+            this.arrays[0] = ((CNode) gcasRead(readRoot(false))).array;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            last = next;
+            advance();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+
+            owner.remove(last.getKey(), owner.hash(last), null);
+            last = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (true) {
+                if (collisions != null) {
+                    if (collisionPos < collisions.length) {
+                        next = (E) collisions[collisionPos++];
+                        return;
+                    }
+
+                    collisions = null;
+                }
+
+                if (top < 0) {
+                    next = null;
+                    return;
+                }
+
+                if (positions[top] == arrays[top].length) {
+                    top--;
+                    continue;
+                }
+
+                Object sub = arrays[top][positions[top]++];
+
+                if (!(sub instanceof INode in)) {
+                    next = (E) sub;
+                    return;
+                }
+
+                MainNode m = gcasRead(in);
+
+                if (m instanceof CNode cn) {
+                    arrays[++top] = cn.array;
+                    positions[top] = 0;
+                } else if (m instanceof TNode tn) {
+                    next = (E) tn.entry;
+                    return;
+                } else {
+                    collisions = ((LNode) m).entries;
+                    collisionPos = 0;
+                }
+            }
+        }
+    }
+
+    private final class Values extends AbstractObjectCollection<E> {
+        @Override
+        public ObjectIterator<E> iterator() {
+            return entryIterator();
+        }
+
+        @Override
+        public int size() {
+            return AbstractConcurrentBinaryHashtable.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return AbstractConcurrentBinaryHashtable.this.isEmpty();
+        }
+
+        @Override
+        public boolean add(E e) {
+            return !Objects.equals(e, AbstractConcurrentBinaryHashtable.this.put(e));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Map.Entry<?, ?> entry
+                    && AbstractConcurrentBinaryHashtable.this.remove(entry.getKey(), entry);
+        }
+
+        @Override
+        public void clear() {
+            AbstractConcurrentBinaryHashtable.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object v) {
+            return v instanceof Map.Entry<?, ?> entry
+                    && Objects.equals(AbstractConcurrentBinaryHashtable.this.get(entry.getKey()), entry);
+        }
+    }
+
+    private final class EntrySet extends AbstractObjectSet<Map.Entry<K, E>> {
+        @Override
+        public ObjectIterator<Map.Entry<K, E>> iterator() {
+            return new ObjectIterator<>() {
+                private final ObjectIterator<E> i = entryIterator();
+
+                @Override
+                public boolean hasNext() {
+                    return i.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, E> next() {
+                    return newK2EEntry(i.next());
+                }
+
+                @Override
+                public void remove() {
+                    i.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return AbstractConcurrentBinaryHashtable.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return AbstractConcurrentBinaryHashtable.this.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Map.Entry<?, ?> entry
+                    && Objects.equals(AbstractConcurrentBinaryHashtable.this.get(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Map.Entry<?, ?> entry
+                    && AbstractConcurrentBinaryHashtable.this.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            AbstractConcurrentBinaryHashtable.this.clear();
+        }
+    }
+
+    static {
+        try {
+            ROOT = MethodHandles.lookup().findVarHandle(AbstractConcurrentBinaryHashtable.class, "root",
+                    Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,597 @@
+package com.github.svegon.utils.hash;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.AbstractObject2ObjectMap;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A map which keeps its entries in a flat open-addressed table while it's small and migrates them
+ * into a compressed {@link ObjectBinaryHashtable} once it grows past a threshold, which defaults to
+ * {@link AbstractBinaryHashtable#MAX_EFFECTIVE_ENTRY_COUNT}. The trie never rehashes all of its entries
+ * as it grows and its branch factor isn't guessed up front but chosen from the number of distinct hashes
+ * of the keys, which weighs the footprint of the trie against the depth of its lookups. Shallow tries of
+ * large nodes only pay off for millions of distinct hashes. The choice is reconsidered whenever the map
+ * doubles in size.
+ *
+ * The map migrates back into a flat table once it shrinks below half the threshold, so a map whose
+ * size oscillates around the threshold doesn't migrate on every insertion.
+ *
+ * The iterators aren't fail-fast. Modifying the map other than through the iterator while iterating
+ * leaves the iteration undefined.
+ *
+ * The map is serialized as its entries and rebuilt when read. The strategy has to be serializable
+ * unless it's the default one.
+ */
+public final class AdaptiveBinaryHashMap<K, V> extends AbstractObject2ObjectMap<K, V> {
+    private static final long serialVersionUID = 1L;
+    /**
+     * The estimated footprint of an interior node excluding its bitmap and ranks: the node itself,
+     * the headers of its arrays and the slot referencing it from its parent.
+     */
+    private static final int NODE_OVERHEAD = 88;
+    /**
+     * The footprint per distinct hash, in bytes, worth one node less visited by every lookup. A visited
+     * node costs about a cache line loaded.
+     */
+    private static final double NODE_VISIT_COST = 64;
+    private static final int MIN_CAPACITY = 4;
+
+    /**
+     * Written by {@link #writeObject(ObjectOutputStream)}, as {@code null} if it's the default one.
+     */
+    private transient Hash.Strategy<? super K> strategy;
+    private final int trieThreshold;
+    /**
+     * The flat table or {@code null} while the entries are stored in the trie.
+     */
+    private transient Node[] slots;
+    private transient int mask;
+    private transient ObjectBinaryHashtable<K, V, Node> trie;
+    private int size;
+    /**
+     * The size at which the branch factor of the trie has been chosen.
+     */
+    private transient int tunedSize;
+    private transient ObjectSet<Object2ObjectMap.Entry<K, V>> entrySet;
+
+    /**
+     * @param trieThreshold the size above which the entries are migrated into a trie
+     */
+    public AdaptiveBinaryHashMap(int trieThreshold, @Nullable Hash.Strategy<? super K> strategy) {
+        Preconditions.checkArgument(trieThreshold > 0);
+
+        this.strategy = strategy != null ? strategy : HashUtil.defaultStrategy();
+        this.trieThreshold = trieThreshold;
+        allocateSlots(MIN_CAPACITY);
+    }
+
+    public AdaptiveBinaryHashMap(@Nullable Hash.Strategy<? super K> strategy) {
+        this(AbstractBinaryHashtable.MAX_EFFECTIVE_ENTRY_COUNT, strategy);
+    }
+
+    public AdaptiveBinaryHashMap() {
+        this(null);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        Node node = find(key);
+
+        return node != null ? node.value : defRetValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        int hash = strategy.hashCode(key);
+
+        if (slots == null) {
+            Node node = trie.get(key);
+
+            if (node != null) {
+                return node.setValue(value);
+            }
+
+            trie.put(new Node(key, hash, value));
+
+            if (++size >= tunedSize << 1) {
+                tune();
+            }
+
+            return defRetValue;
+        }
+
+        int pos = HashCommon.mix(hash) & mask;
+
+        for (Node node; (node = slots[pos]) != null; pos = (pos + 1) & mask) {
+            if (node.hash == hash && strategy.equals(key, node.getKey())) {
+                return node.setValue(value);
+            }
+        }
+
+        slots[pos] = new Node(key, hash, value);
+
+        if (++size > trieThreshold) {
+            toTrie();
+        } else if (size > slots.length >> 1) {
+            resize(slots.length << 1);
+        }
+
+        return defRetValue;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node node;
+
+        if (slots == null) {
+            if ((node = trie.remove(key)) == null) {
+                return defRetValue;
+            }
+
+            if (--size < trieThreshold >> 1) {
+                toFlat();
+            }
+
+            return node.value;
+        }
+
+        int pos = indexOf(key);
+
+        if (pos < 0) {
+            return defRetValue;
+        }
+
+        node = slots[pos];
+        shiftSlots(pos, null);
+
+        if (--size < slots.length >> 3 && slots.length > MIN_CAPACITY) {
+            resize(slots.length >> 1);
+        }
+
+        return node.value;
+    }
+
+    @Override
+    public void clear() {
+        trie = null;
+        size = 0;
+        tunedSize = 0;
+        allocateSlots(MIN_CAPACITY);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (slots == null) {
+            trie.fastForEach((node) -> action.accept(node.getKey(), node.value));
+            return;
+        }
+
+        for (Node node : slots) {
+            if (node != null) {
+                action.accept(node.getKey(), node.value);
+            }
+        }
+    }
+
+    @Override
+    public ObjectSet<Object2ObjectMap.Entry<K, V>> object2ObjectEntrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+
+        return entrySet;
+    }
+
+    /**
+     * @return whether the entries are currently stored in the flat table
+     */
+    public boolean isFlat() {
+        return slots != null;
+    }
+
+    /**
+     * @return the branch factor of the trie holding the entries or -1 if the map is flat
+     */
+    public int branchFactor() {
+        return slots == null ? trie.branchFactor() : -1;
+    }
+
+    public Hash.Strategy<? super K> getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Chooses the branch factor of a trie holding keys of the given number of distinct hashes.
+     *
+     * The footprint of a compressed trie of each branch factor is estimated assuming the hashes are
+     * spread uniformly. Every lookup visits a node per level, so the trie with the lowest footprint per
+     * distinct hash plus {@link #NODE_VISIT_COST} per level wins. Below a few million distinct hashes
+     * that is the default branch factor, as the bitmaps of the wider nodes outweigh the levels saved.
+     */
+    static int chooseBranchFactor(long distinctHashes) {
+        Preconditions.checkArgument(distinctHashes > 0, "Illegal count: " + distinctHashes);
+
+        int chosen = AbstractBinaryHashtable.DEFAULT_BRANCH_FACTOR;
+        double lowestCost = Double.POSITIVE_INFINITY;
+
+        for (int branchFactor = 0; branchFactor < AbstractBinaryHashtable.BRANCH_FACTOR_LIMIT; branchFactor++) {
+            int coveredBits = 1 << branchFactor;
+            int depth = Integer.SIZE / coveredBits;
+            double branching = 1L << coveredBits;
+            double levelNodes = 1;
+            double nodes = 1;
+
+            for (int level = 1; level < depth; level++) {
+                levelNodes *= branching;
+                nodes += Math.min(distinctHashes, levelNodes);
+            }
+
+            double nodeFootprint = NODE_OVERHEAD + Math.ceil(branching / Long.SIZE) * (Long.BYTES + Integer.BYTES);
+            double cost = nodes * nodeFootprint / distinctHashes + depth * NODE_VISIT_COST;
+
+            if (cost < lowestCost) {
+                lowestCost = cost;
+                chosen = branchFactor;
+            }
+        }
+
+        return chosen;
+    }
+
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        s.writeObject(strategy == HashUtil.defaultStrategy() ? null : strategy);
+
+        int n = size;
+
+        // the iterator would stop early if the map was modified while being written
+        for (ObjectIterator<Object2ObjectMap.Entry<K, V>> it = object2ObjectEntrySet().iterator(); n-- != 0; ) {
+            Object2ObjectMap.Entry<K, V> entry = it.next();
+            s.writeObject(entry.getKey());
+            s.writeObject(entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+
+        Hash.Strategy<? super K> strategy = (Hash.Strategy<? super K>) s.readObject();
+        this.strategy = strategy != null ? strategy : HashUtil.defaultStrategy();
+
+        int n = size;
+        size = 0;
+        allocateSlots(n <= trieThreshold ? Math.max(MIN_CAPACITY, HashCommon.arraySize(n, 0.5f)) : MIN_CAPACITY);
+
+        while (n-- != 0) {
+            put((K) s.readObject(), (V) s.readObject());
+        }
+    }
+
+    private Node find(Object key) {
+        if (slots == null) {
+            return trie.get(key);
+        }
+
+        int pos = indexOf(key);
+        return pos >= 0 ? slots[pos] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int indexOf(Object key) {
+        K k;
+        int hash;
+
+        try {
+            k = (K) key;
+            hash = strategy.hashCode(k);
+        } catch (ClassCastException notKeyClass) {
+            return -1;
+        }
+
+        for (int pos = HashCommon.mix(hash) & mask; slots[pos] != null; pos = (pos + 1) & mask) {
+            Node node = slots[pos];
+
+            if (node.hash == hash && strategy.equals(k, node.getKey())) {
+                return pos;
+            }
+        }
+
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocateSlots(int capacity) {
+        slots = (Node[]) new AdaptiveBinaryHashMap<?, ?>.Node[capacity];
+        mask = capacity - 1;
+    }
+
+    private void insertFlat(Node node) {
+        int pos = HashCommon.mix(node.hash) & mask;
+
+        while (slots[pos] != null) {
+            pos = (pos + 1) & mask;
+        }
+
+        slots[pos] = node;
+    }
+
+    private void resize(int capacity) {
+        Node[] old = slots;
+        allocateSlots(capacity);
+
+        for (Node node : old) {
+            if (node != null) {
+                insertFlat(node);
+            }
+        }
+    }
+
+    /**
+     * Empties the slot at the given position by shifting the following entries of its cluster back.
+     *
+     * @param wrapped collects the entries moved from the start of the table behind the emptied slot
+     *                or {@code null} if the table isn't being iterated
+     */
+    private void shiftSlots(int pos, @Nullable ObjectArrayList<Node> wrapped) {
+        for (;;) {
+            int last = pos;
+            Node node;
+
+            for (pos = (pos + 1) & mask; ; pos = (pos + 1) & mask) {
+                if ((node = slots[pos]) == null) {
+                    slots[last] = null;
+                    return;
+                }
+
+                int home = HashCommon.mix(node.hash) & mask;
+
+                if (last <= pos ? last >= home || home > pos : last >= home && home > pos) {
+                    break;
+                }
+            }
+
+            if (pos < last && wrapped != null) {
+                wrapped.add(node);
+            }
+
+            slots[last] = node;
+        }
+    }
+
+    private ObjectBinaryHashtable<K, V, Node> newTrie(int branchFactor) {
+        return new ObjectBinaryHashtable<>(branchFactor, true, strategy);
+    }
+
+    private void toTrie() {
+        int[] hashes = new int[size];
+        int n = 0;
+
+        for (Node node : slots) {
+            if (node != null) {
+                hashes[n++] = node.hash;
+            }
+        }
+
+        Arrays.sort(hashes);
+        long distinctHashes = 1;
+
+        for (int i = 1; i < n; i++) {
+            if (hashes[i] != hashes[i - 1]) {
+                distinctHashes++;
+            }
+        }
+
+        ObjectArrayList<Node> nodes = new ObjectArrayList<>(size);
+
+        for (Node node : slots) {
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+
+        trie = newTrie(chooseBranchFactor(distinctHashes));
+        trie.putAll(nodes, false);
+        slots = null;
+        tunedSize = size;
+    }
+
+    private void tune() {
+        int branchFactor = chooseBranchFactor(trie.statistics().getOccupiedLeaves());
+
+        if (branchFactor != trie.branchFactor()) {
+            ObjectBinaryHashtable<K, V, Node> tuned = newTrie(branchFactor);
+            tuned.mergeFrom(trie);
+            trie = tuned;
+        }
+
+        tunedSize = size;
+    }
+
+    private void toFlat() {
+        allocateSlots(Math.max(MIN_CAPACITY, HashCommon.nextPowerOfTwo(size << 1)));
+        trie.fastForEach(this::insertFlat);
+        trie = null;
+    }
+
+    private final class Node extends ObjectBinaryHashtable.Entry<K, V, Node> {
+        private final int hash;
+        private V value;
+
+        private Node(K key, int hash, V value) {
+            super(null, key);
+            this.hash = hash;
+            this.value = value;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.value;
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            try {
+                return strategy.equals(getKey(), (K) entry.getKey()) && Objects.equals(value, entry.getValue());
+            } catch (ClassCastException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash ^ Objects.hashCode(value);
+        }
+    }
+
+    private final class FlatIterator implements ObjectIterator<Object2ObjectMap.Entry<K, V>> {
+        private final ObjectArrayList<Node> wrapped = new ObjectArrayList<>();
+        private int pos = slots.length;
+        private int remaining = size;
+        private Node last;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Object2ObjectMap.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            remaining--;
+
+            for (;;) {
+                if (--pos < 0) {
+                    return last = wrapped.get(-pos - 1);
+                }
+
+                if (slots[pos] != null) {
+                    return last = slots[pos];
+                }
+            }
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+
+            if (pos >= 0) {
+                shiftSlots(pos, wrapped);
+            } else {
+                shiftSlots(indexOf(last.getKey()), null);
+            }
+
+            size--;
+            last = null;
+        }
+    }
+
+    private final class TrieIterator implements ObjectIterator<Object2ObjectMap.Entry<K, V>> {
+        private final ObjectIterator<Node> i = trie.entryIterator();
+
+        @Override
+        public boolean hasNext() {
+            return i.hasNext();
+        }
+
+        @Override
+        public Object2ObjectMap.Entry<K, V> next() {
+            return i.next();
+        }
+
+        @Override
+        public void remove() {
+            i.remove();
+            size--;
+        }
+    }
+
+    private final class EntrySet extends AbstractObjectSet<Object2ObjectMap.Entry<K, V>> {
+        @Override
+        public ObjectIterator<Object2ObjectMap.Entry<K, V>> iterator() {
+            return slots != null ? new FlatIterator() : new TrieIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            Node node = find(entry.getKey());
+            return node != null && Objects.equals(node.value, entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+
+            AdaptiveBinaryHashMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            AdaptiveBinaryHashMap.this.clear();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.svegon.utils.hash;
+
+import net.jcip.annotations.Immutable;
+
+import java.util.Arrays;
+
+/**
+ * A point in time description of the shape of an {@link AbstractBinaryHashtable}.
+ *
+ * The table keeps the underlying counters up to date on every insertion and removal, so obtaining
+ * the statistics never traverses the table. They are meant to spot strategies distributing the keys
+ * poorly and to size tables of long-running applications.
+ */
+@Immutable
+public final class BinaryHashtableStatistics {
+    private final long size;
+    private final long occupiedLeaves;
+    private final double[] levelFillRatios;
+    private final long[] collisionHistogram;
+
+    BinaryHashtableStatistics(long size, double[] levelFillRatios, long[] collisionHistogram) {
+        long occupiedLeaves = 0;
+
+        for (int i = 1; i < collisionHistogram.length; i++) {
+            occupiedLeaves += collisionHistogram[i];
+        }
+
+        this.size = size;
+        this.occupiedLeaves = occupiedLeaves;
+        this.levelFillRatios = levelFillRatios;
+        this.collisionHistogram = collisionHistogram;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of leaves holding at least one entry
+     */
+    public long getOccupiedLeaves() {
+        return occupiedLeaves;
+    }
+
+    public int getMaxBucketLength() {
+        int i = collisionHistogram.length - 1;
+
+        while (i > 0 && collisionHistogram[i] == 0) {
+            i--;
+        }
+
+        return i;
+    }
+
+    /**
+     * @return the mean number of entries in an occupied leaf, 1 for tables without any collision
+     */
+    public double getMeanBucketLength() {
+        return occupiedLeaves == 0 ? 0 : (double) size / occupiedLeaves;
+    }
+
+    /**
+     * The ratio of used slots of the nodes at each level of the tree. The first element describes
+     * the root and the last one the nodes holding the leaves.
+     *
+     * @return a copy of the fill ratios indexed by level
+     */
+    public double[] getLevelFillRatios() {
+        return levelFillRatios.clone();
+    }
+
+    /**
+     * The number of leaves of each length. The element at index 0 counts the empty leaves kept
+     * by tables that aren't compressed.
+     *
+     * @return a copy of the histogram indexed by the bucket length
+     */
+    public long[] getCollisionHistogram() {
+        return Arrays.copyOf(collisionHistogram, getMaxBucketLength() + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryHashtableStatistics{size=" + size + ", occupiedLeaves=" + occupiedLeaves
+                + ", maxBucketLength=" + getMaxBucketLength() + ", meanBucketLength=" + getMeanBucketLength()
+                + ", levelFillRatios=" + Arrays.toString(levelFillRatios) + ", collisionHistogram="
+                + Arrays.toString(getCollisionHistogram()) + "}";
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.svegon.utils.hash;
+
+/**
+ * An interior node of a compressed {@link AbstractBinaryHashtable}.
+ *
+ * Only the occupied slots are stored. The children are kept in a dense array ordered by slot index
+ * and a slot is resolved by counting the set bits of the bitmap below it. The first element of the
+ * dense array is always {@code null}, so an absent slot can be resolved without branching by
+ * multiplying its position with the slot's presence bit.
+ */
+final class BitmapNode {
+    private static final Object[] EMPTY_CHILDREN = new Object[1];
+
+    final long[] bitmap;
+    /**
+     * The number of children stored before each word of the bitmap.
+     */
+    final int[] ranks;
+    Object[] children = EMPTY_CHILDREN;
+    /**
+     * The token of the table which may modify this node in place.
+     */
+    final Object owner;
+
+    BitmapNode(int branching, Object owner) {
+        int words = (branching + Long.SIZE - 1) >>> 6;
+
+        this.bitmap = new long[words];
+        this.ranks = new int[words];
+        this.owner = owner;
+    }
+
+    /**
+     * @param children the children of the occupied slots ordered by slot index and preceded
+     *                 by the {@code null} sentinel
+     */
+    BitmapNode(long[] bitmap, Object[] children, Object owner) {
+        this.bitmap = bitmap;
+        this.ranks = new int[bitmap.length];
+        this.children = children.length == 1 ? EMPTY_CHILDREN : children;
+        this.owner = owner;
+
+        for (int i = 1; i < bitmap.length; i++) {
+            ranks[i] = ranks[i - 1] + Long.bitCount(bitmap[i - 1]);
+        }
+    }
+
+    private BitmapNode(BitmapNode source, Object owner) {
+        this.bitmap = source.bitmap.clone();
+        this.ranks = source.ranks.clone();
+        this.children = source.children.length == 1 ? EMPTY_CHILDREN : source.children.clone();
+        this.owner = owner;
+    }
+
+    Object get(int index) {
+        int word = index >>> 6;
+        long bits = bitmap[word];
+        int present = (int) (bits >>> index) & 1;
+
+        return children[(ranks[word] + Long.bitCount(bits & ~(-1L << index)) + 1) * present];
+    }
+
+    void set(int index, Object child) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        int pos = ranks[word] + Long.bitCount(bitmap[word] & (bit - 1)) + 1;
+
+        if ((bitmap[word] & bit) != 0) {
+            children[pos] = child;
+            return;
+        }
+
+        Object[] grown = new Object[children.length + 1];
+        System.arraycopy(children, 0, grown, 0, pos);
+        grown[pos] = child;
+        System.arraycopy(children, pos, grown, pos + 1, children.length - pos);
+        children = grown;
+        bitmap[word] |= bit;
+
+        for (int i = word + 1; i < ranks.length; i++) {
+            ranks[i]++;
+        }
+    }
+
+    void remove(int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+
+        if ((bitmap[word] & bit) == 0) {
+            return;
+        }
+
+        int pos = ranks[word] + Long.bitCount(bitmap[word] & (bit - 1)) + 1;
+
+        if (children.length == 2) {
+            children = EMPTY_CHILDREN;
+        } else {
+            Object[] shrunk = new Object[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, pos);
+            System.arraycopy(children, pos + 1, shrunk, pos, shrunk.length - pos);
+            children = shrunk;
+        }
+
+        bitmap[word] &= ~bit;
+
+        for (int i = word + 1; i < ranks.length; i++) {
+            ranks[i]--;
+        }
+    }
+
+    BitmapNode copy(Object owner) {
+        return new BitmapNode(this, owner);
+    }
+
+    int size() {
+        return children.length - 1;
+    }
+
+    boolean isEmpty() {
+        return children.length == 1;
+    }
+}
@@ -0,0 +1,410 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSpliterator;
+import it.unimi.dsi.fastutil.bytes.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+public final class ByteBinaryHashtable<V, E extends ByteBinaryHashtable.Entry<V, E>>
+        extends AbstractBinaryHashtable<Byte, V, E> implements Byte2ObjectMap<E> {
+    private final ByteSet keySet = initKeySet();
+    private final ObjectSet<Byte2ObjectMap.Entry<E>> entrySet = initByteEntrySet();
+    private final ByteHash.Strategy strategy;
+
+    /**
+     * @param compressed whether interior nodes should only store their occupied slots, which makes
+     *                   the footprint of sparse tables proportional to their size rather than to
+     *                   {@code branching ** depth}
+     */
+    public ByteBinaryHashtable(int branchFactor, boolean compressed, @Nullable ByteHash.Strategy strategy) {
+        super(branchFactor, compressed);
+        this.strategy = strategy != null ? strategy : HashUtil.defaultByteStrategy();
+    }
+
+    public ByteBinaryHashtable(int branchFactor, @Nullable ByteHash.Strategy strategy) {
+        this(branchFactor, false, strategy);
+    }
+
+    public ByteBinaryHashtable(@Nullable ByteHash.Strategy strategy) {
+        this(DEFAULT_BRANCH_FACTOR, strategy);
+    }
+
+    public ByteBinaryHashtable() {
+        this(null);
+    }
+
+    @Deprecated
+    @Override
+    public E get(Object key) {
+        return key instanceof Byte ? get((byte) key) : null;
+    }
+
+    @Deprecated
+    @Override
+    public E remove(Object key) {
+        return key instanceof Byte ? remove((byte) key) : defaultReturnValue();
+    }
+
+    @Deprecated
+    @Override
+    public E put(Byte key, final @NotNull E value) {
+        return put((byte) key, value);
+    }
+
+    @Deprecated
+    @Override
+    public E getOrDefault(Object key, final @Nullable E defaultValue) {
+        return key instanceof Byte ? getOrDefault((byte) key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    protected ByteLeaf newLeaf() {
+        return new ByteLeaf();
+    }
+
+    @Override
+    protected int hash(E entry) {
+        return strategy.hashCode(entry.getByteKey());
+    }
+
+    @Override
+    protected Byte2EntryEntry<V, E> newK2EEntry(E entry) {
+        return new Byte2EntryEntry<V, E>(this, entry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(byte key) {
+        ByteLeaf leaf = (ByteLeaf) findLeaf(strategy.hashCode(key));
+        int i;
+
+        return leaf != null && (i = leaf.indexOf(key, strategy)) >= 0 ? (E) leaf.entries[i] : null;
+    }
+
+    @Override
+    public E put(byte key, final @NotNull E value) {
+        return value.getByteKey() == key ? put(value) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(byte key) {
+        int hash = strategy.hashCode(key);
+        ByteLeaf leaf = (ByteLeaf) findLeaf(hash);
+        int i;
+
+        if (leaf == null || (i = leaf.indexOf(key, strategy)) < 0) {
+            return null;
+        }
+
+        leaf = (ByteLeaf) editableLeaf(leaf, hash);
+        E entry = (E) leaf.removeAt(i);
+        entryRemoved(leaf);
+        pruneLeaf(hash);
+        return entry;
+    }
+
+    @Override
+    public E getOrDefault(byte key, final @Nullable E defaultValue) {
+        E value = get(key);
+
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public E putIfAbsent(byte key, final E value) {
+        return computeIfAbsent(key, (k) -> value);
+    }
+
+    @Override
+    public boolean replace(byte key, E oldValue, E newValue) {
+        E curValue = get(key);
+
+        if (!Objects.equals(curValue, oldValue)) {
+            return false;
+        }
+
+        put(key, newValue);
+        return true;
+    }
+
+    @Override
+    public E replace(byte key, E value) {
+        E curValue = null;
+
+        if (containsKey(key)) {
+            curValue = put(key, value);
+        }
+
+        return curValue;
+    }
+
+    @Override
+    public void defaultReturnValue(E rv) {
+        if (rv != defaultReturnValue()) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public E defaultReturnValue() {
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public ByteSet keySet() {
+        return keySet;
+    }
+
+    @Override
+    public ObjectSet<Byte2ObjectMap.Entry<E>> byte2ObjectEntrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public boolean containsKey(byte key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    E putIn(Leaf leaf, E entry) {
+        byte key = entry.getByteKey();
+        ByteLeaf keyed = (ByteLeaf) leaf;
+        int i = keyed.indexOf(key, strategy);
+
+        if (i >= 0) {
+            return (E) keyed.set(i, key, entry);
+        }
+
+        keyed.add(key, entry);
+        return null;
+    }
+
+    @Override
+    boolean hashesLike(AbstractBinaryHashtable<?, ?, ?> other) {
+        return other instanceof ByteBinaryHashtable<?, ?> table && table.strategy.equals(strategy);
+    }
+
+    public ByteHash.Strategy getStrategy() {
+        return strategy;
+    }
+
+    private ByteSet initKeySet() {
+        return new KeySet<>(this);
+    }
+
+    private ObjectSet<Byte2ObjectMap.Entry<E>> initByteEntrySet() {
+        return new EntrySet<>(this);
+    }
+
+    public static abstract class Entry<V, E extends Entry<V, E>> implements Byte2ObjectMap.Entry<V> {
+        final ByteBinaryHashtable<V, E> table;
+        final byte key;
+
+        protected Entry(ByteBinaryHashtable<V, E> table, byte key, V value) {
+            this.table = table;
+            this.key = key;
+        }
+
+        @Override
+        public final byte getByteKey() {
+            return key;
+        }
+
+        @Deprecated
+        @Override
+        public final Byte getKey() {
+            return Byte2ObjectMap.Entry.super.getKey();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Byte2ObjectMap.Entry<?> entry)) {
+                return false;
+            }
+
+            return table.strategy.equals(getByteKey(), entry.getByteKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return table.strategy.hashCode(getByteKey()) ^ Objects.hashCode(getValue());
+        }
+    }
+
+    private static final class Byte2EntryEntry<V, E extends Entry<V, E>>
+            extends AbstractBinaryHashtable.Key2EntryEntry<Byte, V, E> implements Byte2ObjectMap.Entry<E> {
+        private final ByteBinaryHashtable<V, E> ref;
+
+        public Byte2EntryEntry(ByteBinaryHashtable<V, E> ref, E entry) {
+            super(entry);
+            this.ref = ref;
+        }
+
+        @Override
+        public byte getByteKey() {
+            return entry.getByteKey();
+        }
+
+        @Override
+        protected boolean keysEqual(Map.Entry<Byte, ?> value) {
+            return ref.strategy.equals(value instanceof Byte2ObjectMap.Entry<?>
+                    ? ((Byte2ObjectMap.Entry<?>) value).getByteKey() : value.getKey(), getByteKey());
+        }
+
+        @Override
+        protected int keyHashCode() {
+            return ref.strategy.hashCode(getByteKey());
+        }
+    }
+
+    private static final class KeySet<V, E extends Entry<V, E>> extends AbstractByteSet {
+        private final ByteBinaryHashtable<V, E> ref;
+
+        private KeySet(ByteBinaryHashtable<V, E> ref) {
+            this.ref = ref;
+        }
+
+        public @NotNull ByteIterator iterator() {
+            return new ByteIterator() {
+                private final ObjectIterator<E> i = ref.entryIterator();
+
+                public boolean hasNext() {
+                    return i.hasNext();
+                }
+
+                @Override
+                public byte nextByte() {
+                    return i.next().getByteKey();
+                }
+
+                public void remove() {
+                    i.remove();
+                }
+            };
+        }
+
+        @Override
+        public ByteSpliterator spliterator() {
+            return new KeySpliterator<>(ref.entrySpliterator());
+        }
+
+        @Override
+        public void forEach(ByteConsumer action) {
+            ref.fastForEach((entry) -> action.accept(entry.getByteKey()));
+        }
+
+        public int size() {
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
+        }
+
+        public boolean isEmpty() {
+            return ref.isEmpty();
+        }
+
+        public void clear() {
+            ref.clear();
+        }
+
+        public boolean contains(byte k) {
+            return ref.containsKey(k);
+        }
+    }
+
+    private static final class KeySpliterator<V, E extends Entry<V, E>> implements ByteSpliterator {
+        private final ObjectSpliterator<E> entries;
+
+        private KeySpliterator(ObjectSpliterator<E> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean tryAdvance(ByteConsumer action) {
+            return entries.tryAdvance((entry) -> action.accept(entry.getByteKey()));
+        }
+
+        @Override
+        public void forEachRemaining(ByteConsumer action) {
+            entries.forEachRemaining((entry) -> action.accept(entry.getByteKey()));
+        }
+
+        @Override
+        public ByteSpliterator trySplit() {
+            ObjectSpliterator<E> prefix = entries.trySplit();
+            return prefix != null ? new KeySpliterator<>(prefix) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return entries.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return entries.characteristics();
+        }
+    }
+
+    private static final class EntrySet<V, E extends Entry<V, E>> extends AbstractObjectSet<Byte2ObjectMap.Entry<E>> {
+        private final ByteBinaryHashtable<V, E> ref;
+
+        private EntrySet(ByteBinaryHashtable<V, E> ref) {
+            this.ref = ref;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ref.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            return Objects.equals(ref.get(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ObjectIterator<Byte2ObjectMap.Entry<E>> iterator() {
+            return (ObjectIterator<Byte2ObjectMap.Entry<E>>) (Object) ref.entrySet().iterator();
+        }
+
+        @Override
+        public ObjectSpliterator<Byte2ObjectMap.Entry<E>> spliterator() {
+            return new MappedSpliterator<>(ref.entrySpliterator(), ref::newK2EEntry);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            return ref.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            ref.clear();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.bytes.ByteHash;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Leaf} of a {@link ByteBinaryHashtable} keeping the keys packed next to the entries
+ * so probing the bucket doesn't have to dereference them.
+ */
+final class ByteLeaf extends Leaf {
+    byte[] keys;
+
+    ByteLeaf() {
+        this.keys = new byte[1];
+    }
+
+    private ByteLeaf(ByteLeaf source, Object owner) {
+        super(source, owner);
+        this.keys = source.keys.clone();
+    }
+
+    int indexOf(byte key, ByteHash.Strategy strategy) {
+        byte[] keys = this.keys;
+        int size = this.size;
+
+        if (strategy == HashUtil.defaultByteStrategy()) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (strategy.equals(key, keys[i])) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    Object set(int index, byte key, Object entry) {
+        keys[index] = key;
+        return set(index, entry);
+    }
+
+    void add(byte key, Object entry) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, grownCapacity());
+        }
+
+        keys[size] = key;
+        add(entry);
+    }
+
+    @Override
+    ByteLeaf copy(Object owner) {
+        return new ByteLeaf(this, owner);
+    }
+
+    @Override
+    Object removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        return super.removeAt(index);
+    }
+}
@@ -0,0 +1,410 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSpliterator;
+import it.unimi.dsi.fastutil.chars.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+public final class CharBinaryHashtable<V, E extends CharBinaryHashtable.Entry<V, E>>
+        extends AbstractBinaryHashtable<Character, V, E> implements Char2ObjectMap<E> {
+    private final CharSet keySet = initKeySet();
+    private final ObjectSet<Char2ObjectMap.Entry<E>> entrySet = initCharEntrySet();
+    private final CharHash.Strategy strategy;
+
+    /**
+     * @param compressed whether interior nodes should only store their occupied slots, which makes
+     *                   the footprint of sparse tables proportional to their size rather than to
+     *                   {@code branching ** depth}
+     */
+    public CharBinaryHashtable(int branchFactor, boolean compressed, @Nullable CharHash.Strategy strategy) {
+        super(branchFactor, compressed);
+        this.strategy = strategy != null ? strategy : HashUtil.defaultCharStrategy();
+    }
+
+    public CharBinaryHashtable(int branchFactor, @Nullable CharHash.Strategy strategy) {
+        this(branchFactor, false, strategy);
+    }
+
+    public CharBinaryHashtable(@Nullable CharHash.Strategy strategy) {
+        this(DEFAULT_BRANCH_FACTOR, strategy);
+    }
+
+    public CharBinaryHashtable() {
+        this(null);
+    }
+
+    @Deprecated
+    @Override
+    public E get(Object key) {
+        return key instanceof Character ? get((char) key) : null;
+    }
+
+    @Deprecated
+    @Override
+    public E remove(Object key) {
+        return key instanceof Character ? remove((char) key) : defaultReturnValue();
+    }
+
+    @Deprecated
+    @Override
+    public E put(Character key, final @NotNull E value) {
+        return put((char) key, value);
+    }
+
+    @Deprecated
+    @Override
+    public E getOrDefault(Object key, final @Nullable E defaultValue) {
+        return key instanceof Character ? getOrDefault((char) key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    protected CharLeaf newLeaf() {
+        return new CharLeaf();
+    }
+
+    @Override
+    protected int hash(E entry) {
+        return strategy.hashCode(entry.getCharKey());
+    }
+
+    @Override
+    protected Char2EntryEntry<V, E> newK2EEntry(E entry) {
+        return new Char2EntryEntry<V, E>(this, entry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(char key) {
+        CharLeaf leaf = (CharLeaf) findLeaf(strategy.hashCode(key));
+        int i;
+
+        return leaf != null && (i = leaf.indexOf(key, strategy)) >= 0 ? (E) leaf.entries[i] : null;
+    }
+
+    @Override
+    public E put(char key, final @NotNull E value) {
+        return value.getCharKey() == key ? put(value) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(char key) {
+        int hash = strategy.hashCode(key);
+        CharLeaf leaf = (CharLeaf) findLeaf(hash);
+        int i;
+
+        if (leaf == null || (i = leaf.indexOf(key, strategy)) < 0) {
+            return null;
+        }
+
+        leaf = (CharLeaf) editableLeaf(leaf, hash);
+        E entry = (E) leaf.removeAt(i);
+        entryRemoved(leaf);
+        pruneLeaf(hash);
+        return entry;
+    }
+
+    @Override
+    public E getOrDefault(char key, final @Nullable E defaultValue) {
+        E value = get(key);
+
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public E putIfAbsent(char key, final E value) {
+        return computeIfAbsent(key, (k) -> value);
+    }
+
+    @Override
+    public boolean replace(char key, E oldValue, E newValue) {
+        E curValue = get(key);
+
+        if (!Objects.equals(curValue, oldValue)) {
+            return false;
+        }
+
+        put(key, newValue);
+        return true;
+    }
+
+    @Override
+    public E replace(char key, E value) {
+        E curValue = null;
+
+        if (containsKey(key)) {
+            curValue = put(key, value);
+        }
+
+        return curValue;
+    }
+
+    @Override
+    public void defaultReturnValue(E rv) {
+        if (rv != defaultReturnValue()) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public E defaultReturnValue() {
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public CharSet keySet() {
+        return keySet;
+    }
+
+    @Override
+    public ObjectSet<Char2ObjectMap.Entry<E>> char2ObjectEntrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public boolean containsKey(char key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    E putIn(Leaf leaf, E entry) {
+        char key = entry.getCharKey();
+        CharLeaf keyed = (CharLeaf) leaf;
+        int i = keyed.indexOf(key, strategy);
+
+        if (i >= 0) {
+            return (E) keyed.set(i, key, entry);
+        }
+
+        keyed.add(key, entry);
+        return null;
+    }
+
+    @Override
+    boolean hashesLike(AbstractBinaryHashtable<?, ?, ?> other) {
+        return other instanceof CharBinaryHashtable<?, ?> table && table.strategy.equals(strategy);
+    }
+
+    public CharHash.Strategy getStrategy() {
+        return strategy;
+    }
+
+    private CharSet initKeySet() {
+        return new KeySet<>(this);
+    }
+
+    private ObjectSet<Char2ObjectMap.Entry<E>> initCharEntrySet() {
+        return new EntrySet<>(this);
+    }
+
+    public static abstract class Entry<V, E extends Entry<V, E>> implements Char2ObjectMap.Entry<V> {
+        final CharBinaryHashtable<V, E> table;
+        final char key;
+
+        protected Entry(CharBinaryHashtable<V, E> table, char key, V value) {
+            this.table = table;
+            this.key = key;
+        }
+
+        @Override
+        public final char getCharKey() {
+            return key;
+        }
+
+        @Deprecated
+        @Override
+        public final Character getKey() {
+            return Char2ObjectMap.Entry.super.getKey();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Char2ObjectMap.Entry<?> entry)) {
+                return false;
+            }
+
+            return table.strategy.equals(getCharKey(), entry.getCharKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return table.strategy.hashCode(getCharKey()) ^ Objects.hashCode(getValue());
+        }
+    }
+
+    private static final class Char2EntryEntry<V, E extends Entry<V, E>>
+            extends AbstractBinaryHashtable.Key2EntryEntry<Character, V, E> implements Char2ObjectMap.Entry<E> {
+        private final CharBinaryHashtable<V, E> ref;
+
+        public Char2EntryEntry(CharBinaryHashtable<V, E> ref, E entry) {
+            super(entry);
+            this.ref = ref;
+        }
+
+        @Override
+        public char getCharKey() {
+            return entry.getCharKey();
+        }
+
+        @Override
+        protected boolean keysEqual(Map.Entry<Character, ?> value) {
+            return ref.strategy.equals(value instanceof Char2ObjectMap.Entry<?>
+                    ? ((Char2ObjectMap.Entry<?>) value).getCharKey() : value.getKey(), getCharKey());
+        }
+
+        @Override
+        protected int keyHashCode() {
+            return ref.strategy.hashCode(getCharKey());
+        }
+    }
+
+    private static final class KeySet<V, E extends Entry<V, E>> extends AbstractCharSet {
+        private final CharBinaryHashtable<V, E> ref;
+
+        private KeySet(CharBinaryHashtable<V, E> ref) {
+            this.ref = ref;
+        }
+
+        public @NotNull CharIterator iterator() {
+            return new CharIterator() {
+                private final ObjectIterator<E> i = ref.entryIterator();
+
+                public boolean hasNext() {
+                    return i.hasNext();
+                }
+
+                @Override
+                public char nextChar() {
+                    return i.next().getCharKey();
+                }
+
+                public void remove() {
+                    i.remove();
+                }
+            };
+        }
+
+        @Override
+        public CharSpliterator spliterator() {
+            return new KeySpliterator<>(ref.entrySpliterator());
+        }
+
+        @Override
+        public void forEach(CharConsumer action) {
+            ref.fastForEach((entry) -> action.accept(entry.getCharKey()));
+        }
+
+        public int size() {
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
+        }
+
+        public boolean isEmpty() {
+            return ref.isEmpty();
+        }
+
+        public void clear() {
+            ref.clear();
+        }
+
+        public boolean contains(char k) {
+            return ref.containsKey(k);
+        }
+    }
+
+    private static final class KeySpliterator<V, E extends Entry<V, E>> implements CharSpliterator {
+        private final ObjectSpliterator<E> entries;
+
+        private KeySpliterator(ObjectSpliterator<E> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean tryAdvance(CharConsumer action) {
+            return entries.tryAdvance((entry) -> action.accept(entry.getCharKey()));
+        }
+
+        @Override
+        public void forEachRemaining(CharConsumer action) {
+            entries.forEachRemaining((entry) -> action.accept(entry.getCharKey()));
+        }
+
+        @Override
+        public CharSpliterator trySplit() {
+            ObjectSpliterator<E> prefix = entries.trySplit();
+            return prefix != null ? new KeySpliterator<>(prefix) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return entries.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return entries.characteristics();
+        }
+    }
+
+    private static final class EntrySet<V, E extends Entry<V, E>> extends AbstractObjectSet<Char2ObjectMap.Entry<E>> {
+        private final CharBinaryHashtable<V, E> ref;
+
+        private EntrySet(CharBinaryHashtable<V, E> ref) {
+            this.ref = ref;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ref.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            return Objects.equals(ref.get(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ObjectIterator<Char2ObjectMap.Entry<E>> iterator() {
+            return (ObjectIterator<Char2ObjectMap.Entry<E>>) (Object) ref.entrySet().iterator();
+        }
+
+        @Override
+        public ObjectSpliterator<Char2ObjectMap.Entry<E>> spliterator() {
+            return new MappedSpliterator<>(ref.entrySpliterator(), ref::newK2EEntry);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            return ref.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            ref.clear();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.chars.CharHash;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Leaf} of a {@link CharBinaryHashtable} keeping the keys packed next to the entries
+ * so probing the bucket doesn't have to dereference them.
+ */
+final class CharLeaf extends Leaf {
+    char[] keys;
+
+    CharLeaf() {
+        this.keys = new char[1];
+    }
+
+    private CharLeaf(CharLeaf source, Object owner) {
+        super(source, owner);
+        this.keys = source.keys.clone();
+    }
+
+    int indexOf(char key, CharHash.Strategy strategy) {
+        char[] keys = this.keys;
+        int size = this.size;
+
+        if (strategy == HashUtil.defaultCharStrategy()) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (strategy.equals(key, keys[i])) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    Object set(int index, char key, Object entry) {
+        keys[index] = key;
+        return set(index, entry);
+    }
+
+    void add(char key, Object entry) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, grownCapacity());
+        }
+
+        keys[size] = key;
+        add(entry);
+    }
+
+    @Override
+    CharLeaf copy(Object owner) {
+        return new CharLeaf(this, owner);
+    }
+
+    @Override
+    Object removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        return super.removeAt(index);
+    }
+}
@@ -0,0 +1,221 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * A lock-free {@link ObjectBinaryHashtable}. The table can be shared between any number of threads
+ * without external synchronization, see {@link AbstractConcurrentBinaryHashtable} for the details.
+ */
+public final class ConcurrentObjectBinaryHashtable<K, V, E extends Map.Entry<K, V>>
+        extends AbstractConcurrentBinaryHashtable<K, V, E> implements Object2ObjectMap<K, E> {
+    private final ObjectSet<K> keySet = new KeySet();
+    private final Hash.Strategy<? super K> strategy;
+
+    public ConcurrentObjectBinaryHashtable(int branchFactor, @Nullable Hash.Strategy<? super K> strategy) {
+        super(branchFactor);
+        this.strategy = strategy != null ? strategy : HashUtil.defaultStrategy();
+    }
+
+    public ConcurrentObjectBinaryHashtable(@Nullable Hash.Strategy<? super K> strategy) {
+        this(AbstractBinaryHashtable.DEFAULT_BRANCH_FACTOR, strategy);
+    }
+
+    public ConcurrentObjectBinaryHashtable() {
+        this(null);
+    }
+
+    private ConcurrentObjectBinaryHashtable(ConcurrentObjectBinaryHashtable<K, V, E> source, INode root,
+                                            boolean readOnly, FrozenRoot frozen) {
+        super(source.branchFactor(), root, readOnly, frozen);
+        this.strategy = source.strategy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(Object key) {
+        K k;
+        Object bucket;
+
+        try {
+            k = (K) key;
+            bucket = findBucket(strategy.hashCode(k));
+        } catch (ClassCastException notKeyClass) {
+            return null;
+        }
+
+        if (bucket instanceof Object[] entries) {
+            for (Object entry : entries) {
+                if (strategy.equals(k, ((E) entry).getKey())) {
+                    return (E) entry;
+                }
+            }
+
+            return null;
+        }
+
+        return bucket != null && strategy.equals(k, ((E) bucket).getKey()) ? (E) bucket : null;
+    }
+
+    @Override
+    public E remove(Object key) {
+        try {
+            return remove(key, keyHash(key), null);
+        } catch (ClassCastException notKeyClass) {
+            return null;
+        }
+    }
+
+    @Override
+    public void defaultReturnValue(E rv) {
+        if (rv != defaultReturnValue()) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public E defaultReturnValue() {
+        return null;
+    }
+
+    @Override
+    public ObjectSet<K> keySet() {
+        return keySet;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ObjectSet<Object2ObjectMap.Entry<K, E>> object2ObjectEntrySet() {
+        return (ObjectSet<Object2ObjectMap.Entry<K, E>>) (Object) entrySet();
+    }
+
+    @Override
+    public ConcurrentObjectBinaryHashtable<K, V, E> snapshot() {
+        return (ConcurrentObjectBinaryHashtable<K, V, E>) super.snapshot();
+    }
+
+    @Override
+    public ConcurrentObjectBinaryHashtable<K, V, E> readOnlySnapshot() {
+        return (ConcurrentObjectBinaryHashtable<K, V, E>) super.readOnlySnapshot();
+    }
+
+    public Hash.Strategy<? super K> getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    ConcurrentObjectBinaryHashtable<K, V, E> newInstance(INode root, boolean readOnly, FrozenRoot frozen) {
+        return new ConcurrentObjectBinaryHashtable<>(this, root, readOnly, frozen);
+    }
+
+    @Override
+    protected Object2EntryEntry<K, V, E> newK2EEntry(E entry) {
+        return new Object2EntryEntry<>(strategy, entry);
+    }
+
+    @Override
+    protected int hash(E entry) {
+        return strategy.hashCode(entry.getKey());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected int keyHash(Object key) {
+        return strategy.hashCode((K) key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected boolean matches(E entry, Object key) {
+        try {
+            return strategy.equals((K) key, entry.getKey());
+        } catch (ClassCastException notKeyClass) {
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean sameKey(E a, E b) {
+        return strategy.equals(a.getKey(), b.getKey());
+    }
+
+    private static final class Object2EntryEntry<K, V, E extends Map.Entry<K, V>>
+            extends AbstractBinaryHashtable.Key2EntryEntry<K, V, E> implements Object2ObjectMap.Entry<K, E> {
+        private final Hash.Strategy<? super K> strategy;
+
+        public Object2EntryEntry(Hash.Strategy<? super K> strategy, E entry) {
+            super(entry);
+            this.strategy = strategy;
+        }
+
+        @Override
+        protected boolean keysEqual(Map.Entry<K, ?> value) {
+            return strategy.equals(getKey(), value.getKey());
+        }
+
+        @Override
+        protected int keyHashCode() {
+            return strategy.hashCode(getKey());
+        }
+
+        @Override
+        public K getKey() {
+            return entry.getKey();
+        }
+    }
+
+    private final class KeySet extends AbstractObjectSet<K> {
+        @Override
+        public ObjectIterator<K> iterator() {
+            return new ObjectIterator<>() {
+                private final ObjectIterator<E> i = entryIterator();
+
+                @Override
+                public boolean hasNext() {
+                    return i.hasNext();
+                }
+
+                @Override
+                public K next() {
+                    return i.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    i.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(ConcurrentObjectBinaryHashtable.this.size64(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ConcurrentObjectBinaryHashtable.this.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentObjectBinaryHashtable.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object k) {
+            return containsKey(k);
+        }
+
+        @Override
+        public boolean remove(Object k) {
+            return ConcurrentObjectBinaryHashtable.this.remove(k) != null;
+        }
+    }
+}
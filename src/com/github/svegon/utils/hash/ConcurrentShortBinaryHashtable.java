@@ -0,0 +1,291 @@
+package com.github.svegon.utils.hash;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.shorts.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A lock-free {@link ShortBinaryHashtable}. The table can be shared between any number of threads
+ * without external synchronization, see {@link AbstractConcurrentBinaryHashtable} for the details.
+ */
+public final class ConcurrentShortBinaryHashtable<V, E extends Short2ObjectMap.Entry<V>>
+        extends AbstractConcurrentBinaryHashtable<Short, V, E> implements Short2ObjectMap<E> {
+    private final ShortSet keySet = new KeySet();
+    private final ShortHash.Strategy strategy;
+
+    public ConcurrentShortBinaryHashtable(int branchFactor, @Nullable ShortHash.Strategy strategy) {
+        super(branchFactor);
+        this.strategy = strategy != null ? strategy : HashUtil.defaultShortStrategy();
+    }
+
+    public ConcurrentShortBinaryHashtable(@Nullable ShortHash.Strategy strategy) {
+        this(AbstractBinaryHashtable.DEFAULT_BRANCH_FACTOR, strategy);
+    }
+
+    public ConcurrentShortBinaryHashtable() {
+        this(null);
+    }
+
+    private ConcurrentShortBinaryHashtable(ConcurrentShortBinaryHashtable<V, E> source, INode root,
+                                           boolean readOnly, FrozenRoot frozen) {
+        super(source.branchFactor(), root, readOnly, frozen);
+        this.strategy = source.strategy;
+    }
+
+    @Deprecated
+    @Override
+    public E get(Object key) {
+        return key instanceof Short ? get((short) key) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(short key) {
+        Object bucket = findBucket(strategy.hashCode(key));
+
+        if (bucket instanceof Object[] entries) {
+            for (Object entry : entries) {
+                if (strategy.equals(key, ((E) entry).getShortKey())) {
+                    return (E) entry;
+                }
+            }
+
+            return null;
+        }
+
+        return bucket != null && strategy.equals(key, ((E) bucket).getShortKey()) ? (E) bucket : null;
+    }
+
+    @Deprecated
+    @Override
+    public E remove(Object key) {
+        return key instanceof Short ? remove((short) key) : null;
+    }
+
+    @Deprecated
+    @Override
+    public E put(Short key, final @NotNull E value) {
+        return put((short) key, value);
+    }
+
+    @Deprecated
+    @Override
+    public E getOrDefault(Object key, final @Nullable E defaultValue) {
+        return key instanceof Short ? getOrDefault((short) key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    public E remove(short key) {
+        return remove(key, strategy.hashCode(key), null);
+    }
+
+    @Override
+    public boolean remove(short key, Object value) {
+        return value != null && Objects.equals(remove(key, strategy.hashCode(key), value), value);
+    }
+
+    @Override
+    public E put(short key, final @NotNull E value) {
+        return strategy.equals(key, value.getShortKey()) ? put(value) : null;
+    }
+
+    @Override
+    public E getOrDefault(short key, final @Nullable E defaultValue) {
+        E value = get(key);
+
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public E putIfAbsent(short key, final @NotNull E value) {
+        return putIfAbsent((Short) key, value);
+    }
+
+    @Override
+    public boolean replace(short key, E oldValue, E newValue) {
+        return replace((Short) key, oldValue, newValue);
+    }
+
+    @Override
+    public E replace(short key, E value) {
+        return replace((Short) key, value);
+    }
+
+    /**
+     * Doesn't lock, the mapping function may therefore be called by several threads at once
+     * in which case only the result of the fastest one is inserted.
+     */
+    @Override
+    public E computeIfAbsent(short key, @NotNull IntFunction<? extends E> mappingFunction) {
+        Preconditions.checkNotNull(mappingFunction);
+        E current = get(key);
+
+        if (current != null) {
+            return current;
+        }
+
+        E computed = mappingFunction.apply(key);
+
+        if (computed == null) {
+            return null;
+        }
+
+        E previous = putIfAbsent(key, computed);
+        return previous != null ? previous : computed;
+    }
+
+    @Override
+    public boolean containsKey(short key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void defaultReturnValue(E rv) {
+        if (rv != defaultReturnValue()) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public E defaultReturnValue() {
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public ShortSet keySet() {
+        return keySet;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ObjectSet<Short2ObjectMap.Entry<E>> short2ObjectEntrySet() {
+        return (ObjectSet<Short2ObjectMap.Entry<E>>) (Object) entrySet();
+    }
+
+    @Override
+    public ConcurrentShortBinaryHashtable<V, E> snapshot() {
+        return (ConcurrentShortBinaryHashtable<V, E>) super.snapshot();
+    }
+
+    @Override
+    public ConcurrentShortBinaryHashtable<V, E> readOnlySnapshot() {
+        return (ConcurrentShortBinaryHashtable<V, E>) super.readOnlySnapshot();
+    }
+
+    public ShortHash.Strategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    ConcurrentShortBinaryHashtable<V, E> newInstance(INode root, boolean readOnly, FrozenRoot frozen) {
+        return new ConcurrentShortBinaryHashtable<>(this, root, readOnly, frozen);
+    }
+
+    @Override
+    protected Short2EntryEntry<V, E> newK2EEntry(E entry) {
+        return new Short2EntryEntry<>(strategy, entry);
+    }
+
+    @Override
+    protected int hash(E entry) {
+        return strategy.hashCode(entry.getShortKey());
+    }
+
+    @Override
+    protected int keyHash(Object key) {
+        return strategy.hashCode((Short) key);
+    }
+
+    @Override
+    protected boolean matches(E entry, Object key) {
+        return key instanceof Short k && strategy.equals(k, entry.getShortKey());
+    }
+
+    @Override
+    protected boolean sameKey(E a, E b) {
+        return strategy.equals(a.getShortKey(), b.getShortKey());
+    }
+
+    private static final class Short2EntryEntry<V, E extends Short2ObjectMap.Entry<V>>
+            extends AbstractBinaryHashtable.Key2EntryEntry<Short, V, E> implements Short2ObjectMap.Entry<E> {
+        private final ShortHash.Strategy strategy;
+
+        public Short2EntryEntry(ShortHash.Strategy strategy, E entry) {
+            super(entry);
+            this.strategy = strategy;
+        }
+
+        @Override
+        public short getShortKey() {
+            return entry.getShortKey();
+        }
+
+        @Override
+        protected boolean keysEqual(Map.Entry<Short, ?> value) {
+            return strategy.equals(value instanceof Short2ObjectMap.Entry<?>
+                    ? ((Short2ObjectMap.Entry<?>) value).getShortKey() : value.getKey(), getShortKey());
+        }
+
+        @Override
+        protected int keyHashCode() {
+            return strategy.hashCode(getShortKey());
+        }
+    }
+
+    private final class KeySet extends AbstractShortSet {
+        @Override
+        public @NotNull ShortIterator iterator() {
+            return new ShortIterator() {
+                private final ObjectIterator<E> i = entryIterator();
+
+                @Override
+                public boolean hasNext() {
+                    return i.hasNext();
+                }
+
+                @Override
+                public short nextShort() {
+                    return i.next().getShortKey();
+                }
+
+                @Override
+                public void remove() {
+                    i.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(ConcurrentShortBinaryHashtable.this.size64(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ConcurrentShortBinaryHashtable.this.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentShortBinaryHashtable.this.clear();
+        }
+
+        @Override
+        public boolean contains(short k) {
+            return containsKey(k);
+        }
+
+        @Override
+        public boolean remove(short k) {
+            return ConcurrentShortBinaryHashtable.this.remove(k) != null;
+        }
+    }
+}
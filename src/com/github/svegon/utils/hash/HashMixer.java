@@ -0,0 +1,57 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+/**
+ * A finalizer spreading the entropy of a hash over all of its bits, see
+ * {@link HashUtil#mixing(it.unimi.dsi.fastutil.Hash.Strategy, HashMixer)}. Binary hashtables index
+ * their root by the lowest bits of the hash, so strategies clustering keys in the low bits, like
+ * the default identity hashes of small primitives, should be mixed.
+ */
+public enum HashMixer {
+    /**
+     * The 32-bit finalizer of MurmurHash3, a bijection.
+     */
+    MURMUR3 {
+        @Override
+        public int mix(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            hash *= 0xc2b2ae35;
+            return hash ^ hash >>> 16;
+        }
+    },
+    /**
+     * {@link HashCommon#mix(int)}, a multiplication by the golden ratio folding its upper half onto
+     * the lower one, the cheapest of the mixers.
+     */
+    FASTUTIL {
+        @Override
+        public int mix(int hash) {
+            return HashCommon.mix(hash);
+        }
+    },
+    /**
+     * Two rounds of the multiply-and-fold step of wyhash seeded with the wyhash secrets, the strongest
+     * and the most expensive of the mixers.
+     */
+    WYHASH {
+        private static final long P0 = 0xa0761d6478bd642fL;
+        private static final long P1 = 0xe7037ed1a0b428dbL;
+
+        @Override
+        public int mix(int hash) {
+            long a = (hash & 0xFFFFFFFFL) | (long) hash << 32;
+            long folded = multiplyFold(a ^ P0, a ^ P1);
+            folded = multiplyFold(folded ^ P0, P1);
+            return (int) (folded ^ folded >>> 32);
+        }
+
+        private static long multiplyFold(long a, long b) {
+            return Math.multiplyHigh(a, b) ^ a * b;
+        }
+    };
+
+    public abstract int mix(int hash);
+}
@@ -0,0 +1,280 @@
+package com.github.svegon.utils.hash;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.bytes.ByteCollection;
+import it.unimi.dsi.fastutil.bytes.ByteHash;
+import it.unimi.dsi.fastutil.chars.CharCollection;
+import it.unimi.dsi.fastutil.chars.CharHash;
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import it.unimi.dsi.fastutil.ints.IntHash;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongHash;
+import it.unimi.dsi.fastutil.shorts.ShortCollection;
+import it.unimi.dsi.fastutil.shorts.ShortHash;
+import net.jcip.annotations.Immutable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Describes how well a strategy hashes a sample of keys, meant to pick a strategy and a
+ * {@link HashMixer} for a dataset.
+ *
+ * The distribution is measured over buckets indexed by the lowest bits of the hashes, which is
+ * how both the open hash maps and the roots of binary hashtables consume them. The avalanche bias
+ * is only measured for primitive keys, whose single bits can be flipped. It's the deviation of the
+ * probability that flipping an input bit flips an output bit from one half, 0 for an ideal mixer
+ * and 1 for an output bit that never or always follows the input bit.
+ */
+@Immutable
+public final class HashQualityReport {
+    private final int sampleSize;
+    private final int distinctHashes;
+    private final int bucketCount;
+    private final int occupiedBuckets;
+    private final int maxBucketLoad;
+    private final double chiSquared;
+    private final double[] bitFrequencies;
+    private final double maxAvalancheBias;
+    private final double meanAvalancheBias;
+
+    private HashQualityReport(int[] hashes, int bucketBits, double maxAvalancheBias, double meanAvalancheBias) {
+        int[] loads = new int[1 << bucketBits];
+        int mask = loads.length - 1;
+        double[] bitFrequencies = new double[Integer.SIZE];
+
+        for (int hash : hashes) {
+            loads[hash & mask]++;
+
+            for (int bit = 0; bit < Integer.SIZE; bit++) {
+                bitFrequencies[bit] += (hash >>> bit) & 1;
+            }
+        }
+
+        double expected = (double) hashes.length / loads.length;
+        double chiSquared = 0;
+        int occupiedBuckets = 0;
+        int maxBucketLoad = 0;
+
+        for (int load : loads) {
+            chiSquared += (load - expected) * (load - expected) / expected;
+            occupiedBuckets += load != 0 ? 1 : 0;
+            maxBucketLoad = Math.max(maxBucketLoad, load);
+        }
+
+        for (int bit = 0; bit < Integer.SIZE; bit++) {
+            bitFrequencies[bit] /= hashes.length;
+        }
+
+        int[] sorted = hashes.clone();
+        Arrays.sort(sorted);
+        int distinctHashes = 1;
+
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[i - 1]) {
+                distinctHashes++;
+            }
+        }
+
+        this.sampleSize = hashes.length;
+        this.distinctHashes = distinctHashes;
+        this.bucketCount = loads.length;
+        this.occupiedBuckets = occupiedBuckets;
+        this.maxBucketLoad = maxBucketLoad;
+        this.chiSquared = chiSquared;
+        this.bitFrequencies = bitFrequencies;
+        this.maxAvalancheBias = maxAvalancheBias;
+        this.meanAvalancheBias = meanAvalancheBias;
+    }
+
+    private HashQualityReport(int[] hashes, int bucketBits, double[] avalancheBias) {
+        this(hashes, bucketBits, avalancheBias[0], avalancheBias[1]);
+    }
+
+    /**
+     * Measures the distribution only, arbitrary objects can't be mutated bit by bit.
+     *
+     * @param bucketBits the number of the lowest bits of the hashes indexing the buckets
+     */
+    public static <T> HashQualityReport analyze(Collection<? extends T> sample, Hash.Strategy<? super T> strategy,
+                                                int bucketBits) {
+        checkArguments(sample, bucketBits);
+
+        int[] hashes = new int[sample.size()];
+        int i = 0;
+
+        for (T key : sample) {
+            hashes[i++] = strategy.hashCode(key);
+        }
+
+        return new HashQualityReport(hashes, bucketBits, Double.NaN, Double.NaN);
+    }
+
+    public static HashQualityReport analyze(ByteCollection sample, ByteHash.Strategy strategy, int bucketBits) {
+        checkArguments(sample, bucketBits);
+
+        byte[] keys = sample.toByteArray();
+        int[] hashes = new int[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = strategy.hashCode(keys[i]);
+        }
+
+        return new HashQualityReport(hashes, bucketBits, avalancheBias(hashes, Byte.SIZE,
+                (i, bit) -> strategy.hashCode((byte) (keys[i] ^ 1 << bit))));
+    }
+
+    public static HashQualityReport analyze(ShortCollection sample, ShortHash.Strategy strategy, int bucketBits) {
+        checkArguments(sample, bucketBits);
+
+        short[] keys = sample.toShortArray();
+        int[] hashes = new int[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = strategy.hashCode(keys[i]);
+        }
+
+        return new HashQualityReport(hashes, bucketBits, avalancheBias(hashes, Short.SIZE,
+                (i, bit) -> strategy.hashCode((short) (keys[i] ^ 1 << bit))));
+    }
+
+    public static HashQualityReport analyze(CharCollection sample, CharHash.Strategy strategy, int bucketBits) {
+        checkArguments(sample, bucketBits);
+
+        char[] keys = sample.toCharArray();
+        int[] hashes = new int[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = strategy.hashCode(keys[i]);
+        }
+
+        return new HashQualityReport(hashes, bucketBits, avalancheBias(hashes, Character.SIZE,
+                (i, bit) -> strategy.hashCode((char) (keys[i] ^ 1 << bit))));
+    }
+
+    public static HashQualityReport analyze(IntCollection sample, IntHash.Strategy strategy, int bucketBits) {
+        checkArguments(sample, bucketBits);
+
+        int[] keys = sample.toIntArray();
+        int[] hashes = new int[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = strategy.hashCode(keys[i]);
+        }
+
+        return new HashQualityReport(hashes, bucketBits, avalancheBias(hashes, Integer.SIZE,
+                (i, bit) -> strategy.hashCode(keys[i] ^ 1 << bit)));
+    }
+
+    public static HashQualityReport analyze(LongCollection sample, LongHash.Strategy strategy, int bucketBits) {
+        checkArguments(sample, bucketBits);
+
+        long[] keys = sample.toLongArray();
+        int[] hashes = new int[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = strategy.hashCode(keys[i]);
+        }
+
+        return new HashQualityReport(hashes, bucketBits, avalancheBias(hashes, Long.SIZE,
+                (i, bit) -> strategy.hashCode(keys[i] ^ 1L << bit)));
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public int getDistinctHashes() {
+        return distinctHashes;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public int getOccupiedBuckets() {
+        return occupiedBuckets;
+    }
+
+    public int getMaxBucketLoad() {
+        return maxBucketLoad;
+    }
+
+    /**
+     * @return the chi-squared statistic of the bucket loads against the uniform distribution,
+     * which stays around {@code bucketCount - 1} for a good strategy
+     */
+    public double getChiSquared() {
+        return chiSquared;
+    }
+
+    /**
+     * @return a copy of the ratios of hashes having each bit set, indexed by the bit
+     */
+    public double[] getBitFrequencies() {
+        return bitFrequencies.clone();
+    }
+
+    /**
+     * @return the worst avalanche bias over all pairs of input and output bits
+     * or {@link Double#NaN} if it hasn't been measured
+     */
+    public double getMaxAvalancheBias() {
+        return maxAvalancheBias;
+    }
+
+    /**
+     * @return the mean avalanche bias over all pairs of input and output bits
+     * or {@link Double#NaN} if it hasn't been measured
+     */
+    public double getMeanAvalancheBias() {
+        return meanAvalancheBias;
+    }
+
+    @Override
+    public String toString() {
+        return "HashQualityReport{sampleSize=" + sampleSize + ", distinctHashes=" + distinctHashes
+                + ", bucketCount=" + bucketCount + ", occupiedBuckets=" + occupiedBuckets + ", maxBucketLoad="
+                + maxBucketLoad + ", chiSquared=" + chiSquared + ", maxAvalancheBias=" + maxAvalancheBias
+                + ", meanAvalancheBias=" + meanAvalancheBias + "}";
+    }
+
+    private static void checkArguments(Collection<?> sample, int bucketBits) {
+        Preconditions.checkArgument(!sample.isEmpty());
+        Preconditions.checkArgument(0 <= bucketBits && bucketBits < Integer.SIZE - 1);
+    }
+
+    /**
+     * @param flippedHash the hash of the key at the given index with the given bit flipped
+     * @return the maximal and the mean bias
+     */
+    private static double[] avalancheBias(int[] hashes, int inputBits, IntBinaryOperator flippedHash) {
+        long[][] flips = new long[inputBits][Integer.SIZE];
+
+        for (int i = 0; i < hashes.length; i++) {
+            for (int in = 0; in < inputBits; in++) {
+                int difference = hashes[i] ^ flippedHash.applyAsInt(i, in);
+
+                for (int out = 0; out < Integer.SIZE; out++) {
+                    flips[in][out] += (difference >>> out) & 1;
+                }
+            }
+        }
+
+        double max = 0;
+        double sum = 0;
+
+        for (long[] row : flips) {
+            for (long count : row) {
+                double bias = Math.abs(2.0 * count / hashes.length - 1);
+
+                max = Math.max(max, bias);
+                sum += bias;
+            }
+        }
+
+        return new double[]{max, sum / (inputBits * Integer.SIZE)};
+    }
+}
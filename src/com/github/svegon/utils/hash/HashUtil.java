@@ -20,15 +20,118 @@ public final class HashUtil {
         throw new AssertionError();
     }
 
+    /**
+     * Dispatches on the runtime type of the arguments instead of wrapping them into an array
+     * for {@link Arrays#deepHashCode(Object[])}, but still hashes them just like it would.
+     */
     private static final Hash.Strategy<Object> ARRAY_REGARDING_STRATEGY = new Hash.Strategy<>() {
         @Override
         public int hashCode(Object o) {
-            return Arrays.deepHashCode(new Object[]{o});
+            return 31 + deepHashCode(o);
         }
 
         @Override
         public boolean equals(Object a, Object b) {
-            return Arrays.deepEquals(new Object[]{a}, new Object[]{b});
+            return deepEquals(a, b);
+        }
+    };
+    private static final Hash.Strategy<boolean[]> BOOLEAN_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(boolean[] o) {
+            return Arrays.hashCode(o);
+        }
+
+        @Override
+        public boolean equals(boolean[] a, boolean[] b) {
+            return Arrays.equals(a, b);
+        }
+    };
+    private static final Hash.Strategy<byte[]> BYTE_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(byte[] o) {
+            return Arrays.hashCode(o);
+        }
+
+        @Override
+        public boolean equals(byte[] a, byte[] b) {
+            return Arrays.equals(a, b);
+        }
+    };
+    private static final Hash.Strategy<short[]> SHORT_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(short[] o) {
+            return Arrays.hashCode(o);
+        }
+
+        @Override
+        public boolean equals(short[] a, short[] b) {
+            return Arrays.equals(a, b);
+        }
+    };
+    private static final Hash.Strategy<int[]> INT_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(int[] o) {
+            return Arrays.hashCode(o);
+        }
+
+        @Override
+        public boolean equals(int[] a, int[] b) {
+            return Arrays.equals(a, b);
+        }
+    };
+    private static final Hash.Strategy<long[]> LONG_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(long[] o) {
+            return Arrays.hashCode(o);
+        }
+
+        @Override
+        public boolean equals(long[] a, long[] b) {
+            return Arrays.equals(a, b);
+        }
+    };
+    private static final Hash.Strategy<char[]> CHAR_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(char[] o) {
+            return Arrays.hashCode(o);
+        }
+
+        @Override
+        public boolean equals(char[] a, char[] b) {
+            return Arrays.equals(a, b);
+        }
+    };
+    private static final Hash.Strategy<float[]> FLOAT_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(float[] o) {
+            return Arrays.hashCode(o);
+        }
+
+        @Override
+        public boolean equals(float[] a, float[] b) {
+            return Arrays.equals(a, b);
+        }
+    };
+    private static final Hash.Strategy<double[]> DOUBLE_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(double[] o) {
+            return Arrays.hashCode(o);
+        }
+
+        @Override
+        public boolean equals(double[] a, double[] b) {
+            return Arrays.equals(a, b);
+        }
+    };
+    private static final Hash.Strategy<Object[]> OBJECT_ARRAY_STRATEGY = new Hash.Strategy<>() {
+        @Override
+        public int hashCode(Object[] o) {
+            return Arrays.deepHashCode(o);
+        }
+
+        @Override
+        public boolean equals(Object[] a, Object[] b) {
+            return Arrays.deepEquals(a, b);
         }
     };
     private static final Hash.Strategy<Object> IDENTITY_STRATEGY = new Hash.Strategy<>() {
@@ -183,6 +286,96 @@ public final class HashUtil {
         return ARRAY_REGARDING_STRATEGY;
     }
 
+    /**
+     * @return a strategy hashing like the given one followed by the given mixer
+     */
+    public static <T> Hash.Strategy<T> mixing(Hash.Strategy<T> strategy, HashMixer mixer) {
+        return new MixingStrategy<>(strategy, mixer);
+    }
+
+    public static BooleanHash.Strategy mixing(BooleanHash.Strategy strategy, HashMixer mixer) {
+        return new MixingBooleanStrategy(strategy, mixer);
+    }
+
+    public static ByteHash.Strategy mixing(ByteHash.Strategy strategy, HashMixer mixer) {
+        return new MixingByteStrategy(strategy, mixer);
+    }
+
+    public static ShortHash.Strategy mixing(ShortHash.Strategy strategy, HashMixer mixer) {
+        return new MixingShortStrategy(strategy, mixer);
+    }
+
+    public static IntHash.Strategy mixing(IntHash.Strategy strategy, HashMixer mixer) {
+        return new MixingIntStrategy(strategy, mixer);
+    }
+
+    public static LongHash.Strategy mixing(LongHash.Strategy strategy, HashMixer mixer) {
+        return new MixingLongStrategy(strategy, mixer);
+    }
+
+    public static CharHash.Strategy mixing(CharHash.Strategy strategy, HashMixer mixer) {
+        return new MixingCharStrategy(strategy, mixer);
+    }
+
+    public static FloatHash.Strategy mixing(FloatHash.Strategy strategy, HashMixer mixer) {
+        return new MixingFloatStrategy(strategy, mixer);
+    }
+
+    public static DoubleHash.Strategy mixing(DoubleHash.Strategy strategy, HashMixer mixer) {
+        return new MixingDoubleStrategy(strategy, mixer);
+    }
+
+    public static Hash.Strategy<boolean[]> booleanArrayStrategy() {
+        return BOOLEAN_ARRAY_STRATEGY;
+    }
+
+    public static Hash.Strategy<byte[]> byteArrayStrategy() {
+        return BYTE_ARRAY_STRATEGY;
+    }
+
+    public static Hash.Strategy<short[]> shortArrayStrategy() {
+        return SHORT_ARRAY_STRATEGY;
+    }
+
+    public static Hash.Strategy<int[]> intArrayStrategy() {
+        return INT_ARRAY_STRATEGY;
+    }
+
+    public static Hash.Strategy<long[]> longArrayStrategy() {
+        return LONG_ARRAY_STRATEGY;
+    }
+
+    public static Hash.Strategy<char[]> charArrayStrategy() {
+        return CHAR_ARRAY_STRATEGY;
+    }
+
+    public static Hash.Strategy<float[]> floatArrayStrategy() {
+        return FLOAT_ARRAY_STRATEGY;
+    }
+
+    public static Hash.Strategy<double[]> doubleArrayStrategy() {
+        return DOUBLE_ARRAY_STRATEGY;
+    }
+
+    /**
+     * @return a strategy comparing the arrays as by {@link Arrays#deepEquals(Object[], Object[])}
+     */
+    public static Hash.Strategy<Object[]> objectArrayStrategy() {
+        return OBJECT_ARRAY_STRATEGY;
+    }
+
+    /**
+     * Wraps the given strategy so that the hash of each object is only computed once and then looked up
+     * by the identity of the object. Meant for large arrays and other objects which are expensive
+     * to hash and aren't modified while used as keys.
+     *
+     * The cache only references its objects weakly. The returned strategy isn't thread-safe,
+     * so it should be created for each map separately.
+     */
+    public static <T> Hash.Strategy<T> identityCachingStrategy(Hash.Strategy<? super T> strategy) {
+        return new IdentityCachingStrategy<>(strategy);
+    }
+
     public static Hash.Strategy<Object> identityStrategy() {
         return IDENTITY_STRATEGY;
     }
@@ -191,6 +384,194 @@ public final class HashUtil {
         return CASE_IGNORING_STRATEGY;
     }
 
+    private record MixingStrategy<T>(Hash.Strategy<T> strategy, HashMixer mixer) implements Hash.Strategy<T> {
+        @Override
+        public int hashCode(T o) {
+            return mixer.mix(strategy.hashCode(o));
+        }
+
+        @Override
+        public boolean equals(T a, T b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private record MixingBooleanStrategy(BooleanHash.Strategy strategy, HashMixer mixer) implements BooleanHash.Strategy {
+        @Override
+        public int hashCode(boolean e) {
+            return mixer.mix(strategy.hashCode(e));
+        }
+
+        @Override
+        public boolean equals(boolean a, boolean b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private record MixingByteStrategy(ByteHash.Strategy strategy, HashMixer mixer) implements ByteHash.Strategy {
+        @Override
+        public int hashCode(byte e) {
+            return mixer.mix(strategy.hashCode(e));
+        }
+
+        @Override
+        public boolean equals(byte a, byte b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private record MixingShortStrategy(ShortHash.Strategy strategy, HashMixer mixer) implements ShortHash.Strategy {
+        @Override
+        public int hashCode(short e) {
+            return mixer.mix(strategy.hashCode(e));
+        }
+
+        @Override
+        public boolean equals(short a, short b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private record MixingIntStrategy(IntHash.Strategy strategy, HashMixer mixer) implements IntHash.Strategy {
+        @Override
+        public int hashCode(int e) {
+            return mixer.mix(strategy.hashCode(e));
+        }
+
+        @Override
+        public boolean equals(int a, int b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private record MixingLongStrategy(LongHash.Strategy strategy, HashMixer mixer) implements LongHash.Strategy {
+        @Override
+        public int hashCode(long e) {
+            return mixer.mix(strategy.hashCode(e));
+        }
+
+        @Override
+        public boolean equals(long a, long b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private record MixingCharStrategy(CharHash.Strategy strategy, HashMixer mixer) implements CharHash.Strategy {
+        @Override
+        public int hashCode(char e) {
+            return mixer.mix(strategy.hashCode(e));
+        }
+
+        @Override
+        public boolean equals(char a, char b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private record MixingFloatStrategy(FloatHash.Strategy strategy, HashMixer mixer) implements FloatHash.Strategy {
+        @Override
+        public int hashCode(float e) {
+            return mixer.mix(strategy.hashCode(e));
+        }
+
+        @Override
+        public boolean equals(float a, float b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private record MixingDoubleStrategy(DoubleHash.Strategy strategy, HashMixer mixer) implements DoubleHash.Strategy {
+        @Override
+        public int hashCode(double e) {
+            return mixer.mix(strategy.hashCode(e));
+        }
+
+        @Override
+        public boolean equals(double a, double b) {
+            return strategy.equals(a, b);
+        }
+    }
+
+    private static int deepHashCode(Object o) {
+        if (o instanceof Object[] array) {
+            return Arrays.deepHashCode(array);
+        } else if (o instanceof byte[] array) {
+            return Arrays.hashCode(array);
+        } else if (o instanceof short[] array) {
+            return Arrays.hashCode(array);
+        } else if (o instanceof int[] array) {
+            return Arrays.hashCode(array);
+        } else if (o instanceof long[] array) {
+            return Arrays.hashCode(array);
+        } else if (o instanceof char[] array) {
+            return Arrays.hashCode(array);
+        } else if (o instanceof float[] array) {
+            return Arrays.hashCode(array);
+        } else if (o instanceof double[] array) {
+            return Arrays.hashCode(array);
+        } else if (o instanceof boolean[] array) {
+            return Arrays.hashCode(array);
+        }
+
+        return Objects.hashCode(o);
+    }
+
+    private static boolean deepEquals(Object a, Object b) {
+        if (a == b) {
+            return true;
+        }
+
+        if (a == null || b == null) {
+            return false;
+        }
+
+        if (a instanceof Object[] array && b instanceof Object[] other) {
+            return Arrays.deepEquals(array, other);
+        } else if (a instanceof byte[] array && b instanceof byte[] other) {
+            return Arrays.equals(array, other);
+        } else if (a instanceof short[] array && b instanceof short[] other) {
+            return Arrays.equals(array, other);
+        } else if (a instanceof int[] array && b instanceof int[] other) {
+            return Arrays.equals(array, other);
+        } else if (a instanceof long[] array && b instanceof long[] other) {
+            return Arrays.equals(array, other);
+        } else if (a instanceof char[] array && b instanceof char[] other) {
+            return Arrays.equals(array, other);
+        } else if (a instanceof float[] array && b instanceof float[] other) {
+            return Arrays.equals(array, other);
+        } else if (a instanceof double[] array && b instanceof double[] other) {
+            return Arrays.equals(array, other);
+        } else if (a instanceof boolean[] array && b instanceof boolean[] other) {
+            return Arrays.equals(array, other);
+        }
+
+        return a.equals(b);
+    }
+
+    private static final class IdentityCachingStrategy<T> implements Hash.Strategy<T> {
+        private final Object2IntOpenCostumWeakHashMap<T> hashCodeCache =
+                new Object2IntOpenCostumWeakHashMap<>(identityStrategy());
+        private final Hash.Strategy<? super T> strategy;
+
+        private IdentityCachingStrategy(Hash.Strategy<? super T> strategy) {
+            this.strategy = strategy;
+        }
+
+        @Override
+        public int hashCode(T o) {
+            if (o == null) {
+                return strategy.hashCode(null);
+            }
+
+            return hashCodeCache.computeIfAbsent(o, (T key) -> strategy.hashCode(key));
+        }
+
+        @Override
+        public boolean equals(T a, T b) {
+            return a == b || strategy.equals(a, b);
+        }
+    }
+
     private static final class CaseIgnoringStrategy implements Hash.Strategy<String> {
         final Object2IntMap<String> hashCodeCache = new Object2IntOpenCostumWeakHashMap<>(identityStrategy());
 
@@ -0,0 +1,411 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSpliterator;
+import it.unimi.dsi.fastutil.ints.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+public final class IntBinaryHashtable<V, E extends IntBinaryHashtable.Entry<V, E>>
+        extends AbstractBinaryHashtable<Integer, V, E> implements Int2ObjectMap<E> {
+    private final IntSet keySet = initKeySet();
+    private final ObjectSet<Int2ObjectMap.Entry<E>> entrySet = initIntEntrySet();
+    private final IntHash.Strategy strategy;
+
+    /**
+     * @param compressed whether interior nodes should only store their occupied slots, which makes
+     *                   the footprint of sparse tables proportional to their size rather than to
+     *                   {@code branching ** depth}
+     */
+    public IntBinaryHashtable(int branchFactor, boolean compressed, @Nullable IntHash.Strategy strategy) {
+        super(branchFactor, compressed);
+        this.strategy = strategy != null ? strategy : HashUtil.defaultIntStrategy();
+    }
+
+    public IntBinaryHashtable(int branchFactor, @Nullable IntHash.Strategy strategy) {
+        this(branchFactor, false, strategy);
+    }
+
+    public IntBinaryHashtable(@Nullable IntHash.Strategy strategy) {
+        this(DEFAULT_BRANCH_FACTOR, strategy);
+    }
+
+    public IntBinaryHashtable() {
+        this(null);
+    }
+
+    @Deprecated
+    @Override
+    public E get(Object key) {
+        return key instanceof Integer ? get((int) key) : null;
+    }
+
+    @Deprecated
+    @Override
+    public E remove(Object key) {
+        return key instanceof Integer ? remove((int) key) : defaultReturnValue();
+    }
+
+    @Deprecated
+    @Override
+    public E put(Integer key, final @NotNull E value) {
+        return put((int) key, value);
+    }
+
+    @Deprecated
+    @Override
+    public E getOrDefault(Object key, final @Nullable E defaultValue) {
+        return key instanceof Integer ? getOrDefault((int) key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    protected IntLeaf newLeaf() {
+        return new IntLeaf();
+    }
+
+    @Override
+    protected int hash(E entry) {
+        return strategy.hashCode(entry.getIntKey());
+    }
+
+    @Override
+    protected Int2EntryEntry<V, E> newK2EEntry(E entry) {
+        return new Int2EntryEntry<V, E>(this, entry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int key) {
+        IntLeaf leaf = (IntLeaf) findLeaf(strategy.hashCode(key));
+        int i;
+
+        return leaf != null && (i = leaf.indexOf(key, strategy)) >= 0 ? (E) leaf.entries[i] : null;
+    }
+
+    @Override
+    public E put(int key, final @NotNull E value) {
+        return value.getIntKey() == key ? put(value) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int key) {
+        int hash = strategy.hashCode(key);
+        IntLeaf leaf = (IntLeaf) findLeaf(hash);
+        int i;
+
+        if (leaf == null || (i = leaf.indexOf(key, strategy)) < 0) {
+            return null;
+        }
+
+        leaf = (IntLeaf) editableLeaf(leaf, hash);
+        E entry = (E) leaf.removeAt(i);
+        entryRemoved(leaf);
+        pruneLeaf(hash);
+        return entry;
+    }
+
+    @Override
+    public E getOrDefault(int key, final @Nullable E defaultValue) {
+        E value = get(key);
+
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public E putIfAbsent(int key, final E value) {
+        return computeIfAbsent(key, (k) -> value);
+    }
+
+    @Override
+    public boolean replace(int key, E oldValue, E newValue) {
+        E curValue = get(key);
+
+        if (!Objects.equals(curValue, oldValue)) {
+            return false;
+        }
+
+        put(key, newValue);
+        return true;
+    }
+
+    @Override
+    public E replace(int key, E value) {
+        E curValue = null;
+
+        if (containsKey(key)) {
+            curValue = put(key, value);
+        }
+
+        return curValue;
+    }
+
+    @Override
+    public void defaultReturnValue(E rv) {
+        if (rv != defaultReturnValue()) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public E defaultReturnValue() {
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public IntSet keySet() {
+        return keySet;
+    }
+
+    @Override
+    public ObjectSet<Int2ObjectMap.Entry<E>> int2ObjectEntrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    E putIn(Leaf leaf, E entry) {
+        int key = entry.getIntKey();
+        IntLeaf keyed = (IntLeaf) leaf;
+        int i = keyed.indexOf(key, strategy);
+
+        if (i >= 0) {
+            return (E) keyed.set(i, key, entry);
+        }
+
+        keyed.add(key, entry);
+        return null;
+    }
+
+    @Override
+    boolean hashesLike(AbstractBinaryHashtable<?, ?, ?> other) {
+        return other instanceof IntBinaryHashtable<?, ?> table && table.strategy.equals(strategy);
+    }
+
+    public IntHash.Strategy getStrategy() {
+        return strategy;
+    }
+
+    private IntSet initKeySet() {
+        return new KeySet<>(this);
+    }
+
+    private ObjectSet<Int2ObjectMap.Entry<E>> initIntEntrySet() {
+        return new EntrySet<>(this);
+    }
+
+    public static abstract class Entry<V, E extends Entry<V, E>> implements Int2ObjectMap.Entry<V> {
+        final IntBinaryHashtable<V, E> table;
+        final int key;
+
+        protected Entry(IntBinaryHashtable<V, E> table, int key, V value) {
+            this.table = table;
+            this.key = key;
+        }
+
+        @Override
+        public final int getIntKey() {
+            return key;
+        }
+
+        @Deprecated
+        @Override
+        public final Integer getKey() {
+            return Int2ObjectMap.Entry.super.getKey();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Int2ObjectMap.Entry<?> entry)) {
+                return false;
+            }
+
+            return table.strategy.equals(getIntKey(), entry.getIntKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return table.strategy.hashCode(getIntKey()) ^ Objects.hashCode(getValue());
+        }
+    }
+
+    private static final class Int2EntryEntry<V, E extends Entry<V, E>>
+            extends AbstractBinaryHashtable.Key2EntryEntry<Integer, V, E> implements Int2ObjectMap.Entry<E> {
+        private final IntBinaryHashtable<V, E> ref;
+
+        public Int2EntryEntry(IntBinaryHashtable<V, E> ref, E entry) {
+            super(entry);
+            this.ref = ref;
+        }
+
+        @Override
+        public int getIntKey() {
+            return entry.getIntKey();
+        }
+
+        @Override
+        protected boolean keysEqual(Map.Entry<Integer, ?> value) {
+            return ref.strategy.equals(value instanceof Int2ObjectMap.Entry<?>
+                    ? ((Int2ObjectMap.Entry<?>) value).getIntKey() : value.getKey(), getIntKey());
+        }
+
+        @Override
+        protected int keyHashCode() {
+            return ref.strategy.hashCode(getIntKey());
+        }
+    }
+
+    private static final class KeySet<V, E extends Entry<V, E>> extends AbstractIntSet {
+        private final IntBinaryHashtable<V, E> ref;
+
+        private KeySet(IntBinaryHashtable<V, E> ref) {
+            this.ref = ref;
+        }
+
+        public @NotNull IntIterator iterator() {
+            return new IntIterator() {
+                private final ObjectIterator<E> i = ref.entryIterator();
+
+                public boolean hasNext() {
+                    return i.hasNext();
+                }
+
+                @Override
+                public int nextInt() {
+                    return i.next().getIntKey();
+                }
+
+                public void remove() {
+                    i.remove();
+                }
+            };
+        }
+
+        @Override
+        public IntSpliterator spliterator() {
+            return new KeySpliterator<>(ref.entrySpliterator());
+        }
+
+        @Override
+        public void forEach(IntConsumer action) {
+            ref.fastForEach((entry) -> action.accept(entry.getIntKey()));
+        }
+
+        public int size() {
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
+        }
+
+        public boolean isEmpty() {
+            return ref.isEmpty();
+        }
+
+        public void clear() {
+            ref.clear();
+        }
+
+        public boolean contains(int k) {
+            return ref.containsKey(k);
+        }
+    }
+
+    private static final class KeySpliterator<V, E extends Entry<V, E>> implements IntSpliterator {
+        private final ObjectSpliterator<E> entries;
+
+        private KeySpliterator(ObjectSpliterator<E> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            return entries.tryAdvance((entry) -> action.accept(entry.getIntKey()));
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            entries.forEachRemaining((entry) -> action.accept(entry.getIntKey()));
+        }
+
+        @Override
+        public IntSpliterator trySplit() {
+            ObjectSpliterator<E> prefix = entries.trySplit();
+            return prefix != null ? new KeySpliterator<>(prefix) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return entries.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return entries.characteristics();
+        }
+    }
+
+    private static final class EntrySet<V, E extends Entry<V, E>> extends AbstractObjectSet<Int2ObjectMap.Entry<E>> {
+        private final IntBinaryHashtable<V, E> ref;
+
+        private EntrySet(IntBinaryHashtable<V, E> ref) {
+            this.ref = ref;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ref.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            return Objects.equals(ref.get(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ObjectIterator<Int2ObjectMap.Entry<E>> iterator() {
+            return (ObjectIterator<Int2ObjectMap.Entry<E>>) (Object) ref.entrySet().iterator();
+        }
+
+        @Override
+        public ObjectSpliterator<Int2ObjectMap.Entry<E>> spliterator() {
+            return new MappedSpliterator<>(ref.entrySpliterator(), ref::newK2EEntry);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            return ref.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            ref.clear();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.ints.IntHash;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Leaf} of a {@link IntBinaryHashtable} keeping the keys packed next to the entries
+ * so probing the bucket doesn't have to dereference them.
+ */
+final class IntLeaf extends Leaf {
+    int[] keys;
+
+    IntLeaf() {
+        this.keys = new int[1];
+    }
+
+    private IntLeaf(IntLeaf source, Object owner) {
+        super(source, owner);
+        this.keys = source.keys.clone();
+    }
+
+    int indexOf(int key, IntHash.Strategy strategy) {
+        int[] keys = this.keys;
+        int size = this.size;
+
+        if (strategy == HashUtil.defaultIntStrategy()) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (strategy.equals(key, keys[i])) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    Object set(int index, int key, Object entry) {
+        keys[index] = key;
+        return set(index, entry);
+    }
+
+    void add(int key, Object entry) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, grownCapacity());
+        }
+
+        keys[size] = key;
+        add(entry);
+    }
+
+    @Override
+    IntLeaf copy(Object owner) {
+        return new IntLeaf(this, owner);
+    }
+
+    @Override
+    Object removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        return super.removeAt(index);
+    }
+}
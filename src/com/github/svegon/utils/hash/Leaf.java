@@ -0,0 +1,70 @@
+package com.github.svegon.utils.hash;
+
+import java.util.Arrays;
+
+/**
+ * A bucket of the entries stored under the same full hash in a binary hashtable.
+ *
+ * Since the whole hash is consumed on the way down, a bucket only grows past a single entry on
+ * hash collisions, so buckets start with the capacity of one and are probed by a plain loop.
+ */
+class Leaf {
+    Object[] entries;
+    int size;
+    /**
+     * The token of the table which may modify this leaf in place.
+     */
+    Object owner;
+
+    Leaf() {
+        this.entries = new Object[1];
+    }
+
+    Leaf(Leaf source, Object owner) {
+        this.entries = source.entries.clone();
+        this.size = source.size;
+        this.owner = owner;
+    }
+
+    Leaf copy(Object owner) {
+        return new Leaf(this, owner);
+    }
+
+    final Object get(int index) {
+        return entries[index];
+    }
+
+    final Object set(int index, Object entry) {
+        Object previous = entries[index];
+        entries[index] = entry;
+        return previous;
+    }
+
+    final void add(Object entry) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, grownCapacity());
+        }
+
+        entries[size++] = entry;
+    }
+
+    Object removeAt(int index) {
+        Object removed = entries[index];
+        int moved = --size - index;
+
+        if (moved > 0) {
+            System.arraycopy(entries, index + 1, entries, index, moved);
+        }
+
+        entries[size] = null;
+        return removed;
+    }
+
+    final boolean isEmpty() {
+        return size == 0;
+    }
+
+    final int grownCapacity() {
+        return size + Math.max(size >>> 1, 1);
+    }
+}
@@ -0,0 +1,411 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSpliterator;
+import it.unimi.dsi.fastutil.longs.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+public final class LongBinaryHashtable<V, E extends LongBinaryHashtable.Entry<V, E>>
+        extends AbstractBinaryHashtable<Long, V, E> implements Long2ObjectMap<E> {
+    private final LongSet keySet = initKeySet();
+    private final ObjectSet<Long2ObjectMap.Entry<E>> entrySet = initLongEntrySet();
+    private final LongHash.Strategy strategy;
+
+    /**
+     * @param compressed whether interior nodes should only store their occupied slots, which makes
+     *                   the footprint of sparse tables proportional to their size rather than to
+     *                   {@code branching ** depth}
+     */
+    public LongBinaryHashtable(int branchFactor, boolean compressed, @Nullable LongHash.Strategy strategy) {
+        super(branchFactor, compressed);
+        this.strategy = strategy != null ? strategy : HashUtil.defaultLongStrategy();
+    }
+
+    public LongBinaryHashtable(int branchFactor, @Nullable LongHash.Strategy strategy) {
+        this(branchFactor, false, strategy);
+    }
+
+    public LongBinaryHashtable(@Nullable LongHash.Strategy strategy) {
+        this(DEFAULT_BRANCH_FACTOR, strategy);
+    }
+
+    public LongBinaryHashtable() {
+        this(null);
+    }
+
+    @Deprecated
+    @Override
+    public E get(Object key) {
+        return key instanceof Long ? get((long) key) : null;
+    }
+
+    @Deprecated
+    @Override
+    public E remove(Object key) {
+        return key instanceof Long ? remove((long) key) : defaultReturnValue();
+    }
+
+    @Deprecated
+    @Override
+    public E put(Long key, final @NotNull E value) {
+        return put((long) key, value);
+    }
+
+    @Deprecated
+    @Override
+    public E getOrDefault(Object key, final @Nullable E defaultValue) {
+        return key instanceof Long ? getOrDefault((long) key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    protected LongLeaf newLeaf() {
+        return new LongLeaf();
+    }
+
+    @Override
+    protected int hash(E entry) {
+        return strategy.hashCode(entry.getLongKey());
+    }
+
+    @Override
+    protected Long2EntryEntry<V, E> newK2EEntry(E entry) {
+        return new Long2EntryEntry<V, E>(this, entry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(long key) {
+        LongLeaf leaf = (LongLeaf) findLeaf(strategy.hashCode(key));
+        int i;
+
+        return leaf != null && (i = leaf.indexOf(key, strategy)) >= 0 ? (E) leaf.entries[i] : null;
+    }
+
+    @Override
+    public E put(long key, final @NotNull E value) {
+        return value.getLongKey() == key ? put(value) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(long key) {
+        int hash = strategy.hashCode(key);
+        LongLeaf leaf = (LongLeaf) findLeaf(hash);
+        int i;
+
+        if (leaf == null || (i = leaf.indexOf(key, strategy)) < 0) {
+            return null;
+        }
+
+        leaf = (LongLeaf) editableLeaf(leaf, hash);
+        E entry = (E) leaf.removeAt(i);
+        entryRemoved(leaf);
+        pruneLeaf(hash);
+        return entry;
+    }
+
+    @Override
+    public E getOrDefault(long key, final @Nullable E defaultValue) {
+        E value = get(key);
+
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public E putIfAbsent(long key, final E value) {
+        return computeIfAbsent(key, (k) -> value);
+    }
+
+    @Override
+    public boolean replace(long key, E oldValue, E newValue) {
+        E curValue = get(key);
+
+        if (!Objects.equals(curValue, oldValue)) {
+            return false;
+        }
+
+        put(key, newValue);
+        return true;
+    }
+
+    @Override
+    public E replace(long key, E value) {
+        E curValue = null;
+
+        if (containsKey(key)) {
+            curValue = put(key, value);
+        }
+
+        return curValue;
+    }
+
+    @Override
+    public void defaultReturnValue(E rv) {
+        if (rv != defaultReturnValue()) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public E defaultReturnValue() {
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public LongSet keySet() {
+        return keySet;
+    }
+
+    @Override
+    public ObjectSet<Long2ObjectMap.Entry<E>> long2ObjectEntrySet() {
+        return entrySet;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    E putIn(Leaf leaf, E entry) {
+        long key = entry.getLongKey();
+        LongLeaf keyed = (LongLeaf) leaf;
+        int i = keyed.indexOf(key, strategy);
+
+        if (i >= 0) {
+            return (E) keyed.set(i, key, entry);
+        }
+
+        keyed.add(key, entry);
+        return null;
+    }
+
+    @Override
+    boolean hashesLike(AbstractBinaryHashtable<?, ?, ?> other) {
+        return other instanceof LongBinaryHashtable<?, ?> table && table.strategy.equals(strategy);
+    }
+
+    public LongHash.Strategy getStrategy() {
+        return strategy;
+    }
+
+    private LongSet initKeySet() {
+        return new KeySet<>(this);
+    }
+
+    private ObjectSet<Long2ObjectMap.Entry<E>> initLongEntrySet() {
+        return new EntrySet<>(this);
+    }
+
+    public static abstract class Entry<V, E extends Entry<V, E>> implements Long2ObjectMap.Entry<V> {
+        final LongBinaryHashtable<V, E> table;
+        final long key;
+
+        protected Entry(LongBinaryHashtable<V, E> table, long key, V value) {
+            this.table = table;
+            this.key = key;
+        }
+
+        @Override
+        public final long getLongKey() {
+            return key;
+        }
+
+        @Deprecated
+        @Override
+        public final Long getKey() {
+            return Long2ObjectMap.Entry.super.getKey();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Long2ObjectMap.Entry<?> entry)) {
+                return false;
+            }
+
+            return table.strategy.equals(getLongKey(), entry.getLongKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return table.strategy.hashCode(getLongKey()) ^ Objects.hashCode(getValue());
+        }
+    }
+
+    private static final class Long2EntryEntry<V, E extends Entry<V, E>>
+            extends AbstractBinaryHashtable.Key2EntryEntry<Long, V, E> implements Long2ObjectMap.Entry<E> {
+        private final LongBinaryHashtable<V, E> ref;
+
+        public Long2EntryEntry(LongBinaryHashtable<V, E> ref, E entry) {
+            super(entry);
+            this.ref = ref;
+        }
+
+        @Override
+        public long getLongKey() {
+            return entry.getLongKey();
+        }
+
+        @Override
+        protected boolean keysEqual(Map.Entry<Long, ?> value) {
+            return ref.strategy.equals(value instanceof Long2ObjectMap.Entry<?>
+                    ? ((Long2ObjectMap.Entry<?>) value).getLongKey() : value.getKey(), getLongKey());
+        }
+
+        @Override
+        protected int keyHashCode() {
+            return ref.strategy.hashCode(getLongKey());
+        }
+    }
+
+    private static final class KeySet<V, E extends Entry<V, E>> extends AbstractLongSet {
+        private final LongBinaryHashtable<V, E> ref;
+
+        private KeySet(LongBinaryHashtable<V, E> ref) {
+            this.ref = ref;
+        }
+
+        public @NotNull LongIterator iterator() {
+            return new LongIterator() {
+                private final ObjectIterator<E> i = ref.entryIterator();
+
+                public boolean hasNext() {
+                    return i.hasNext();
+                }
+
+                @Override
+                public long nextLong() {
+                    return i.next().getLongKey();
+                }
+
+                public void remove() {
+                    i.remove();
+                }
+            };
+        }
+
+        @Override
+        public LongSpliterator spliterator() {
+            return new KeySpliterator<>(ref.entrySpliterator());
+        }
+
+        @Override
+        public void forEach(LongConsumer action) {
+            ref.fastForEach((entry) -> action.accept(entry.getLongKey()));
+        }
+
+        public int size() {
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
+        }
+
+        public boolean isEmpty() {
+            return ref.isEmpty();
+        }
+
+        public void clear() {
+            ref.clear();
+        }
+
+        public boolean contains(long k) {
+            return ref.containsKey(k);
+        }
+    }
+
+    private static final class KeySpliterator<V, E extends Entry<V, E>> implements LongSpliterator {
+        private final ObjectSpliterator<E> entries;
+
+        private KeySpliterator(ObjectSpliterator<E> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            return entries.tryAdvance((entry) -> action.accept(entry.getLongKey()));
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            entries.forEachRemaining((entry) -> action.accept(entry.getLongKey()));
+        }
+
+        @Override
+        public LongSpliterator trySplit() {
+            ObjectSpliterator<E> prefix = entries.trySplit();
+            return prefix != null ? new KeySpliterator<>(prefix) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return entries.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return entries.characteristics();
+        }
+    }
+
+    private static final class EntrySet<V, E extends Entry<V, E>> extends AbstractObjectSet<Long2ObjectMap.Entry<E>> {
+        private final LongBinaryHashtable<V, E> ref;
+
+        private EntrySet(LongBinaryHashtable<V, E> ref) {
+            this.ref = ref;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ref.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            return Objects.equals(ref.get(entry.getKey()), entry.getValue());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ObjectIterator<Long2ObjectMap.Entry<E>> iterator() {
+            return (ObjectIterator<Long2ObjectMap.Entry<E>>) (Object) ref.entrySet().iterator();
+        }
+
+        @Override
+        public ObjectSpliterator<Long2ObjectMap.Entry<E>> spliterator() {
+            return new MappedSpliterator<>(ref.entrySpliterator(), ref::newK2EEntry);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            return ref.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            ref.clear();
+        }
+    }
+}
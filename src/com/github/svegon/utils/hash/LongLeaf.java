@@ -0,0 +1,68 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.longs.LongHash;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Leaf} of a {@link LongBinaryHashtable} keeping the keys packed next to the entries
+ * so probing the bucket doesn't have to dereference them.
+ */
+final class LongLeaf extends Leaf {
+    long[] keys;
+
+    LongLeaf() {
+        this.keys = new long[1];
+    }
+
+    private LongLeaf(LongLeaf source, Object owner) {
+        super(source, owner);
+        this.keys = source.keys.clone();
+    }
+
+    int indexOf(long key, LongHash.Strategy strategy) {
+        long[] keys = this.keys;
+        int size = this.size;
+
+        if (strategy == HashUtil.defaultLongStrategy()) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (strategy.equals(key, keys[i])) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    Object set(int index, long key, Object entry) {
+        keys[index] = key;
+        return set(index, entry);
+    }
+
+    void add(long key, Object entry) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, grownCapacity());
+        }
+
+        keys[size] = key;
+        add(entry);
+    }
+
+    @Override
+    LongLeaf copy(Object owner) {
+        return new LongLeaf(this, owner);
+    }
+
+    @Override
+    Object removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        return super.removeAt(index);
+    }
+}
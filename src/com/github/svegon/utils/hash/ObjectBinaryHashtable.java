@@ -2,47 +2,60 @@ package com.github.svegon.utils.hash;
 
 import it.unimi.dsi.fastutil.Hash;
 import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSpliterator;
 import org.jetbrains.annotations.NotNull;
-import com.github.svegon.utils.collections.ListUtil;
 
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 public final class ObjectBinaryHashtable<K, V, E extends ObjectBinaryHashtable.Entry<K, V, E>>
         extends AbstractBinaryHashtable<K, V, E> implements Object2ObjectMap<K, E> {
     private final ObjectSet<K> keySet = new KeySet<>(this);
     private final Hash.Strategy<? super K> strategy;
 
-    public ObjectBinaryHashtable(int branchFactor, Hash.Strategy<? super K> strategy) {
-        super(branchFactor);
+    /**
+     * @param compressed whether interior nodes should only store their occupied slots, which makes
+     *                   the footprint of sparse tables proportional to their size rather than to
+     *                   {@code branching ** depth}
+     */
+    public ObjectBinaryHashtable(int branchFactor, boolean compressed, Hash.Strategy<? super K> strategy) {
+        super(branchFactor, compressed);
         this.strategy = strategy != null ? strategy : HashUtil.defaultStrategy();
     }
 
+    public ObjectBinaryHashtable(int branchFactor, Hash.Strategy<? super K> strategy) {
+        this(branchFactor, false, strategy);
+    }
+
     public ObjectBinaryHashtable(Hash.Strategy<? super K> strategy) {
         this(DEFAULT_BRANCH_FACTOR, strategy);
     }
 
     public ObjectBinaryHashtable() {
-        this(null);
+        this((Hash.Strategy<? super K>) null);
     }
 
+    ObjectBinaryHashtable(ObjectBinaryHashtable<K, V, E> source) {
+        super(source);
+        this.strategy = source.strategy;
+    }
+
+    /**
+     * @return a copy of all the entries whose keys share the hash with the given one
+     * or {@code null} if there are none
+     */
     @SuppressWarnings("unchecked")
     public List<E> getAll(K key) {
-        Object e = tree;
-        int hash = strategy.hashCode(key);
-
-        for (int i = 0; i < depth && e != null; i++) {
-            e = ((Object[]) e)[hash & branchIndexMask];
-            hash >>>= branchCoveredBits;
-        }
+        Leaf leaf = (Leaf) findLeaf(strategy.hashCode(key));
 
-        if (e != null) {
-            return (List<E>) e;
+        if (leaf != null) {
+            return new ObjectArrayList<>((E[]) leaf.entries, 0, leaf.size);
         }
 
         return null;
@@ -51,39 +64,27 @@ public final class ObjectBinaryHashtable<K, V, E extends ObjectBinaryHashtable.E
     @Override
     @SuppressWarnings("unchecked")
     public E get(Object key) {
-        Object e = tree;
+        Leaf leaf;
         K k;
-        int hash;
 
         try {
             k = (K) key;
-            hash = strategy.hashCode(k);
+            leaf = (Leaf) findLeaf(strategy.hashCode(k));
         } catch (ClassCastException notKeyClass) {
             return null;
         }
 
-        for (int i = 0; i < depth && e != null; i++) {
-            e = ((Object[]) e)[hash & branchIndexMask];
-            hash >>>= branchCoveredBits;
-        }
-
-        if (e != null) {
-            for (E entry : (List<E>) e) {
-                if (strategy.equals(k, entry.getKey())) {
-                    return entry;
-                }
-            }
-        }
-
-        return null;
+        int i;
+        return leaf != null && (i = indexOf(leaf, k)) >= 0 ? (E) leaf.entries[i] : null;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public E remove(Object key) {
-        Object[] e = tree;
+        Leaf leaf;
         K k;
         int hash;
+        int i;
 
         try {
             k = (K) key;
@@ -92,33 +93,25 @@ public final class ObjectBinaryHashtable<K, V, E extends ObjectBinaryHashtable.E
             return defaultReturnValue();
         }
 
-        for (int i = 0; i < depth - 1; i++) {
-            int temp = hash & branchIndexMask;
-
-            if (e[temp] == null) {
-                return defaultReturnValue();
-            }
-
-            e = (Object[]) e[temp];
-            hash >>>= branchCoveredBits;
-        }
-
-        if (e[hash] == null) {
+        if ((leaf = (Leaf) findLeaf(hash)) == null || (i = indexOf(leaf, k)) < 0) {
             return defaultReturnValue();
         }
 
-        ListIterator<E> itr = ((List<E>) e[hash]).listIterator();
-
-        while (itr.hasNext()) {
-            E entry = itr.next();
+        leaf = (Leaf) editableLeaf(leaf, hash);
+        E entry = (E) leaf.removeAt(i);
+        entryRemoved(leaf);
+        pruneLeaf(hash);
+        return entry;
+    }
 
-            if (strategy.equals(k, entry.getKey())) {
-                itr.remove();
-                return entry;
-            }
-        }
+    @Override
+    protected Leaf newLeaf() {
+        return new Leaf();
+    }
 
-        return defaultReturnValue();
+    @Override
+    protected int hash(E entry) {
+        return strategy.hashCode(entry.getKey());
     }
 
     @Override
@@ -150,47 +143,59 @@ public final class ObjectBinaryHashtable<K, V, E extends ObjectBinaryHashtable.E
     }
 
     @Override
-    public E put(final @NotNull E entry) {
-        K key = entry.getKey();
-        Object[] e = tree;
-        int hash = strategy.hashCode(key);
-        int depthMinusOne = depth - 1;
-
-        for (int i = 0; i != depthMinusOne; i++) {
-            int index = hash & branchIndexMask;
-
-            if (e[index] == null) {
-                e[index] = new Object[branching];
-            }
-
-            e = (Object[]) e[index];
-            hash >>>= branchCoveredBits;
-        }
+    @SuppressWarnings("unchecked")
+    E putIn(Leaf leaf, E entry) {
+        int i = indexOf(leaf, entry.getKey());
 
-        if (e[hash] == null) {
-            e[hash] = ListUtil.newSyncedList();
+        if (i >= 0) {
+            return (E) leaf.set(i, entry);
         }
 
-        List<E> list = (List<E>) e[hash];
-        ListIterator<E> itr = list.listIterator();
+        leaf.add(entry);
+        return null;
+    }
 
-        while (itr.hasNext()) {
-            E entry0 = itr.next();
+    @Override
+    boolean hashesLike(AbstractBinaryHashtable<?, ?, ?> other) {
+        return other instanceof ObjectBinaryHashtable<?, ?, ?> table && table.strategy.equals(strategy);
+    }
 
-            if (strategy.equals(key, entry0.getKey())) {
-                itr.set(entry);
-                return entry0;
-            }
+    /**
+     * Freezes the current contents of this table. A compressed table shares its nodes with the snapshot
+     * and copies the nodes on the path of each later modification, so the snapshot takes O(depth) time.
+     * Other tables are copied into a compressed snapshot entry by entry.
+     */
+    public PersistentObjectBinaryHashtable<K, V, E> snapshot() {
+        ObjectBinaryHashtable<K, V, E> frozen;
+
+        if (compressed) {
+            frozen = new ObjectBinaryHashtable<>(this);
+        } else {
+            frozen = new ObjectBinaryHashtable<>(branchFactor(), true, strategy);
+            fastForEach(frozen::put);
         }
 
-        list.add(entry);
-        return null;
+        return new PersistentObjectBinaryHashtable<>(frozen);
     }
 
     public Hash.Strategy<? super K> getStrategy() {
         return strategy;
     }
 
+    @SuppressWarnings("unchecked")
+    private int indexOf(Leaf leaf, K key) {
+        Object[] entries = leaf.entries;
+        int size = leaf.size;
+
+        for (int i = 0; i < size; i++) {
+            if (strategy.equals(key, ((E) entries[i]).getKey())) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
     public static abstract class Entry<K, V, E extends ObjectBinaryHashtable.Entry<K, V, E>>
             implements Object2ObjectMap.Entry<K, V> {
         private final ObjectBinaryHashtable<K, V, E> table;
@@ -274,7 +279,7 @@ public final class ObjectBinaryHashtable<K, V, E extends ObjectBinaryHashtable.E
 
         public ObjectIterator<K> iterator() {
             return new ObjectIterator<>() {
-                private ObjectIterator<Map.Entry<K, E>> i = ref.entrySet().iterator();
+                private final ObjectIterator<E> i = ref.entryIterator();
 
                 public boolean hasNext() {
                     return i.hasNext();
@@ -290,6 +295,16 @@ public final class ObjectBinaryHashtable<K, V, E extends ObjectBinaryHashtable.E
             };
         }
 
+        @Override
+        public ObjectSpliterator<K> spliterator() {
+            return new MappedSpliterator<>(ref.entrySpliterator(), Entry::getKey);
+        }
+
+        @Override
+        public void forEach(Consumer<? super K> action) {
+            ref.fastForEach((entry) -> action.accept(entry.getKey()));
+        }
+
         public int size() {
             return ref.size();
         }
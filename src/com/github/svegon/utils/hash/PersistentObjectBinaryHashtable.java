@@ -0,0 +1,162 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.Size64;
+import it.unimi.dsi.fastutil.objects.*;
+import net.jcip.annotations.Immutable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * An immutable version of an {@link ObjectBinaryHashtable}.
+ *
+ * Versions share all the nodes they don't differ in. {@link #with(ObjectBinaryHashtable.Entry)} and
+ * {@link #without(Object)} only copy the nodes on the path to the modified leaf. Bulk edits should be
+ * made on the transient table returned by {@link #asTransient()}, which copies each shared node at most
+ * once and is frozen into a new version by {@link ObjectBinaryHashtable#snapshot()}, both in O(depth) time.
+ *
+ * The versions share the entry objects, so entries modified in place through
+ * {@link Map.Entry#setValue(Object)} change all the versions containing them.
+ */
+@Immutable
+public final class PersistentObjectBinaryHashtable<K, V, E extends ObjectBinaryHashtable.Entry<K, V, E>>
+        extends AbstractMap<K, E> implements Size64 {
+    private final ObjectBinaryHashtable<K, V, E> table;
+    private final ObjectSet<Map.Entry<K, E>> entrySet;
+    private final ObjectSet<K> keySet;
+    private final ObjectCollection<E> values;
+
+    PersistentObjectBinaryHashtable(ObjectBinaryHashtable<K, V, E> table) {
+        this.table = table;
+        this.entrySet = ObjectSets.unmodifiable(table.entrySet());
+        this.keySet = ObjectSets.unmodifiable(table.keySet());
+        this.values = ObjectCollections.unmodifiable(table.values());
+    }
+
+    public static <K, V, E extends ObjectBinaryHashtable.Entry<K, V, E>> PersistentObjectBinaryHashtable<K, V, E>
+    of(int branchFactor, @Nullable Hash.Strategy<? super K> strategy) {
+        return new PersistentObjectBinaryHashtable<>(new ObjectBinaryHashtable<K, V, E>(branchFactor, true, strategy));
+    }
+
+    public static <K, V, E extends ObjectBinaryHashtable.Entry<K, V, E>> PersistentObjectBinaryHashtable<K, V, E>
+    of(@Nullable Hash.Strategy<? super K> strategy) {
+        return of(AbstractBinaryHashtable.DEFAULT_BRANCH_FACTOR, strategy);
+    }
+
+    public static <K, V, E extends ObjectBinaryHashtable.Entry<K, V, E>> PersistentObjectBinaryHashtable<K, V, E>
+    of() {
+        return of(null);
+    }
+
+    @Override
+    public E get(Object key) {
+        return table.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return table.containsKey(key);
+    }
+
+    @Deprecated
+    @Override
+    public int size() {
+        return Size64.super.size();
+    }
+
+    @Override
+    public long size64() {
+        return table.size64();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.isEmpty();
+    }
+
+    @NotNull
+    @Override
+    public ObjectSet<Map.Entry<K, E>> entrySet() {
+        return entrySet;
+    }
+
+    @NotNull
+    @Override
+    public ObjectSet<K> keySet() {
+        return keySet;
+    }
+
+    @NotNull
+    @Override
+    public ObjectCollection<E> values() {
+        return values;
+    }
+
+    @Override
+    public void forEach(@NotNull BiConsumer<? super K, ? super E> action) {
+        table.forEach(action);
+    }
+
+    public void fastForEach(@NotNull Consumer<? super E> action) {
+        table.fastForEach(action);
+    }
+
+    public ObjectIterator<E> entryIterator() {
+        return ObjectIterators.unmodifiable(table.entryIterator());
+    }
+
+    public ObjectSpliterator<E> entrySpliterator() {
+        return table.entrySpliterator();
+    }
+
+    /**
+     * @return the version of this table mapping the key of the given entry to it
+     */
+    public PersistentObjectBinaryHashtable<K, V, E> with(@NotNull E entry) {
+        if (table.get(entry.getKey()) == entry) {
+            return this;
+        }
+
+        ObjectBinaryHashtable<K, V, E> edited = asTransient();
+        edited.put(entry);
+        return edited.snapshot();
+    }
+
+    /**
+     * @return the version of this table without the mapping of the given key
+     */
+    public PersistentObjectBinaryHashtable<K, V, E> without(@Nullable Object key) {
+        if (!table.containsKey(key)) {
+            return this;
+        }
+
+        ObjectBinaryHashtable<K, V, E> edited = asTransient();
+        edited.remove(key);
+        return edited.snapshot();
+    }
+
+    /**
+     * @return a mutable table sharing the nodes of this one, which copies a shared node the first time
+     * it writes to it
+     */
+    public ObjectBinaryHashtable<K, V, E> asTransient() {
+        return new ObjectBinaryHashtable<>(table);
+    }
+
+    public BinaryHashtableStatistics statistics() {
+        return table.statistics();
+    }
+
+    public int branchFactor() {
+        return table.branchFactor();
+    }
+
+    public Hash.Strategy<? super K> getStrategy() {
+        return table.getStrategy();
+    }
+}
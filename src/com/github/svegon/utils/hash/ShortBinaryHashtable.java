@@ -3,6 +3,7 @@ package com.github.svegon.utils.hash;
 import it.unimi.dsi.fastutil.objects.AbstractObjectSet;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSpliterator;
 import it.unimi.dsi.fastutil.shorts.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -15,11 +16,20 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
     private final ObjectSet<Short2ObjectMap.Entry<E>> entrySet = initShortEntrySet();
     private final ShortHash.Strategy strategy;
 
-    public ShortBinaryHashtable(int branchFactor, @Nullable ShortHash.Strategy strategy) {
-        super(branchFactor);
+    /**
+     * @param compressed whether interior nodes should only store their occupied slots, which makes
+     *                   the footprint of sparse tables proportional to their size rather than to
+     *                   {@code branching ** depth}
+     */
+    public ShortBinaryHashtable(int branchFactor, boolean compressed, @Nullable ShortHash.Strategy strategy) {
+        super(branchFactor, compressed);
         this.strategy = strategy != null ? strategy : HashUtil.defaultShortStrategy();
     }
 
+    public ShortBinaryHashtable(int branchFactor, @Nullable ShortHash.Strategy strategy) {
+        this(branchFactor, false, strategy);
+    }
+
     public ShortBinaryHashtable(@Nullable ShortHash.Strategy strategy) {
         this(DEFAULT_BRANCH_FACTOR, strategy);
     }
@@ -40,6 +50,28 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
         return key instanceof Short ? remove((short) key) : defaultReturnValue();
     }
 
+    @Deprecated
+    @Override
+    public E put(Short key, final @NotNull E value) {
+        return put((short) key, value);
+    }
+
+    @Deprecated
+    @Override
+    public E getOrDefault(Object key, final @Nullable E defaultValue) {
+        return key instanceof Short ? getOrDefault((short) key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    protected ShortLeaf newLeaf() {
+        return new ShortLeaf();
+    }
+
+    @Override
+    protected int hash(E entry) {
+        return strategy.hashCode(entry.getShortKey());
+    }
+
     @Override
     protected Short2EntryEntry<V, E> newK2EEntry(E entry) {
         return new Short2EntryEntry<V, E>(this, entry);
@@ -48,23 +80,10 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
     @Override
     @SuppressWarnings("unchecked")
     public E get(short key) {
-        Object e = tree;
-        int hash = strategy.hashCode(key);
-
-        for (int i = 0; i < depth && e != null; i++) {
-            e = ((Object[]) e)[hash & branchIndexMask];
-            hash >>>= branchCoveredBits;
-        }
-
-        if (e != null) {
-            for (E entry : (List<E>) e) {
-                if (strategy.equals(key, entry.getShortKey())) {
-                    return entry;
-                }
-            }
-        }
+        ShortLeaf leaf = (ShortLeaf) findLeaf(strategy.hashCode(key));
+        int i;
 
-        return null;
+        return leaf != null && (i = leaf.indexOf(key, strategy)) >= 0 ? (E) leaf.entries[i] : null;
     }
 
     @Override
@@ -75,38 +94,19 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
     @Override
     @SuppressWarnings("unchecked")
     public E remove(short key) {
-        Object[] e = tree;
         int hash = strategy.hashCode(key);
+        ShortLeaf leaf = (ShortLeaf) findLeaf(hash);
+        int i;
 
-        for (int i = 0; i < depth - 1; i++) {
-            int temp = hash & branchIndexMask;
-
-            if (e[temp] == null) {
-                e[temp] = new Object[branching];
-            }
-
-            e = (Object[]) e[temp];
-            hash >>>= branchCoveredBits;
-        }
-
-        int temp = hash & branchIndexMask;
-
-        if (e[temp] == null) {
-            e[temp] = new Vector<>();
-        }
-
-        ListIterator<E> itr = ((List<E>) e[temp]).listIterator();
-
-        while (itr.hasNext()) {
-            E entry = itr.next();
-
-            if (strategy.equals(key, entry.getShortKey())) {
-                itr.remove();
-                return entry;
-            }
+        if (leaf == null || (i = leaf.indexOf(key, strategy)) < 0) {
+            return null;
         }
 
-        return null;
+        leaf = (ShortLeaf) editableLeaf(leaf, hash);
+        E entry = (E) leaf.removeAt(i);
+        entryRemoved(leaf);
+        pruneLeaf(hash);
+        return entry;
     }
 
     @Override
@@ -172,44 +172,26 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
         return get(key) != null;
     }
 
-    public E put(final @NotNull E entry) {
+    @Override
+    @SuppressWarnings("unchecked")
+    E putIn(Leaf leaf, E entry) {
         short key = entry.getShortKey();
-        Object e = tree;
-        int hash = strategy.hashCode(key);
-
-        for (int i = 0; i < depth - 1; i++) {
-            int temp = hash & branchIndexMask;
-
-            if (((Object[]) e)[temp] == null) {
-                ((Object[]) e)[temp] = new Object[branching];
-            }
-
-            e = ((Object[]) e)[temp];
-            hash >>>= branchCoveredBits;
-        }
-
-        int temp = hash & branchIndexMask;
-
-        if (((Object[]) e)[temp] == null) {
-            ((Object[]) e)[temp] = new Vector<>();
-        }
+        ShortLeaf keyed = (ShortLeaf) leaf;
+        int i = keyed.indexOf(key, strategy);
 
-        List<E> list = (List<E>) ((Object[]) e)[temp];
-        ListIterator<E> itr = list.listIterator();
-
-        while (itr.hasNext()) {
-            E entry0 = itr.next();
-
-            if (strategy.equals(key, entry0.getShortKey())) {
-                itr.set(entry);
-                return entry0;
-            }
+        if (i >= 0) {
+            return (E) keyed.set(i, key, entry);
         }
 
-        list.add(entry);
+        keyed.add(key, entry);
         return null;
     }
 
+    @Override
+    boolean hashesLike(AbstractBinaryHashtable<?, ?, ?> other) {
+        return other instanceof ShortBinaryHashtable<?, ?> table && table.strategy.equals(strategy);
+    }
+
     public ShortHash.Strategy getStrategy() {
         return strategy;
     }
@@ -248,16 +230,16 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
                 return true;
             }
 
-            if (!(o instanceof Short2ObjectMap.Entry entry)) {
+            if (!(o instanceof Short2ObjectMap.Entry<?> entry)) {
                 return false;
             }
 
-            return table.strategy.equals(getKey(), entry.getShortKey()) && Objects.equals(getValue(), entry.getValue());
+            return table.strategy.equals(getShortKey(), entry.getShortKey()) && Objects.equals(getValue(), entry.getValue());
         }
 
         @Override
         public int hashCode() {
-            return table.strategy.hashCode(getKey()) ^ Objects.hashCode(getValue());
+            return table.strategy.hashCode(getShortKey()) ^ Objects.hashCode(getValue());
         }
     }
 
@@ -296,7 +278,7 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
 
         public @NotNull ShortIterator iterator() {
             return new ShortIterator() {
-                private Iterator<Short2ObjectMap.Entry<E>> i = ref.short2ObjectEntrySet().iterator();
+                private final ObjectIterator<E> i = ref.entryIterator();
 
                 public boolean hasNext() {
                     return i.hasNext();
@@ -313,8 +295,18 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
             };
         }
 
+        @Override
+        public ShortSpliterator spliterator() {
+            return new KeySpliterator<>(ref.entrySpliterator());
+        }
+
+        @Override
+        public void forEach(ShortConsumer action) {
+            ref.fastForEach((entry) -> action.accept(entry.getShortKey()));
+        }
+
         public int size() {
-            return ref.size();
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
         }
 
         public boolean isEmpty() {
@@ -325,11 +317,45 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
             ref.clear();
         }
 
-        public boolean contains(Object k) {
+        public boolean contains(short k) {
             return ref.containsKey(k);
         }
     }
 
+    private static final class KeySpliterator<V, E extends Entry<V, E>> implements ShortSpliterator {
+        private final ObjectSpliterator<E> entries;
+
+        private KeySpliterator(ObjectSpliterator<E> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean tryAdvance(ShortConsumer action) {
+            return entries.tryAdvance((entry) -> action.accept(entry.getShortKey()));
+        }
+
+        @Override
+        public void forEachRemaining(ShortConsumer action) {
+            entries.forEachRemaining((entry) -> action.accept(entry.getShortKey()));
+        }
+
+        @Override
+        public ShortSpliterator trySplit() {
+            ObjectSpliterator<E> prefix = entries.trySplit();
+            return prefix != null ? new KeySpliterator<>(prefix) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return entries.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return entries.characteristics();
+        }
+    }
+
     private static final class EntrySet<V, E extends Entry<V, E>> extends AbstractObjectSet<Short2ObjectMap.Entry<E>> {
         private final ShortBinaryHashtable<V, E> ref;
 
@@ -339,7 +365,7 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
 
         @Override
         public int size() {
-            return ref.size();
+            return (int) Math.min(ref.size64(), Integer.MAX_VALUE);
         }
 
         @Override
@@ -357,79 +383,14 @@ public final class ShortBinaryHashtable<V, E extends ShortBinaryHashtable.Entry<
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public ObjectIterator<Short2ObjectMap.Entry<E>> iterator() {
-            return new ObjectIterator<>() {
-                final int[] nestedArrayIndexes = new int[ref.depth];
-                Short2EntryEntry<V, E> prev;
-                Short2EntryEntry<V, E> next;
-
-                @Override
-                public boolean hasNext() {
-                    if (next == null) {
-                        computeNext();
-                    }
-
-                    return next != null;
-                }
-
-                @Override
-                public synchronized Short2EntryEntry<V, E> next() {
-                    if (next == null) {
-                        computeNext();
-
-                        if (next == null) {
-                            throw new NoSuchElementException();
-                        }
-                    }
-
-                    prev = next;
-                    next = null;
-                    return prev;
-                }
-
-                @Override
-                public void remove() {
-                    Short2EntryEntry<V, E> p;
-
-                    if ((p = prev) == null) {
-                        throw new IllegalStateException();
-                    }
-
-                    ref.remove(p.getKey());
-                }
+            return (ObjectIterator<Short2ObjectMap.Entry<E>>) (Object) ref.entrySet().iterator();
+        }
 
-                @SuppressWarnings("unchecked")
-                private synchronized void computeNext() {
-                    if (next != null) {
-                        return;
-                    }
-
-                    nestedArrayIndexes[nestedArrayIndexes.length - 1]++;
-                    Object e = ref.tree;
-
-                    for (int i = 0; i < nestedArrayIndexes.length; i++) {
-                        while (nestedArrayIndexes[i] < ref.branching) {
-                            if (((Object[]) e)[nestedArrayIndexes[i]] != null) {
-                                e = ((Object[]) e)[nestedArrayIndexes[i]];
-                                break;
-                            } else {
-                                nestedArrayIndexes[i]++;
-                            }
-                        }
-
-                        if (nestedArrayIndexes[i] == ref.branching) {
-                            if (i == 0) {
-                                return;
-                            }
-
-                            nestedArrayIndexes[i--] = 0;
-                            nestedArrayIndexes[i]++;
-                        }
-                    }
-
-                    next = ref.newK2EEntry((E) e);
-                }
-            };
+        @Override
+        public ObjectSpliterator<Short2ObjectMap.Entry<E>> spliterator() {
+            return new MappedSpliterator<>(ref.entrySpliterator(), ref::newK2EEntry);
         }
 
         @Override
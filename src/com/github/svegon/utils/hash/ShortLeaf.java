@@ -0,0 +1,68 @@
+package com.github.svegon.utils.hash;
+
+import it.unimi.dsi.fastutil.shorts.ShortHash;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Leaf} of a {@link ShortBinaryHashtable} keeping the keys packed next to the entries
+ * so probing the bucket doesn't have to dereference them.
+ */
+final class ShortLeaf extends Leaf {
+    short[] keys;
+
+    ShortLeaf() {
+        this.keys = new short[1];
+    }
+
+    private ShortLeaf(ShortLeaf source, Object owner) {
+        super(source, owner);
+        this.keys = source.keys.clone();
+    }
+
+    int indexOf(short key, ShortHash.Strategy strategy) {
+        short[] keys = this.keys;
+        int size = this.size;
+
+        if (strategy == HashUtil.defaultShortStrategy()) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (strategy.equals(key, keys[i])) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    Object set(int index, short key, Object entry) {
+        keys[index] = key;
+        return set(index, entry);
+    }
+
+    void add(short key, Object entry) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, grownCapacity());
+        }
+
+        keys[size] = key;
+        add(entry);
+    }
+
+    @Override
+    ShortLeaf copy(Object owner) {
+        return new ShortLeaf(this, owner);
+    }
+
+    @Override
+    Object removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        return super.removeAt(index);
+    }
+}
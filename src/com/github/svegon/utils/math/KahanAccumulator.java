@@ -0,0 +1,71 @@
+package com.github.svegon.utils.math;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * A running sum of double values using Kahan summation, which carries the low order bits lost by each addition
+ * over to the next one, so the error doesn't grow with the number of values as long as they are smaller than
+ * the sum. The state is held in fields, so summing allocates nothing, unlike threading it through an array.
+ *
+ * A sum which is spuriously {@link Double#NaN} from adding infinities of the same sign is corrected to the
+ * infinity, like in {@link java.util.DoubleSummaryStatistics}.
+ *
+ * @see NeumaierAccumulator
+ */
+@NotThreadSafe
+public final class KahanAccumulator implements DoubleConsumer {
+    private double sum;
+    private double compensation; // Low order bits lost from the sum, negated
+    private double simpleSum; // Used to compute right sum for non-finite inputs
+
+    public KahanAccumulator() { }
+
+    public void add(double value) {
+        simpleSum += value;
+        sumWithCompensation(value);
+    }
+
+    @Override
+    public void accept(double value) {
+        add(value);
+    }
+
+    /**
+     * Adds the sum of another accumulator to this one, leaving it unchanged.
+     *
+     * @throws NullPointerException if {@code other} is null
+     */
+    public void combine(KahanAccumulator other) {
+        simpleSum += other.simpleSum;
+        sumWithCompensation(other.sum);
+        sumWithCompensation(-other.compensation);
+    }
+
+    public double result() {
+        double tmp = sum - compensation;
+        return Double.isNaN(tmp) && Double.isInfinite(simpleSum) ? simpleSum : tmp;
+    }
+
+    /**
+     * Resets the sum to zero.
+     */
+    public void reset() {
+        sum = 0;
+        compensation = 0;
+        simpleSum = 0;
+    }
+
+    private void sumWithCompensation(double value) {
+        double tmp = value - compensation;
+        double velvel = sum + tmp; // Little wolf of rounding error
+        compensation = (velvel - sum) - tmp;
+        sum = velvel;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + result() + "}";
+    }
+}
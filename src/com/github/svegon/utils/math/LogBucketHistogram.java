@@ -0,0 +1,209 @@
+package com.github.svegon.utils.math;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * A histogram counting values in buckets of logarithmic width, like an HDR histogram. Each power of two
+ * is split into {@code 2^precisionBits} buckets, the leading bits of the mantissa, so a quantile is
+ * estimated within a relative error of {@code 2^-(precisionBits + 1)} of the recorded value whatever the
+ * magnitudes are, the minimum and maximum are exact. The counts of positive and negative values are held
+ * in arrays growing to the range of the exponents recorded, the zeros are counted separately.
+ *
+ * {@link Double#NaN} values are ignored.
+ */
+@NotThreadSafe
+public final class LogBucketHistogram implements QuantileSketch<LogBucketHistogram> {
+    public static final int DEFAULT_PRECISION_BITS = 7;
+    public static final int MAX_PRECISION_BITS = 20;
+
+    private final int precisionBits;
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeros;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public LogBucketHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param precisionBits the number of the leading bits of the mantissa distinguished by the buckets
+     * @throws IllegalArgumentException if the precision isn't between 0 and {@link #MAX_PRECISION_BITS}
+     */
+    public LogBucketHistogram(int precisionBits) {
+        Preconditions.checkArgument(precisionBits >= 0 && precisionBits <= MAX_PRECISION_BITS,
+                "Illegal precision: " + precisionBits);
+        this.precisionBits = precisionBits;
+    }
+
+    public int getPrecisionBits() {
+        return precisionBits;
+    }
+
+    @Override
+    public void accept(double value) {
+        accept(value, 1);
+    }
+
+    /**
+     * Records the given value the given number of times.
+     */
+    public void accept(double value, long times) {
+        Preconditions.checkArgument(times >= 0, "Illegal count: " + times);
+
+        if (Double.isNaN(value) || times == 0) {
+            return;
+        }
+
+        if (value == 0) {
+            zeros += times;
+        } else {
+            (value > 0 ? positive : negative).add(bucketOf(value), times);
+        }
+
+        count += times;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public double getQuantile(double quantile) {
+        Preconditions.checkArgument(quantile >= 0 && quantile <= 1, "Illegal quantile: " + quantile);
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        // the rank of the sought value among the recorded ones, from 1
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+
+        if (rank == 1) {
+            return min;
+        }
+
+        if (rank == count) {
+            return max;
+        }
+
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            rank -= negative.counts[i];
+
+            if (rank <= 0) {
+                return clamp(-valueOf(negative.offset + i));
+            }
+        }
+
+        rank -= zeros;
+
+        if (rank <= 0) {
+            return 0;
+        }
+
+        for (int i = 0; i < positive.counts.length; i++) {
+            rank -= positive.counts[i];
+
+            if (rank <= 0) {
+                return clamp(valueOf(positive.offset + i));
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the histograms differ in precision
+     */
+    @Override
+    public void merge(LogBucketHistogram other) {
+        Preconditions.checkArgument(precisionBits == other.precisionBits,
+                "Illegal precision: " + other.precisionBits);
+
+        positive.addAll(other.positive);
+        negative.addAll(other.negative);
+        zeros += other.zeros;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    private int bucketOf(double value) {
+        return (int) (Double.doubleToRawLongBits(Math.abs(value)) >>> 52 - precisionBits);
+    }
+
+    /**
+     * @return the magnitude in the middle of the given bucket
+     */
+    private double valueOf(int bucket) {
+        double lower = Double.longBitsToDouble((long) bucket << 52 - precisionBits);
+
+        if (Double.isInfinite(lower)) {
+            return lower;
+        }
+
+        double upper = Double.longBitsToDouble((long) (bucket + 1) << 52 - precisionBits);
+        return lower + (upper - lower) / 2;
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, min=%f, p50=%f, p99=%f, p999=%f, max=%f}",
+                getClass().getSimpleName(), count, min, getQuantile(0.5), getQuantile(0.99),
+                getQuantile(0.999), max);
+    }
+
+    /**
+     * The counts of the buckets from the first to the last one used.
+     */
+    private static final class Buckets {
+        private long[] counts = LongArrays.EMPTY_ARRAY;
+        private int offset;
+
+        private void add(int bucket, long times) {
+            if (counts.length == 0) {
+                counts = new long[1];
+                offset = bucket;
+            } else if (bucket < offset) {
+                // leave room for more buckets below, as values of a lower magnitude are likely to follow
+                int newOffset = Math.max(0, Math.min(bucket, offset - counts.length));
+                long[] newCounts = new long[offset - newOffset + counts.length];
+
+                System.arraycopy(counts, 0, newCounts, offset - newOffset, counts.length);
+                counts = newCounts;
+                offset = newOffset;
+            } else if (bucket - offset >= counts.length) {
+                counts = LongArrays.grow(counts, bucket - offset + 1);
+            }
+
+            counts[bucket - offset] += times;
+        }
+
+        private void addAll(Buckets other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+    }
+}
@@ -104,7 +104,9 @@ public final class MathUtil {
      *
      * @param intermediateSum the high-order and low-order words of the intermediate sum
      * @param value the name value to be included in the running sum
+     * @deprecated use a {@link KahanAccumulator} or a {@link NeumaierAccumulator}, which hold the sum in fields
      */
+    @Deprecated
     public static double[] sumWithCompensation(double[] intermediateSum, double value) {
         double tmp = value - intermediateSum[1];
         double sum = intermediateSum[0];
@@ -118,7 +120,10 @@ public final class MathUtil {
      * If the compensated sum is spuriously NaN from accumulating one
      * or more same-signed infinite values, return the
      * correctly-signed infinity stored in the simple sum.
+     *
+     * @deprecated use a {@link KahanAccumulator} or a {@link NeumaierAccumulator}, which hold the sum in fields
      */
+    @Deprecated
     public static double computeFinalSum(double[] summands) {
         // Better error bounds to add both terms as the final sum
         double tmp = summands[0] + summands[1];
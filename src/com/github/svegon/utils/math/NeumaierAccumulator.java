@@ -0,0 +1,75 @@
+package com.github.svegon.utils.math;
+
+import net.jcip.annotations.NotThreadSafe;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * A running sum of double values using Neumaier's improvement of Kahan summation, which collects the low order
+ * bits lost by each addition separately from the sum, from the value or the sum, whichever is smaller. Unlike
+ * {@link KahanAccumulator}, it stays accurate when a value is larger than the sum, such as when values of
+ * opposite signs cancel out. The state is held in fields, so summing allocates nothing.
+ *
+ * A sum which is spuriously {@link Double#NaN} from adding infinities of the same sign is corrected to the
+ * infinity, like in {@link java.util.DoubleSummaryStatistics}.
+ */
+@NotThreadSafe
+public final class NeumaierAccumulator implements DoubleConsumer {
+    private double sum;
+    private double compensation; // Low order bits lost from the sum
+    private double simpleSum; // Used to compute right sum for non-finite inputs
+
+    public NeumaierAccumulator() { }
+
+    public void add(double value) {
+        simpleSum += value;
+        sumWithCompensation(value);
+    }
+
+    @Override
+    public void accept(double value) {
+        add(value);
+    }
+
+    /**
+     * Adds the sum of another accumulator to this one, leaving it unchanged.
+     *
+     * @throws NullPointerException if {@code other} is null
+     */
+    public void combine(NeumaierAccumulator other) {
+        simpleSum += other.simpleSum;
+        sumWithCompensation(other.sum);
+        compensation += other.compensation;
+    }
+
+    public double result() {
+        double tmp = sum + compensation;
+        return Double.isNaN(tmp) && Double.isInfinite(simpleSum) ? simpleSum : tmp;
+    }
+
+    /**
+     * Resets the sum to zero.
+     */
+    public void reset() {
+        sum = 0;
+        compensation = 0;
+        simpleSum = 0;
+    }
+
+    private void sumWithCompensation(double value) {
+        double velvel = sum + value;
+
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - velvel) + value;
+        } else {
+            compensation += (value - velvel) + sum;
+        }
+
+        sum = velvel;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + result() + "}";
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.svegon.utils.math;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * A summary of a stream of values which estimates their quantiles in bounded memory and can be merged
+ * with another sketch of the same kind, so parts of a stream can be summarized separately.
+ *
+ * @param <S> the type of the sketches this one merges with
+ */
+public interface QuantileSketch<S extends QuantileSketch<S>> extends DoubleConsumer {
+    /**
+     * @return the number of the recorded values
+     */
+    long getCount();
+
+    /**
+     * @param quantile the fraction of the recorded values which should be at most the returned one
+     * @return an estimate of the given quantile of the recorded values or {@link Double#NaN} if there
+     * are none
+     * @throws IllegalArgumentException if the quantile isn't between 0 and 1
+     */
+    double getQuantile(double quantile);
+
+    /**
+     * Records the values recorded by the given sketch as well, leaving it unchanged.
+     *
+     * @throws IllegalArgumentException if the sketches aren't compatible
+     */
+    void merge(S other);
+}
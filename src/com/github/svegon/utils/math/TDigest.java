@@ -0,0 +1,225 @@
+package com.github.svegon.utils.math;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.doubles.DoubleArrays;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * A merging t-digest, which summarizes the values as weighted centroids kept small near the extremes, so
+ * the estimates of the tail quantiles, like the 99.9th percentile, are the most accurate. New values are
+ * buffered and merged into the centroids in sorted batches. The logistic scale function {@code
+ * k(q) = compression / (4 * log(count / compression) + 24) * log(q / (1 - q))} limits every centroid to a
+ * unit of {@code k}, which keeps their number below about the compression and the centroids at the very
+ * extremes single values. A quantile is interpolated between the centroids.
+ *
+ * {@link Double#NaN} values are ignored.
+ */
+@NotThreadSafe
+public final class TDigest implements QuantileSketch<TDigest> {
+    public static final double DEFAULT_COMPRESSION = 200;
+
+    private final double compression;
+    private double[] means = DoubleArrays.EMPTY_ARRAY;
+    private long[] weights = LongArrays.EMPTY_ARRAY;
+    private int centroids;
+    private final double[] bufferedMeans;
+    private final long[] bufferedWeights;
+    private int buffered;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression about the number of centroids kept, higher values are more accurate
+     * @throws IllegalArgumentException if the compression is less than 10
+     */
+    public TDigest(double compression) {
+        Preconditions.checkArgument(compression >= 10, "Illegal compression: " + compression);
+        this.compression = compression;
+        this.bufferedMeans = new double[(int) (5 * compression)];
+        this.bufferedWeights = new long[bufferedMeans.length];
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    @Override
+    public void accept(double value) {
+        accept(value, 1);
+    }
+
+    /**
+     * Records the given value the given number of times.
+     */
+    public void accept(double value, long times) {
+        Preconditions.checkArgument(times >= 0, "Illegal count: " + times);
+
+        if (Double.isNaN(value) || times == 0) {
+            return;
+        }
+
+        add(value, times);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public double getQuantile(double quantile) {
+        Preconditions.checkArgument(quantile >= 0 && quantile <= 1, "Illegal quantile: " + quantile);
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        compress();
+
+        if (quantile == 0 || centroids == 1 && weights[0] == 1) {
+            return quantile == 1 ? max : min;
+        }
+
+        if (quantile == 1) {
+            return max;
+        }
+
+        double index = quantile * count;
+
+        // the extremes are known exactly, so the first and last half centroids interpolate towards them
+        if (index < weights[0] / 2.0) {
+            return min + (means[0] - min) * index / (weights[0] / 2.0);
+        }
+
+        double center = weights[0] / 2.0;
+
+        for (int i = 0; i < centroids - 1; i++) {
+            double nextCenter = center + (weights[i] + weights[i + 1]) / 2.0;
+
+            if (index < nextCenter) {
+                return means[i] + (means[i + 1] - means[i]) * (index - center) / (nextCenter - center);
+            }
+
+            center = nextCenter;
+        }
+
+        double lastHalf = count - center;
+        return means[centroids - 1] + (max - means[centroids - 1]) * (index - center) / lastHalf;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the digests differ in compression
+     */
+    @Override
+    public void merge(TDigest other) {
+        Preconditions.checkArgument(compression == other.compression,
+                "Illegal compression: " + other.compression);
+
+        for (int i = 0; i < other.centroids; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+
+        for (int i = 0; i < other.buffered; i++) {
+            add(other.bufferedMeans[i], other.bufferedWeights[i]);
+        }
+
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the number of centroids after merging the buffered values
+     */
+    public int getCentroidCount() {
+        compress();
+        return centroids;
+    }
+
+    private void add(double mean, long weight) {
+        if (buffered == bufferedMeans.length) {
+            compress();
+        }
+
+        bufferedMeans[buffered] = mean;
+        bufferedWeights[buffered++] = weight;
+        count += weight;
+    }
+
+    /**
+     * Merges the buffered values into the centroids.
+     */
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+
+        int n = centroids + buffered;
+        double[] sortedMeans = DoubleArrays.ensureCapacity(means, n, centroids);
+        long[] sortedWeights = LongArrays.ensureCapacity(weights, n, centroids);
+
+        System.arraycopy(bufferedMeans, 0, sortedMeans, centroids, buffered);
+        System.arraycopy(bufferedWeights, 0, sortedWeights, centroids, buffered);
+        buffered = 0;
+
+        Arrays.quickSort(0, n, (a, b) -> Double.compare(sortedMeans[a], sortedMeans[b]), (a, b) -> {
+            DoubleArrays.swap(sortedMeans, a, b);
+            LongArrays.swap(sortedWeights, a, b);
+        });
+
+        // exp(1 / normalizer), the factor of the odds of the quantiles one unit of k apart
+        double factor = Math.exp((4 * Math.log(Math.max(1, count / compression)) + 24) / compression);
+        int merged = 0;
+        long weightBefore = 0;
+        double limit = 0;
+
+        for (int i = 1; i < n; i++) {
+            long weight = sortedWeights[merged] + sortedWeights[i];
+
+            if ((double) (weightBefore + weight) / count <= limit) {
+                // the weighted mean, computed so that it stays between the two means
+                sortedMeans[merged] += (sortedMeans[i] - sortedMeans[merged]) * sortedWeights[i] / weight;
+                sortedWeights[merged] = weight;
+            } else {
+                weightBefore += sortedWeights[merged++];
+                limit = quantileLimit((double) weightBefore / count, factor);
+                sortedMeans[merged] = sortedMeans[i];
+                sortedWeights[merged] = sortedWeights[i];
+            }
+        }
+
+        means = sortedMeans;
+        weights = sortedWeights;
+        centroids = merged + 1;
+    }
+
+    /**
+     * @return the quantile one unit of k after the given one
+     */
+    private static double quantileLimit(double quantile, double factor) {
+        return quantile * factor / (1 - quantile + quantile * factor);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, min=%f, p50=%f, p99=%f, p999=%f, max=%f}",
+                getClass().getSimpleName(), count, min, getQuantile(0.5), getQuantile(0.99),
+                getQuantile(0.999), max);
+    }
+}
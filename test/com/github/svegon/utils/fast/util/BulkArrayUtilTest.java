@@ -0,0 +1,95 @@
+package com.github.svegon.utils.fast.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkArrayUtilTest {
+    private static final int LENGTH = 1000;
+
+    @Test
+    void intRangesMatchPlainLoops() {
+        int[] a = new Random(42).ints(LENGTH, -100, 100).toArray();
+
+        for (int from = 0; from < 40; from += 7) {
+            for (int to = from + 1; to <= LENGTH; to += 97) {
+                long sum = 0;
+                int min = a[from];
+                int max = a[from];
+
+                for (int i = from; i < to; i++) {
+                    sum += a[i];
+                    min = Math.min(min, a[i]);
+                    max = Math.max(max, a[i]);
+                }
+
+                assertEquals(sum, BulkArrayUtil.sum(a, from, to));
+                assertEquals(min, BulkArrayUtil.min(a, from, to));
+                assertEquals(max, BulkArrayUtil.max(a, from, to));
+                assertEquals(indexOf(a, from, to, a[to - 1]), BulkArrayUtil.indexOf(a, from, to, a[to - 1]));
+                assertEquals(lastIndexOf(a, from, to, a[from]), BulkArrayUtil.lastIndexOf(a, from, to, a[from]));
+                assertEquals(-1, BulkArrayUtil.indexOf(a, from, to, 100));
+                assertEquals(-1, BulkArrayUtil.lastIndexOf(a, from, to, 100));
+            }
+        }
+    }
+
+    @Test
+    void doubleRangesMatchPlainLoops() {
+        double[] a = new Random(42).doubles(LENGTH, -1, 1).toArray();
+
+        for (int from = 0; from < 40; from += 7) {
+            for (int to = from + 1; to <= LENGTH; to += 97) {
+                double sum = 0;
+                double min = a[from];
+                double max = a[from];
+
+                for (int i = from; i < to; i++) {
+                    sum += a[i];
+                    min = Math.min(min, a[i]);
+                    max = Math.max(max, a[i]);
+                }
+
+                assertEquals(sum, BulkArrayUtil.sum(a, from, to), 1e-9);
+                assertEquals(min, BulkArrayUtil.min(a, from, to));
+                assertEquals(max, BulkArrayUtil.max(a, from, to));
+                assertEquals(to - 1, BulkArrayUtil.indexOf(a, from, to, a[to - 1]));
+                assertEquals(from, BulkArrayUtil.lastIndexOf(a, from, to, a[from]));
+                assertEquals(-1, BulkArrayUtil.indexOf(a, from, to, 2));
+            }
+        }
+    }
+
+    @Test
+    void emptyRangesHaveNoExtremes() {
+        int[] a = {1, 2, 3};
+
+        assertEquals(0, BulkArrayUtil.sum(a, 1, 1));
+        assertEquals(-1, BulkArrayUtil.indexOf(a, 1, 1, 2));
+        assertThrows(NoSuchElementException.class, () -> BulkArrayUtil.min(a, 1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> BulkArrayUtil.sum(a, 2, 4));
+    }
+
+    private static int indexOf(int[] a, int from, int to, int k) {
+        for (int i = from; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int lastIndexOf(int[] a, int from, int to, int k) {
+        for (int i = to - 1; i >= from; i--) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.svegon.utils.fast.util.ints;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImmutableIntListTest {
+    private static final int[] VALUES = {3, 8, 8, 15, 16, 23, 42, 42, 50};
+
+    @Test
+    void subListsOfEncodedListsMatchTheSliceOfTheValues() {
+        ImmutableIntList expected = ImmutableIntList.of(8, 15, 16, 23);
+
+        for (ImmutableIntList list : new ImmutableIntList[] {ImmutableIntList.frameOfReference(VALUES),
+                ImmutableIntList.deltaEncoded(VALUES)}) {
+            ImmutableIntList sub = list.subList(2, 6);
+
+            assertEquals(expected, sub);
+            assertEquals(expected.hashCode(), sub.hashCode());
+            assertArrayEquals(expected.toIntArray(), sub.toIntArray());
+            assertEquals(16, sub.getInt(2));
+            assertEquals(ImmutableIntList.of(15, 16), sub.subList(1, 3));
+            assertNotEquals(list.subList(0, 4), sub);
+        }
+    }
+
+    @Test
+    void lastIndexOfFindsTheLastOccurrence() {
+        for (ImmutableIntList list : new ImmutableIntList[] {ImmutableIntList.of(VALUES),
+                ImmutableIntList.frameOfReference(VALUES), ImmutableIntList.deltaEncoded(VALUES)}) {
+            assertEquals(2, list.lastIndexOf(8));
+            assertEquals(7, list.lastIndexOf(42));
+            assertEquals(0, list.lastIndexOf(3));
+            assertEquals(-1, list.lastIndexOf(4));
+            assertEquals(2, list.subList(1, 5).lastIndexOf(15));
+        }
+    }
+
+    @Test
+    void subListsCanBeWrittenAndMapped() throws IOException {
+        Path path = Files.createTempFile("sublist", ".ints");
+        path.toFile().deleteOnExit();
+        MappedImmutableIntList.write(ImmutableIntList.frameOfReference(VALUES).subList(3, 7), path);
+
+        assertEquals(ImmutableIntList.of(15, 16, 23, 42), ImmutableIntList.mapped(path));
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.svegon.utils.fast.util.ints;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedImmutableIntListTest {
+    private static MappedImmutableIntList map(ImmutableIntList list) throws IOException {
+        Path path = Files.createTempFile("mapped", ".ints");
+        path.toFile().deleteOnExit();
+        MappedImmutableIntList.write(list, path);
+        return ImmutableIntList.mapped(path);
+    }
+
+    @Test
+    void indexOfFindsTheFirstOccurrence() throws IOException {
+        ImmutableIntList list = map(ImmutableIntList.of(7, 2, 9, 2, 7, 4));
+
+        assertEquals(0, list.indexOf(7));
+        assertEquals(1, list.indexOf(2));
+        assertEquals(5, list.indexOf(4));
+        assertEquals(-1, list.indexOf(3));
+    }
+
+    @Test
+    void lastIndexOfFindsTheLastOccurrence() throws IOException {
+        ImmutableIntList list = map(ImmutableIntList.of(7, 2, 9, 2, 7, 4));
+
+        assertEquals(4, list.lastIndexOf(7));
+        assertEquals(3, list.lastIndexOf(2));
+        assertEquals(2, list.lastIndexOf(9));
+        assertEquals(5, list.lastIndexOf(4));
+        assertEquals(-1, list.lastIndexOf(3));
+        assertEquals(-1, map(ImmutableIntList.of()).lastIndexOf(7));
+    }
+
+    @Test
+    void subListReadsItsOwnSlice() throws IOException {
+        ImmutableIntList sub = map(ImmutableIntList.of(7, 2, 9, 2, 7, 4)).subList(1, 4);
+
+        assertEquals(3, sub.size());
+        assertEquals(2, sub.getInt(0));
+        assertEquals(9, sub.getInt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> sub.getInt(3));
+        assertArrayEquals(new int[] {2, 9, 2}, sub.toIntArray());
+        assertEquals(ImmutableIntList.of(2, 9, 2), sub);
+        assertEquals(ImmutableIntList.of(2, 9, 2).hashCode(), sub.hashCode());
+        assertEquals(0, sub.indexOf(2));
+        assertEquals(2, sub.lastIndexOf(2));
+        assertEquals(-1, sub.indexOf(7));
+        assertEquals(ImmutableIntList.of(9, 2), sub.subList(1, 3));
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.svegon.utils.fast.util.longs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImmutableLongListTest {
+    private static final long[] VALUES = {3, 8, 8, 15, 16, 23, 42, 42, 50};
+
+    @Test
+    void subListsOfEncodedListsMatchTheSliceOfTheValues() {
+        ImmutableLongList expected = ImmutableLongList.of(8, 15, 16, 23);
+
+        for (ImmutableLongList list : new ImmutableLongList[] {ImmutableLongList.frameOfReference(VALUES),
+                ImmutableLongList.deltaEncoded(VALUES)}) {
+            ImmutableLongList sub = list.subList(2, 6);
+
+            assertEquals(expected, sub);
+            assertEquals(expected.hashCode(), sub.hashCode());
+            assertArrayEquals(expected.toLongArray(), sub.toLongArray());
+            assertEquals(16, sub.getLong(2));
+            assertEquals(ImmutableLongList.of(15, 16), sub.subList(1, 3));
+            assertNotEquals(list.subList(0, 4), sub);
+        }
+    }
+
+    @Test
+    void lastIndexOfFindsTheLastOccurrence() {
+        for (ImmutableLongList list : new ImmutableLongList[] {ImmutableLongList.of(VALUES),
+                ImmutableLongList.frameOfReference(VALUES), ImmutableLongList.deltaEncoded(VALUES)}) {
+            assertEquals(2, list.lastIndexOf(8));
+            assertEquals(7, list.lastIndexOf(42));
+            assertEquals(0, list.lastIndexOf(3));
+            assertEquals(-1, list.lastIndexOf(4));
+            assertEquals(2, list.subList(1, 5).lastIndexOf(15));
+        }
+    }
+
+    @Test
+    void subListsCanBeWrittenAndMapped() throws IOException {
+        Path path = Files.createTempFile("sublist", ".longs");
+        path.toFile().deleteOnExit();
+        MappedImmutableLongList.write(ImmutableLongList.frameOfReference(VALUES).subList(3, 7), path);
+
+        assertEquals(ImmutableLongList.of(15, 16, 23, 42), ImmutableLongList.mapped(path));
+    }
+}
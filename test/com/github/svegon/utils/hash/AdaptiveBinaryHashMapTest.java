@@ -0,0 +1,103 @@
+package com.github.svegon.utils.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBinaryHashMapTest {
+    @Test
+    void chooseBranchFactorKeepsTheDefaultForModerateSizes() {
+        for (long distinctHashes = 1; distinctHashes <= 1_000_000; distinctHashes *= 10) {
+            assertEquals(AbstractBinaryHashtable.DEFAULT_BRANCH_FACTOR,
+                    AdaptiveBinaryHashMap.chooseBranchFactor(distinctHashes), "distinct hashes " + distinctHashes);
+        }
+    }
+
+    @Test
+    void chooseBranchFactorWidensTheNodesForMillionsOfHashes() {
+        assertEquals(AbstractBinaryHashtable.BRANCH_FACTOR_LIMIT - 1,
+                AdaptiveBinaryHashMap.chooseBranchFactor(10_000_000));
+        assertEquals(AbstractBinaryHashtable.BRANCH_FACTOR_LIMIT - 1,
+                AdaptiveBinaryHashMap.chooseBranchFactor(1L << 32));
+    }
+
+    @Test
+    void chooseBranchFactorNeverNarrowsAsTheTableGrows() {
+        int previous = 0;
+
+        for (long distinctHashes = 1; distinctHashes <= 1L << 32; distinctHashes <<= 1) {
+            int branchFactor = AdaptiveBinaryHashMap.chooseBranchFactor(distinctHashes);
+
+            assertTrue(branchFactor >= previous, "distinct hashes " + distinctHashes);
+            previous = branchFactor;
+        }
+    }
+
+    @Test
+    void chooseBranchFactorRejectsAnEmptyTable() {
+        assertThrows(IllegalArgumentException.class, () -> AdaptiveBinaryHashMap.chooseBranchFactor(0));
+    }
+
+    @Test
+    void migratesIntoATrieAndBack() {
+        AdaptiveBinaryHashMap<Integer, Integer> map = new AdaptiveBinaryHashMap<>(64, null);
+
+        for (int i = 0; i < 100; i++) {
+            map.put(i, -i);
+        }
+
+        assertFalse(map.isFlat());
+        assertEquals(AbstractBinaryHashtable.DEFAULT_BRANCH_FACTOR, map.branchFactor());
+        assertEquals(-42, map.get(42));
+
+        for (int i = 0; i < 80; i++) {
+            map.remove(i);
+        }
+
+        assertTrue(map.isFlat());
+        assertEquals(20, map.size());
+        assertEquals(-99, map.get(99));
+        assertNull(map.get(0));
+    }
+
+    @Test
+    void serializesFlatAndTrieMaps() throws IOException, ClassNotFoundException {
+        for (int entries : new int[] {0, 1, 50, 200}) {
+            AdaptiveBinaryHashMap<Integer, String> map = new AdaptiveBinaryHashMap<>(64, null);
+
+            for (int i = 0; i < entries; i++) {
+                map.put(i, Integer.toString(i));
+            }
+
+            AdaptiveBinaryHashMap<Integer, String> copy = roundTrip(map);
+
+            assertEquals(map, copy);
+            assertEquals(map.isFlat(), copy.isFlat());
+            assertSame(HashUtil.defaultStrategy(), copy.getStrategy());
+
+            copy.put(-1, "-1");
+            assertEquals(entries + 1, copy.size());
+            assertEquals("-1", copy.get(-1));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> AdaptiveBinaryHashMap<K, V> roundTrip(AdaptiveBinaryHashMap<K, V> map)
+            throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (AdaptiveBinaryHashMap<K, V>) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.github.svegon.utils.fast.util;
+
+import jdk.incubator.vector.*;
+
+/**
+ * The Vector API implementations of {@link BulkArrayUtil}, which checks the arguments. Only loaded by name
+ * when the {@code jdk.incubator.vector} module is present.
+ */
+final class VectorArrayOps implements BulkArrayOps {
+    VectorArrayOps() {
+    }
+
+    @Override
+    public long sum(int[] a, int from, int to) {
+        VectorSpecies<Integer> species = IntVector.SPECIES_PREFERRED;
+        VectorSpecies<Long> wide = LongVector.SPECIES_PREFERRED;
+        LongVector acc0 = LongVector.zero(wide);
+        LongVector acc1 = LongVector.zero(wide);
+        int i = from;
+
+        // the elements are widened to twice as many lanes of the wide type of the same vector size
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            IntVector v = IntVector.fromArray(species, a, i);
+            acc0 = acc0.add(v.convertShape(VectorOperators.I2L, wide, 0));
+            acc1 = acc1.add(v.convertShape(VectorOperators.I2L, wide, 1));
+        }
+
+        long sum = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+
+        for (; i < to; i++) {
+            sum += a[i];
+        }
+
+        return sum;
+    }
+
+    @Override
+    public int min(int[] a, int from, int to) {
+        VectorSpecies<Integer> species = IntVector.SPECIES_PREFERRED;
+        IntVector acc = IntVector.broadcast(species, a[from]);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MIN, IntVector.fromArray(species, a, i));
+        }
+
+        int result = acc.reduceLanes(VectorOperators.MIN);
+
+        for (; i < to; i++) {
+            result = Math.min(result, a[i]);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int max(int[] a, int from, int to) {
+        VectorSpecies<Integer> species = IntVector.SPECIES_PREFERRED;
+        IntVector acc = IntVector.broadcast(species, a[from]);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MAX, IntVector.fromArray(species, a, i));
+        }
+
+        int result = acc.reduceLanes(VectorOperators.MAX);
+
+        for (; i < to; i++) {
+            result = Math.max(result, a[i]);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int indexOf(int[] a, int from, int to, int k) {
+        VectorSpecies<Integer> species = IntVector.SPECIES_PREFERRED;
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            VectorMask<Integer> mask = IntVector.fromArray(species, a, i).eq(k);
+
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+
+        for (; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(int[] a, int from, int to, int k) {
+        VectorSpecies<Integer> species = IntVector.SPECIES_PREFERRED;
+        int i = to;
+
+        for (int bound = to - species.loopBound(to - from); i > bound; ) {
+            i -= species.length();
+
+            VectorMask<Integer> mask = IntVector.fromArray(species, a, i).eq(k);
+
+            if (mask.anyTrue()) {
+                return i + mask.lastTrue();
+            }
+        }
+
+        while (i-- != from) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long sum(long[] a, int from, int to) {
+        VectorSpecies<Long> species = LongVector.SPECIES_PREFERRED;
+        LongVector acc = LongVector.zero(species);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.add(LongVector.fromArray(species, a, i));
+        }
+
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+
+        for (; i < to; i++) {
+            sum += a[i];
+        }
+
+        return sum;
+    }
+
+    @Override
+    public long min(long[] a, int from, int to) {
+        VectorSpecies<Long> species = LongVector.SPECIES_PREFERRED;
+        LongVector acc = LongVector.broadcast(species, a[from]);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MIN, LongVector.fromArray(species, a, i));
+        }
+
+        long result = acc.reduceLanes(VectorOperators.MIN);
+
+        for (; i < to; i++) {
+            result = Math.min(result, a[i]);
+        }
+
+        return result;
+    }
+
+    @Override
+    public long max(long[] a, int from, int to) {
+        VectorSpecies<Long> species = LongVector.SPECIES_PREFERRED;
+        LongVector acc = LongVector.broadcast(species, a[from]);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MAX, LongVector.fromArray(species, a, i));
+        }
+
+        long result = acc.reduceLanes(VectorOperators.MAX);
+
+        for (; i < to; i++) {
+            result = Math.max(result, a[i]);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int indexOf(long[] a, int from, int to, long k) {
+        VectorSpecies<Long> species = LongVector.SPECIES_PREFERRED;
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            VectorMask<Long> mask = LongVector.fromArray(species, a, i).eq(k);
+
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+
+        for (; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(long[] a, int from, int to, long k) {
+        VectorSpecies<Long> species = LongVector.SPECIES_PREFERRED;
+        int i = to;
+
+        for (int bound = to - species.loopBound(to - from); i > bound; ) {
+            i -= species.length();
+
+            VectorMask<Long> mask = LongVector.fromArray(species, a, i).eq(k);
+
+            if (mask.anyTrue()) {
+                return i + mask.lastTrue();
+            }
+        }
+
+        while (i-- != from) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public double sum(float[] a, int from, int to) {
+        VectorSpecies<Float> species = FloatVector.SPECIES_PREFERRED;
+        VectorSpecies<Double> wide = DoubleVector.SPECIES_PREFERRED;
+        DoubleVector acc0 = DoubleVector.zero(wide);
+        DoubleVector acc1 = DoubleVector.zero(wide);
+        int i = from;
+
+        // the elements are widened to twice as many lanes of the wide type of the same vector size
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            FloatVector v = FloatVector.fromArray(species, a, i);
+            acc0 = acc0.add(v.convertShape(VectorOperators.F2D, wide, 0));
+            acc1 = acc1.add(v.convertShape(VectorOperators.F2D, wide, 1));
+        }
+
+        double sum = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+
+        for (; i < to; i++) {
+            sum += a[i];
+        }
+
+        return sum;
+    }
+
+    @Override
+    public float min(float[] a, int from, int to) {
+        VectorSpecies<Float> species = FloatVector.SPECIES_PREFERRED;
+        FloatVector acc = FloatVector.broadcast(species, a[from]);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MIN, FloatVector.fromArray(species, a, i));
+        }
+
+        float result = acc.reduceLanes(VectorOperators.MIN);
+
+        for (; i < to; i++) {
+            result = Math.min(result, a[i]);
+        }
+
+        return result;
+    }
+
+    @Override
+    public float max(float[] a, int from, int to) {
+        VectorSpecies<Float> species = FloatVector.SPECIES_PREFERRED;
+        FloatVector acc = FloatVector.broadcast(species, a[from]);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MAX, FloatVector.fromArray(species, a, i));
+        }
+
+        float result = acc.reduceLanes(VectorOperators.MAX);
+
+        for (; i < to; i++) {
+            result = Math.max(result, a[i]);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int indexOf(float[] a, int from, int to, float k) {
+        VectorSpecies<Float> species = FloatVector.SPECIES_PREFERRED;
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            VectorMask<Float> mask = FloatVector.fromArray(species, a, i).eq(k);
+
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+
+        for (; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(float[] a, int from, int to, float k) {
+        VectorSpecies<Float> species = FloatVector.SPECIES_PREFERRED;
+        int i = to;
+
+        for (int bound = to - species.loopBound(to - from); i > bound; ) {
+            i -= species.length();
+
+            VectorMask<Float> mask = FloatVector.fromArray(species, a, i).eq(k);
+
+            if (mask.anyTrue()) {
+                return i + mask.lastTrue();
+            }
+        }
+
+        while (i-- != from) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public double sum(double[] a, int from, int to) {
+        VectorSpecies<Double> species = DoubleVector.SPECIES_PREFERRED;
+        DoubleVector acc = DoubleVector.zero(species);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.add(DoubleVector.fromArray(species, a, i));
+        }
+
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+
+        for (; i < to; i++) {
+            sum += a[i];
+        }
+
+        return sum;
+    }
+
+    @Override
+    public double min(double[] a, int from, int to) {
+        VectorSpecies<Double> species = DoubleVector.SPECIES_PREFERRED;
+        DoubleVector acc = DoubleVector.broadcast(species, a[from]);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MIN, DoubleVector.fromArray(species, a, i));
+        }
+
+        double result = acc.reduceLanes(VectorOperators.MIN);
+
+        for (; i < to; i++) {
+            result = Math.min(result, a[i]);
+        }
+
+        return result;
+    }
+
+    @Override
+    public double max(double[] a, int from, int to) {
+        VectorSpecies<Double> species = DoubleVector.SPECIES_PREFERRED;
+        DoubleVector acc = DoubleVector.broadcast(species, a[from]);
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            acc = acc.lanewise(VectorOperators.MAX, DoubleVector.fromArray(species, a, i));
+        }
+
+        double result = acc.reduceLanes(VectorOperators.MAX);
+
+        for (; i < to; i++) {
+            result = Math.max(result, a[i]);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int indexOf(double[] a, int from, int to, double k) {
+        VectorSpecies<Double> species = DoubleVector.SPECIES_PREFERRED;
+        int i = from;
+
+        for (int bound = from + species.loopBound(to - from); i < bound; i += species.length()) {
+            VectorMask<Double> mask = DoubleVector.fromArray(species, a, i).eq(k);
+
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+
+        for (; i < to; i++) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(double[] a, int from, int to, double k) {
+        VectorSpecies<Double> species = DoubleVector.SPECIES_PREFERRED;
+        int i = to;
+
+        for (int bound = to - species.loopBound(to - from); i > bound; ) {
+            i -= species.length();
+
+            VectorMask<Double> mask = DoubleVector.fromArray(species, a, i).eq(k);
+
+            if (mask.anyTrue()) {
+                return i + mask.lastTrue();
+            }
+        }
+
+        while (i-- != from) {
+            if (a[i] == k) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}